@@ -0,0 +1,55 @@
+package com.datadrift.cli;
+
+import com.datadrift.service.MigrationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine.Command;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+
+/**
+ * CLI command to mark pending migrations as executed without running them.
+ * Useful to baseline an existing database before managing it with DataDrift.
+ * Usage: datadrift changelog-sync
+ */
+@Slf4j
+@Component
+@Command(
+        name = "changelog-sync",
+        description = "Mark all pending migrations as executed without running them",
+        mixinStandardHelpOptions = true
+)
+@RequiredArgsConstructor
+public class ChangelogSyncCommand implements Callable<Integer> {
+
+    private final MigrationService migrationService;
+
+    @Override
+    public Integer call() {
+        log.info("Starting changelog sync...");
+        System.out.println("DataDrift - Marking pending migrations as ran");
+        System.out.println();
+
+        try {
+            int markedCount = migrationService.changelogSync();
+
+            if (markedCount == 0) {
+                log.info("No pending migrations found");
+                System.out.println("No pending migrations to mark.");
+            } else {
+                log.info("Marked {} changeset(s) as ran", markedCount);
+                System.out.println("Marked " + markedCount + " changeset(s) as ran.");
+            }
+            System.out.println();
+            System.out.println("Changelog sync completed successfully.");
+            return 0;
+
+        } catch (Exception e) {
+            log.error("Changelog sync failed: {}", e.getMessage(), e);
+            System.err.println();
+            System.err.println("Changelog sync FAILED: " + e.getMessage());
+            return 1;
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.datadrift.cli;
 
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ScopeType;
+
+import java.nio.file.Path;
 
 /**
  * Parent CLI command that groups all DataDrift subcommands.
- * Usage: datadrift <command> [options]
+ * Usage: datadrift <command> [options] [--jfr=FILE]
  */
 @Command(
         name = "datadrift",
@@ -14,13 +18,24 @@ import picocli.CommandLine.Command;
                 StatusCommand.class,
                 RollbackCommand.class,
                 ValidateCommand.class,
-                GenerateSqlCommand.class
+                GenerateSqlCommand.class,
+                ChangelogSyncCommand.class,
+                HistoryCommand.class,
+                PlanCommand.class
         },
         mixinStandardHelpOptions = true,
         version = "DataDrift 1.0.0"
 )
 public class DataDriftCli implements Runnable {
 
+    @Option(names = {"--jfr"}, paramLabel = "FILE", scope = ScopeType.INHERIT,
+            description = "Record the run with Java Flight Recorder and write the recording to FILE")
+    private Path jfrFile;
+
+    public Path getJfrFile() {
+        return jfrFile;
+    }
+
     @Override
     public void run() {
         // When no subcommand is provided, print usage help
@@ -34,6 +49,9 @@ public class DataDriftCli implements Runnable {
         System.out.println("  rollback      Rollback database migrations");
         System.out.println("  validate      Validate migration files without executing");
         System.out.println("  generate-sql  Generate SQL for pending migrations");
+        System.out.println("  changelog-sync  Mark pending migrations as executed without running them");
+        System.out.println("  history       Show changeset timings and row counts of past runs");
+        System.out.println("  plan          Show locks, table sizes and EXPLAIN estimates of pending changes");
         System.out.println();
         System.out.println("Run 'datadrift <command> --help' for more information on a command.");
     }
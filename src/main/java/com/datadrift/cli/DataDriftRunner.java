@@ -1,5 +1,7 @@
 package com.datadrift.cli;
 
+import com.datadrift.metrics.MetricsExporter;
+import com.datadrift.metrics.jfr.FlightRecording;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -7,10 +9,17 @@ import org.springframework.boot.ExitCodeGenerator;
 import org.springframework.stereotype.Component;
 import picocli.CommandLine;
 import picocli.CommandLine.IFactory;
+import picocli.CommandLine.ParseResult;
+import picocli.CommandLine.RunLast;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
 
 /**
  * Spring Boot runner that integrates Picocli with Spring.
- * Executes CLI commands and propagates exit codes.
+ * Executes CLI commands, propagates exit codes and exports the run's metrics. With --jfr the
+ * command runs inside a Java Flight Recorder recording.
  */
 @Slf4j
 @Component
@@ -18,17 +27,43 @@ import picocli.CommandLine.IFactory;
 public class DataDriftRunner implements CommandLineRunner, ExitCodeGenerator {
 
     private final IFactory factory;
+    private final MetricsExporter metricsExporter;
     private int exitCode;
 
     @Override
     public void run(String... args) throws Exception {
         log.debug("DataDrift CLI starting with args: {}", (Object) args);
 
-        exitCode = new CommandLine(DataDriftCli.class, factory).execute(args);
+        try {
+            CommandLine commandLine = new CommandLine(DataDriftCli.class, factory);
+            commandLine.setExecutionStrategy(this::execute);
+            exitCode = commandLine.execute(args);
+        } finally {
+            metricsExporter.export();
+        }
 
         log.debug("DataDrift CLI completed with exit code: {}", exitCode);
     }
 
+    private int execute(ParseResult parseResult) {
+        Path jfrFile = ((DataDriftCli) parseResult.commandSpec().userObject()).getJfrFile();
+        if (jfrFile == null) {
+            return new RunLast().execute(parseResult);
+        }
+
+        FlightRecording recording;
+        try {
+            recording = FlightRecording.start(jfrFile);
+        } catch (IOException | ParseException e) {
+            log.error("Failed to start flight recording: {}", e.getMessage(), e);
+            System.err.println("Error: could not start flight recording: " + e.getMessage());
+            return 1;
+        }
+        try (recording) {
+            return new RunLast().execute(parseResult);
+        }
+    }
+
     @Override
     public int getExitCode() {
         return exitCode;
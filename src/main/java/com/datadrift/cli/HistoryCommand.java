@@ -0,0 +1,84 @@
+package com.datadrift.cli;
+
+import com.datadrift.model.ExecutionHistory;
+import com.datadrift.model.ExecutionHistory.Section;
+import com.datadrift.service.HistoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * CLI command to show execution timing history.
+ * Usage: datadrift history [--page=N] [--page-size=N] [--section=slowest|deployments|change-types]...
+ */
+@Slf4j
+@Component
+@Command(
+        name = "history",
+        description = "Show the slowest changesets, per-deployment totals and per-change-type percentiles",
+        mixinStandardHelpOptions = true
+)
+@RequiredArgsConstructor
+public class HistoryCommand implements Callable<Integer> {
+
+    private final HistoryService historyService;
+
+    @Option(names = {"--page"}, description = "Page to show, starting at 1 (default: 1)")
+    private int page = 1;
+
+    @Option(names = {"--page-size"}, description = "Rows per section and page (default: 20)")
+    private int pageSize = 20;
+
+    @Option(names = {"--section"}, split = ",",
+            description = "Sections to show: slowest, deployments, change-types (default: all)")
+    private List<String> sections = List.of();
+
+    /**
+     * Sample:
+     *   Slowest changesets (page 1):
+     *      TIME (ms)         ROWS  DEPLOYMENT   EXECUTED             CHANGESET
+     *          41870            -  7301884523   2024-01-15 10:30:00  orders-idx::alice (db/changelog/orders.xml)
+     */
+    @Override
+    public Integer call() {
+        try {
+            ExecutionHistory history = historyService.getHistory(page, pageSize, parseSections());
+
+            System.out.println("DataDrift - Execution History");
+            System.out.println("=============================");
+            System.out.println();
+            System.out.print(history);
+            return 0;
+
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+
+        } catch (Exception e) {
+            log.error("Failed to retrieve execution history: {}", e.getMessage(), e);
+            System.err.println("Failed to retrieve execution history: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    Set<Section> parseSections() {
+        Set<Section> parsed = EnumSet.noneOf(Section.class);
+        for (String section : sections) {
+            try {
+                parsed.add(Section.valueOf(section.trim().toUpperCase(Locale.ROOT).replace('-', '_')));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown section '" + section +
+                        "', expected slowest, deployments or change-types");
+            }
+        }
+        return parsed;
+    }
+}
@@ -1,16 +1,30 @@
 package com.datadrift.cli;
 
+import com.datadrift.exception.ConstraintValidationException;
+import com.datadrift.metrics.progress.ConsoleProgressSink;
+import com.datadrift.metrics.progress.MigrationProgress;
+import com.datadrift.metrics.progress.NdjsonProgressSink;
+import com.datadrift.model.ShardReport;
+import com.datadrift.model.TenantSweepResult;
 import com.datadrift.service.MigrationService;
+import com.datadrift.service.ShardFanOutService;
+import com.datadrift.service.TenantSweepService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 /**
  * CLI command to execute pending migrations.
- * Usage: datadrift migrate
+ * Usage: datadrift migrate [--no-progress] [--progress-ndjson=FILE|tcp://host:port]
+ *        datadrift migrate [--all-shards [--shard-parallelism=N]]
+ *        datadrift migrate --schemas='tenant_*' [--tenant-concurrency=N] [--max-failures=N]
+ *        datadrift migrate --schemas-file=tenants.txt --progress-file=sweep.progress
  */
 @Slf4j
 @Component
@@ -23,14 +37,67 @@ import java.util.concurrent.Callable;
 public class MigrateCommand implements Callable<Integer> {
 
     private final MigrationService migrationService;
+    private final TenantSweepService tenantSweepService;
+    private final ShardFanOutService shardFanOutService;
+    private final MigrationProgress progress;
+
+    @Option(names = {"--all-shards"}, description = "Run against every datasource configured under datadrift.shards")
+    private boolean allShards;
+
+    @Option(names = {"--shard-parallelism"}, description = "Maximum number of shards processed at once")
+    private Integer shardParallelism;
+
+    @Option(names = {"--schemas"}, description = "Migrate every schema matching this pattern ('*' and '?' wildcards)")
+    private String schemaPattern;
+
+    @Option(names = {"--schemas-file"}, description = "Migrate the schemas listed in this file, one per line")
+    private Path schemasFile;
+
+    @Option(names = {"--tenant-concurrency"}, description = "Maximum number of schemas migrated at once")
+    private Integer tenantConcurrency;
+
+    @Option(names = {"--max-failures"}, description = "Failed schemas tolerated before the sweep stops")
+    private Integer maxFailures;
+
+    @Option(names = {"--progress-file"}, description = "Record finished schemas here and skip them when resuming")
+    private Path progressFile;
+
+    @Option(names = {"--no-progress"}, description = "Do not print live progress and ETA lines")
+    private boolean noProgress;
+
+    @Option(names = {"--progress-ndjson"}, paramLabel = "TARGET",
+            description = "Also write progress events as NDJSON to a file (appended) or tcp://host:port")
+    private String progressNdjson;
 
     @Override
     public Integer call() {
+        if (allShards && (schemaPattern != null || schemasFile != null)) {
+            // The shard fan-out migrates each shard's default schema only; refuse rather than
+            // silently skip the requested tenant schemas
+            System.err.println("Error: --all-shards cannot be combined with --schemas or --schemas-file");
+            return 1;
+        }
+
+        if (allShards) {
+            return runOnAllShards();
+        }
+
+        if (schemaPattern != null || schemasFile != null) {
+            return sweepSchemas();
+        }
+
         log.info("Starting database migration...");
         System.out.println("DataDrift - Executing pending migrations");
         System.out.println();
 
         try {
+            if (!noProgress) {
+                progress.attach(new ConsoleProgressSink(System.out));
+            }
+            if (progressNdjson != null) {
+                progress.attach(NdjsonProgressSink.open(progressNdjson));
+            }
+
             int executedCount = migrationService.migrate();
 
             if (executedCount == 0) {
@@ -44,11 +111,77 @@ public class MigrateCommand implements Callable<Integer> {
             System.out.println("Migration completed successfully.");
             return 0;
 
+        } catch (ConstraintValidationException e) {
+            log.error("Constraint validation failed after commit: {}", e.getMessage());
+            System.err.println();
+            System.err.println("Migration committed, but constraint validation FAILED for: " +
+                    String.join(", ", e.getConstraintNames()));
+            System.err.println(e.getMessage());
+            return 2;
+
         } catch (Exception e) {
             log.error("Migration failed: {}", e.getMessage(), e);
             System.err.println();
             System.err.println("Migration FAILED: " + e.getMessage());
             return 1;
+
+        } finally {
+            progress.detachAll();
+        }
+    }
+
+    private Integer sweepSchemas() {
+        log.info("Starting tenant schema sweep...");
+        System.out.println("DataDrift - Executing pending migrations across schemas");
+        System.out.println();
+
+        try {
+            List<String> schemas = tenantSweepService.resolveSchemas(schemaPattern, schemasFile);
+            if (schemas.isEmpty()) {
+                System.out.println("No schemas matched.");
+                return 0;
+            }
+            System.out.println("Schemas to migrate: " + schemas.size());
+            System.out.println();
+
+            TenantSweepResult result = tenantSweepService.sweep(schemas,
+                    new TenantSweepService.Options(tenantConcurrency, maxFailures, progressFile));
+
+            System.out.println(result);
+            if (!result.isSuccessful()) {
+                System.err.println("Tenant sweep FAILED for one or more schemas.");
+                return 1;
+            }
+            System.out.println("Tenant sweep completed successfully.");
+            return 0;
+
+        } catch (Exception e) {
+            log.error("Tenant sweep failed: {}", e.getMessage(), e);
+            System.err.println();
+            System.err.println("Tenant sweep FAILED: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private Integer runOnAllShards() {
+        if (shardFanOutService.shardNames().isEmpty()) {
+            System.err.println("Error: --all-shards requires datadrift.shards to be configured");
+            return 1;
+        }
+
+        try {
+            ShardReport report = shardFanOutService.migrate(shardParallelism);
+            System.out.println(report);
+            if (!report.isSuccessful()) {
+                System.err.println("Migration FAILED on one or more shards.");
+                return 1;
+            }
+            return 0;
+
+        } catch (Exception e) {
+            log.error("Migration failed: {}", e.getMessage(), e);
+            System.err.println("Migration FAILED: " + e.getMessage());
+            return 1;
         }
     }
 }
@@ -0,0 +1,83 @@
+package com.datadrift.cli;
+
+import com.datadrift.model.CostReport;
+import com.datadrift.model.PreflightReport;
+import com.datadrift.model.changelog.ChangeSet;
+import com.datadrift.plan.PreflightCheck;
+import com.datadrift.service.ChangelogExecutorService;
+import com.datadrift.service.ChangelogParserService;
+import com.datadrift.service.ValidationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * CLI command to review what pending changes will do to the database: the locks they take,
+ * the size of the tables they touch and, with --explain, the planner's estimates.
+ * Usage: datadrift plan [--explain]
+ */
+@Slf4j
+@Component
+@Command(
+        name = "plan",
+        description = "Show the locks and table sizes of pending changes and, with --explain, their planner estimates",
+        mixinStandardHelpOptions = true
+)
+@RequiredArgsConstructor
+public class PlanCommand implements Callable<Integer> {
+
+    private final ChangelogParserService parserService;
+    private final ChangelogExecutorService executorService;
+    private final ValidationService validationService;
+    private final PreflightCheck preflight;
+
+    @Option(names = {"--explain"},
+            description = "Run EXPLAIN for pending update, delete and INSERT ... SELECT changes (nothing is executed)")
+    private boolean explain;
+
+    @Override
+    public Integer call() {
+        System.out.println("DataDrift - Migration Plan");
+        System.out.println("==========================");
+        System.out.println();
+
+        try {
+            List<ChangeSet> pending = executorService.filterPendingChangeSets(parserService.parseAllChangelogs());
+            if (pending.isEmpty()) {
+                System.out.println("No pending changesets.");
+                return 0;
+            }
+
+            System.out.println("Pending changesets: " + pending.size());
+            System.out.println();
+            System.out.print(validationService.lockReport(pending));
+
+            PreflightReport preflightReport = preflight.report(pending);
+            System.out.println();
+            System.out.print(preflightReport);
+            if (!preflightReport.getRisks().isEmpty()) {
+                log.warn("Preflight flagged {} risky change(s)", preflightReport.getRisks().size());
+            }
+
+            if (explain) {
+                CostReport report = validationService.costReport(pending);
+                System.out.println();
+                System.out.print(report);
+                if (!report.getViolations().isEmpty()) {
+                    log.warn("{} pending change(s) exceed the EXPLAIN limits", report.getViolations().size());
+                }
+            }
+            return 0;
+
+        } catch (Exception e) {
+            log.error("Plan failed: {}", e.getMessage(), e);
+            System.err.println("Plan FAILED: " + e.getMessage());
+            return 1;
+        }
+    }
+}
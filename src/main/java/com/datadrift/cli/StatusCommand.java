@@ -1,17 +1,20 @@
 package com.datadrift.cli;
 
 import com.datadrift.model.MigrationStatus;
+import com.datadrift.model.ShardReport;
 import com.datadrift.service.MigrationService;
+import com.datadrift.service.ShardFanOutService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.Callable;
 
 /**
  * CLI command to check migration status.
- * Usage: datadrift status
+ * Usage: datadrift status [--all-shards [--shard-parallelism=N]]
  */
 @Slf4j
 @Component
@@ -24,6 +27,13 @@ import java.util.concurrent.Callable;
 public class StatusCommand implements Callable<Integer> {
 
     private final MigrationService migrationService;
+    private final ShardFanOutService shardFanOutService;
+
+    @Option(names = {"--all-shards"}, description = "Run against every datasource configured under datadrift.shards")
+    private boolean allShards;
+
+    @Option(names = {"--shard-parallelism"}, description = "Maximum number of shards processed at once")
+    private Integer shardParallelism;
 
     /**
      * Sample:
@@ -32,6 +42,7 @@ public class StatusCommand implements Callable<Integer> {
      *   Executed:            3
      *   Pending:             2
      *   Last execution:      2024-01-15T10:30:00
+     *   Last order executed: 3
      *   Lock status:         Not locked
      *   Pending changesets:
      *     - changeset-004
@@ -39,6 +50,10 @@ public class StatusCommand implements Callable<Integer> {
      */
     @Override
     public Integer call() {
+        if (allShards) {
+            return runOnAllShards();
+        }
+
         log.info("Checking migration status...");
 
         try {
@@ -64,4 +79,26 @@ public class StatusCommand implements Callable<Integer> {
             return 1;
         }
     }
+
+    private Integer runOnAllShards() {
+        if (shardFanOutService.shardNames().isEmpty()) {
+            System.err.println("Error: --all-shards requires datadrift.shards to be configured");
+            return 1;
+        }
+
+        try {
+            ShardReport report = shardFanOutService.status(shardParallelism);
+            System.out.println(report);
+            if (!report.isSuccessful()) {
+                System.err.println("Status FAILED on one or more shards.");
+                return 1;
+            }
+            return 0;
+
+        } catch (Exception e) {
+            log.error("Status failed: {}", e.getMessage(), e);
+            System.err.println("Status FAILED: " + e.getMessage());
+            return 1;
+        }
+    }
 }
@@ -1,11 +1,16 @@
 package com.datadrift.cli;
 
+import com.datadrift.model.LockReport;
+import com.datadrift.model.ShardReport;
 import com.datadrift.model.changelog.ChangeSet;
+import com.datadrift.service.ChangelogExecutorService;
 import com.datadrift.service.ChangelogParserService;
+import com.datadrift.service.ShardFanOutService;
 import com.datadrift.service.ValidationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -13,7 +18,8 @@ import java.util.concurrent.Callable;
 
 /**
  * CLI command to validate migration files.
- * Usage: datadrift validate
+ * Usage: datadrift validate [--lock-report] [--offline]
+ *        datadrift validate [--all-shards [--shard-parallelism=N]]
  */
 @Slf4j
 @Component
@@ -27,9 +33,29 @@ public class ValidateCommand implements Callable<Integer> {
 
     private final ChangelogParserService parserService;
     private final ValidationService validationService;
+    private final ChangelogExecutorService executorService;
+    private final ShardFanOutService shardFanOutService;
+
+    @Option(names = {"--all-shards"}, description = "Run against every datasource configured under datadrift.shards")
+    private boolean allShards;
+
+    @Option(names = {"--shard-parallelism"}, description = "Maximum number of shards processed at once")
+    private Integer shardParallelism;
+
+    @Option(names = {"--lock-report"},
+            description = "Report the table lock, rewrite and full scan of every pending change")
+    private boolean lockReport;
+
+    @Option(names = {"--offline"},
+            description = "Skip the database: no checksum validation, the lock report covers every changeset")
+    private boolean offline;
 
     @Override
     public Integer call() {
+        if (allShards) {
+            return runOnAllShards();
+        }
+
         log.info("Validating changelog files...");
         System.out.println("DataDrift - Validating Changelog Files");
         System.out.println("======================================");
@@ -56,9 +82,30 @@ public class ValidateCommand implements Callable<Integer> {
             validationService.validate(changeSets);
 
             // Step 3: Validate checksums against database
-            log.info("Validating checksums...");
-            System.out.println("Validating checksums against database...");
-            validationService.validateChecksums(changeSets);
+            List<ChangeSet> pending = changeSets;
+            if (!offline) {
+                log.info("Validating checksums...");
+                System.out.println("Validating checksums against database...");
+                validationService.validateChecksums(changeSets);
+
+                if (lockReport || validationService.hasCostLimits()) {
+                    pending = executorService.filterPendingChangeSets(changeSets);
+                }
+
+                // Step 4: Check planner estimates against the datadrift.explain limits, if any
+                if (validationService.hasCostLimits()) {
+                    log.info("Checking EXPLAIN estimates of pending changes...");
+                    System.out.println("Checking EXPLAIN estimates of pending changes...");
+                    validationService.validateCosts(pending);
+                }
+            }
+
+            // Step 5: Classify the locks pending changes take
+            if (lockReport) {
+                LockReport report = validationService.lockReport(pending);
+                System.out.println();
+                System.out.print(report);
+            }
 
             // Success
             log.info("Validation completed successfully");
@@ -73,4 +120,26 @@ public class ValidateCommand implements Callable<Integer> {
             return 1;
         }
     }
+
+    private Integer runOnAllShards() {
+        if (shardFanOutService.shardNames().isEmpty()) {
+            System.err.println("Error: --all-shards requires datadrift.shards to be configured");
+            return 1;
+        }
+
+        try {
+            ShardReport report = shardFanOutService.validate(shardParallelism);
+            System.out.println(report);
+            if (!report.isSuccessful()) {
+                System.err.println("Validation FAILED on one or more shards.");
+                return 1;
+            }
+            return 0;
+
+        } catch (Exception e) {
+            log.error("Validation failed: {}", e.getMessage(), e);
+            System.err.println("Validation FAILED: " + e.getMessage());
+            return 1;
+        }
+    }
 }
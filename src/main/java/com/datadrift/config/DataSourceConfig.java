@@ -0,0 +1,122 @@
+package com.datadrift.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds the application DataSource: the default spring.datasource pool plus one lazily
+ * started HikariCP pool per configured shard, behind a routing DataSource. With no shards
+ * configured this behaves exactly like the auto-configured single pool.
+ *
+ * A second routing DataSource, "monitorDataSource", serves the side connections of
+ * DdlProgressMonitor and LockContentionWatchdog from small pools of their own with a short
+ * connection timeout. Those connections are optional, so a worker must never wait the full
+ * connection-timeout for one while the migration pool is drained.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties({ShardProperties.class, SessionProfileProperties.class})
+public class DataSourceConfig {
+
+    /** Name of the DataSource bean for progress and lock-contention monitoring */
+    public static final String MONITOR_DATA_SOURCE = "monitorDataSource";
+
+    private static final long MONITOR_CONNECTION_TIMEOUT_MS = 1000;
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(
+            DataSourceProperties dataSourceProperties,
+            ShardProperties shardProperties,
+            Environment environment,
+            @Value("${datadrift.execution.parallelism:1}") int parallelism) {
+
+        HikariDataSource defaultDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(defaultDataSource));
+
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        for (ShardProperties.Shard shard : shardProperties.getShards()) {
+            if (shard.getName() == null || shard.getName().isBlank() || shard.getUrl() == null) {
+                throw new IllegalStateException("Every datadrift.shards entry needs a name and a url");
+            }
+            if (shards.containsKey(shard.getName())) {
+                throw new IllegalStateException("Duplicate shard name: " + shard.getName());
+            }
+            shards.put(shard.getName(), createShardPool(shard, parallelism));
+        }
+
+        if (!shards.isEmpty()) {
+            log.info("Configured {} shard datasource(s): {}", shards.size(), shards.keySet());
+        }
+        return new ShardRoutingDataSource(defaultDataSource, shards);
+    }
+
+    /**
+     * Pools for monitoring connections, mirroring the application DataSource's routing. Each
+     * worker may watch one statement with both the progress monitor and the watchdog.
+     */
+    @Bean(name = MONITOR_DATA_SOURCE)
+    public ShardRoutingDataSource monitorDataSource(
+            DataSourceProperties dataSourceProperties,
+            ShardProperties shardProperties,
+            @Value("${datadrift.execution.parallelism:1}") int parallelism,
+            @Value("${datadrift.tenants.concurrency:4}") int tenantConcurrency) {
+
+        int poolSize = 2 * Math.max(1, Math.max(parallelism, tenantConcurrency));
+        HikariDataSource defaultPool = createMonitorPool("DataDrift-monitor",
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword(),
+                poolSize);
+
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        for (ShardProperties.Shard shard : shardProperties.getShards()) {
+            shards.put(shard.getName(), createMonitorPool("DataDrift-monitor-" + shard.getName(),
+                    shard.getUrl(), shard.getUsername(), shard.getPassword(), poolSize));
+        }
+        return new ShardRoutingDataSource(defaultPool, shards);
+    }
+
+    private HikariDataSource createMonitorPool(String name, String url, String username, String password, int size) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setMaximumPoolSize(size);
+        pool.setMinimumIdle(0);
+        pool.setConnectionTimeout(MONITOR_CONNECTION_TIMEOUT_MS);
+        return pool;
+    }
+
+    private HikariDataSource createShardPool(ShardProperties.Shard shard, int parallelism) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("DataDrift-" + shard.getName());
+        pool.setJdbcUrl(shard.getUrl());
+        pool.setUsername(shard.getUsername());
+        pool.setPassword(shard.getPassword());
+        // Each worker's transaction plus the side connection of an online rewrite, backfill
+        // or chunked change, then the lock and the tracking upgrade
+        pool.setMaximumPoolSize(shard.getMaximumPoolSize() != null
+                ? shard.getMaximumPoolSize()
+                : 2 * Math.max(1, parallelism) + 2);
+        // Idle shards hold no connections between operations
+        pool.setMinimumIdle(shard.getMinimumIdle());
+        return pool;
+    }
+}
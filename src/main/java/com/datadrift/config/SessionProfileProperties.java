@@ -0,0 +1,27 @@
+package com.datadrift.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Named sets of session settings, configured under datadrift.session.profiles and referenced
+ * from a changeset's sessionProfile attribute.
+ *
+ * Example:
+ *   datadrift:
+ *     session:
+ *       profiles:
+ *         heavyIndexBuild:
+ *           maintenance_work_mem: 2GB
+ *           max_parallel_maintenance_workers: 4
+ */
+@Data
+@ConfigurationProperties(prefix = "datadrift.session")
+public class SessionProfileProperties {
+
+    // Profile name -> setting name -> value
+    private Map<String, Map<String, String>> profiles = new LinkedHashMap<>();
+}
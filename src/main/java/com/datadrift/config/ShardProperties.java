@@ -0,0 +1,38 @@
+package com.datadrift.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Named shard datasources, configured under datadrift.shards.
+ *
+ * Example:
+ *   datadrift:
+ *     shards:
+ *       - name: shard-01
+ *         url: jdbc:postgresql://db01:5432/app?reWriteBatchedInserts=true
+ *         username: app
+ *         password: secret
+ *         maximum-pool-size: 4
+ */
+@Data
+@ConfigurationProperties(prefix = "datadrift")
+public class ShardProperties {
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        // Defaults to 2 * datadrift.execution.parallelism + 2 (workers and their online side
+        // connections, lock and tracking upgrade)
+        private Integer maximumPoolSize;
+        private int minimumIdle = 0;
+    }
+}
@@ -0,0 +1,49 @@
+package com.datadrift.config;
+
+import com.datadrift.util.ShardContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DataSource that routes each new connection to the shard named in ShardContext, or to the
+ * default spring.datasource when no shard is set. An unknown shard name is an error rather
+ * than a silent fallback to the default database.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<String> shardNames;
+
+    public ShardRoutingDataSource(DataSource defaultDataSource, Map<String, DataSource> shards) {
+        this.shardNames = List.copyOf(shards.keySet());
+        setDefaultTargetDataSource(defaultDataSource);
+        setTargetDataSources(Map.copyOf(shards));
+        setLenientFallback(false);
+    }
+
+    public List<String> getShardNames() {
+        return shardNames;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.currentShard();
+    }
+
+    /**
+     * Close every pool on context shutdown.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (getResolvedDefaultDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.datadrift.exception;
+
+import java.util.List;
+
+/**
+ * Exception thrown when VALIDATE CONSTRAINT fails after the migration transaction committed.
+ * The changesets of that transaction are applied; only the named constraints remain NOT VALID
+ * (still enforced for new rows) until the offending rows are fixed and they are validated again.
+ */
+public class ConstraintValidationException extends RuntimeException {
+
+    private final List<String> constraintNames;
+
+    public ConstraintValidationException(String message, List<String> constraintNames) {
+        super(message);
+        this.constraintNames = List.copyOf(constraintNames);
+    }
+
+    public List<String> getConstraintNames() {
+        return constraintNames;
+    }
+}
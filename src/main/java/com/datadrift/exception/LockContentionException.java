@@ -0,0 +1,12 @@
+package com.datadrift.exception;
+
+/**
+ * Exception thrown when the lock-contention watchdog cancels a statement because it blocked
+ * too many application sessions for too long. Retried like a lock timeout.
+ */
+public class LockContentionException extends RuntimeException {
+
+    public LockContentionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
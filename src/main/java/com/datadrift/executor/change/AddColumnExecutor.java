@@ -1,8 +1,12 @@
 package com.datadrift.executor.change;
 
+import com.datadrift.executor.constraint.DeferredConstraint;
+import com.datadrift.executor.constraint.DeferredConstraintValidator;
 import com.datadrift.model.change.AddColumnChange;
 import com.datadrift.model.change.CreateTableChange.ColumnConfig;
+import com.datadrift.model.change.CreateTableChange.TableCheckConstraint;
 import com.datadrift.sql.ColumnDefinitionBuilder;
+import com.datadrift.sql.ConstraintBuilder;
 import com.datadrift.sql.dialect.SqlDialect;
 import com.datadrift.util.SqlEscapeUtil;
 import lombok.RequiredArgsConstructor;
@@ -16,10 +20,11 @@ import java.util.List;
 @Slf4j
 @Component("addColumn")
 @RequiredArgsConstructor
-public class AddColumnExecutor implements ChangeExecutor<AddColumnChange> {
+public class AddColumnExecutor implements ChangeExecutor<AddColumnChange>, AlterTableActions<AddColumnChange> {
 
     private final JdbcTemplate jdbcTemplate;
     private final SqlDialect sqlDialect;
+    private final DeferredConstraintValidator constraintValidator;
 
     @Override
     public void execute(AddColumnChange change) {
@@ -32,6 +37,7 @@ public class AddColumnExecutor implements ChangeExecutor<AddColumnChange> {
         for (String sql : statements) {
             jdbcTemplate.execute(sql);
         }
+        deferredConstraints(change).forEach(constraintValidator::defer);
 
         log.info("Successfully added {} column(s) to table: {}", change.getColumns().size(), qualifiedTableName);
     }
@@ -39,33 +45,85 @@ public class AddColumnExecutor implements ChangeExecutor<AddColumnChange> {
     @Override
     public String generateSql(AddColumnChange change) {
         List<String> statements = generateSqlStatements(change);
-        return String.join(";" + System.lineSeparator(), statements);
+        return String.join(";" + System.lineSeparator(), statements) +
+                DeferredConstraintValidator.preview(deferredConstraints(change));
     }
 
-    private List<String> generateSqlStatements(AddColumnChange change) {
-        List<String> statements = new ArrayList<>();
-        ColumnDefinitionBuilder columnBuilder = new ColumnDefinitionBuilder(sqlDialect);
-
-        String qualifiedTableName;
+    @Override
+    public String alterTableTarget(AddColumnChange change) {
         if (change.getSchemaName() != null && !change.getSchemaName().isBlank()) {
-            qualifiedTableName = SqlEscapeUtil.qualifiedName(change.getSchemaName(), change.getTableName());
-        } else {
-            qualifiedTableName = SqlEscapeUtil.escapeIdentifier(change.getTableName());
+            return SqlEscapeUtil.qualifiedName(change.getSchemaName(), change.getTableName());
         }
+        return SqlEscapeUtil.escapeIdentifier(change.getTableName());
+    }
+
+    @Override
+    public List<String> alterTableActions(AddColumnChange change) {
+        List<String> actions = new ArrayList<>();
+        ColumnDefinitionBuilder columnBuilder = new ColumnDefinitionBuilder(sqlDialect);
+        ConstraintBuilder constraintBuilder = new ConstraintBuilder();
+        boolean deferred = constraintValidator.isDeferred(change.getDeferValidation());
 
-        // Generate separate ALTER TABLE statement for each column
         for (ColumnConfig column : change.getColumns()) {
-            StringBuilder sql = new StringBuilder();
-            sql.append("ALTER TABLE ");
-            sql.append(qualifiedTableName);
-            sql.append(" ADD COLUMN ");
+            if (deferred && hasCheck(column)) {
+                // Two-phase: the CHECK is added NOT VALID and validated after commit
+                actions.add("ADD COLUMN " + columnBuilder.build(column, false));
+                actions.add(constraintBuilder.buildNotValidCheck(checkConstraint(change, column)));
+            } else {
+                actions.add("ADD COLUMN " + columnBuilder.build(column));
+            }
+        }
+
+        return actions;
+    }
+
+    @Override
+    public List<DeferredConstraint> deferredConstraints(AddColumnChange change) {
+        if (!constraintValidator.isDeferred(change.getDeferValidation())) {
+            return List.of();
+        }
+        return change.getColumns().stream()
+                .filter(AddColumnExecutor::hasCheck)
+                .map(column -> new DeferredConstraint(alterTableTarget(change),
+                        checkConstraint(change, column).getConstraintName()))
+                .toList();
+    }
 
-            String columnDef = columnBuilder.build(column);
-            sql.append(columnDef);
+    private static boolean hasCheck(ColumnConfig column) {
+        return column.getConstraints() != null
+                && column.getConstraints().checkConstraint() != null
+                && !column.getConstraints().checkConstraint().isBlank();
+    }
 
-            statements.add(sql.toString());
+    private static TableCheckConstraint checkConstraint(AddColumnChange change, ColumnConfig column) {
+        // Named like PostgreSQL names an inline column CHECK: table_column_check, with the longer
+        // of table and column shortened until the name fits in 63 characters
+        String table = change.getTableName();
+        String columnName = column.getName();
+        int available = 63 - "_".length() - "_check".length();
+        int tableChars = table.length();
+        int columnChars = columnName.length();
+        while (tableChars + columnChars > available) {
+            if (tableChars > columnChars) {
+                tableChars--;
+            } else {
+                columnChars--;
+            }
         }
+        String name = table.substring(0, tableChars) + "_" + columnName.substring(0, columnChars) + "_check";
 
-        return statements;
+        TableCheckConstraint checkConstraint = new TableCheckConstraint();
+        checkConstraint.setConstraintName(name);
+        checkConstraint.setCheckExpression(column.getConstraints().checkConstraint());
+        return checkConstraint;
+    }
+
+    private List<String> generateSqlStatements(AddColumnChange change) {
+        String qualifiedTableName = alterTableTarget(change);
+
+        // Generate separate ALTER TABLE statement for each column
+        return alterTableActions(change).stream()
+                .map(action -> "ALTER TABLE " + qualifiedTableName + " " + action)
+                .toList();
     }
 }
@@ -1,5 +1,7 @@
 package com.datadrift.executor.change;
 
+import com.datadrift.executor.constraint.DeferredConstraint;
+import com.datadrift.executor.constraint.DeferredConstraintValidator;
 import com.datadrift.model.change.AddForeignKeyChange;
 import com.datadrift.util.SqlEscapeUtil;
 import lombok.RequiredArgsConstructor;
@@ -7,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -32,45 +35,44 @@ import java.util.stream.Collectors;
 @Slf4j
 @Component("addForeignKey")
 @RequiredArgsConstructor
-public class AddForeignKeyExecutor implements ChangeExecutor<AddForeignKeyChange> {
+public class AddForeignKeyExecutor implements ChangeExecutor<AddForeignKeyChange>, AlterTableActions<AddForeignKeyChange> {
 
     private final JdbcTemplate jdbcTemplate;
+    private final DeferredConstraintValidator constraintValidator;
 
     @Override
     public void execute(AddForeignKeyChange change) {
-        String sql = generateSql(change);
+        String sql = "ALTER TABLE " + alterTableTarget(change) + " " + alterTableActions(change).get(0);
         String qualifiedBaseTable = SqlEscapeUtil.qualifiedName(change.getBaseSchemaName(), change.getBaseTableName());
 
         log.info("Executing ADD FOREIGN KEY CONSTRAINT on table: {}", qualifiedBaseTable);
         log.debug("SQL statement: {}", sql);
 
         jdbcTemplate.execute(sql);
+        deferredConstraints(change).forEach(constraintValidator::defer);
 
         log.info("Successfully added foreign key constraint to table: {}", qualifiedBaseTable);
     }
 
     @Override
     public String generateSql(AddForeignKeyChange change) {
-        StringBuilder sql = new StringBuilder();
-        sql.append("ALTER TABLE ");
+        return "ALTER TABLE " + alterTableTarget(change) + " " + alterTableActions(change).get(0) +
+                DeferredConstraintValidator.preview(deferredConstraints(change));
+    }
 
-        // Base table
-        String qualifiedBaseTable;
+    @Override
+    public String alterTableTarget(AddForeignKeyChange change) {
         if (change.getBaseSchemaName() != null && !change.getBaseSchemaName().isBlank()) {
-            qualifiedBaseTable = SqlEscapeUtil.qualifiedName(change.getBaseSchemaName(), change.getBaseTableName());
-        } else {
-            qualifiedBaseTable = SqlEscapeUtil.escapeIdentifier(change.getBaseTableName());
+            return SqlEscapeUtil.qualifiedName(change.getBaseSchemaName(), change.getBaseTableName());
         }
-        sql.append(qualifiedBaseTable);
-
-        sql.append(" ADD CONSTRAINT ");
+        return SqlEscapeUtil.escapeIdentifier(change.getBaseTableName());
+    }
 
-        // Constraint name (auto-generate if not provided)
-        String constraintName = change.getConstraintName();
-        if (constraintName == null || constraintName.isBlank()) {
-            constraintName = generateConstraintName(change);
-        }
-        sql.append(SqlEscapeUtil.escapeIdentifier(constraintName));
+    @Override
+    public List<String> alterTableActions(AddForeignKeyChange change) {
+        StringBuilder sql = new StringBuilder();
+        sql.append("ADD CONSTRAINT ");
+        sql.append(SqlEscapeUtil.escapeIdentifier(constraintName(change)));
 
         sql.append(" FOREIGN KEY (");
 
@@ -125,7 +127,29 @@ public class AddForeignKeyExecutor implements ChangeExecutor<AddForeignKeyChange
             }
         }
 
-        return sql.toString();
+        // Two-phase: skip the scan of existing rows while the write-blocking lock is held
+        if (constraintValidator.isDeferred(change.getDeferValidation())) {
+            sql.append(" NOT VALID");
+        }
+
+        return List.of(sql.toString());
+    }
+
+    @Override
+    public List<DeferredConstraint> deferredConstraints(AddForeignKeyChange change) {
+        if (!constraintValidator.isDeferred(change.getDeferValidation())) {
+            return List.of();
+        }
+        return List.of(new DeferredConstraint(alterTableTarget(change), constraintName(change)));
+    }
+
+    private String constraintName(AddForeignKeyChange change) {
+        // Auto-generate if not provided
+        String constraintName = change.getConstraintName();
+        if (constraintName == null || constraintName.isBlank()) {
+            constraintName = generateConstraintName(change);
+        }
+        return constraintName;
     }
 
     private String generateConstraintName(AddForeignKeyChange change) {
@@ -0,0 +1,31 @@
+package com.datadrift.executor.change;
+
+import com.datadrift.executor.constraint.DeferredConstraint;
+import com.datadrift.model.change.Change;
+
+import java.util.List;
+
+/**
+ * Implemented by executors whose SQL is one or more ALTER TABLE sub-commands on a single table.
+ * Lets the plan optimizer merge adjacent changes on the same table into one multi-action
+ * ALTER TABLE statement (see AlterTableCoalescer).
+ */
+public interface AlterTableActions<T extends Change> {
+
+    /**
+     * Qualified and escaped name of the altered table.
+     */
+    String alterTableTarget(T change);
+
+    /**
+     * Sub-commands in execution order, without the leading ALTER TABLE, e.g. ADD COLUMN "age" INT.
+     */
+    List<String> alterTableActions(T change);
+
+    /**
+     * Constraints the actions add NOT VALID, to be validated after the transaction commits.
+     */
+    default List<DeferredConstraint> deferredConstraints(T change) {
+        return List.of();
+    }
+}
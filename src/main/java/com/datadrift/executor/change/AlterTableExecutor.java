@@ -0,0 +1,47 @@
+package com.datadrift.executor.change;
+
+import com.datadrift.executor.constraint.DeferredConstraintValidator;
+import com.datadrift.plan.AlterTableChange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs merged ALTER TABLE sub-commands as one statement.
+ *
+ * One statement takes the table's ACCESS EXCLUSIVE lock once, and PostgreSQL performs at most
+ * one table rewrite for all sub-commands together.
+ */
+@Slf4j
+@Component("alterTable")
+@RequiredArgsConstructor
+public class AlterTableExecutor implements ChangeExecutor<AlterTableChange> {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DeferredConstraintValidator constraintValidator;
+
+    @Override
+    public void execute(AlterTableChange change) {
+        String sql = alterTableSql(change);
+
+        log.info("Executing ALTER TABLE with {} action(s) on table: {}", change.getActions().size(), change.getTableName());
+        log.debug("SQL statement: {}", sql);
+
+        jdbcTemplate.execute(sql);
+        change.getDeferredConstraints().forEach(constraintValidator::defer);
+
+        log.info("Successfully altered table: {}", change.getTableName());
+    }
+
+    @Override
+    public String generateSql(AlterTableChange change) {
+        return alterTableSql(change) + DeferredConstraintValidator.preview(change.getDeferredConstraints());
+    }
+
+    private String alterTableSql(AlterTableChange change) {
+        String separator = "," + System.lineSeparator() + "    ";
+        return "ALTER TABLE " + change.getTableName() + System.lineSeparator() + "    " +
+                String.join(separator, change.getActions());
+    }
+}
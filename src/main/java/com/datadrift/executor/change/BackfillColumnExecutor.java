@@ -0,0 +1,65 @@
+package com.datadrift.executor.change;
+
+import com.datadrift.exception.ChangeSetExecutionException;
+import com.datadrift.executor.online.ColumnBackfiller;
+import com.datadrift.executor.online.TableLocks;
+import com.datadrift.model.change.BackfillColumnChange;
+import com.datadrift.util.RowCountContext;
+import com.datadrift.util.SqlEscapeUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adds a column with a computed per-row value in committed chunks (see ColumnBackfiller).
+ *
+ * The backfill commits as it goes on its own connection, so it cannot wait for the migration
+ * transaction: if that transaction already locked the table, the change fails up front.
+ */
+@Slf4j
+@Component("backfillColumn")
+@RequiredArgsConstructor
+public class BackfillColumnExecutor implements ChangeExecutor<BackfillColumnChange> {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ColumnBackfiller columnBackfiller;
+
+    @Override
+    public void execute(BackfillColumnChange change) {
+        String qualifiedTableName = SqlEscapeUtil.qualifiedName(change.getSchemaName(), change.getTableName());
+
+        if (TableLocks.heldByCurrentTransaction(jdbcTemplate, qualifiedTableName)) {
+            throw new ChangeSetExecutionException("Cannot backfill " + qualifiedTableName + ": the migration " +
+                    "transaction already holds a lock on it. Move the change into a run of its own.");
+        }
+
+        log.info("Executing BACKFILL COLUMN {} on table: {}", change.getColumnName(), qualifiedTableName);
+        RowCountContext.add(columnBackfiller.backfill(change));
+        log.info("Successfully backfilled column {} of table: {}", change.getColumnName(), qualifiedTableName);
+    }
+
+    @Override
+    public String generateSql(BackfillColumnChange change) {
+        String table = SqlEscapeUtil.qualifiedName(change.getSchemaName(), change.getTableName());
+        String column = SqlEscapeUtil.escapeIdentifier(change.getColumnName());
+
+        List<String> statements = new ArrayList<>();
+        statements.add("ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS " + column + " " + change.getColumnType());
+        statements.add("-- repeated per primary-key chunk, one transaction each:" + System.lineSeparator() +
+                "UPDATE " + table + " SET " + column + " = (" + change.getValueComputed() + ") WHERE <primary key range>");
+
+        if (change.isNotNullRequested()) {
+            String check = SqlEscapeUtil.escapeIdentifier(ColumnBackfiller.notNullCheckName(change.getTableName(), change.getColumnName()));
+            statements.add("ALTER TABLE " + table + " ADD CONSTRAINT " + check + " CHECK (" + column + " IS NOT NULL) NOT VALID");
+            statements.add("ALTER TABLE " + table + " VALIDATE CONSTRAINT " + check);
+            statements.add("ALTER TABLE " + table + " ALTER COLUMN " + column + " SET NOT NULL");
+            statements.add("ALTER TABLE " + table + " DROP CONSTRAINT " + check);
+        }
+
+        return String.join(";" + System.lineSeparator(), statements);
+    }
+}
@@ -1,5 +1,6 @@
 package com.datadrift.executor.change;
 
+import com.datadrift.metrics.progress.DdlProgressMonitor;
 import com.datadrift.model.change.CreateIndexChange;
 import com.datadrift.sql.dialect.SqlDialect;
 import com.datadrift.util.SqlEscapeUtil;
@@ -17,6 +18,7 @@ public class CreateIndexExecutor implements ChangeExecutor<CreateIndexChange> {
 
     private final JdbcTemplate jdbcTemplate;
     private final SqlDialect sqlDialect;
+    private final DdlProgressMonitor ddlProgressMonitor;
 
     @Override
     public void execute(CreateIndexChange change) {
@@ -26,7 +28,7 @@ public class CreateIndexExecutor implements ChangeExecutor<CreateIndexChange> {
         log.info("Executing CREATE INDEX on table: {}", qualifiedTableName);
         log.debug("SQL: {}", sql);
 
-        jdbcTemplate.execute(sql);
+        ddlProgressMonitor.run(jdbcTemplate, "CREATE INDEX " + getIndexName(change), () -> jdbcTemplate.execute(sql));
 
         log.info("Successfully created index: {}", getIndexName(change));
     }
@@ -1,6 +1,10 @@
 package com.datadrift.executor.change;
 
+import com.datadrift.exception.ChangeSetExecutionException;
+import com.datadrift.executor.online.ChunkedStatementRunner;
+import com.datadrift.executor.online.TableLocks;
 import com.datadrift.model.change.DeleteChange;
+import com.datadrift.util.RowCountContext;
 import com.datadrift.util.SqlEscapeUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,23 +17,51 @@ import org.springframework.stereotype.Component;
 public class DeleteExecutor implements ChangeExecutor<DeleteChange> {
 
     private final JdbcTemplate jdbcTemplate;
+    private final ChunkedStatementRunner chunkedStatementRunner;
 
     @Override
     public void execute(DeleteChange change) {
-        String sql = generateSql(change);
         String qualifiedTableName = SqlEscapeUtil.qualifiedName(change.getSchemaName(), change.getTableName());
 
+        if (change.getChunkSize() != null) {
+            executeChunked(change, qualifiedTableName);
+            return;
+        }
+
+        String sql = generateSql(change);
+
         log.info("Executing DELETE on table: {}", qualifiedTableName);
         log.debug("SQL statement: {}", sql);
 
-        jdbcTemplate.execute(sql);
+        int rows = jdbcTemplate.update(sql);
+        RowCountContext.add(rows);
+
+        log.info("Successfully deleted {} row(s) from table: {}", rows, qualifiedTableName);
+    }
+
+    private void executeChunked(DeleteChange change, String qualifiedTableName) {
+        if (TableLocks.heldByCurrentTransaction(jdbcTemplate, qualifiedTableName)) {
+            throw new ChangeSetExecutionException("Cannot delete from " + qualifiedTableName + " in chunks: the " +
+                    "migration transaction already holds a lock on it. Move the change into a run of its own.");
+        }
+        SqlEscapeUtil.validateExpression(change.getWhere());
+
+        log.info("Executing chunked DELETE on table: {}", qualifiedTableName);
+        long rows = chunkedStatementRunner.run("Chunked DELETE from " + qualifiedTableName, qualifiedTableName,
+                where -> "DELETE FROM " + qualifiedTableName + " WHERE " + where, change.getWhere(),
+                change.getChunkSize(), change.getMaxRowsPerSecond() != null ? change.getMaxRowsPerSecond() : 0);
 
-        log.info("Successfully executed DELETE on table: {}", qualifiedTableName);
+        RowCountContext.add(rows);
+        log.info("Successfully deleted {} row(s) from table: {}", rows, qualifiedTableName);
     }
 
     @Override
     public String generateSql(DeleteChange change) {
         StringBuilder sql = new StringBuilder();
+        if (change.getChunkSize() != null) {
+            sql.append("-- repeated per primary-key chunk of ").append(change.getChunkSize())
+                    .append(" rows, one transaction each").append(System.lineSeparator());
+        }
         sql.append("DELETE FROM ");
 
         // Table name
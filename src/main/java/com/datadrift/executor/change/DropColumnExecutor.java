@@ -13,7 +13,7 @@ import java.util.List;
 @Slf4j
 @Component("dropColumn")
 @RequiredArgsConstructor
-public class DropColumnExecutor implements ChangeExecutor<DropColumnChange> {
+public class DropColumnExecutor implements ChangeExecutor<DropColumnChange>, AlterTableActions<DropColumnChange> {
 
     private final JdbcTemplate jdbcTemplate;
 
@@ -38,22 +38,21 @@ public class DropColumnExecutor implements ChangeExecutor<DropColumnChange> {
         return String.join(";" + System.lineSeparator(), statements);
     }
 
-    private List<String> generateSqlStatements(DropColumnChange change) {
-        List<String> statements = new ArrayList<>();
-
-        String qualifiedTableName;
+    @Override
+    public String alterTableTarget(DropColumnChange change) {
         if (change.getSchemaName() != null && !change.getSchemaName().isBlank()) {
-            qualifiedTableName = SqlEscapeUtil.qualifiedName(change.getSchemaName(), change.getTableName());
-        } else {
-            qualifiedTableName = SqlEscapeUtil.escapeIdentifier(change.getTableName());
+            return SqlEscapeUtil.qualifiedName(change.getSchemaName(), change.getTableName());
         }
+        return SqlEscapeUtil.escapeIdentifier(change.getTableName());
+    }
+
+    @Override
+    public List<String> alterTableActions(DropColumnChange change) {
+        List<String> actions = new ArrayList<>();
 
-        // Generate separate ALTER TABLE statement for each column
         for (String columnName : change.getColumns()) {
             StringBuilder sql = new StringBuilder();
-            sql.append("ALTER TABLE ");
-            sql.append(qualifiedTableName);
-            sql.append(" DROP COLUMN ");
+            sql.append("DROP COLUMN ");
 
             if (Boolean.TRUE.equals(change.getIfExists())) {
                 sql.append("IF EXISTS ");
@@ -65,9 +64,18 @@ public class DropColumnExecutor implements ChangeExecutor<DropColumnChange> {
                 sql.append(" CASCADE");
             }
 
-            statements.add(sql.toString());
+            actions.add(sql.toString());
         }
 
-        return statements;
+        return actions;
+    }
+
+    private List<String> generateSqlStatements(DropColumnChange change) {
+        String qualifiedTableName = alterTableTarget(change);
+
+        // Generate separate ALTER TABLE statement for each column
+        return alterTableActions(change).stream()
+                .map(action -> "ALTER TABLE " + qualifiedTableName + " " + action)
+                .toList();
     }
 }
@@ -7,10 +7,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Slf4j
 @Component("dropForeignKey")
 @RequiredArgsConstructor
-public class DropForeignKeyExecutor implements ChangeExecutor<DropForeignKeyChange> {
+public class DropForeignKeyExecutor implements ChangeExecutor<DropForeignKeyChange>, AlterTableActions<DropForeignKeyChange> {
 
     private final JdbcTemplate jdbcTemplate;
 
@@ -30,19 +32,21 @@ public class DropForeignKeyExecutor implements ChangeExecutor<DropForeignKeyChan
 
     @Override
     public String generateSql(DropForeignKeyChange change) {
-        StringBuilder sql = new StringBuilder();
-        sql.append("ALTER TABLE ");
+        return "ALTER TABLE " + alterTableTarget(change) + " " + alterTableActions(change).get(0);
+    }
 
-        // Base table
-        String qualifiedBaseTable;
+    @Override
+    public String alterTableTarget(DropForeignKeyChange change) {
         if (change.getBaseSchemaName() != null && !change.getBaseSchemaName().isBlank()) {
-            qualifiedBaseTable = SqlEscapeUtil.qualifiedName(change.getBaseSchemaName(), change.getBaseTableName());
-        } else {
-            qualifiedBaseTable = SqlEscapeUtil.escapeIdentifier(change.getBaseTableName());
+            return SqlEscapeUtil.qualifiedName(change.getBaseSchemaName(), change.getBaseTableName());
         }
-        sql.append(qualifiedBaseTable);
+        return SqlEscapeUtil.escapeIdentifier(change.getBaseTableName());
+    }
 
-        sql.append(" DROP CONSTRAINT ");
+    @Override
+    public List<String> alterTableActions(DropForeignKeyChange change) {
+        StringBuilder sql = new StringBuilder();
+        sql.append("DROP CONSTRAINT ");
 
         if (Boolean.TRUE.equals(change.getIfExists())) {
             sql.append("IF EXISTS ");
@@ -54,6 +58,6 @@ public class DropForeignKeyExecutor implements ChangeExecutor<DropForeignKeyChan
             sql.append(" CASCADE");
         }
 
-        return sql.toString();
+        return List.of(sql.toString());
     }
 }
@@ -2,6 +2,7 @@ package com.datadrift.executor.change;
 
 import com.datadrift.model.change.InsertChange;
 import com.datadrift.model.change.ColumnValue;
+import com.datadrift.util.RowCountContext;
 import com.datadrift.util.SqlEscapeUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,9 +26,10 @@ public class InsertExecutor implements ChangeExecutor<InsertChange> {
         log.info("Executing INSERT into table: {}", qualifiedTableName);
         log.debug("SQL statement: {}", sql);
 
-        jdbcTemplate.execute(sql);
+        int rows = jdbcTemplate.update(sql);
+        RowCountContext.add(rows);
 
-        log.info("Successfully inserted 1 row into table: {}", qualifiedTableName);
+        log.info("Successfully inserted {} row(s) into table: {}", rows, qualifiedTableName);
     }
 
     @Override
@@ -0,0 +1,137 @@
+package com.datadrift.executor.change;
+
+import com.datadrift.exception.ChangeSetExecutionException;
+import com.datadrift.executor.online.OnlineTableRewriter;
+import com.datadrift.executor.online.RewritePlan;
+import com.datadrift.executor.online.TableLocks;
+import com.datadrift.model.change.CreateTableChange.ColumnConfig;
+import com.datadrift.model.change.ModifyColumnChange;
+import com.datadrift.plan.TableStats;
+import com.datadrift.util.CatalogSnapshotContext;
+import com.datadrift.util.SqlEscapeUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Changes column types and nullability, either in place or through an online table rewrite.
+ *
+ * online="true" always rewrites online, online="false" always alters in place. Without the
+ * attribute the change goes online when the planner estimate (reltuples) reaches
+ * datadrift.online.auto-threshold-rows; a threshold of 0 disables the automatic choice. The
+ * estimate comes from the run's preflight snapshot when it has the table, else from pg_class.
+ *
+ * The online rewrite works on its own connection and cannot see or wait for uncommitted work.
+ * If the migration transaction already holds a lock on the table (an earlier change in the same
+ * run touched it), an explicit online change fails and an automatic one falls back to in place.
+ */
+@Slf4j
+@Component("modifyColumn")
+public class ModifyColumnExecutor implements ChangeExecutor<ModifyColumnChange> {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OnlineTableRewriter tableRewriter;
+    private final long autoThresholdRows;
+
+    public ModifyColumnExecutor(
+            JdbcTemplate jdbcTemplate,
+            OnlineTableRewriter tableRewriter,
+            @Value("${datadrift.online.auto-threshold-rows:0}") long autoThresholdRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tableRewriter = tableRewriter;
+        this.autoThresholdRows = autoThresholdRows;
+    }
+
+    @Override
+    public void execute(ModifyColumnChange change) {
+        String qualifiedTableName = SqlEscapeUtil.qualifiedName(change.getSchemaName(), change.getTableName());
+
+        if (useOnlineRewrite(change, qualifiedTableName)) {
+            log.info("Executing MODIFY COLUMN on table {} as an online rewrite", qualifiedTableName);
+            tableRewriter.rewrite(new RewritePlan(change.getSchemaName(), change.getTableName(), columnActions(change)));
+        } else {
+            String sql = generateInPlaceSql(change);
+            log.info("Executing MODIFY COLUMN on table: {}", qualifiedTableName);
+            log.debug("SQL: {}", sql);
+            jdbcTemplate.execute(sql);
+        }
+
+        log.info("Successfully modified {} column(s) of table: {}", change.getColumns().size(), qualifiedTableName);
+    }
+
+    @Override
+    public String generateSql(ModifyColumnChange change) {
+        if (!Boolean.TRUE.equals(change.getOnline())) {
+            return generateInPlaceSql(change);
+        }
+
+        String qualifiedTableName = SqlEscapeUtil.qualifiedName(change.getSchemaName(), change.getTableName());
+        return "-- Online rewrite of " + qualifiedTableName + ": copied into a shadow table altered with" +
+                System.lineSeparator() +
+                "-- " + String.join(", ", columnActions(change));
+    }
+
+    List<String> columnActions(ModifyColumnChange change) {
+        List<String> actions = new ArrayList<>();
+
+        for (ColumnConfig column : change.getColumns()) {
+            String columnName = SqlEscapeUtil.escapeIdentifier(column.getName());
+            actions.add("ALTER COLUMN " + columnName + " TYPE " + column.getType());
+
+            if (column.getConstraints() != null && column.getConstraints().nullable() != null) {
+                actions.add("ALTER COLUMN " + columnName +
+                        (column.getConstraints().nullable() ? " DROP NOT NULL" : " SET NOT NULL"));
+            }
+        }
+
+        return actions;
+    }
+
+    private String generateInPlaceSql(ModifyColumnChange change) {
+        return "ALTER TABLE " + SqlEscapeUtil.qualifiedName(change.getSchemaName(), change.getTableName()) + " " +
+                String.join(", ", columnActions(change));
+    }
+
+    private boolean useOnlineRewrite(ModifyColumnChange change, String qualifiedTableName) {
+        boolean explicit = Boolean.TRUE.equals(change.getOnline());
+
+        if (!explicit) {
+            if (change.getOnline() != null || autoThresholdRows <= 0) {
+                return false;
+            }
+            Long estimate = estimatedRows(change, qualifiedTableName);
+            if (estimate == null || estimate < autoThresholdRows) {
+                return false;
+            }
+            log.info("Table {} has ~{} rows (threshold {}), rewriting online", qualifiedTableName, estimate, autoThresholdRows);
+        }
+
+        if (TableLocks.heldByCurrentTransaction(jdbcTemplate, qualifiedTableName)) {
+            if (explicit) {
+                throw new ChangeSetExecutionException("Cannot rewrite " + qualifiedTableName + " online: the migration " +
+                        "transaction already holds a lock on it. Move the change into a run of its own.");
+            }
+            log.warn("Table {} is already locked by this migration, modifying it in place", qualifiedTableName);
+            return false;
+        }
+
+        return true;
+    }
+
+    private Long estimatedRows(ModifyColumnChange change, String qualifiedTableName) {
+        // The snapshot resolves names on the search path, so it cannot answer for other schemas
+        if (change.getSchemaName() == null || change.getSchemaName().isBlank()) {
+            Long cached = CatalogSnapshotContext.current().table(change.getTableName()).map(TableStats::rows).orElse(null);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE((SELECT reltuples::BIGINT FROM pg_class WHERE oid = to_regclass(?)), 0)",
+                Long.class, qualifiedTableName);
+    }
+}
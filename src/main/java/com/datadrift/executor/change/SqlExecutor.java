@@ -1,5 +1,6 @@
 package com.datadrift.executor.change;
 
+import com.datadrift.metrics.progress.DdlProgressMonitor;
 import com.datadrift.model.change.SqlChange;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,16 +9,23 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Pattern;
 
 /**
  * Executor for custom SQL changes.
+ * Statements PostgreSQL reports progress for (CREATE INDEX, REINDEX, CLUSTER, VACUUM) run
+ * under the DdlProgressMonitor.
  */
 @Slf4j
 @Component("sql")
 @RequiredArgsConstructor
 public class SqlExecutor implements ChangeExecutor<SqlChange> {
 
+    private static final Pattern MONITORED = Pattern.compile(
+            "^\\s*(CREATE\\s+(UNIQUE\\s+)?INDEX|REINDEX|CLUSTER|VACUUM)\\b", Pattern.CASE_INSENSITIVE);
+
     private final JdbcTemplate jdbcTemplate;
+    private final DdlProgressMonitor ddlProgressMonitor;
 
     @Override
     public void execute(SqlChange change) {
@@ -32,17 +40,30 @@ public class SqlExecutor implements ChangeExecutor<SqlChange> {
             for (String statement : statements) {
                 String trimmed = statement.trim();
                 if (!trimmed.isEmpty()) {
-                    jdbcTemplate.execute(trimmed);
+                    execute(trimmed);
                 }
             }
         } else {
             // Execute as single statement
-            jdbcTemplate.execute(sql);
+            execute(sql);
         }
 
         log.info("Successfully executed custom SQL");
     }
 
+    private void execute(String statement) {
+        if (MONITORED.matcher(statement).find()) {
+            ddlProgressMonitor.run(jdbcTemplate, abbreviate(statement), () -> jdbcTemplate.execute(statement));
+        } else {
+            jdbcTemplate.execute(statement);
+        }
+    }
+
+    private static String abbreviate(String statement) {
+        String oneLine = statement.strip().replaceAll("\\s+", " ");
+        return oneLine.length() > 60 ? oneLine.substring(0, 60) + "..." : oneLine;
+    }
+
     @Override
     public String generateSql(SqlChange change) {
         return change.getSql();
@@ -1,7 +1,11 @@
 package com.datadrift.executor.change;
 
+import com.datadrift.exception.ChangeSetExecutionException;
+import com.datadrift.executor.online.ChunkedStatementRunner;
+import com.datadrift.executor.online.TableLocks;
 import com.datadrift.model.change.ColumnValue;
 import com.datadrift.model.change.UpdateChange;
+import com.datadrift.util.RowCountContext;
 import com.datadrift.util.SqlEscapeUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,22 +20,64 @@ import java.util.stream.Collectors;
 public class UpdateExecutor implements ChangeExecutor<UpdateChange> {
 
     private final JdbcTemplate jdbcTemplate;
+    private final ChunkedStatementRunner chunkedStatementRunner;
 
     @Override
     public void execute(UpdateChange change) {
-        String sql = generateSql(change);
         String qualifiedTableName = SqlEscapeUtil.qualifiedName(change.getSchemaName(), change.getTableName());
 
+        if (change.getChunkSize() != null) {
+            executeChunked(change, qualifiedTableName);
+            return;
+        }
+
+        String sql = generateSql(change);
+
         log.info("Executing UPDATE on table: {}", qualifiedTableName);
         log.debug("SQL statement: {}", sql);
 
-        jdbcTemplate.execute(sql);
+        int rows = jdbcTemplate.update(sql);
+        RowCountContext.add(rows);
 
-        log.info("Successfully executed UPDATE on table: {}", qualifiedTableName);
+        log.info("Successfully updated {} row(s) of table: {}", rows, qualifiedTableName);
+    }
+
+    private void executeChunked(UpdateChange change, String qualifiedTableName) {
+        if (TableLocks.heldByCurrentTransaction(jdbcTemplate, qualifiedTableName)) {
+            throw new ChangeSetExecutionException("Cannot update " + qualifiedTableName + " in chunks: the migration " +
+                    "transaction already holds a lock on it. Move the change into a run of its own.");
+        }
+        SqlEscapeUtil.validateExpression(change.getWhere());
+        String update = generateUpdateClause(change);
+
+        log.info("Executing chunked UPDATE on table: {}", qualifiedTableName);
+        long rows = chunkedStatementRunner.run("Chunked UPDATE of " + qualifiedTableName, qualifiedTableName,
+                where -> update + " WHERE " + where, change.getWhere(), change.getChunkSize(),
+                change.getMaxRowsPerSecond() != null ? change.getMaxRowsPerSecond() : 0);
+
+        RowCountContext.add(rows);
+        log.info("Successfully updated {} row(s) of table: {}", rows, qualifiedTableName);
     }
 
     @Override
     public String generateSql(UpdateChange change) {
+        StringBuilder sql = new StringBuilder();
+        if (change.getChunkSize() != null) {
+            sql.append("-- repeated per primary-key chunk of ").append(change.getChunkSize())
+                    .append(" rows, one transaction each").append(System.lineSeparator());
+        }
+        sql.append(generateUpdateClause(change));
+
+        // WHERE clause
+        sql.append(" WHERE ");
+        // Validate the WHERE clause to prevent SQL injection
+        SqlEscapeUtil.validateExpression(change.getWhere());
+        sql.append(change.getWhere());
+
+        return sql.toString();
+    }
+
+    private String generateUpdateClause(UpdateChange change) {
         StringBuilder sql = new StringBuilder();
         sql.append("UPDATE ");
 
@@ -51,12 +97,6 @@ public class UpdateExecutor implements ChangeExecutor<UpdateChange> {
                 .collect(Collectors.joining(", "));
         sql.append(setClause);
 
-        // WHERE clause
-        sql.append(" WHERE ");
-        // Validate the WHERE clause to prevent SQL injection
-        SqlEscapeUtil.validateExpression(change.getWhere());
-        sql.append(change.getWhere());
-
         return sql.toString();
     }
 
@@ -0,0 +1,24 @@
+package com.datadrift.executor.constraint;
+
+import com.datadrift.util.SqlEscapeUtil;
+
+import java.util.Map;
+
+/**
+ * A constraint added NOT VALID whose existing rows are checked after the migration commits.
+ *
+ * @param tableName       qualified and escaped table name
+ * @param constraintName  unescaped constraint name
+ * @param sessionSettings session profile settings to validate with, e.g.
+ *                        max_parallel_maintenance_workers
+ */
+public record DeferredConstraint(String tableName, String constraintName, Map<String, String> sessionSettings) {
+
+    public DeferredConstraint(String tableName, String constraintName) {
+        this(tableName, constraintName, Map.of());
+    }
+
+    public String validateSql() {
+        return "ALTER TABLE " + tableName + " VALIDATE CONSTRAINT " + SqlEscapeUtil.escapeIdentifier(constraintName);
+    }
+}
@@ -0,0 +1,192 @@
+package com.datadrift.executor.constraint;
+
+import com.datadrift.exception.ConstraintValidationException;
+import com.datadrift.executor.session.SessionProfiles;
+import com.datadrift.util.SessionProfileContext;
+import com.datadrift.util.SqlEscapeUtil;
+import com.datadrift.util.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-phase constraint creation: ADD CONSTRAINT ... NOT VALID, then VALIDATE CONSTRAINT.
+ *
+ * Adding a foreign key or check constraint in one step scans the whole table while holding a
+ * lock that blocks writes (SHARE ROW EXCLUSIVE for foreign keys, ACCESS EXCLUSIVE for checks).
+ * NOT VALID makes the ADD a catalog-only change that only enforces the constraint for new rows.
+ * VALIDATE CONSTRAINT then checks existing rows under SHARE UPDATE EXCLUSIVE, which does not
+ * block reads or writes.
+ *
+ * The validation must not run in the migration transaction, which still holds the ADD lock, so
+ * constraints registered during a transaction are validated after it commits, each in its own
+ * new transaction on the same shard and tenant schema. A constraint that fails validation stays
+ * NOT VALID (still enforced for new rows); a ConstraintValidationException naming them is
+ * raised once all were attempted, so callers can tell it apart from a failed migration.
+ * The session profile of the change that added the constraint also applies to its validation.
+ */
+@Slf4j
+@Component
+public class DeferredConstraintValidator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final boolean deferByDefault;
+    private final long progressIntervalMs;
+
+    public DeferredConstraintValidator(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${datadrift.constraints.defer-validation:false}") boolean deferByDefault,
+            @Value("${datadrift.constraints.progress-interval-ms:30000}") long progressIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.deferByDefault = deferByDefault;
+        this.progressIntervalMs = progressIntervalMs;
+    }
+
+    /**
+     * @param changeOption the change's deferValidation attribute, or null to use the default
+     */
+    public boolean isDeferred(Boolean changeOption) {
+        return changeOption != null ? changeOption : deferByDefault;
+    }
+
+    /**
+     * Validate the constraint after the current transaction commits, or right away when no
+     * transaction is active (the NOT VALID constraint is then already committed).
+     */
+    public void defer(DeferredConstraint constraint) {
+        Map<String, String> settings = SessionProfileContext.currentSettings();
+        if (!settings.isEmpty() && constraint.sessionSettings().isEmpty()) {
+            constraint = new DeferredConstraint(constraint.tableName(), constraint.constraintName(), settings);
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            validateAll(List.of(constraint));
+            return;
+        }
+
+        PendingValidations pending = (PendingValidations) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingValidations();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.constraints.add(constraint);
+    }
+
+    /**
+     * Preview of the deferred VALIDATE statements, appended to generated SQL.
+     */
+    public static String preview(List<DeferredConstraint> constraints) {
+        StringBuilder sql = new StringBuilder();
+        for (DeferredConstraint constraint : constraints) {
+            sql.append(";").append(System.lineSeparator())
+                    .append("-- after commit, without blocking writes").append(System.lineSeparator())
+                    .append(constraint.validateSql());
+        }
+        return sql.toString();
+    }
+
+    void validateAll(List<DeferredConstraint> constraints) {
+        List<String> failures = new ArrayList<>();
+        List<String> failedNames = new ArrayList<>();
+
+        for (int i = 0; i < constraints.size(); i++) {
+            DeferredConstraint constraint = constraints.get(i);
+            try {
+                validate(constraint, i + 1, constraints.size());
+            } catch (RuntimeException e) {
+                log.error("Validation of constraint {} on {} failed: {}",
+                        constraint.constraintName(), constraint.tableName(), e.getMessage());
+                failures.add(constraint.validateSql() + " (" + e.getMessage() + ")");
+                failedNames.add(constraint.constraintName());
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            throw new ConstraintValidationException("The committed changesets are applied, but " + failures.size() +
+                    " constraint(s) remain NOT VALID. Fix the offending rows and run:\n  " +
+                    String.join("\n  ", failures), failedNames);
+        }
+    }
+
+    private void validate(DeferredConstraint constraint, int index, int total) {
+        String schema = TenantContext.currentSchema();
+        long startNanos = System.nanoTime();
+
+        ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "datadrift-validate-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                if (schema != null) {
+                    jdbcTemplate.queryForObject("SELECT set_config('search_path', ?, true)", String.class,
+                            SqlEscapeUtil.escapeIdentifier(schema));
+                }
+                SessionProfiles.applyLocal(jdbcTemplate, constraint.sessionSettings());
+                log.info("Validating constraint {} on {} ({}/{}, ~{} rows)", constraint.constraintName(),
+                        constraint.tableName(), index, total, estimateRows(constraint.tableName()));
+
+                if (progressIntervalMs > 0) {
+                    heartbeat.scheduleAtFixedRate(() -> log.info("Still validating constraint {} on {} ({} s elapsed)",
+                                    constraint.constraintName(), constraint.tableName(), elapsedMillis(startNanos) / 1000),
+                            progressIntervalMs, progressIntervalMs, TimeUnit.MILLISECONDS);
+                }
+                jdbcTemplate.execute(constraint.validateSql());
+            });
+        } finally {
+            heartbeat.shutdownNow();
+        }
+
+        log.info("Constraint {} on {} validated in {} ms",
+                constraint.constraintName(), constraint.tableName(), elapsedMillis(startNanos));
+    }
+
+    private long estimateRows(String tableName) {
+        // Planner estimate from the last ANALYZE; -1 for a table that was never analyzed
+        Long estimate = jdbcTemplate.queryForObject(
+                "SELECT reltuples::BIGINT FROM pg_class WHERE oid = to_regclass(?)", Long.class, tableName);
+        return estimate != null ? Math.max(estimate, 0) : 0;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Constraints registered in one transaction, validated once it has committed.
+     */
+    private final class PendingValidations implements TransactionSynchronization {
+
+        private final List<DeferredConstraint> constraints = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            // REQUIRES_NEW: the committed transaction's connection is still bound to this thread
+            validateAll(constraints);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DeferredConstraintValidator.this);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.datadrift.executor.maintenance;
+
+import com.datadrift.plan.CatalogSnapshot;
+import com.datadrift.plan.TableStats;
+import com.datadrift.util.SqlEscapeUtil;
+import com.datadrift.util.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Refreshes planner statistics of tables a run changed many rows of.
+ *
+ * Insert, update and delete changes report their row counts per table (TouchedTables). Once the
+ * run has committed, a table is analyzed when its changed rows reach both
+ * datadrift.maintenance.analyze-min-rows and datadrift.maintenance.analyze-min-fraction of the
+ * row estimate in the preflight snapshot; tables missing from the snapshot, or estimated empty,
+ * only need the minimum rows. Tables with at least datadrift.maintenance.vacuum-min-deleted-rows
+ * deleted rows get VACUUM (ANALYZE) instead (0 disables VACUUM).
+ *
+ * Statements run on up to datadrift.maintenance.parallelism autocommit connections taken from
+ * the pool on the calling thread (same shard, same tenant schema). Failures are logged and
+ * never fail the migration, which has already committed; autovacuum catches up eventually.
+ */
+@Slf4j
+@Component
+public class TableMaintenance {
+
+    /**
+     * @param reason why the table qualified, for the log
+     */
+    record Task(String table, String sql, String reason) {
+    }
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final long analyzeMinRows;
+    private final double analyzeMinFraction;
+    private final long vacuumMinDeletedRows;
+    private final int parallelism;
+
+    public TableMaintenance(
+            DataSource dataSource,
+            @Value("${datadrift.maintenance.enabled:true}") boolean enabled,
+            @Value("${datadrift.maintenance.analyze-min-rows:10000}") long analyzeMinRows,
+            @Value("${datadrift.maintenance.analyze-min-fraction:0.1}") double analyzeMinFraction,
+            @Value("${datadrift.maintenance.vacuum-min-deleted-rows:0}") long vacuumMinDeletedRows,
+            @Value("${datadrift.maintenance.parallelism:1}") int parallelism) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.analyzeMinRows = analyzeMinRows;
+        this.analyzeMinFraction = analyzeMinFraction;
+        this.vacuumMinDeletedRows = vacuumMinDeletedRows;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Maintain the run's tables after the current transaction commits, or right away when no
+     * transaction is active (each changeset then committed on its own).
+     */
+    public void afterRun(TouchedTables touched, CatalogSnapshot snapshot) {
+        if (!enabled || touched == null || touched.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            maintain(plan(touched, snapshot));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                maintain(plan(touched, snapshot));
+            }
+        });
+    }
+
+    /**
+     * @return one statement per qualifying table, in the order the tables were first changed
+     */
+    List<Task> plan(TouchedTables touched, CatalogSnapshot snapshot) {
+        List<Task> tasks = new ArrayList<>();
+        for (TouchedTables.Table table : touched.tables()) {
+            if (vacuumMinDeletedRows > 0 && table.deleted() >= vacuumMinDeletedRows) {
+                tasks.add(new Task(table.qualifiedName(), "VACUUM (ANALYZE) " + table.qualifiedName(),
+                        table.deleted() + " rows deleted"));
+                continue;
+            }
+            String reason = analyzeReason(table, snapshot.table(table.tableName()));
+            if (reason != null) {
+                tasks.add(new Task(table.qualifiedName(), "ANALYZE " + table.qualifiedName(), reason));
+            }
+        }
+        return tasks;
+    }
+
+    private String analyzeReason(TouchedTables.Table table, Optional<TableStats> stats) {
+        long changed = table.changed();
+        if (changed < analyzeMinRows) {
+            return null;
+        }
+        long estimate = stats.map(TableStats::rows).orElse(0L);
+        if (estimate <= 0) {
+            return changed + " rows changed";
+        }
+        double fraction = (double) changed / estimate;
+        if (fraction < analyzeMinFraction) {
+            return null;
+        }
+        return String.format(Locale.ROOT, "%d rows changed, %.0f%% of ~%d", changed, fraction * 100, estimate);
+    }
+
+    private void maintain(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        log.info("Refreshing statistics of {} table(s) changed by this run", tasks.size());
+
+        String tenantSchema = TenantContext.currentSchema();
+        List<Connection> connections = connections(Math.min(parallelism, tasks.size()));
+        if (connections.isEmpty()) {
+            return;
+        }
+
+        Queue<Task> queue = new ConcurrentLinkedQueue<>(tasks);
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(connections.size(), runnable -> {
+            Thread thread = new Thread(runnable, "datadrift-maintenance-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (Connection connection : connections) {
+                pool.execute(() -> drain(queue, connection, tenantSchema));
+            }
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while refreshing statistics; {} table(s) left to autovacuum", queue.size());
+        } finally {
+            pool.shutdownNow();
+            for (Connection connection : connections) {
+                close(connection);
+            }
+        }
+    }
+
+    /**
+     * Connections are obtained on the calling thread, so they reach the same shard.
+     */
+    private List<Connection> connections(int count) {
+        List<Connection> connections = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            try {
+                Connection connection = dataSource.getConnection();
+                connection.setAutoCommit(true);
+                connections.add(connection);
+            } catch (SQLException | RuntimeException e) {
+                if (connections.isEmpty()) {
+                    log.warn("No connection to refresh statistics, leaving them to autovacuum: {}", e.getMessage());
+                }
+                break;
+            }
+        }
+        return connections;
+    }
+
+    private void drain(Queue<Task> queue, Connection connection, String tenantSchema) {
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        try {
+            if (tenantSchema != null) {
+                jdbc.queryForObject("SELECT set_config('search_path', ?, false)", String.class,
+                        SqlEscapeUtil.escapeIdentifier(tenantSchema));
+            }
+            Task task;
+            while ((task = queue.poll()) != null) {
+                run(jdbc, task);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Refreshing statistics stopped: {}", e.getMessage());
+        } finally {
+            if (tenantSchema != null) {
+                try {
+                    jdbc.execute("RESET search_path");
+                } catch (RuntimeException e) {
+                    log.debug("Resetting search_path failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void run(JdbcTemplate jdbc, Task task) {
+        long startNanos = System.nanoTime();
+        try {
+            jdbc.execute(task.sql());
+            log.info("{} ({}) took {} ms", task.sql(), task.reason(), (System.nanoTime() - startNanos) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("{} failed, leaving {} to autovacuum: {}", task.sql(), task.table(), e.getMessage());
+        }
+    }
+
+    private static void close(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Closing the maintenance connection failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.datadrift.executor.maintenance;
+
+import com.datadrift.model.change.Change;
+import com.datadrift.model.change.DeleteChange;
+import com.datadrift.model.change.InsertChange;
+import com.datadrift.model.change.UpdateChange;
+import com.datadrift.util.SqlEscapeUtil;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rows inserted, updated and deleted per table by the insert, update and delete changes of
+ * one run. Safe for the workers of a parallel run.
+ */
+public class TouchedTables {
+
+    /**
+     * @param qualifiedName escaped, optionally schema-qualified table name
+     * @param tableName     table name as written in the changelog
+     */
+    public record Table(String qualifiedName, String tableName, long inserted, long updated, long deleted) {
+
+        public long changed() {
+            return inserted + updated + deleted;
+        }
+    }
+
+    private final Map<String, Table> tables = new LinkedHashMap<>();
+
+    /**
+     * Count the rows of a finished change; other change types are ignored.
+     */
+    public synchronized void add(Change change, long rows) {
+        switch (change) {
+            case InsertChange c -> add(c.getSchemaName(), c.getTableName(), rows, 0, 0);
+            case UpdateChange c -> add(c.getSchemaName(), c.getTableName(), 0, rows, 0);
+            case DeleteChange c -> add(c.getSchemaName(), c.getTableName(), 0, 0, rows);
+            default -> {
+            }
+        }
+    }
+
+    private void add(String schemaName, String tableName, long inserted, long updated, long deleted) {
+        if (inserted + updated + deleted <= 0) {
+            return;
+        }
+        String qualifiedName = SqlEscapeUtil.qualifiedName(schemaName, tableName);
+        tables.merge(qualifiedName, new Table(qualifiedName, tableName, inserted, updated, deleted),
+                (a, b) -> new Table(qualifiedName, a.tableName(), a.inserted() + b.inserted(),
+                        a.updated() + b.updated(), a.deleted() + b.deleted()));
+    }
+
+    public synchronized List<Table> tables() {
+        return new ArrayList<>(tables.values());
+    }
+
+    public synchronized boolean isEmpty() {
+        return tables.isEmpty();
+    }
+}
@@ -0,0 +1,143 @@
+package com.datadrift.executor.online;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * AIMD controller for chunked data changes.
+ *
+ * After every chunk the controller samples load signals: the chunk's own statement latency,
+ * the number of other active backends (pg_stat_activity) and an optional probe query such as
+ * replication lag. If any signal is over its limit, the chunk size is cut multiplicatively and
+ * the pause between chunks doubles; otherwise the chunk size grows by a fixed step and the
+ * pause shrinks by one step. The migration thereby backs off quickly under peak traffic and
+ * creeps back up when the database is idle.
+ *
+ * The configured rows-per-second cap (ChunkThrottle) is applied on top.
+ */
+@Slf4j
+public class AdaptiveThrottle {
+
+    /**
+     * @param adaptive          false keeps the initial chunk size and never pauses (rate cap only)
+     * @param targetLatencyMs   chunk statement latency considered overload; 0 disables
+     * @param maxActiveBackends other active backends considered overload; 0 disables
+     * @param probeQuery        query returning one number, e.g. replication lag in seconds;
+     *                          blank disables
+     * @param probeMax          probe value considered overload
+     * @param increaseRows      additive chunk size increase per healthy chunk
+     * @param decreaseFactor    multiplicative chunk size decrease on overload, between 0 and 1
+     * @param sleepStepMs       pause added on first overload and removed per healthy chunk
+     */
+    public record Settings(boolean adaptive, int minChunkSize, int maxChunkSize, long targetLatencyMs,
+                           int maxActiveBackends, String probeQuery, double probeMax,
+                           int increaseRows, double decreaseFactor, long sleepStepMs, long maxSleepMs) {
+    }
+
+    record LoadSample(long latencyMs, int activeBackends, Double probeValue) {
+    }
+
+    private final Settings settings;
+    private final JdbcTemplate jdbc;
+    private final ChunkThrottle rateLimit;
+    private final String label;
+
+    private int chunkSize;
+    private long sleepMs;
+    private boolean probeFailed;
+
+    /**
+     * @param jdbc signals are sampled on the worker's own connection, between chunks
+     */
+    public AdaptiveThrottle(Settings settings, JdbcTemplate jdbc, String label, int initialChunkSize, long maxRowsPerSecond) {
+        this.settings = settings;
+        this.jdbc = jdbc;
+        this.label = label;
+        this.rateLimit = new ChunkThrottle(maxRowsPerSecond);
+        this.chunkSize = settings.adaptive()
+                ? clamp(initialChunkSize, settings.minChunkSize(), settings.maxChunkSize())
+                : Math.max(1, initialChunkSize);
+    }
+
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    long sleepMillis() {
+        return sleepMs;
+    }
+
+    /**
+     * Record a finished chunk, adjust the next chunk size and pause as long as the load and the
+     * rate cap require.
+     */
+    public void afterChunk(long rows, long latencyNanos) throws InterruptedException {
+        if (settings.adaptive()) {
+            adjust(sample(latencyNanos / 1_000_000));
+            if (sleepMs > 0) {
+                Thread.sleep(sleepMs);
+            }
+        }
+        rateLimit.pace(rows);
+    }
+
+    private LoadSample sample(long latencyMs) {
+        int activeBackends = 0;
+        if (settings.maxActiveBackends() > 0) {
+            Integer active = jdbc.queryForObject(
+                    "SELECT count(*)::INT FROM pg_stat_activity WHERE state = 'active' AND pid <> pg_backend_pid()",
+                    Integer.class);
+            activeBackends = active != null ? active : 0;
+        }
+
+        Double probeValue = null;
+        if (settings.probeQuery() != null && !settings.probeQuery().isBlank() && !probeFailed) {
+            try {
+                probeValue = jdbc.queryForObject(settings.probeQuery(), Double.class);
+            } catch (RuntimeException e) {
+                // A broken probe must not stop the migration; the other signals still apply
+                probeFailed = true;
+                log.warn("Throttle probe query failed, ignoring it from now on: {}", e.getMessage());
+            }
+        }
+
+        return new LoadSample(latencyMs, activeBackends, probeValue);
+    }
+
+    /**
+     * @return the overload reason, or null when the database looked healthy
+     */
+    String adjust(LoadSample sample) {
+        String overload = overloadReason(sample);
+
+        if (overload != null) {
+            int previous = chunkSize;
+            chunkSize = clamp((int) (chunkSize * settings.decreaseFactor()), settings.minChunkSize(), settings.maxChunkSize());
+            sleepMs = Math.min(settings.maxSleepMs(), Math.max(settings.sleepStepMs(), sleepMs * 2));
+            log.info("{}: backing off ({}), chunk {} -> {} rows, pause {} ms", label, overload, previous, chunkSize, sleepMs);
+        } else {
+            chunkSize = clamp(chunkSize + settings.increaseRows(), settings.minChunkSize(), settings.maxChunkSize());
+            sleepMs = Math.max(0, sleepMs - settings.sleepStepMs());
+            log.debug("{}: chunk {} rows, pause {} ms", label, chunkSize, sleepMs);
+        }
+
+        return overload;
+    }
+
+    private String overloadReason(LoadSample sample) {
+        if (settings.targetLatencyMs() > 0 && sample.latencyMs() > settings.targetLatencyMs()) {
+            return "chunk took " + sample.latencyMs() + " ms";
+        }
+        if (settings.maxActiveBackends() > 0 && sample.activeBackends() > settings.maxActiveBackends()) {
+            return sample.activeBackends() + " active backends";
+        }
+        if (sample.probeValue() != null && sample.probeValue() > settings.probeMax()) {
+            return "probe value " + sample.probeValue();
+        }
+        return null;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(Math.max(1, min), Math.min(max, value));
+    }
+}
@@ -0,0 +1,43 @@
+package com.datadrift.executor.online;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates per-run AdaptiveThrottle instances from the datadrift.throttle.* configuration.
+ */
+@Component
+public class AdaptiveThrottleFactory {
+
+    private final AdaptiveThrottle.Settings settings;
+
+    public AdaptiveThrottleFactory(
+            @Value("${datadrift.throttle.adaptive:true}") boolean adaptive,
+            @Value("${datadrift.throttle.min-chunk-size:100}") int minChunkSize,
+            @Value("${datadrift.throttle.max-chunk-size:20000}") int maxChunkSize,
+            @Value("${datadrift.throttle.target-latency-ms:1000}") long targetLatencyMs,
+            @Value("${datadrift.throttle.max-active-backends:0}") int maxActiveBackends,
+            @Value("${datadrift.throttle.probe-query:}") String probeQuery,
+            @Value("${datadrift.throttle.probe-max:0}") double probeMax,
+            @Value("${datadrift.throttle.increase-rows:250}") int increaseRows,
+            @Value("${datadrift.throttle.decrease-factor:0.5}") double decreaseFactor,
+            @Value("${datadrift.throttle.sleep-step-ms:100}") long sleepStepMs,
+            @Value("${datadrift.throttle.max-sleep-ms:10000}") long maxSleepMs) {
+        if (decreaseFactor <= 0 || decreaseFactor >= 1) {
+            throw new IllegalArgumentException("datadrift.throttle.decrease-factor must be between 0 and 1");
+        }
+        this.settings = new AdaptiveThrottle.Settings(adaptive, minChunkSize, maxChunkSize, targetLatencyMs,
+                maxActiveBackends, probeQuery, probeMax, increaseRows, decreaseFactor, sleepStepMs, maxSleepMs);
+    }
+
+    /**
+     * @param jdbc             template on the connection doing the chunked work
+     * @param label            names the run in log messages
+     * @param initialChunkSize configured chunk size, the starting point for adaptation
+     * @param maxRowsPerSecond rate cap; 0 or less disables it
+     */
+    public AdaptiveThrottle create(JdbcTemplate jdbc, String label, int initialChunkSize, long maxRowsPerSecond) {
+        return new AdaptiveThrottle(settings, jdbc, label, initialChunkSize, maxRowsPerSecond);
+    }
+}
@@ -0,0 +1,40 @@
+package com.datadrift.executor.online;
+
+/**
+ * Paces chunked data copies to a target rate in rows per second.
+ *
+ * The pace is computed over the whole run rather than per chunk, so a slow chunk is made up for
+ * by not sleeping after the next ones, and short bursts never exceed the average.
+ */
+public class ChunkThrottle {
+
+    private final long maxRowsPerSecond;
+    private final long startNanos = System.nanoTime();
+    private long rows;
+
+    /**
+     * @param maxRowsPerSecond target rate; 0 or less disables throttling
+     */
+    public ChunkThrottle(long maxRowsPerSecond) {
+        this.maxRowsPerSecond = maxRowsPerSecond;
+    }
+
+    /**
+     * Record a finished chunk and sleep as long as the run is ahead of the target rate.
+     */
+    public void pace(long chunkRows) throws InterruptedException {
+        rows += chunkRows;
+        long delayMillis = delayMillis(rows, System.nanoTime() - startNanos);
+        if (delayMillis > 0) {
+            Thread.sleep(delayMillis);
+        }
+    }
+
+    long delayMillis(long totalRows, long elapsedNanos) {
+        if (maxRowsPerSecond <= 0) {
+            return 0;
+        }
+        long targetMillis = totalRows * 1000 / maxRowsPerSecond;
+        return Math.max(0, targetMillis - elapsedNanos / 1_000_000);
+    }
+}
@@ -0,0 +1,203 @@
+package com.datadrift.executor.online;
+
+import com.datadrift.exception.ChangeSetExecutionException;
+import com.datadrift.executor.session.LockTimeoutRetryPolicy;
+import com.datadrift.util.SqlEscapeUtil;
+import com.datadrift.util.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HexFormat;
+import java.util.function.Function;
+
+/**
+ * Runs chunked update and delete changes on a dedicated connection, one committed
+ * primary-key chunk at a time (see KeysetChunker), paced by AdaptiveThrottle.
+ *
+ * Chunks commit independently of the migration transaction: a failure leaves the chunks done so
+ * far in place. The last key of every chunk is committed to DATABASECHANGELOGBACKFILL in the
+ * same transaction, keyed by the table and a hash of the statement and its filter, and the
+ * final chunk marks it completed (an empty last_key). The checkpoint is only deleted on the
+ * migration connection, so it disappears together with the commit of the changeset's tracking
+ * row; when the run rolls back later, the completed checkpoint stays and the rerun skips the
+ * statement. A rerun of the same statement continues after the last committed chunk, so chunks
+ * already done are never applied twice, even for non-idempotent updates such as
+ * SET n = n + 1. Editing the statement starts over from the first row.
+ *
+ * Chunks are bounded by datadrift.backfill.lock-timeout. A chunk blocked by an application
+ * transaction is retried per datadrift.execution.retry.*. The chunk connection can also wait on
+ * locks the migration transaction itself holds: rows or a parent table written by an earlier
+ * change of the run, or a table read in the WHERE clause. The migration thread waits for the
+ * runner in Java, so PostgreSQL sees no deadlock, and only lock_timeout ends the wait. When
+ * the retries are used up, the change fails with a message pointing at that case.
+ */
+@Slf4j
+@Component
+public class ChunkedStatementRunner {
+
+    private static final String CHECKPOINT_PREFIX = "chunked:";
+
+    /** last_key of a checkpoint whose statement ran to the end */
+    private static final String[] COMPLETED = new String[0];
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final AdaptiveThrottleFactory throttleFactory;
+    private final long progressIntervalMs;
+    private final String lockTimeout;
+    private final LockTimeoutRetryPolicy retryPolicy;
+
+    public ChunkedStatementRunner(
+            DataSource dataSource,
+            JdbcTemplate jdbcTemplate,
+            AdaptiveThrottleFactory throttleFactory,
+            @Value("${datadrift.backfill.progress-interval-ms:10000}") long progressIntervalMs,
+            @Value("${datadrift.backfill.lock-timeout:2s}") String lockTimeout,
+            @Value("${datadrift.execution.retry.max-attempts:5}") int maxAttempts,
+            @Value("${datadrift.execution.retry.initial-backoff-ms:500}") long initialBackoffMs,
+            @Value("${datadrift.execution.retry.max-backoff-ms:30000}") long maxBackoffMs) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.throttleFactory = throttleFactory;
+        this.progressIntervalMs = progressIntervalMs;
+        this.lockTimeout = lockTimeout;
+        this.retryPolicy = new LockTimeoutRetryPolicy(maxAttempts, initialBackoffMs, maxBackoffMs);
+    }
+
+    /**
+     * @param table            escaped, optionally qualified table name
+     * @param statement        builds the statement for one chunk from its WHERE condition
+     * @param filter           the change's own row condition
+     * @param chunkSize        initial rows per chunk
+     * @param maxRowsPerSecond rate cap; 0 or less disables it
+     * @return rows affected
+     */
+    public long run(String label, String table, Function<String, String> statement, String filter,
+                    int chunkSize, long maxRowsPerSecond) {
+        String tenantSchema = TenantContext.currentSchema();
+        String checkpointKey = checkpointKey(statement, filter);
+
+        // Read on the migration connection, which sees the committed chunk checkpoints and its
+        // own deletes
+        Checkpoint checkpoint = readCheckpoint(jdbcTemplate, table, checkpointKey);
+        if (checkpoint.completed()) {
+            log.info("{} already completed ({} rows) in a run that did not commit; not applying it again",
+                    label, checkpoint.rowsDone());
+            clearCheckpoint(table, checkpointKey);
+            return checkpoint.rowsDone();
+        }
+        if (checkpoint.rowsDone() > 0) {
+            log.info("Resuming {} after {} rows", label, checkpoint.rowsDone());
+        }
+
+        long rows;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+
+            try {
+                if (tenantSchema != null) {
+                    jdbc.queryForObject("SELECT set_config('search_path', ?, false)", String.class,
+                            SqlEscapeUtil.escapeIdentifier(tenantSchema));
+                }
+                jdbc.queryForObject("SELECT set_config('lock_timeout', ?, false)", String.class, lockTimeout);
+
+                AdaptiveThrottle throttle = throttleFactory.create(jdbc, label, chunkSize, maxRowsPerSecond);
+                rows = new KeysetChunker(jdbc, connection, table, KeysetChunker.primaryKey(jdbc, table), progressIntervalMs, retryPolicy)
+                        .run(label, statement, filter, checkpoint.lastKey(), checkpoint.rowsDone(), 0, throttle,
+                                checkpointHook(jdbc, connection, table, checkpointKey));
+
+            } catch (RuntimeException e) {
+                if (LockTimeoutRetryPolicy.isLockTimeout(e)) {
+                    throw new ChangeSetExecutionException(label + " waited longer than lock_timeout " + lockTimeout +
+                            " for a lock " + retryPolicy.getMaxAttempts() + " times. If an earlier change of this run " +
+                            "wrote these rows, their foreign-key parents or a table the WHERE clause reads, the " +
+                            "migration transaction itself holds that lock; move the change into a run of its own.", e);
+                }
+                throw e;
+            } finally {
+                // The connection goes back to the pool; do not leak session settings
+                jdbc.execute("RESET lock_timeout");
+                if (tenantSchema != null) {
+                    jdbc.execute("RESET search_path");
+                }
+            }
+        } catch (SQLException e) {
+            throw new ChangeSetExecutionException(label + " failed: " + e.getMessage(), e);
+        }
+
+        clearCheckpoint(table, checkpointKey);
+        return rows;
+    }
+
+    /**
+     * Commits the last key of each chunk with it; the final chunk (no upper key) marks the
+     * checkpoint completed instead of deleting it.
+     */
+    static KeysetChunker.ChunkCommitHook checkpointHook(JdbcTemplate jdbc, Connection connection, String table,
+                                                        String checkpointKey) {
+        return (upperKey, rowsDone) -> jdbc.update(
+                "INSERT INTO DATABASECHANGELOGBACKFILL (table_name, column_name, last_key, rows_done, updated) " +
+                        "VALUES (?, ?, ?, ?, now()) ON CONFLICT (table_name, column_name) " +
+                        "DO UPDATE SET last_key = EXCLUDED.last_key, rows_done = EXCLUDED.rows_done, updated = now()",
+                table, checkpointKey, connection.createArrayOf("text", upperKey != null ? upperKey : COMPLETED), rowsDone);
+    }
+
+    /**
+     * Deleted in the migration transaction, so the checkpoint outlives a run that rolls back.
+     */
+    private void clearCheckpoint(String table, String checkpointKey) {
+        jdbcTemplate.update("DELETE FROM DATABASECHANGELOGBACKFILL WHERE table_name = ? AND column_name = ?",
+                table, checkpointKey);
+    }
+
+    /**
+     * Identifies the statement in DATABASECHANGELOGBACKFILL.column_name.
+     */
+    static String checkpointKey(Function<String, String> statement, String filter) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest((statement.apply("TRUE") + "\n" + filter).getBytes(StandardCharsets.UTF_8));
+            return CHECKPOINT_PREFIX + HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Checkpoint readCheckpoint(JdbcTemplate jdbc, String table, String checkpointKey) {
+        Checkpoint checkpoint = jdbc.query(
+                "SELECT last_key, rows_done FROM DATABASECHANGELOGBACKFILL WHERE table_name = ? AND column_name = ?",
+                rs -> {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    Array lastKey = rs.getArray(1);
+                    return new Checkpoint(lastKey != null ? (String[]) lastKey.getArray() : null, rs.getLong(2));
+                },
+                table, checkpointKey);
+        return checkpoint != null ? checkpoint : Checkpoint.NONE;
+    }
+
+    /**
+     * @param lastKey  primary key of the last committed chunk as text, empty once the statement
+     *                 completed, or null to start at the beginning
+     * @param rowsDone rows affected by earlier runs
+     */
+    private record Checkpoint(String[] lastKey, long rowsDone) {
+        static final Checkpoint NONE = new Checkpoint(null, 0);
+
+        boolean completed() {
+            return lastKey != null && lastKey.length == 0;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.datadrift.executor.online;
+
+import com.datadrift.exception.ChangeSetExecutionException;
+import com.datadrift.executor.session.LockTimeoutRetryPolicy;
+import com.datadrift.executor.session.SessionProfiles;
+import com.datadrift.model.change.BackfillColumnChange;
+import com.datadrift.util.SessionProfileContext;
+import com.datadrift.util.SqlEscapeUtil;
+import com.datadrift.util.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Fills a new column in committed primary-key chunks.
+ *
+ * 1. ADD COLUMN IF NOT EXISTS, nullable and without a default (catalog-only).
+ * 2. Keyset pass (see KeysetChunker): UPDATE ... SET column = valueComputed for one chunk of
+ *    primary keys per transaction, paced by AdaptiveThrottle. The last key of every chunk is
+ *    committed to DATABASECHANGELOGBACKFILL in the same transaction, so a rerun after a
+ *    failure continues after the last committed chunk.
+ * 3. NOT NULL: add CHECK (column IS NOT NULL) NOT VALID, which holds for new writes from now on,
+ *    fill rows written without the column during step 2 in a second keyset pass, VALIDATE the
+ *    CHECK without blocking writes, then SET NOT NULL (PostgreSQL 12+ skips the table scan
+ *    because of the validated CHECK) and drop the CHECK again.
+ *
+ * Everything runs on a dedicated autocommit connection, outside the migration transaction, so
+ * progress survives a failed run. DDL statements and chunk updates are bounded by
+ * datadrift.backfill.lock-timeout and retried on lock timeout like other changes
+ * (datadrift.execution.retry.*); a chunk blocked by an application's row lock is rolled back and
+ * retried on its own. The changeset's session profile, if any, is applied to the dedicated
+ * connection as well.
+ */
+@Slf4j
+@Component
+public class ColumnBackfiller {
+
+    private static final int MAX_IDENTIFIER_LENGTH = 63;
+
+    private final DataSource dataSource;
+    private final int defaultChunkSize;
+    private final long defaultMaxRowsPerSecond;
+    private final String lockTimeout;
+    private final long progressIntervalMs;
+    private final LockTimeoutRetryPolicy retryPolicy;
+    private final AdaptiveThrottleFactory throttleFactory;
+
+    public ColumnBackfiller(
+            DataSource dataSource,
+            AdaptiveThrottleFactory throttleFactory,
+            @Value("${datadrift.backfill.chunk-size:1000}") int defaultChunkSize,
+            @Value("${datadrift.backfill.max-rows-per-second:0}") long defaultMaxRowsPerSecond,
+            @Value("${datadrift.backfill.lock-timeout:2s}") String lockTimeout,
+            @Value("${datadrift.backfill.progress-interval-ms:10000}") long progressIntervalMs,
+            @Value("${datadrift.execution.retry.max-attempts:5}") int maxAttempts,
+            @Value("${datadrift.execution.retry.initial-backoff-ms:500}") long initialBackoffMs,
+            @Value("${datadrift.execution.retry.max-backoff-ms:30000}") long maxBackoffMs) {
+        this.dataSource = dataSource;
+        this.throttleFactory = throttleFactory;
+        this.defaultChunkSize = Math.max(1, defaultChunkSize);
+        this.defaultMaxRowsPerSecond = defaultMaxRowsPerSecond;
+        this.lockTimeout = lockTimeout;
+        this.progressIntervalMs = progressIntervalMs;
+        this.retryPolicy = new LockTimeoutRetryPolicy(maxAttempts, initialBackoffMs, maxBackoffMs);
+    }
+
+    /**
+     * @return rows updated by this run
+     */
+    public long backfill(BackfillColumnChange change) {
+        String tenantSchema = TenantContext.currentSchema();
+        Map<String, String> sessionSettings = SessionProfileContext.currentSettings();
+        String table = SqlEscapeUtil.qualifiedName(change.getSchemaName(), change.getTableName());
+        String column = SqlEscapeUtil.escapeIdentifier(change.getColumnName());
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+
+            try {
+                if (tenantSchema != null) {
+                    jdbc.queryForObject("SELECT set_config('search_path', ?, false)", String.class,
+                            SqlEscapeUtil.escapeIdentifier(tenantSchema));
+                }
+                jdbc.queryForObject("SELECT set_config('lock_timeout', ?, false)", String.class, lockTimeout);
+                SessionProfiles.applySession(jdbc, sessionSettings);
+
+                executeDdl(jdbc, "ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS " + column + " " + change.getColumnType());
+
+                List<KeysetChunker.KeyColumn> key = KeysetChunker.primaryKey(jdbc, table);
+                String setClause = column + " = (" + change.getValueComputed() + ")";
+                Function<String, String> update = where -> "UPDATE " + table + " SET " + setClause + " WHERE " + where;
+                Checkpoint checkpoint = readCheckpoint(jdbc, table, change.getColumnName());
+                if (checkpoint.rowsDone > 0) {
+                    log.info("Resuming backfill of {}.{} after {} rows", table, column, checkpoint.rowsDone);
+                }
+
+                long estimate = Math.max(0, jdbc.queryForObject(
+                        "SELECT reltuples::BIGINT FROM pg_class WHERE oid = to_regclass(?)", Long.class, table));
+                KeysetChunker chunker = new KeysetChunker(jdbc, connection, table, key, progressIntervalMs, retryPolicy);
+                String label = "Backfill of " + table + "." + column;
+                AdaptiveThrottle throttle = throttleFactory.create(jdbc, label, chunkSize(change), maxRowsPerSecond(change));
+                long rows = chunker.run(label, update, null, checkpoint.lastKey(), checkpoint.rowsDone(), estimate, throttle,
+                        (upperKey, rowsDone) -> {
+                            if (upperKey != null) {
+                                jdbc.update("INSERT INTO DATABASECHANGELOGBACKFILL (table_name, column_name, last_key, rows_done, updated) " +
+                                                "VALUES (?, ?, ?, ?, now()) ON CONFLICT (table_name, column_name) " +
+                                                "DO UPDATE SET last_key = EXCLUDED.last_key, rows_done = EXCLUDED.rows_done, updated = now()",
+                                        table, change.getColumnName(), connection.createArrayOf("text", upperKey), rowsDone);
+                            }
+                        });
+
+                if (change.isNotNullRequested()) {
+                    rows += enforceNotNull(jdbc, chunker, throttle, table, change, update);
+                }
+
+                jdbc.update("DELETE FROM DATABASECHANGELOGBACKFILL WHERE table_name = ? AND column_name = ?",
+                        table, change.getColumnName());
+                jdbc.execute("ANALYZE " + table + " (" + column + ")");
+                return rows;
+
+            } finally {
+                // The connection goes back to the pool; do not leak session settings
+                jdbc.execute("RESET lock_timeout");
+                SessionProfiles.resetSession(jdbc, sessionSettings);
+                if (tenantSchema != null) {
+                    jdbc.execute("RESET search_path");
+                }
+            }
+        } catch (SQLException e) {
+            throw new ChangeSetExecutionException("Backfill of " + table + "." + column + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private long enforceNotNull(JdbcTemplate jdbc, KeysetChunker chunker, AdaptiveThrottle throttle, String table,
+                                BackfillColumnChange change, Function<String, String> update) throws SQLException {
+        String column = SqlEscapeUtil.escapeIdentifier(change.getColumnName());
+        String checkName = notNullCheckName(change.getTableName(), change.getColumnName());
+        String escapedCheck = SqlEscapeUtil.escapeIdentifier(checkName);
+
+        Boolean checkExists = jdbc.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = to_regclass(?) AND conname = ?)",
+                Boolean.class, table, checkName);
+        if (!Boolean.TRUE.equals(checkExists)) {
+            executeDdl(jdbc, "ALTER TABLE " + table + " ADD CONSTRAINT " + escapedCheck +
+                    " CHECK (" + column + " IS NOT NULL) NOT VALID");
+        }
+
+        // Rows inserted without the column while the first pass ran; new writes are covered by the CHECK
+        long rows = chunker.run("Backfill of rows written meanwhile in " + table, update, column + " IS NULL", null, 0, 0,
+                throttle, null);
+
+        log.info("Validating NOT NULL of {}.{}", table, column);
+        executeDdl(jdbc, "ALTER TABLE " + table + " VALIDATE CONSTRAINT " + escapedCheck);
+        executeDdl(jdbc, "ALTER TABLE " + table + " ALTER COLUMN " + column + " SET NOT NULL");
+        executeDdl(jdbc, "ALTER TABLE " + table + " DROP CONSTRAINT " + escapedCheck);
+        return rows;
+    }
+
+    private void executeDdl(JdbcTemplate jdbc, String sql) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                jdbc.execute(sql);
+                return;
+            } catch (RuntimeException e) {
+                if (!retryPolicy.shouldRetry(e, attempt)) {
+                    throw e;
+                }
+                long delay = retryPolicy.backoffMillis(attempt);
+                log.warn("Lock timeout on \"{}\" (attempt {}/{}), retrying in {} ms",
+                        sql, attempt, retryPolicy.getMaxAttempts(), delay);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new ChangeSetExecutionException("Interrupted while waiting to retry \"" + sql + "\"", interrupted);
+                }
+            }
+        }
+    }
+
+    private Checkpoint readCheckpoint(JdbcTemplate jdbc, String table, String columnName) {
+        Checkpoint checkpoint = jdbc.query(
+                "SELECT last_key, rows_done FROM DATABASECHANGELOGBACKFILL WHERE table_name = ? AND column_name = ?",
+                rs -> {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    Array lastKey = rs.getArray(1);
+                    return new Checkpoint(lastKey != null ? (String[]) lastKey.getArray() : null, rs.getLong(2));
+                },
+                table, columnName);
+        return checkpoint != null ? checkpoint : Checkpoint.NONE;
+    }
+
+    private int chunkSize(BackfillColumnChange change) {
+        return change.getChunkSize() != null ? change.getChunkSize() : defaultChunkSize;
+    }
+
+    private long maxRowsPerSecond(BackfillColumnChange change) {
+        return change.getMaxRowsPerSecond() != null ? change.getMaxRowsPerSecond() : defaultMaxRowsPerSecond;
+    }
+
+    public static String notNullCheckName(String tableName, String columnName) {
+        String name = "chk_" + tableName + "_" + columnName + "_not_null";
+        return name.length() > MAX_IDENTIFIER_LENGTH ? name.substring(0, MAX_IDENTIFIER_LENGTH) : name;
+    }
+
+    /**
+     * @param lastKey  primary key of the last committed chunk as text, or null to start at the beginning
+     * @param rowsDone rows updated by earlier runs
+     */
+    private record Checkpoint(String[] lastKey, long rowsDone) {
+        static final Checkpoint NONE = new Checkpoint(null, 0);
+    }
+}
@@ -0,0 +1,228 @@
+package com.datadrift.executor.online;
+
+import com.datadrift.exception.ChangeSetExecutionException;
+import com.datadrift.executor.session.LockTimeoutRetryPolicy;
+import com.datadrift.util.SqlEscapeUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs one statement over a table in primary-key chunks, one transaction per chunk.
+ *
+ * Each chunk looks up its upper key bound (the chunkSize-th key after the previous bound), runs
+ * the statement restricted to that key range and commits. The chunk size comes from an
+ * AdaptiveThrottle and may change between chunks.
+ *
+ * Key values travel as text and are cast back to the key column types in SQL, which keeps
+ * composite keys and persisted checkpoints uniform.
+ *
+ * A chunk that hits lock_timeout, typically on a row an application transaction holds, is
+ * rolled back and retried per the retry policy; the chunks committed before it stay done.
+ */
+@Slf4j
+public class KeysetChunker {
+
+    public record KeyColumn(String name, String type) {
+    }
+
+    /**
+     * Called inside every chunk's transaction, right before it commits. upperKey is null for
+     * the last chunk, which runs to the end of the table.
+     */
+    @FunctionalInterface
+    public interface ChunkCommitHook {
+        void beforeCommit(String[] upperKey, long rowsDone) throws SQLException;
+    }
+
+    private final JdbcTemplate jdbc;
+    private final Connection connection;
+    private final String table;
+    private final List<KeyColumn> key;
+    private final long progressIntervalMs;
+    private final LockTimeoutRetryPolicy retryPolicy;
+    private final String keyList;
+    private final String typedPlaceholders;
+
+    /**
+     * @param jdbc       template on the given connection
+     * @param connection autocommit connection; switched to manual commit for each chunk
+     * @param table      escaped, optionally qualified table name
+     * @param retryPolicy attempts per chunk on lock timeout, or null to fail on the first one
+     */
+    public KeysetChunker(JdbcTemplate jdbc, Connection connection, String table, List<KeyColumn> key,
+                         long progressIntervalMs, LockTimeoutRetryPolicy retryPolicy) {
+        this.jdbc = jdbc;
+        this.connection = connection;
+        this.table = table;
+        this.key = key;
+        this.progressIntervalMs = progressIntervalMs;
+        this.retryPolicy = retryPolicy;
+        this.keyList = key.stream().map(k -> SqlEscapeUtil.escapeIdentifier(k.name())).collect(Collectors.joining(", "));
+        this.typedPlaceholders = key.stream().map(k -> "?::" + k.type()).collect(Collectors.joining(", "));
+    }
+
+    public static List<KeyColumn> primaryKey(JdbcTemplate jdbc, String table) {
+        List<KeyColumn> key = jdbc.query(
+                "SELECT a.attname, format_type(a.atttypid, a.atttypmod) FROM pg_index i " +
+                        "JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = ANY(i.indkey) " +
+                        "WHERE i.indrelid = to_regclass(?) AND i.indisprimary " +
+                        "ORDER BY array_position(i.indkey::int2[], a.attnum)",
+                (rs, rowNum) -> new KeyColumn(rs.getString(1), rs.getString(2)),
+                table);
+        if (key.isEmpty()) {
+            throw new IllegalStateException("Cannot process " + table + " in chunks: it has no primary key");
+        }
+        return key;
+    }
+
+    /**
+     * @param label      names the run in log messages, e.g. "Backfill of orders"
+     * @param statement  builds the statement for one chunk from its WHERE condition
+     * @param filter     extra row condition, or null
+     * @param startKey   exclusive lower key bound as text, or null to start at the beginning
+     * @param rowsBefore rows processed by earlier runs, for progress and the hook
+     * @param estimate   expected total rows for progress and ETA, or 0 when unknown
+     * @param hook       called before each commit, or null
+     * @return rows processed by this run
+     */
+    public long run(String label, Function<String, String> statement, String filter, String[] startKey,
+                    long rowsBefore, long estimate, AdaptiveThrottle throttle, ChunkCommitHook hook) throws SQLException {
+        String keyText = key.stream().map(k -> SqlEscapeUtil.escapeIdentifier(k.name()) + "::text")
+                .collect(Collectors.joining(", "));
+        String firstBoundSql = "SELECT " + keyText + " FROM " + table + " ORDER BY " + keyList + " OFFSET ? LIMIT 1";
+        String nextBoundSql = "SELECT " + keyText + " FROM " + table + " WHERE (" + keyList + ") > (" + typedPlaceholders +
+                ") ORDER BY " + keyList + " OFFSET ? LIMIT 1";
+
+        long startNanos = System.nanoTime();
+        long lastReport = startNanos;
+        long rowsDone = rowsBefore;
+        long rowsThisRun = 0;
+        String[] lower = startKey;
+
+        int attempt = 1;
+        while (true) {
+            String[] upper;
+            int rows;
+            long chunkNanos;
+
+            connection.setAutoCommit(false);
+            try {
+                int offset = throttle.chunkSize() - 1;
+                if (lower == null) {
+                    upper = jdbc.query(firstBoundSql, this::keyValues, offset);
+                } else {
+                    List<Object> boundArgs = new ArrayList<>(List.of((Object[]) lower));
+                    boundArgs.add(offset);
+                    upper = jdbc.query(nextBoundSql, this::keyValues, boundArgs.toArray());
+                }
+
+                List<String> conditions = new ArrayList<>();
+                List<Object> args = new ArrayList<>();
+                if (lower != null) {
+                    conditions.add("(" + keyList + ") > (" + typedPlaceholders + ")");
+                    Collections.addAll(args, (Object[]) lower);
+                }
+                if (upper != null) {
+                    conditions.add("(" + keyList + ") <= (" + typedPlaceholders + ")");
+                    Collections.addAll(args, (Object[]) upper);
+                }
+                if (filter != null) {
+                    conditions.add("(" + filter + ")");
+                }
+                String where = conditions.isEmpty() ? "TRUE" : String.join(" AND ", conditions);
+
+                long chunkStart = System.nanoTime();
+                rows = jdbc.update(statement.apply(where), args.toArray());
+                chunkNanos = System.nanoTime() - chunkStart;
+
+                if (hook != null) {
+                    hook.beforeCommit(upper, rowsDone + rows);
+                }
+                connection.commit();
+            } catch (RuntimeException | SQLException e) {
+                connection.rollback();
+                if (retryPolicy == null || !retryPolicy.shouldRetry(e, attempt)) {
+                    throw e;
+                }
+                long delay = retryPolicy.backoffMillis(attempt);
+                log.warn("{}: chunk hit lock_timeout (attempt {}/{}), retrying in {} ms",
+                        label, attempt, retryPolicy.getMaxAttempts(), delay);
+                attempt++;
+                sleep(label, delay);
+                continue;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            attempt = 1;
+            rowsDone += rows;
+            rowsThisRun += rows;
+
+            long now = System.nanoTime();
+            if (upper == null || (now - lastReport) / 1_000_000 >= progressIntervalMs) {
+                lastReport = now;
+                logProgress(label, rowsDone, rowsThisRun, now - startNanos, estimate, upper == null);
+            }
+            if (upper == null) {
+                return rowsThisRun;
+            }
+            lower = upper;
+
+            try {
+                throttle.afterChunk(rows, chunkNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ChangeSetExecutionException(label + " interrupted", e);
+            }
+        }
+    }
+
+    private static void sleep(String label, long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChangeSetExecutionException(label + " interrupted", e);
+        }
+    }
+
+    private String[] keyValues(ResultSet rs) throws SQLException {
+        if (!rs.next()) {
+            return null;
+        }
+        String[] values = new String[key.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = rs.getString(i + 1);
+        }
+        return values;
+    }
+
+    private void logProgress(String label, long rowsDone, long rowsThisRun, long elapsedNanos, long estimate,
+                             boolean done) {
+        long elapsedMs = Math.max(1, elapsedNanos / 1_000_000);
+        long rate = rowsThisRun * 1000 / elapsedMs;
+        if (done) {
+            log.info("{} complete: {} rows in {} ms ({} rows/s)", label, rowsThisRun, elapsedMs, rate);
+            return;
+        }
+
+        if (estimate <= 0) {
+            log.info("{}: {} rows, {} rows/s", label, rowsDone, rate);
+            return;
+        }
+
+        long total = Math.max(estimate, rowsDone);
+        long percent = total > 0 ? rowsDone * 100 / total : 0;
+        long etaSeconds = rate > 0 ? (total - rowsDone) / rate : -1;
+        log.info("{}: {} of ~{} rows ({}%), {} rows/s, ETA {}", label, rowsDone, total, percent, rate,
+                etaSeconds >= 0 ? etaSeconds + " s" : "unknown");
+    }
+}
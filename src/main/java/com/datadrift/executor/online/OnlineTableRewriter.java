@@ -0,0 +1,459 @@
+package com.datadrift.executor.online;
+
+import com.datadrift.exception.ChangeSetExecutionException;
+import com.datadrift.executor.session.LockTimeoutRetryPolicy;
+import com.datadrift.executor.session.SessionProfiles;
+import com.datadrift.util.SessionProfileContext;
+import com.datadrift.util.SqlEscapeUtil;
+import com.datadrift.util.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Rewrites a table without holding ACCESS EXCLUSIVE for the duration of the rewrite.
+ *
+ * 1. Setup: create an empty shadow table LIKE the original (INCLUDING ALL), apply the plan's
+ *    ALTER actions to it (instant on an empty table), copy outgoing foreign keys NOT VALID, and
+ *    install a row trigger on the original that mirrors every insert, update and delete into
+ *    the shadow table.
+ * 2. Backfill: copy existing rows in primary-key order, one committed chunk at a time (see
+ *    KeysetChunker), paced by AdaptiveThrottle and datadrift.online.max-rows-per-second.
+ *    Source rows are read FOR SHARE so a concurrent update or delete is ordered strictly
+ *    before or after the chunk, and its trigger always wins over the copied row. A chunk
+ *    waiting longer than lock_timeout on a row an application transaction holds is rolled
+ *    back and retried like the swap.
+ * 3. Swap: in one short transaction, lock the original, drop the trigger, hand over sequences,
+ *    and exchange the table names. Only this step takes ACCESS EXCLUSIVE; it is bounded by
+ *    lock_timeout and retried with backoff.
+ * 4. Finish: validate the copied foreign keys, drop the old table, restore index names and
+ *    ANALYZE the new table.
+ *
+ * Everything runs on a dedicated autocommit connection, outside the migration transaction: the
+ * trigger must be committed before the copy starts, or concurrent writes would be missed.
+ * A failure before the swap drops the shadow table, trigger and function again. The
+ * changeset's session profile, if any, is applied to this connection for the whole rewrite.
+ *
+ * Tables the rewrite cannot preserve are refused up front: tables without a primary key,
+ * partitioned tables, tables referenced by foreign keys or views, and tables with triggers of
+ * their own. Privileges and row-level security policies are not copied. TRUNCATE during the
+ * copy is not mirrored.
+ */
+@Slf4j
+@Component
+public class OnlineTableRewriter {
+
+    private static final String SHADOW_PREFIX = "_dd_new_";
+    private static final String OLD_PREFIX = "_dd_old_";
+    private static final String TRIGGER_PREFIX = "_dd_sync_";
+    private static final int MAX_IDENTIFIER_LENGTH = 63;
+
+    private final DataSource dataSource;
+    private final AdaptiveThrottleFactory throttleFactory;
+    private final int chunkSize;
+    private final long maxRowsPerSecond;
+    private final String lockTimeout;
+    private final LockTimeoutRetryPolicy lockRetryPolicy;
+    private final boolean keepOldTable;
+    private final long progressIntervalMs;
+
+    public OnlineTableRewriter(
+            DataSource dataSource,
+            AdaptiveThrottleFactory throttleFactory,
+            @Value("${datadrift.online.chunk-size:5000}") int chunkSize,
+            @Value("${datadrift.online.max-rows-per-second:0}") long maxRowsPerSecond,
+            @Value("${datadrift.online.lock-timeout:2s}") String lockTimeout,
+            @Value("${datadrift.online.swap-max-attempts:10}") int swapMaxAttempts,
+            @Value("${datadrift.online.keep-old-table:false}") boolean keepOldTable,
+            @Value("${datadrift.online.progress-interval-ms:10000}") long progressIntervalMs) {
+        this.dataSource = dataSource;
+        this.throttleFactory = throttleFactory;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        this.lockTimeout = lockTimeout;
+        this.lockRetryPolicy = new LockTimeoutRetryPolicy(swapMaxAttempts, 500, 30_000);
+        this.keepOldTable = keepOldTable;
+        this.progressIntervalMs = progressIntervalMs;
+    }
+
+    public void rewrite(RewritePlan plan) {
+        String tenantSchema = TenantContext.currentSchema();
+        Map<String, String> sessionSettings = SessionProfileContext.currentSettings();
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+
+            try {
+                if (tenantSchema != null) {
+                    jdbc.queryForObject("SELECT set_config('search_path', ?, false)", String.class,
+                            SqlEscapeUtil.escapeIdentifier(tenantSchema));
+                }
+                jdbc.queryForObject("SELECT set_config('lock_timeout', ?, false)", String.class, lockTimeout);
+                SessionProfiles.applySession(jdbc, sessionSettings);
+
+                TableInfo table = inspect(jdbc, plan);
+                log.info("Online rewrite of {} via shadow table {}", table.qualifiedName(), table.shadowName);
+
+                dropShadowObjects(jdbc, table);
+                try {
+                    createShadow(jdbc, table, plan);
+                    backfill(jdbc, connection, table);
+                    swap(jdbc, connection, table);
+                } catch (RuntimeException | SQLException e) {
+                    log.error("Online rewrite of {} failed, removing shadow table: {}", table.qualifiedName(), e.getMessage());
+                    dropShadowObjectsQuietly(jdbc, table);
+                    throw e;
+                }
+                finish(jdbc, table);
+
+            } finally {
+                // The connection goes back to the pool; do not leak session settings
+                jdbc.execute("RESET lock_timeout");
+                SessionProfiles.resetSession(jdbc, sessionSettings);
+                if (tenantSchema != null) {
+                    jdbc.execute("RESET search_path");
+                }
+            }
+        } catch (SQLException e) {
+            throw new ChangeSetExecutionException("Online rewrite of " + plan.tableName() + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private TableInfo inspect(JdbcTemplate jdbc, RewritePlan plan) {
+        String requested = SqlEscapeUtil.qualifiedName(plan.schemaName(), plan.tableName());
+
+        TableInfo table = jdbc.query(
+                "SELECT n.nspname, c.relname, c.relkind FROM pg_class c " +
+                        "JOIN pg_namespace n ON n.oid = c.relnamespace WHERE c.oid = to_regclass(?)",
+                rs -> rs.next() ? new TableInfo(rs.getString(1), rs.getString(2), rs.getString(3)) : null,
+                requested
+        );
+        if (table == null) {
+            throw new IllegalStateException("Table " + requested + " does not exist");
+        }
+
+        String regclass = table.qualifiedName();
+        List<String> problems = new ArrayList<>();
+
+        if (!"r".equals(table.relkind)) {
+            problems.add("it is not a plain table (relkind " + table.relkind + ")");
+        }
+
+        table.keyColumns = jdbc.query(
+                "SELECT a.attname, format_type(a.atttypid, a.atttypmod) FROM pg_index i " +
+                        "JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = ANY(i.indkey) " +
+                        "WHERE i.indrelid = ?::regclass AND i.indisprimary " +
+                        "ORDER BY array_position(i.indkey::int2[], a.attnum)",
+                (rs, rowNum) -> new KeysetChunker.KeyColumn(rs.getString(1), rs.getString(2)),
+                regclass);
+        table.primaryKey = table.keyColumns.stream().map(KeysetChunker.KeyColumn::name).toList();
+        if (table.primaryKey.isEmpty()) {
+            problems.add("it has no primary key");
+        }
+
+        List<String> referencing = jdbc.queryForList(
+                "SELECT conname || ' on ' || conrelid::regclass::text FROM pg_constraint " +
+                        "WHERE confrelid = ?::regclass AND contype = 'f'",
+                String.class, regclass);
+        if (!referencing.isEmpty()) {
+            problems.add("it is referenced by foreign keys " + referencing);
+        }
+
+        List<String> views = jdbc.queryForList(
+                "SELECT DISTINCT r.ev_class::regclass::text FROM pg_depend d " +
+                        "JOIN pg_rewrite r ON r.oid = d.objid " +
+                        "WHERE d.classid = 'pg_rewrite'::regclass AND d.refobjid = ?::regclass AND r.ev_class <> d.refobjid",
+                String.class, regclass);
+        if (!views.isEmpty()) {
+            problems.add("views depend on it " + views);
+        }
+
+        List<String> triggers = jdbc.queryForList(
+                "SELECT tgname FROM pg_trigger WHERE tgrelid = ?::regclass AND NOT tgisinternal AND tgname <> ?",
+                String.class, regclass, table.triggerName);
+        if (!triggers.isEmpty()) {
+            problems.add("it has triggers " + triggers);
+        }
+
+        Boolean oldTableExists = jdbc.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                SqlEscapeUtil.qualifiedName(table.schema, table.oldName));
+        if (Boolean.TRUE.equals(oldTableExists)) {
+            problems.add("the table " + table.oldName + " kept by an earlier rewrite still exists");
+        }
+
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Cannot rewrite " + regclass + " online: " + String.join("; ", problems) +
+                    ". Run the change in place (online: false) instead.");
+        }
+
+        table.columns = jdbc.queryForList(
+                "SELECT attname FROM pg_attribute WHERE attrelid = ?::regclass AND attnum > 0 " +
+                        "AND NOT attisdropped AND attgenerated = '' ORDER BY attnum",
+                String.class, regclass);
+        table.identityColumns = jdbc.queryForList(
+                "SELECT attname FROM pg_attribute WHERE attrelid = ?::regclass AND attnum > 0 " +
+                        "AND NOT attisdropped AND attidentity <> ''",
+                String.class, regclass);
+        table.ownedSequences = jdbc.query(
+                "SELECT d.objid::regclass::text, a.attname FROM pg_depend d " +
+                        "JOIN pg_class s ON s.oid = d.objid AND s.relkind = 'S' " +
+                        "JOIN pg_attribute a ON a.attrelid = d.refobjid AND a.attnum = d.refobjsubid " +
+                        "WHERE d.classid = 'pg_class'::regclass AND d.refobjid = ?::regclass AND d.deptype = 'a'",
+                (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)},
+                regclass);
+        table.foreignKeys = jdbc.query(
+                "SELECT conname, pg_get_constraintdef(oid) FROM pg_constraint WHERE conrelid = ?::regclass AND contype = 'f'",
+                (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)},
+                regclass);
+        table.indexNames = indexNamesByDefinition(jdbc, regclass);
+        table.estimatedRows = Math.max(0, jdbc.queryForObject(
+                "SELECT reltuples::BIGINT FROM pg_class WHERE oid = ?::regclass", Long.class, regclass));
+
+        return table;
+    }
+
+    private void createShadow(JdbcTemplate jdbc, TableInfo table, RewritePlan plan) {
+        String shadow = table.qualifiedShadowName();
+
+        jdbc.execute("CREATE TABLE " + shadow + " (LIKE " + table.qualifiedName() + " INCLUDING ALL)");
+        if (!plan.shadowActions().isEmpty()) {
+            jdbc.execute("ALTER TABLE " + shadow + " " + String.join(", ", plan.shadowActions()));
+        }
+        for (String[] foreignKey : table.foreignKeys) {
+            // Copied rows already satisfy the key; it is validated after the swap without
+            // blocking writes
+            jdbc.execute("ALTER TABLE " + shadow + " ADD CONSTRAINT " + SqlEscapeUtil.escapeIdentifier(foreignKey[0]) +
+                    " " + foreignKey[1] + " NOT VALID");
+        }
+
+        jdbc.execute(triggerFunctionSql(table));
+        jdbc.execute("CREATE TRIGGER " + SqlEscapeUtil.escapeIdentifier(table.triggerName) +
+                " AFTER INSERT OR UPDATE OR DELETE ON " + table.qualifiedName() +
+                " FOR EACH ROW EXECUTE FUNCTION " + table.qualifiedFunctionName() + "()");
+    }
+
+    String triggerFunctionSql(TableInfo table) {
+        String columns = joinIdentifiers(table.columns, "");
+        String newValues = joinIdentifiers(table.columns, "NEW.");
+        String key = joinIdentifiers(table.primaryKey, "");
+        String oldKey = joinIdentifiers(table.primaryKey, "OLD.");
+        String newKey = joinIdentifiers(table.primaryKey, "NEW.");
+
+        List<String> nonKeyColumns = table.columns.stream().filter(c -> !table.primaryKey.contains(c)).toList();
+        String onConflict = nonKeyColumns.isEmpty()
+                ? "DO NOTHING"
+                : "DO UPDATE SET " + nonKeyColumns.stream()
+                .map(c -> SqlEscapeUtil.escapeIdentifier(c) + " = EXCLUDED." + SqlEscapeUtil.escapeIdentifier(c))
+                .collect(Collectors.joining(", "));
+
+        String shadow = table.qualifiedShadowName();
+        return "CREATE FUNCTION " + table.qualifiedFunctionName() + "() RETURNS trigger LANGUAGE plpgsql AS $dd$\n" +
+                "BEGIN\n" +
+                "  IF TG_OP = 'DELETE' OR (TG_OP = 'UPDATE' AND (" + oldKey + ") IS DISTINCT FROM (" + newKey + ")) THEN\n" +
+                "    DELETE FROM " + shadow + " WHERE (" + key + ") = (" + oldKey + ");\n" +
+                "  END IF;\n" +
+                "  IF TG_OP <> 'DELETE' THEN\n" +
+                "    INSERT INTO " + shadow + " (" + columns + ") OVERRIDING SYSTEM VALUE VALUES (" + newValues + ")\n" +
+                "      ON CONFLICT (" + key + ") " + onConflict + ";\n" +
+                "  END IF;\n" +
+                "  RETURN NULL;\n" +
+                "END\n" +
+                "$dd$";
+    }
+
+    private void backfill(JdbcTemplate jdbc, Connection connection, TableInfo table) throws SQLException {
+        String columns = joinIdentifiers(table.columns, "");
+        String key = joinIdentifiers(table.primaryKey, "");
+        // FOR SHARE orders concurrent updates and deletes strictly before or after the copy of a row
+        Function<String, String> copy = where -> "INSERT INTO " + table.qualifiedShadowName() + " (" + columns + ") " +
+                "OVERRIDING SYSTEM VALUE SELECT " + columns + " FROM " + table.qualifiedName() + " WHERE " + where +
+                " FOR SHARE ON CONFLICT (" + key + ") DO NOTHING";
+
+        String label = "Backfill of " + table.qualifiedName();
+        AdaptiveThrottle throttle = throttleFactory.create(jdbc, label, chunkSize, maxRowsPerSecond);
+        new KeysetChunker(jdbc, connection, table.qualifiedName(), table.keyColumns, progressIntervalMs, lockRetryPolicy)
+                .run(label, copy, null, null, 0, table.estimatedRows, throttle, null);
+    }
+
+    private void swap(JdbcTemplate jdbc, Connection connection, TableInfo table) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            long startNanos = System.nanoTime();
+            connection.setAutoCommit(false);
+            try {
+                jdbc.execute("LOCK TABLE " + table.qualifiedName() + " IN ACCESS EXCLUSIVE MODE");
+                jdbc.execute("DROP TRIGGER " + SqlEscapeUtil.escapeIdentifier(table.triggerName) + " ON " + table.qualifiedName());
+
+                for (String column : table.identityColumns) {
+                    // The shadow table has its own identity sequence; continue where the
+                    // original left off
+                    jdbc.queryForObject("SELECT setval(pg_get_serial_sequence(?, ?), nextval(pg_get_serial_sequence(?, ?)))",
+                            Long.class, table.qualifiedShadowName(), column, table.qualifiedName(), column);
+                }
+                for (String[] sequence : table.ownedSequences) {
+                    // Serial sequences are shared; keep them alive when the old table is dropped
+                    jdbc.execute("ALTER SEQUENCE " + sequence[0] + " OWNED BY " + table.qualifiedShadowName() +
+                            "." + SqlEscapeUtil.escapeIdentifier(sequence[1]));
+                }
+
+                jdbc.execute("ALTER TABLE " + table.qualifiedName() + " RENAME TO " + SqlEscapeUtil.escapeIdentifier(table.oldName));
+                jdbc.execute("ALTER TABLE " + table.qualifiedShadowName() + " RENAME TO " + SqlEscapeUtil.escapeIdentifier(table.name));
+                connection.commit();
+
+                log.info("Swapped {} with its rewritten copy; exclusive lock held for {} ms",
+                        table.qualifiedName(), (System.nanoTime() - startNanos) / 1_000_000);
+                return;
+
+            } catch (RuntimeException e) {
+                connection.rollback();
+                if (!lockRetryPolicy.shouldRetry(e, attempt)) {
+                    throw e;
+                }
+                long delay = lockRetryPolicy.backoffMillis(attempt);
+                log.warn("Swap of {} hit lock_timeout (attempt {}/{}), retrying in {} ms",
+                        table.qualifiedName(), attempt, lockRetryPolicy.getMaxAttempts(), delay);
+                sleep(delay);
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void finish(JdbcTemplate jdbc, TableInfo table) {
+        for (String[] foreignKey : table.foreignKeys) {
+            jdbc.execute("ALTER TABLE " + table.qualifiedName() + " VALIDATE CONSTRAINT " +
+                    SqlEscapeUtil.escapeIdentifier(foreignKey[0]));
+        }
+        jdbc.execute("DROP FUNCTION IF EXISTS " + table.qualifiedFunctionName() + "()");
+
+        if (keepOldTable) {
+            log.info("Kept original rows of {} in {}; index names keep their shadow-table form until it is dropped",
+                    table.qualifiedName(), table.oldName);
+        } else {
+            jdbc.execute("DROP TABLE " + SqlEscapeUtil.qualifiedName(table.schema, table.oldName));
+            restoreIndexNames(jdbc, table);
+        }
+
+        jdbc.execute("ANALYZE " + table.qualifiedName());
+        log.info("Online rewrite of {} finished", table.qualifiedName());
+    }
+
+    private void restoreIndexNames(JdbcTemplate jdbc, TableInfo table) {
+        Map<String, String> current = indexNamesByDefinition(jdbc, table.qualifiedName());
+        for (Map.Entry<String, String> entry : table.indexNames.entrySet()) {
+            String currentName = current.get(entry.getKey());
+            if (currentName != null && !currentName.equals(entry.getValue())) {
+                jdbc.execute("ALTER INDEX " + SqlEscapeUtil.qualifiedName(table.schema, currentName) +
+                        " RENAME TO " + SqlEscapeUtil.escapeIdentifier(entry.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Index names keyed by their definition without index and table name, so the indexes of
+     * the original and of the shadow table can be matched.
+     */
+    private static Map<String, String> indexNamesByDefinition(JdbcTemplate jdbc, String regclass) {
+        Map<String, String> names = new HashMap<>();
+        jdbc.query(
+                "SELECT c.relname, i.indisunique, pg_get_indexdef(i.indexrelid) FROM pg_index i " +
+                        "JOIN pg_class c ON c.oid = i.indexrelid WHERE i.indrelid = ?::regclass",
+                rs -> {
+                    String definition = rs.getString(3);
+                    int using = definition.indexOf(" USING ");
+                    String key = rs.getBoolean(2) + (using >= 0 ? definition.substring(using) : definition);
+                    names.putIfAbsent(key, rs.getString(1));
+                },
+                regclass);
+        return names;
+    }
+
+    private void dropShadowObjects(JdbcTemplate jdbc, TableInfo table) {
+        jdbc.execute("DROP TRIGGER IF EXISTS " + SqlEscapeUtil.escapeIdentifier(table.triggerName) + " ON " + table.qualifiedName());
+        jdbc.execute("DROP FUNCTION IF EXISTS " + table.qualifiedFunctionName() + "()");
+        jdbc.execute("DROP TABLE IF EXISTS " + table.qualifiedShadowName());
+    }
+
+    private void dropShadowObjectsQuietly(JdbcTemplate jdbc, TableInfo table) {
+        try {
+            dropShadowObjects(jdbc, table);
+        } catch (RuntimeException e) {
+            log.warn("Could not remove shadow objects of {}: {}. Drop {} and trigger {} manually.",
+                    table.qualifiedName(), e.getMessage(), table.shadowName, table.triggerName);
+        }
+    }
+
+    private static String joinIdentifiers(List<String> names, String prefix) {
+        return names.stream()
+                .map(name -> prefix + SqlEscapeUtil.escapeIdentifier(name))
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String objectName(String prefix, String tableName) {
+        String name = prefix + tableName;
+        return name.length() > MAX_IDENTIFIER_LENGTH ? name.substring(0, MAX_IDENTIFIER_LENGTH) : name;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChangeSetExecutionException("Interrupted while waiting to retry the table swap", e);
+        }
+    }
+
+    /**
+     * Catalog facts about the table being rewritten and the names of its helper objects.
+     */
+    static final class TableInfo {
+        final String schema;
+        final String name;
+        final String relkind;
+        final String shadowName;
+        final String oldName;
+        final String triggerName;
+
+        List<KeysetChunker.KeyColumn> keyColumns = List.of();
+        List<String> primaryKey = List.of();
+        List<String> columns = List.of();
+        List<String> identityColumns = List.of();
+        List<String[]> ownedSequences = List.of();
+        List<String[]> foreignKeys = List.of();
+        Map<String, String> indexNames = Map.of();
+        long estimatedRows;
+
+        TableInfo(String schema, String name, String relkind) {
+            this.schema = schema;
+            this.name = name;
+            this.relkind = relkind;
+            this.shadowName = objectName(SHADOW_PREFIX, name);
+            this.oldName = objectName(OLD_PREFIX, name);
+            this.triggerName = objectName(TRIGGER_PREFIX, name);
+        }
+
+        String qualifiedName() {
+            return SqlEscapeUtil.qualifiedName(schema, name);
+        }
+
+        String qualifiedShadowName() {
+            return SqlEscapeUtil.qualifiedName(schema, shadowName);
+        }
+
+        String qualifiedFunctionName() {
+            return SqlEscapeUtil.qualifiedName(schema, triggerName);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.datadrift.executor.online;
+
+import java.util.List;
+
+/**
+ * A table rewrite to run online.
+ *
+ * @param schemaName    schema of the table, or null for the search_path
+ * @param tableName     unescaped table name
+ * @param shadowActions ALTER TABLE sub-commands applied to the empty shadow table before the
+ *                      copy, e.g. ALTER COLUMN "amount" TYPE NUMERIC(12,2)
+ */
+public record RewritePlan(String schemaName, String tableName, List<String> shadowActions) {
+}
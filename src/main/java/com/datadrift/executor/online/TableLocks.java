@@ -0,0 +1,28 @@
+package com.datadrift.executor.online;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Lock checks for work that runs on its own connection, outside the migration transaction.
+ *
+ * Such work waits for every lock the migration transaction holds, and the migration transaction
+ * in turn waits for it to return, so touching a table the migration already locked never ends
+ * other than by lock_timeout. This check only catches the target table up front; row locks and
+ * locks on other tables are left to the lock_timeout of the side connection.
+ */
+public final class TableLocks {
+
+    private TableLocks() {
+    }
+
+    /**
+     * @param qualifiedTableName escaped, optionally schema-qualified table name
+     * @return whether the transaction of the given template's connection holds any lock on the table
+     */
+    public static boolean heldByCurrentTransaction(JdbcTemplate jdbcTemplate, String qualifiedTableName) {
+        Boolean locked = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_locks WHERE pid = pg_backend_pid() AND relation = to_regclass(?))",
+                Boolean.class, qualifiedTableName);
+        return Boolean.TRUE.equals(locked);
+    }
+}
@@ -0,0 +1,188 @@
+package com.datadrift.executor.session;
+
+import com.datadrift.exception.ChangeSetExecutionException;
+import com.datadrift.model.change.Change;
+import com.datadrift.model.changelog.ChangeSet;
+import com.datadrift.util.SessionProfileContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+/**
+ * Runs a single change with its session timeouts and session profile applied.
+ *
+ * lock_timeout and statement_timeout are resolved per change (change, then changeset, then the
+ * datadrift.execution.* defaults) and set transaction-locally, the equivalent of SET LOCAL,
+ * right before the change. After a successful change they are reset, so the next change in the
+ * same transaction starts from the server defaults again. The settings of the changeset's
+ * sessionProfile (see SessionProfiles) are applied and reset the same way.
+ *
+ * When a lock_timeout or the LockContentionWatchdog applies, the change runs under a savepoint.
+ * If it fails with a lock timeout or is cancelled by the watchdog, the transaction is rolled
+ * back to the savepoint, which keeps work done by earlier changes, and the change is retried
+ * with backoff (see LockTimeoutRetryPolicy). Changes without any timeout, profile or watchdog
+ * run as before, with no extra round trips.
+ *
+ * Rolling back to the savepoint does not release locks taken by earlier changes of the same
+ * transaction: on the sequential path a backoff may sleep while holding ACCESS EXCLUSIVE locks
+ * that stall the application. Before each backoff the session checks for such locks; while it
+ * holds any, the backoffs of one change together may not exceed
+ * datadrift.execution.retry.max-held-lock-wait-ms, after which the change fails and the
+ * transaction rolls back, releasing them.
+ */
+@Slf4j
+@Component
+public class ChangeSession {
+
+    private static final String SAVEPOINT = "datadrift_change";
+
+    /** Exclusive locks on tables other sessions can see, still held after the rollback to the savepoint */
+    private static final String HELD_LOCKS_SQL =
+            "SELECT count(*)::INT FROM pg_locks l JOIN pg_class c ON c.oid = l.relation " +
+                    "WHERE l.pid = pg_backend_pid() AND l.granted AND l.mode = 'AccessExclusiveLock' " +
+                    "AND c.relpersistence <> 't'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SessionProfiles sessionProfiles;
+    private final LockContentionWatchdog watchdog;
+    private final LockTimeoutRetryPolicy retryPolicy;
+    private final String defaultLockTimeout;
+    private final String defaultStatementTimeout;
+    private final long maxHeldLockWaitMs;
+
+    public ChangeSession(
+            JdbcTemplate jdbcTemplate,
+            SessionProfiles sessionProfiles,
+            LockContentionWatchdog watchdog,
+            @Value("${datadrift.execution.lock-timeout:}") String defaultLockTimeout,
+            @Value("${datadrift.execution.statement-timeout:}") String defaultStatementTimeout,
+            @Value("${datadrift.execution.retry.max-attempts:5}") int maxAttempts,
+            @Value("${datadrift.execution.retry.initial-backoff-ms:500}") long initialBackoffMs,
+            @Value("${datadrift.execution.retry.max-backoff-ms:30000}") long maxBackoffMs,
+            @Value("${datadrift.execution.retry.max-held-lock-wait-ms:5000}") long maxHeldLockWaitMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sessionProfiles = sessionProfiles;
+        this.watchdog = watchdog;
+        this.retryPolicy = new LockTimeoutRetryPolicy(maxAttempts, initialBackoffMs, maxBackoffMs);
+        this.defaultLockTimeout = defaultLockTimeout;
+        this.defaultStatementTimeout = defaultStatementTimeout;
+        this.maxHeldLockWaitMs = Math.max(0, maxHeldLockWaitMs);
+    }
+
+    public void execute(ChangeSet changeSet, Change change, Runnable statement) {
+        String lockTimeout = SessionTimeouts.effective(
+                change.getLockTimeout(), changeSet.getLockTimeout(), defaultLockTimeout);
+        String statementTimeout = SessionTimeouts.effective(
+                change.getStatementTimeout(), changeSet.getStatementTimeout(), defaultStatementTimeout);
+        Map<String, String> profile = sessionProfiles.settings(changeSet.getSessionProfile());
+
+        if (lockTimeout == null && statementTimeout == null && profile.isEmpty() && !watchdog.isEnabled()) {
+            statement.run();
+            return;
+        }
+
+        if (!profile.isEmpty()) {
+            log.debug("Applying session profile {} {} to {} change", changeSet.getSessionProfile(), profile,
+                    change.getChangeType());
+            SessionProfileContext.setCurrentSettings(profile);
+        }
+        try {
+            run(changeSet, change, statement, lockTimeout, statementTimeout, profile);
+        } finally {
+            SessionProfileContext.clear();
+        }
+    }
+
+    private void run(ChangeSet changeSet, Change change, Runnable statement, String lockTimeout,
+                     String statementTimeout, Map<String, String> profile) {
+        boolean retryable = (lockTimeout != null || watchdog.isEnabled()) && retryPolicy.getMaxAttempts() > 1;
+        boolean savepoints = retryable && TransactionSynchronizationManager.isActualTransactionActive();
+        long heldLockWaitMs = 0;
+
+        for (int attempt = 1; ; attempt++) {
+            if (savepoints) {
+                jdbcTemplate.execute("SAVEPOINT " + SAVEPOINT);
+            }
+            try {
+                applyTimeouts(lockTimeout, statementTimeout);
+                SessionProfiles.applyLocal(jdbcTemplate, profile);
+                watchdog.guard(jdbcTemplate, statement);
+                resetTimeouts(lockTimeout, statementTimeout);
+                SessionProfiles.resetLocal(jdbcTemplate, profile);
+                if (savepoints) {
+                    jdbcTemplate.execute("RELEASE SAVEPOINT " + SAVEPOINT);
+                }
+                return;
+
+            } catch (RuntimeException e) {
+                if (!retryable || !retryPolicy.shouldRetry(e, attempt)) {
+                    throw e;
+                }
+                if (savepoints) {
+                    // Also undoes the SET LOCAL, which is re-applied on the next attempt
+                    jdbcTemplate.execute("ROLLBACK TO SAVEPOINT " + SAVEPOINT);
+                }
+
+                long delay = retryPolicy.backoffMillis(attempt);
+                if (savepoints && holdsExclusiveLocks()) {
+                    if (heldLockWaitMs >= maxHeldLockWaitMs) {
+                        log.warn("{} change in changeset {}::{} is not retried again: earlier changes of its " +
+                                        "transaction hold exclusive locks and {} ms of backoff were spent",
+                                change.getChangeType(), changeSet.getId(), changeSet.getAuthor(), heldLockWaitMs);
+                        throw e;
+                    }
+                    delay = Math.min(delay, maxHeldLockWaitMs - heldLockWaitMs);
+                    heldLockWaitMs += delay;
+                }
+                String reason = LockTimeoutRetryPolicy.isLockTimeout(e)
+                        ? "hit lock_timeout " + lockTimeout
+                        : "was cancelled for blocking other sessions";
+                log.warn("{} change in changeset {}::{} {} (attempt {}/{}), retrying in {} ms",
+                        change.getChangeType(), changeSet.getId(), changeSet.getAuthor(), reason,
+                        attempt, retryPolicy.getMaxAttempts(), delay);
+                sleep(delay);
+            }
+        }
+    }
+
+    private boolean holdsExclusiveLocks() {
+        Integer locks = jdbcTemplate.queryForObject(HELD_LOCKS_SQL, Integer.class);
+        return locks != null && locks > 0;
+    }
+
+    private void applyTimeouts(String lockTimeout, String statementTimeout) {
+        if (lockTimeout == null && statementTimeout == null) {
+            return;
+        }
+        if (lockTimeout != null && statementTimeout != null) {
+            jdbcTemplate.queryForList("SELECT set_config('lock_timeout', ?, true), set_config('statement_timeout', ?, true)",
+                    lockTimeout, statementTimeout);
+        } else if (lockTimeout != null) {
+            jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class, lockTimeout);
+        } else {
+            jdbcTemplate.queryForObject("SELECT set_config('statement_timeout', ?, true)", String.class, statementTimeout);
+        }
+    }
+
+    private void resetTimeouts(String lockTimeout, String statementTimeout) {
+        if (lockTimeout != null) {
+            jdbcTemplate.execute("SET LOCAL lock_timeout TO DEFAULT");
+        }
+        if (statementTimeout != null) {
+            jdbcTemplate.execute("SET LOCAL statement_timeout TO DEFAULT");
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChangeSetExecutionException("Interrupted while waiting to retry after lock timeout", e);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.datadrift.executor.session;
+
+import com.datadrift.config.DataSourceConfig;
+import com.datadrift.exception.LockContentionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancels a change that blocks too many other sessions, so it can back off and retry instead
+ * of stalling the application.
+ *
+ * While the change runs, a side connection polls every datadrift.execution.watchdog.poll-ms
+ * for sessions whose pg_blocking_pids() include the migration backend. That covers sessions
+ * waiting for a lock the migration holds and sessions queued behind a lock the migration is
+ * still waiting for. When more than max-blocked-sessions are blocked, or one of them has waited
+ * longer than max-blocked-wait-ms, the statement is cancelled with pg_cancel_backend() and the
+ * change fails with a LockContentionException, which LockTimeoutRetryPolicy retries.
+ *
+ * Locks taken by earlier changes of the same transaction count as well; if they are what
+ * blocks the application, the retries run out and the migration rolls back, releasing them.
+ * Work on connections of its own (online rewrites, backfills) is not watched. Both limits 0
+ * disable the watchdog. Like DdlProgressMonitor it takes its connection from the monitoring pool,
+ * which gives up after a second instead of holding the worker up.
+ */
+@Slf4j
+@Component
+public class LockContentionWatchdog {
+
+    private static final String BLOCKED_SQL =
+            "SELECT pid FROM pg_stat_activity WHERE ? = ANY(pg_blocking_pids(pid))";
+
+    private final DataSource dataSource;
+    private final int maxBlockedSessions;
+    private final long maxBlockedWaitMs;
+    private final long pollMs;
+
+    public LockContentionWatchdog(
+            @Qualifier(DataSourceConfig.MONITOR_DATA_SOURCE) DataSource dataSource,
+            @Value("${datadrift.execution.watchdog.max-blocked-sessions:0}") int maxBlockedSessions,
+            @Value("${datadrift.execution.watchdog.max-blocked-wait-ms:0}") long maxBlockedWaitMs,
+            @Value("${datadrift.execution.watchdog.poll-ms:500}") long pollMs) {
+        this.dataSource = dataSource;
+        this.maxBlockedSessions = maxBlockedSessions;
+        this.maxBlockedWaitMs = maxBlockedWaitMs;
+        this.pollMs = Math.max(50, pollMs);
+    }
+
+    public boolean isEnabled() {
+        return maxBlockedSessions > 0 || maxBlockedWaitMs > 0;
+    }
+
+    /**
+     * Run a statement on the given template and cancel it when it blocks too many sessions.
+     *
+     * @param jdbc template bound to the connection the statement runs on
+     * @throws LockContentionException when the watchdog cancelled the statement
+     */
+    public void guard(JdbcTemplate jdbc, Runnable statement) {
+        if (!isEnabled()) {
+            statement.run();
+            return;
+        }
+
+        Integer pid = jdbc.queryForObject("SELECT pg_backend_pid()", Integer.class);
+        Connection connection = pid != null ? sideConnection() : null;
+        if (connection == null) {
+            statement.run();
+            return;
+        }
+
+        Watch watch = new Watch(pid, new JdbcTemplate(new SingleConnectionDataSource(connection, true)));
+        ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "datadrift-lock-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(watch::poll, pollMs, pollMs, TimeUnit.MILLISECONDS);
+
+        try {
+            statement.run();
+            watch.finish();
+        } catch (RuntimeException e) {
+            String reason = watch.finish();
+            if (reason != null) {
+                throw new LockContentionException("Cancelled because it blocked other sessions: " + reason, e);
+            }
+            throw e;
+        } finally {
+            poller.shutdownNow();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Closing the watchdog connection failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The connection is obtained on the calling thread, so it reaches the same shard.
+     */
+    private Connection sideConnection() {
+        try {
+            Connection connection = dataSource.getConnection();
+            connection.setAutoCommit(true);
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            log.warn("No connection for the lock-contention watchdog, running unwatched: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return why the blocked sessions exceed the limits, or null when they do not
+     */
+    String overload(int blocked, long maxWaitMs) {
+        if (maxBlockedSessions > 0 && blocked > maxBlockedSessions) {
+            return blocked + " sessions blocked (limit " + maxBlockedSessions + ")";
+        }
+        if (maxBlockedWaitMs > 0 && blocked > 0 && maxWaitMs > maxBlockedWaitMs) {
+            return "a blocked session waited " + maxWaitMs + " ms (limit " + maxBlockedWaitMs + " ms)";
+        }
+        return null;
+    }
+
+    /**
+     * When each blocked session was first seen blocked. query_start would also count the time a
+     * session spent in its statement before it hit the lock, and pg_locks.waitstart needs
+     * PostgreSQL 14, so waits are measured from the first poll that saw the session blocked:
+     * at most one poll interval short.
+     */
+    static final class BlockedSince {
+
+        private final Map<Integer, Long> firstSeenMs = new HashMap<>();
+
+        /**
+         * @param pids  sessions blocked right now
+         * @param nowMs current time
+         * @return longest wait among them, 0 when none is blocked
+         */
+        long update(Collection<Integer> pids, long nowMs) {
+            firstSeenMs.keySet().retainAll(pids);
+            long maxWaitMs = 0;
+            for (Integer pid : pids) {
+                long since = firstSeenMs.computeIfAbsent(pid, p -> nowMs);
+                maxWaitMs = Math.max(maxWaitMs, nowMs - since);
+            }
+            return maxWaitMs;
+        }
+    }
+
+    /**
+     * Watch of one statement. poll() runs on the poller thread; finish() on the statement's
+     * thread makes sure no cancel is sent after the statement returned.
+     */
+    private final class Watch {
+
+        private final int pid;
+        private final JdbcTemplate monitor;
+        private final BlockedSince blockedSince = new BlockedSince();
+        private boolean finished;
+        private boolean failed;
+        private String cancelReason;
+
+        Watch(int pid, JdbcTemplate monitor) {
+            this.pid = pid;
+            this.monitor = monitor;
+        }
+
+        synchronized void poll() {
+            if (finished || failed || cancelReason != null) {
+                return;
+            }
+            String reason;
+            try {
+                List<Integer> blocked = monitor.queryForList(BLOCKED_SQL, Integer.class, pid);
+                reason = overload(blocked.size(), blockedSince.update(blocked, System.currentTimeMillis()));
+                if (reason == null) {
+                    return;
+                }
+                log.warn("Migration backend {} blocks other sessions ({}), cancelling its statement", pid, reason);
+                monitor.queryForObject("SELECT pg_cancel_backend(?)", Boolean.class, pid);
+                cancelReason = reason;
+            } catch (RuntimeException e) {
+                failed = true;
+                log.warn("Lock-contention watchdog stopped: {}", e.getMessage());
+            }
+        }
+
+        /**
+         * @return the reason the statement was cancelled, or null
+         */
+        synchronized String finish() {
+            finished = true;
+            return cancelReason;
+        }
+    }
+}
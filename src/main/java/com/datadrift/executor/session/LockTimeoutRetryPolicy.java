@@ -0,0 +1,80 @@
+package com.datadrift.executor.session;
+
+import com.datadrift.exception.LockContentionException;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry policy for changes that hit lock_timeout or were cancelled by the LockContentionWatchdog.
+ *
+ * A lock timeout means another session held a conflicting lock for too long; the change itself
+ * is fine and may succeed once that session is done. The same holds when the change was
+ * cancelled for blocking application sessions. Retries back off exponentially from the
+ * initial delay up to the maximum, with "equal jitter" (half fixed, half random) so that several
+ * migrators waiting on the same lock do not retry in lockstep.
+ */
+public class LockTimeoutRetryPolicy {
+
+    /** lock_not_available: raised by lock_timeout and by NOWAIT */
+    static final String LOCK_NOT_AVAILABLE = "55P03";
+
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    public LockTimeoutRetryPolicy(int maxAttempts, long initialBackoffMs, long maxBackoffMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = Math.max(0, initialBackoffMs);
+        this.maxBackoffMs = Math.max(this.initialBackoffMs, maxBackoffMs);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @param attempt the attempt that just failed, starting at 1
+     */
+    public boolean shouldRetry(Throwable failure, int attempt) {
+        return attempt < maxAttempts && (isLockTimeout(failure) || isContentionCancel(failure));
+    }
+
+    /**
+     * Delay before the attempt following {@code attempt}.
+     */
+    public long backoffMillis(int attempt) {
+        long ceiling = initialBackoffMs;
+        for (int i = 1; i < attempt && ceiling < maxBackoffMs; i++) {
+            ceiling *= 2;
+        }
+        ceiling = Math.min(ceiling, maxBackoffMs);
+
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+    }
+
+    public static boolean isContentionCancel(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof LockContentionException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isLockTimeout(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && LOCK_NOT_AVAILABLE.equals(sql.getSQLState())) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,92 @@
+package com.datadrift.executor.session;
+
+import com.datadrift.config.SessionProfileProperties;
+import com.datadrift.exception.ChangeSetExecutionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Named session tuning profiles (datadrift.session.profiles), e.g. a heavyIndexBuild profile
+ * raising maintenance_work_mem and max_parallel_maintenance_workers for large index builds.
+ *
+ * Setting names are lower-cased and may be written in kebab case (maintenance-work-mem).
+ * They are checked against the GUC name syntax because SET LOCAL and RESET cannot take the
+ * name as a bind parameter; values always travel as parameters of set_config().
+ */
+@Component
+public class SessionProfiles {
+
+    private static final Pattern SETTING_NAME = Pattern.compile("[a-z_][a-z0-9_]*(\\.[a-z_][a-z0-9_]*)?");
+
+    private final Map<String, Map<String, String>> profiles = new LinkedHashMap<>();
+
+    public SessionProfiles(SessionProfileProperties properties) {
+        properties.getProfiles().forEach((name, settings) -> {
+            Map<String, String> normalized = new LinkedHashMap<>();
+            settings.forEach((setting, value) -> normalized.put(normalizeName(name, setting), value));
+            profiles.put(name, Collections.unmodifiableMap(normalized));
+        });
+    }
+
+    public boolean exists(String profile) {
+        return profiles.containsKey(profile);
+    }
+
+    /**
+     * @param profile profile name, or null for none
+     * @return the profile's settings in configuration order; empty for null
+     */
+    public Map<String, String> settings(String profile) {
+        if (profile == null || profile.isBlank()) {
+            return Map.of();
+        }
+        Map<String, String> settings = profiles.get(profile);
+        if (settings == null) {
+            throw new ChangeSetExecutionException("Unknown session profile '" + profile +
+                    "'; configure it under datadrift.session.profiles");
+        }
+        return settings;
+    }
+
+    /**
+     * Apply settings for the rest of the current transaction (SET LOCAL).
+     */
+    public static void applyLocal(JdbcTemplate jdbc, Map<String, String> settings) {
+        settings.forEach((name, value) ->
+                jdbc.queryForObject("SELECT set_config(?, ?, true)", String.class, name, value));
+    }
+
+    /**
+     * Undo applyLocal() while the transaction goes on.
+     */
+    public static void resetLocal(JdbcTemplate jdbc, Map<String, String> settings) {
+        settings.keySet().forEach(name -> jdbc.execute("SET LOCAL " + name + " TO DEFAULT"));
+    }
+
+    /**
+     * Apply settings to a dedicated connection's session; pair with resetSession() before the
+     * connection goes back to the pool.
+     */
+    public static void applySession(JdbcTemplate jdbc, Map<String, String> settings) {
+        settings.forEach((name, value) ->
+                jdbc.queryForObject("SELECT set_config(?, ?, false)", String.class, name, value));
+    }
+
+    public static void resetSession(JdbcTemplate jdbc, Map<String, String> settings) {
+        settings.keySet().forEach(name -> jdbc.execute("RESET " + name));
+    }
+
+    private static String normalizeName(String profile, String setting) {
+        String name = setting.trim().toLowerCase(Locale.ROOT).replace('-', '_');
+        if (!SETTING_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid setting name '" + setting + "' in session profile '" + profile + "'");
+        }
+        return name;
+    }
+}
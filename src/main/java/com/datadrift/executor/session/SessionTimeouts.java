@@ -0,0 +1,34 @@
+package com.datadrift.executor.session;
+
+import java.util.regex.Pattern;
+
+/**
+ * Resolution and validation of lock_timeout / statement_timeout values.
+ * Values use PostgreSQL duration syntax: a non-negative integer with an optional unit
+ * (us, ms, s, min, h, d). Without a unit the value is milliseconds; "0" disables the timeout.
+ */
+public final class SessionTimeouts {
+
+    private static final Pattern DURATION = Pattern.compile("\\d+\\s*(us|ms|s|min|h|d)?");
+
+    private SessionTimeouts() {
+    }
+
+    public static boolean isValid(String timeout) {
+        return timeout == null || DURATION.matcher(timeout.trim()).matches();
+    }
+
+    /**
+     * The most specific value that is set: change, then changeset, then the configured default.
+     *
+     * @return the timeout to apply, or null to leave the session setting untouched
+     */
+    public static String effective(String changeValue, String changeSetValue, String defaultValue) {
+        for (String value : new String[]{changeValue, changeSetValue, defaultValue}) {
+            if (value != null && !value.isBlank()) {
+                return value.trim();
+            }
+        }
+        return null;
+    }
+}
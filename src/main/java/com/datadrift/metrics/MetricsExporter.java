@@ -0,0 +1,76 @@
+package com.datadrift.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes the run's metrics when a CLI command finishes.
+ *
+ * datadrift.metrics.prometheus-file receives the Prometheus text format, written to a temporary
+ * file and moved into place so the node_exporter textfile collector never reads half a file.
+ * The JSON summary goes to datadrift.metrics.summary-file, or to the log when that is empty.
+ */
+@Slf4j
+@Component
+public class MetricsExporter {
+
+    private final MigrationMetrics metrics;
+    private final boolean enabled;
+    private final String prometheusFile;
+    private final String summaryFile;
+
+    public MetricsExporter(
+            MigrationMetrics metrics,
+            @Value("${datadrift.metrics.enabled:true}") boolean enabled,
+            @Value("${datadrift.metrics.prometheus-file:}") String prometheusFile,
+            @Value("${datadrift.metrics.summary-file:}") String summaryFile) {
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.prometheusFile = prometheusFile;
+        this.summaryFile = summaryFile;
+    }
+
+    /**
+     * Export failures are logged, never thrown: metrics must not change the outcome of a run.
+     */
+    public void export() {
+        if (!enabled || metrics.isEmpty()) {
+            return;
+        }
+
+        if (!prometheusFile.isBlank()) {
+            write(Path.of(prometheusFile), metrics.prometheusText());
+        }
+
+        String summary = metrics.jsonSummary();
+        if (summaryFile.isBlank()) {
+            log.info("Metrics summary: {}", summary);
+        } else {
+            write(Path.of(summaryFile), summary + System.lineSeparator());
+        }
+    }
+
+    private static void write(Path target, String content) {
+        try {
+            Path directory = target.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "." + target.getFileName(), ".tmp");
+            try {
+                Files.writeString(temp, content, StandardCharsets.UTF_8);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            log.debug("Metrics written to {}", target);
+        } catch (IOException e) {
+            log.warn("Failed to write metrics to {}: {}", target, e.getMessage());
+        }
+    }
+}
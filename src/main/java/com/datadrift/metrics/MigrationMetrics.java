@@ -0,0 +1,212 @@
+package com.datadrift.metrics;
+
+import com.datadrift.util.JsonStrings;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Timers and counters for one CLI run: where the time of a slow deploy went (parsing, checksum
+ * validation, lock waits, individual change types, rollbacks).
+ *
+ * Meter names and tags follow the Micrometer conventions (dotted names, timers in seconds,
+ * counters with a _total suffix in Prometheus), so dashboards keep working should the
+ * application move to a Micrometer registry. Every timer carries an outcome tag of success or
+ * failure. See MetricsExporter for the Prometheus text file and the JSON summary.
+ */
+@Component
+public class MigrationMetrics {
+
+    /** Timer per pipeline phase, tagged phase=parse|validate|checksums|lock|rollback */
+    public static final String PHASE = "datadrift.phase";
+    /** Timer per executed change, tagged type=<change type> and operation=execute|rollback */
+    public static final String CHANGE = "datadrift.change";
+    /** Counter of migration lock acquisition attempts, tagged result=acquired|busy */
+    public static final String LOCK_ATTEMPTS = "datadrift.lock.attempts";
+
+    private final Map<MeterId, TimerStats> timers = new ConcurrentHashMap<>();
+    private final Map<MeterId, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public <T> T timePhase(String phase, Supplier<T> work) {
+        return time(PHASE, Map.of("phase", phase), work);
+    }
+
+    public void timePhase(String phase, Runnable work) {
+        time(PHASE, Map.of("phase", phase), work);
+    }
+
+    public void time(String name, Map<String, String> tags, Runnable work) {
+        time(name, tags, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run the work and record its duration, tagged outcome=failure if it throws.
+     */
+    public <T> T time(String name, Map<String, String> tags, Supplier<T> work) {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            T result = work.get();
+            outcome = "success";
+            return result;
+        } finally {
+            record(name, tags, outcome, System.nanoTime() - start);
+        }
+    }
+
+    public void record(String name, Map<String, String> tags, String outcome, long nanos) {
+        SortedMap<String, String> allTags = new TreeMap<>(tags);
+        allTags.put("outcome", outcome);
+        timers.computeIfAbsent(new MeterId(name, allTags), id -> new TimerStats()).record(nanos);
+    }
+
+    public void increment(String name, Map<String, String> tags) {
+        counters.computeIfAbsent(new MeterId(name, new TreeMap<>(tags)), id -> new LongAdder()).increment();
+    }
+
+    public List<TimerSnapshot> timers() {
+        return timers.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparing((TimerSnapshot t) -> t.id().name()).thenComparing(t -> t.id().tags().toString()))
+                .toList();
+    }
+
+    public List<CounterSnapshot> counters() {
+        return counters.entrySet().stream()
+                .map(entry -> new CounterSnapshot(entry.getKey(), entry.getValue().sum()))
+                .sorted(Comparator.comparing((CounterSnapshot c) -> c.id().name()).thenComparing(c -> c.id().tags().toString()))
+                .toList();
+    }
+
+    public boolean isEmpty() {
+        return timers.isEmpty() && counters.isEmpty();
+    }
+
+    /**
+     * Prometheus text exposition format (version 0.0.4), e.g. for the node_exporter textfile
+     * collector or a Pushgateway.
+     */
+    public String prometheusText() {
+        StringBuilder text = new StringBuilder();
+
+        Map<String, List<TimerSnapshot>> timersByName = timers().stream()
+                .collect(Collectors.groupingBy(t -> t.id().name(), TreeMap::new, Collectors.toList()));
+        timersByName.forEach((name, snapshots) -> {
+            String base = prometheusName(name) + "_seconds";
+            text.append("# TYPE ").append(base).append(" summary\n");
+            for (TimerSnapshot timer : snapshots) {
+                String labels = prometheusLabels(timer.id().tags());
+                text.append(base).append("_count").append(labels).append(' ').append(timer.count()).append('\n');
+                text.append(base).append("_sum").append(labels).append(' ').append(seconds(timer.totalNanos())).append('\n');
+            }
+            text.append("# TYPE ").append(base).append("_max gauge\n");
+            for (TimerSnapshot timer : snapshots) {
+                text.append(base).append("_max").append(prometheusLabels(timer.id().tags())).append(' ')
+                        .append(seconds(timer.maxNanos())).append('\n');
+            }
+        });
+
+        Map<String, List<CounterSnapshot>> countersByName = counters().stream()
+                .collect(Collectors.groupingBy(c -> c.id().name(), TreeMap::new, Collectors.toList()));
+        countersByName.forEach((name, snapshots) -> {
+            String base = prometheusName(name) + "_total";
+            text.append("# TYPE ").append(base).append(" counter\n");
+            for (CounterSnapshot counter : snapshots) {
+                text.append(base).append(prometheusLabels(counter.id().tags())).append(' ')
+                        .append(counter.count()).append('\n');
+            }
+        });
+
+        return text.toString();
+    }
+
+    /**
+     * Compact JSON document with every timer (count, total and max in milliseconds) and counter.
+     */
+    public String jsonSummary() {
+        List<String> timerJson = new ArrayList<>();
+        for (TimerSnapshot timer : timers()) {
+            timerJson.add("{\"name\":" + JsonStrings.quote(timer.id().name()) +
+                    ",\"tags\":" + jsonObject(timer.id().tags()) +
+                    ",\"count\":" + timer.count() +
+                    ",\"totalMs\":" + millis(timer.totalNanos()) +
+                    ",\"maxMs\":" + millis(timer.maxNanos()) + "}");
+        }
+
+        List<String> counterJson = new ArrayList<>();
+        for (CounterSnapshot counter : counters()) {
+            counterJson.add("{\"name\":" + JsonStrings.quote(counter.id().name()) +
+                    ",\"tags\":" + jsonObject(counter.id().tags()) +
+                    ",\"count\":" + counter.count() + "}");
+        }
+
+        return "{\"timers\":[" + String.join(",", timerJson) + "],\"counters\":[" + String.join(",", counterJson) + "]}";
+    }
+
+    private static String prometheusName(String name) {
+        return name.replaceAll("[^a-zA-Z0-9_]", "_");
+    }
+
+    private static String prometheusLabels(SortedMap<String, String> tags) {
+        if (tags.isEmpty()) {
+            return "";
+        }
+        return tags.entrySet().stream()
+                .map(tag -> prometheusName(tag.getKey()) + "=\"" + tag.getValue()
+                        .replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"")
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private static String jsonObject(SortedMap<String, String> tags) {
+        return tags.entrySet().stream()
+                .map(tag -> JsonStrings.quote(tag.getKey()) + ":" + JsonStrings.quote(tag.getValue()))
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.6f", nanos / 1e9);
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    public record MeterId(String name, SortedMap<String, String> tags) {
+    }
+
+    public record TimerSnapshot(MeterId id, long count, long totalNanos, long maxNanos) {
+    }
+
+    public record CounterSnapshot(MeterId id, long count) {
+    }
+
+    private static final class TimerStats {
+
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        synchronized void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        synchronized TimerSnapshot snapshot(MeterId id) {
+            return new TimerSnapshot(id, count, totalNanos, maxNanos);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.datadrift.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("datadrift.ChangeSetChecksummed")
+@Label("Change Set Checksummed")
+@Category({"DataDrift", "Validation"})
+@Description("Checksum computed over one changeset")
+@StackTrace(false)
+public class ChangeSetChecksummedEvent extends Event {
+
+    @Label("Change Set")
+    public String changeSet;
+
+    @Label("Changes")
+    public int changes;
+}
@@ -0,0 +1,29 @@
+package com.datadrift.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("datadrift.ChangeSetCommitted")
+@Label("Change Set Committed")
+@Category({"DataDrift", "Execution"})
+@Description("Changeset applied and its transaction committed; the duration spans execution and commit")
+@StackTrace(false)
+public class ChangeSetCommittedEvent extends Event {
+
+    @Label("Change Set")
+    public String changeSet;
+
+    @Label("File")
+    public String file;
+
+    @Label("Exec Type")
+    @Description("EXECUTED, or MARK_RAN for a failed changeset with failOnError=false")
+    public String execType;
+
+    @Label("Changes")
+    public int changes;
+}
@@ -0,0 +1,25 @@
+package com.datadrift.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("datadrift.ChangelogFileParsed")
+@Label("Changelog File Parsed")
+@Category({"DataDrift", "Parsing"})
+@Description("One changelog file read and turned into changesets")
+@StackTrace(false)
+public class ChangelogFileParsedEvent extends Event {
+
+    @Label("File")
+    public String file;
+
+    @Label("Format")
+    public String format;
+
+    @Label("Change Sets")
+    public int changeSets;
+}
@@ -0,0 +1,48 @@
+package com.datadrift.metrics.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * A Java Flight Recorder recording spanning one CLI command, started by --jfr.
+ *
+ * Uses the JDK's "profile" settings, so DataDrift's own events (this package) land next to
+ * GC, socket I/O, safepoint and monitor events of the same run. The file is written when the
+ * recording is closed.
+ */
+@Slf4j
+public final class FlightRecording implements AutoCloseable {
+
+    private static final String SETTINGS = "profile";
+
+    private final Recording recording;
+    private final Path destination;
+
+    private FlightRecording(Recording recording, Path destination) {
+        this.recording = recording;
+        this.destination = destination;
+    }
+
+    public static FlightRecording start(Path destination) throws IOException, ParseException {
+        Recording recording = new Recording(Configuration.getConfiguration(SETTINGS));
+        recording.setName("DataDrift");
+        recording.setToDisk(true);
+        recording.setDestination(destination);
+        recording.start();
+        log.info("Flight recording started, writing to {}", destination.toAbsolutePath());
+        return new FlightRecording(recording, destination);
+    }
+
+    @Override
+    public void close() {
+        // stop() writes the recording to its destination
+        recording.stop();
+        recording.close();
+        log.info("Flight recording written to {}", destination.toAbsolutePath());
+    }
+}
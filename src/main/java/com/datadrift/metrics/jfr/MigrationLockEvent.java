@@ -0,0 +1,26 @@
+package com.datadrift.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("datadrift.MigrationLock")
+@Label("Migration Lock")
+@Category({"DataDrift", "Locking"})
+@Description("Wait for the DataDrift migration lock; the duration is the time spent waiting")
+@StackTrace(false)
+public class MigrationLockEvent extends Event {
+
+    @Label("Attempts")
+    public int attempts;
+
+    @Label("Acquired")
+    public boolean acquired;
+
+    @Label("Held By")
+    @Description("Holder of the lock when it could not be acquired")
+    public String heldBy;
+}
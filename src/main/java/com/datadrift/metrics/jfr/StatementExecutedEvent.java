@@ -0,0 +1,27 @@
+package com.datadrift.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("datadrift.StatementExecuted")
+@Label("Statement Executed")
+@Category({"DataDrift", "Execution"})
+@Description("One change executed against the database")
+public class StatementExecutedEvent extends Event {
+
+    @Label("Change Set")
+    public String changeSet;
+
+    @Label("Change Type")
+    public String changeType;
+
+    @Label("Table")
+    @Description("Tables the change touches, comma-separated; empty when unknown (e.g. raw sql)")
+    public String table;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,61 @@
+package com.datadrift.metrics.progress;
+
+import java.io.PrintStream;
+import java.time.Duration;
+
+/**
+ * Renders progress as one line per event:
+ *
+ *   [ 3/12] 00:04:12 elapsed, ~00:17:18 left | createIndex on orders (orders-idx::alice, 00:02:01)
+ *   [ 3/12] 00:26:12 elapsed, ~00:12:30 left | createIndex on orders (orders-idx::alice, 00:24:01,
+ *           building index: scanning table 60% (blocks 3600000 of 6000000), phase ETA 00:16:00)
+ */
+public class ConsoleProgressSink implements ProgressSink {
+
+    private final PrintStream out;
+
+    public ConsoleProgressSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void accept(ProgressSnapshot snapshot) {
+        String line = render(snapshot);
+        if (line != null) {
+            out.println(line);
+            out.flush();
+        }
+    }
+
+    static String render(ProgressSnapshot snapshot) {
+        return switch (snapshot.event()) {
+            case "started" -> "Progress: " + snapshot.total() + " changeset(s) pending, estimated " +
+                    duration(snapshot.remainingMs());
+            case "changeset_finished" -> prefix(snapshot) + " | " + snapshot.changeSet() +
+                    (Boolean.TRUE.equals(snapshot.succeeded()) ? " done" : " FAILED");
+            case "change_started", "heartbeat" -> snapshot.running().isEmpty() ? null : prefix(snapshot) + " | " +
+                    String.join(" | ", snapshot.running().stream().map(ConsoleProgressSink::describe).toList());
+            case "finished" -> "Progress: " + snapshot.completed() + "/" + snapshot.total() + " changeset(s) " +
+                    (Boolean.TRUE.equals(snapshot.succeeded()) ? "completed" : "completed before the run FAILED") +
+                    " in " + duration(snapshot.elapsedMs());
+            default -> null;
+        };
+    }
+
+    private static String prefix(ProgressSnapshot snapshot) {
+        int width = String.valueOf(snapshot.total()).length();
+        return String.format("[%" + width + "d/%d] %s elapsed, ~%s left", snapshot.completed(), snapshot.total(),
+                duration(snapshot.elapsedMs()), duration(snapshot.remainingMs()));
+    }
+
+    private static String describe(ProgressSnapshot.RunningChange change) {
+        return change.changeType() + (change.tables() != null ? " on " + change.tables() : "") +
+                " (" + change.changeSet() + ", " + duration(change.elapsedMs()) +
+                (change.detail() != null ? ", " + change.detail() : "") + ")";
+    }
+
+    static String duration(long millis) {
+        Duration duration = Duration.ofMillis(Math.max(0, millis));
+        return String.format("%02d:%02d:%02d", duration.toHours(), duration.toMinutesPart(), duration.toSecondsPart());
+    }
+}
@@ -0,0 +1,259 @@
+package com.datadrift.metrics.progress;
+
+import com.datadrift.config.DataSourceConfig;
+import com.datadrift.metrics.MigrationMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a long DDL statement through PostgreSQL's progress views while it runs.
+ *
+ * Before the statement starts, the backend pid of the migration connection is read and a
+ * second connection is taken from the monitoring pool (DataSourceConfig.MONITOR_DATA_SOURCE).
+ * A daemon thread polls pg_stat_progress_create_index, pg_stat_progress_cluster and
+ * pg_stat_progress_vacuum for that pid every datadrift.progress.ddl-poll-ms and reports phase,
+ * blocks and tuples done with a phase ETA:
+ * - logged at INFO
+ * - attached to the running change in MigrationProgress (console and NDJSON)
+ * - time per phase recorded in the datadrift.ddl.phase timer, tagged command and phase
+ *
+ * Monitoring is best effort: without a pid, a spare connection or the views (PostgreSQL 12+),
+ * the statement simply runs unwatched. Statements finishing within one poll interval are
+ * never polled. The monitoring pool times out after a second, so a drained pool costs at most
+ * that before the statement runs unwatched.
+ */
+@Slf4j
+@Component
+public class DdlProgressMonitor {
+
+    /** Timer of the time a DDL statement spent in each phase, tagged command and phase */
+    public static final String DDL_PHASE = "datadrift.ddl.phase";
+
+    private static final String PROGRESS_SQL =
+            "SELECT 'create index' AS command, phase, blocks_done, blocks_total, tuples_done, tuples_total " +
+                    "FROM pg_stat_progress_create_index WHERE pid = ? " +
+                    "UNION ALL SELECT lower(command), phase, heap_blks_scanned, heap_blks_total, heap_tuples_written, 0 " +
+                    "FROM pg_stat_progress_cluster WHERE pid = ? " +
+                    "UNION ALL SELECT 'vacuum', phase, heap_blks_scanned, heap_blks_total, 0, 0 " +
+                    "FROM pg_stat_progress_vacuum WHERE pid = ?";
+
+    /**
+     * One row of a progress view; totals are 0 when the phase does not report them.
+     */
+    record Sample(String command, String phase, long blocksDone, long blocksTotal, long tuplesDone, long tuplesTotal) {
+    }
+
+    private final DataSource dataSource;
+    private final MigrationProgress progress;
+    private final MigrationMetrics metrics;
+    private final long pollMs;
+
+    public DdlProgressMonitor(
+            @Qualifier(DataSourceConfig.MONITOR_DATA_SOURCE) DataSource dataSource,
+            MigrationProgress progress,
+            MigrationMetrics metrics,
+            @Value("${datadrift.progress.ddl-poll-ms:30000}") long pollMs) {
+        this.dataSource = dataSource;
+        this.progress = progress;
+        this.metrics = metrics;
+        this.pollMs = pollMs;
+    }
+
+    /**
+     * Run a statement on the given template while watching its backend.
+     *
+     * @param jdbc      template bound to the connection the statement runs on
+     * @param label     names the statement in log messages, e.g. "CREATE INDEX idx_orders_status"
+     * @param statement runs the statement through jdbc
+     */
+    public void run(JdbcTemplate jdbc, String label, Runnable statement) {
+        if (pollMs <= 0) {
+            statement.run();
+            return;
+        }
+
+        Integer pid = jdbc.queryForObject("SELECT pg_backend_pid()", Integer.class);
+        Connection connection = pid != null ? monitorConnection() : null;
+        if (connection == null) {
+            statement.run();
+            return;
+        }
+
+        Tracker tracker = new Tracker(label, pid, Thread.currentThread(), new JdbcTemplate(
+                new SingleConnectionDataSource(connection, true)));
+        ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "datadrift-ddl-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(tracker::poll, pollMs, pollMs, TimeUnit.MILLISECONDS);
+
+        boolean succeeded = false;
+        try {
+            statement.run();
+            succeeded = true;
+        } finally {
+            poller.shutdownNow();
+            try {
+                poller.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            tracker.finish(succeeded);
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Closing the progress connection failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The connection is obtained on the calling thread, so it reaches the same shard.
+     */
+    private Connection monitorConnection() {
+        try {
+            Connection connection = dataSource.getConnection();
+            connection.setAutoCommit(true);
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            log.debug("No connection for progress monitoring, running unwatched: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return fraction of the current phase done, or null when the phase reports no totals
+     */
+    static Double fraction(Sample sample) {
+        if (byTuples(sample)) {
+            return Math.min(1.0, (double) sample.tuplesDone() / sample.tuplesTotal());
+        }
+        if (sample.blocksTotal() > 0) {
+            return Math.min(1.0, (double) sample.blocksDone() / sample.blocksTotal());
+        }
+        return null;
+    }
+
+    /**
+     * Scan phases count heap blocks; later phases (sorting, loading the tree) count tuples.
+     */
+    private static boolean byTuples(Sample sample) {
+        boolean scanning = sample.phase() != null && sample.phase().contains("scan");
+        return sample.tuplesTotal() > 0 && (!scanning || sample.blocksTotal() <= 0);
+    }
+
+    /**
+     * @param phaseElapsedMs time spent in the sample's phase so far
+     * @return e.g. "building index: scanning table 60% (blocks 3600000 of 6000000), phase ETA 00:16:00"
+     */
+    static String describe(Sample sample, long phaseElapsedMs) {
+        StringBuilder text = new StringBuilder(sample.phase() != null ? sample.phase() : sample.command());
+        Double fraction = fraction(sample);
+        if (fraction == null) {
+            if (sample.tuplesDone() > 0) {
+                text.append(" (").append(sample.tuplesDone()).append(" tuples)");
+            }
+            return text.toString();
+        }
+
+        text.append(String.format(Locale.ROOT, " %d%%", (int) (fraction * 100)));
+        text.append(byTuples(sample)
+                ? " (tuples " + sample.tuplesDone() + " of " + sample.tuplesTotal() + ")"
+                : " (blocks " + sample.blocksDone() + " of " + sample.blocksTotal() + ")");
+        if (fraction > 0 && fraction < 1) {
+            long etaMs = Math.round(phaseElapsedMs * (1 - fraction) / fraction);
+            text.append(", phase ETA ").append(ConsoleProgressSink.duration(etaMs));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Polling state of one statement. poll() runs on the poller thread, finish() on the
+     * statement's thread after the poller has stopped.
+     */
+    private final class Tracker {
+
+        private final String label;
+        private final int pid;
+        private final Thread worker;
+        private final JdbcTemplate monitor;
+
+        private String command;
+        private String phase;
+        private long phaseStartNanos;
+        private boolean failed;
+
+        Tracker(String label, int pid, Thread worker, JdbcTemplate monitor) {
+            this.label = label;
+            this.pid = pid;
+            this.worker = worker;
+            this.monitor = monitor;
+            this.phaseStartNanos = System.nanoTime();
+        }
+
+        synchronized void poll() {
+            if (failed) {
+                return;
+            }
+            List<Sample> samples;
+            try {
+                samples = monitor.query(PROGRESS_SQL,
+                        (rs, rowNum) -> new Sample(rs.getString("command"), rs.getString("phase"),
+                                rs.getLong("blocks_done"), rs.getLong("blocks_total"),
+                                rs.getLong("tuples_done"), rs.getLong("tuples_total")),
+                        pid, pid, pid);
+            } catch (RuntimeException e) {
+                // Old server or no access to the views; the statement is unaffected
+                failed = true;
+                log.debug("Progress views unavailable, not monitoring {}: {}", label, e.getMessage());
+                return;
+            }
+            if (samples.isEmpty()) {
+                return;
+            }
+
+            Sample sample = samples.get(0);
+            long now = System.nanoTime();
+            if (!Objects.equals(sample.phase(), phase)) {
+                recordPhase(now, "success");
+                command = sample.command();
+                phase = sample.phase();
+                phaseStartNanos = now;
+            }
+
+            String detail = describe(sample, (now - phaseStartNanos) / 1_000_000);
+            log.info("{}: {}", label, detail);
+            progress.changeDetail(worker, detail);
+        }
+
+        /**
+         * Record the last phase, tagged failure when the statement failed in it.
+         */
+        synchronized void finish(boolean succeeded) {
+            recordPhase(System.nanoTime(), succeeded ? "success" : "failure");
+            progress.changeDetail(worker, null);
+        }
+
+        private void recordPhase(long now, String outcome) {
+            if (phase != null) {
+                metrics.record(DDL_PHASE, Map.of("command", command, "phase", phase), outcome, now - phaseStartNanos);
+            }
+        }
+    }
+}
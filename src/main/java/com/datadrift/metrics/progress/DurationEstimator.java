@@ -0,0 +1,124 @@
+package com.datadrift.metrics.progress;
+
+import com.datadrift.model.change.Change;
+import com.datadrift.model.changelog.ChangeSet;
+import com.datadrift.plan.CatalogSnapshot;
+import com.datadrift.plan.TableReferenceResolver;
+import com.datadrift.plan.TableStats;
+import com.datadrift.repository.ExecutionHistoryRepository;
+import com.datadrift.util.CatalogSnapshotContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates how long pending changesets will take.
+ *
+ * A change is expected to take the median duration of its change type in earlier runs
+ * (DATABASECHANGELOGCHANGE). Change types without history that scan or rewrite their tables
+ * are estimated from the on-disk size of those tables at datadrift.progress.scan-bytes-per-second;
+ * everything else counts datadrift.progress.default-change-ms.
+ */
+@Component
+public class DurationEstimator {
+
+    private static final Set<String> SCANNING_TYPES = Set.of(
+            "createIndex", "modifyColumn", "addForeignKey", "backfillColumn", "update", "delete");
+
+    private final ExecutionHistoryRepository historyRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final long defaultChangeMs;
+    private final long scanBytesPerSecond;
+
+    public DurationEstimator(
+            ExecutionHistoryRepository historyRepository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${datadrift.progress.default-change-ms:1000}") long defaultChangeMs,
+            @Value("${datadrift.progress.scan-bytes-per-second:104857600}") long scanBytesPerSecond) {
+        this.historyRepository = historyRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultChangeMs = defaultChangeMs;
+        this.scanBytesPerSecond = Math.max(1, scanBytesPerSecond);
+    }
+
+    /**
+     * @return estimated milliseconds per changeset, keyed by identity
+     */
+    public Map<ChangeSet, Long> estimate(List<ChangeSet> changeSets) {
+        Map<String, Long> medians = historyRepository.findMedianExecutionMsByChangeType();
+
+        Set<String> scannedTables = new HashSet<>();
+        for (ChangeSet changeSet : changeSets) {
+            for (Change change : changeSet.getChanges()) {
+                if (!medians.containsKey(change.getChangeType()) && SCANNING_TYPES.contains(change.getChangeType())) {
+                    TableReferenceResolver.namedTables(change).ifPresent(scannedTables::addAll);
+                }
+            }
+        }
+        Map<String, Long> tableBytes = scannedTables.isEmpty() ? Map.of() : tableSizes(scannedTables);
+
+        Map<ChangeSet, Long> estimates = new IdentityHashMap<>();
+        for (ChangeSet changeSet : changeSets) {
+            long total = 0;
+            for (Change change : changeSet.getChanges()) {
+                total += estimate(change, medians, tableBytes);
+            }
+            estimates.put(changeSet, total);
+        }
+        return estimates;
+    }
+
+    long estimate(Change change, Map<String, Long> medians, Map<String, Long> tableBytes) {
+        Long median = medians.get(change.getChangeType());
+        if (median != null) {
+            return median;
+        }
+        if (SCANNING_TYPES.contains(change.getChangeType())) {
+            long bytes = TableReferenceResolver.namedTables(change).orElse(Set.of()).stream()
+                    .mapToLong(table -> tableBytes.getOrDefault(table, 0L))
+                    .sum();
+            return Math.max(defaultChangeMs, bytes * 1000 / scanBytesPerSecond);
+        }
+        return defaultChangeMs;
+    }
+
+    /**
+     * Table, index and TOAST size of the tables visible on the search path, keyed by
+     * lower-cased name like TableReferenceResolver. Missing tables are absent. Taken from the
+     * run's preflight snapshot when there is one.
+     */
+    private Map<String, Long> tableSizes(Set<String> tables) {
+        Map<String, Long> sizes = new HashMap<>();
+        CatalogSnapshot snapshot = CatalogSnapshotContext.current();
+        if (!snapshot.isEmpty()) {
+            // The run's preflight already read the sizes of every referenced table
+            for (TableStats stats : snapshot.tables()) {
+                sizes.put(stats.name(), stats.totalBytes());
+            }
+            return sizes;
+        }
+
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(
+                            "SELECT lower(c.relname) AS name, SUM(pg_total_relation_size(c.oid)) AS bytes FROM pg_class c " +
+                                    "WHERE c.relkind IN ('r', 'p', 'm') AND lower(c.relname) = ANY(?) " +
+                                    "AND pg_table_is_visible(c.oid) GROUP BY lower(c.relname)"
+                    );
+                    ps.setArray(1, con.createArrayOf("text", tables.toArray()));
+                    return ps;
+                },
+                (RowCallbackHandler) rs -> sizes.put(rs.getString("name"), rs.getLong("bytes"))
+        );
+        return sizes;
+    }
+}
@@ -0,0 +1,319 @@
+package com.datadrift.metrics.progress;
+
+import com.datadrift.model.changelog.ChangeSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live progress of a migration run: completed and remaining changesets, the change each worker
+ * is executing, elapsed time and an ETA.
+ *
+ * Inactive (every call returns immediately) until a command attaches a sink. The ETA starts
+ * from DurationEstimator and is corrected by how far actual durations deviated from the
+ * estimates so far (factor between 0.25 and 4). It assumes changesets run one after another.
+ * While a run is in flight, a heartbeat event repeats the current state every
+ * datadrift.progress.interval-ms so long statements do not look hung.
+ *
+ * Events are produced by workers inside the migration transaction, possibly while it holds
+ * exclusive locks, so sinks never run on them: snapshots go to a bounded queue drained by one
+ * delivery thread. When a sink stalls (e.g. a dashboard socket stops reading) and the queue is
+ * full, further events are dropped instead of blocking the migration.
+ */
+@Slf4j
+@Component
+public class MigrationProgress {
+
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final long DRAIN_TIMEOUT_MS = 5000;
+
+    private final DurationEstimator estimator;
+    private final long intervalMs;
+    private final List<ProgressSink> sinks = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<ProgressSnapshot> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private Thread delivery;
+    private long dropped;
+
+    private Map<ChangeSet, Long> estimates = new IdentityHashMap<>();
+    private final Map<ChangeSet, Running> running = new IdentityHashMap<>();
+    private ScheduledExecutorService heartbeat;
+    private long runStartNanos;
+    private int total;
+    private int completed;
+    private int failed;
+    private long pendingEstimateMs;
+    private long estimatedDoneMs;
+    private long actualDoneMs;
+
+    public MigrationProgress(
+            DurationEstimator estimator,
+            @Value("${datadrift.progress.interval-ms:10000}") long intervalMs) {
+        this.estimator = estimator;
+        this.intervalMs = intervalMs;
+    }
+
+    public synchronized void attach(ProgressSink sink) {
+        sinks.add(sink);
+        if (delivery == null) {
+            delivery = new Thread(this::deliver, "datadrift-progress-sink");
+            delivery.setDaemon(true);
+            delivery.start();
+        }
+    }
+
+    /**
+     * Deliver the queued events (waiting at most a few seconds for a stalled sink), then
+     * detach and close all sinks.
+     */
+    public void detachAll() {
+        awaitDelivery(DRAIN_TIMEOUT_MS);
+        Thread stopped;
+        synchronized (this) {
+            stopped = delivery;
+            delivery = null;
+            if (dropped > 0) {
+                log.warn("Dropped {} progress event(s) because a progress output did not keep up", dropped);
+                dropped = 0;
+            }
+        }
+        if (stopped != null) {
+            stopped.interrupt();
+        }
+        for (ProgressSink sink : sinks) {
+            sink.close();
+        }
+        sinks.clear();
+        queue.clear();
+    }
+
+    /**
+     * Wait until every queued event was handed to the sinks.
+     *
+     * @return false when the timeout elapsed first
+     */
+    boolean awaitDelivery(long timeoutMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (delivered.get() < queued.get()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isActive() {
+        return !sinks.isEmpty();
+    }
+
+    public synchronized void runStarted(List<ChangeSet> pending) {
+        if (!isActive()) {
+            return;
+        }
+        estimates = new IdentityHashMap<>(estimator.estimate(pending));
+        running.clear();
+        runStartNanos = System.nanoTime();
+        total = pending.size();
+        completed = 0;
+        failed = 0;
+        pendingEstimateMs = estimates.values().stream().mapToLong(Long::longValue).sum();
+        estimatedDoneMs = 0;
+        actualDoneMs = 0;
+
+        if (intervalMs > 0 && heartbeat == null) {
+            heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "datadrift-progress");
+                thread.setDaemon(true);
+                return thread;
+            });
+            heartbeat.scheduleAtFixedRate(this::heartbeat, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+        emit("started", null, null);
+    }
+
+    public synchronized void changeSetStarted(ChangeSet changeSet) {
+        if (!isActive()) {
+            return;
+        }
+        running.put(changeSet, new Running(key(changeSet), System.nanoTime()));
+        emit("changeset_started", key(changeSet), null);
+    }
+
+    /**
+     * @param tables tables the change touches, comma-separated, or null when unknown
+     */
+    public synchronized void changeStarted(ChangeSet changeSet, String changeType, String tables) {
+        if (!isActive()) {
+            return;
+        }
+        Running current = running.computeIfAbsent(changeSet, cs -> new Running(key(cs), System.nanoTime()));
+        current.changeType = changeType;
+        current.tables = tables;
+        current.changeStartNanos = System.nanoTime();
+        current.worker = Thread.currentThread();
+        current.detail = null;
+        emit("change_started", current.changeSet, null);
+    }
+
+    /**
+     * Attach statement-level progress to the change the worker thread is running; it is
+     * reported with the next event.
+     *
+     * @param detail e.g. "building index: scanning table, 60%", or null to clear it
+     */
+    public synchronized void changeDetail(Thread worker, String detail) {
+        if (!isActive()) {
+            return;
+        }
+        for (Running current : running.values()) {
+            if (current.worker == worker) {
+                current.detail = detail;
+            }
+        }
+    }
+
+    public synchronized void changeSetFinished(ChangeSet changeSet, boolean succeeded) {
+        if (!isActive()) {
+            return;
+        }
+        Running finished = running.remove(changeSet);
+        long estimateMs = estimates.getOrDefault(changeSet, 0L);
+        pendingEstimateMs -= estimateMs;
+        if (finished != null) {
+            estimatedDoneMs += estimateMs;
+            actualDoneMs += millisSince(finished.changeSetStartNanos);
+        }
+        completed++;
+        if (!succeeded) {
+            failed++;
+        }
+        emit("changeset_finished", key(changeSet), succeeded);
+    }
+
+    public synchronized void runFinished(boolean succeeded) {
+        if (!isActive()) {
+            return;
+        }
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+            heartbeat = null;
+        }
+        running.clear();
+        emit("finished", null, succeeded);
+    }
+
+    private synchronized void heartbeat() {
+        if (isActive() && !running.isEmpty()) {
+            emit("heartbeat", null, null);
+        }
+    }
+
+    /**
+     * Called under the monitor; only enqueues, never waits for a sink.
+     */
+    private void emit(String event, String changeSet, Boolean succeeded) {
+        if (queue.offer(snapshot(event, changeSet, succeeded))) {
+            queued.incrementAndGet();
+        } else if (dropped++ == 0) {
+            log.warn("Progress output is not keeping up, dropping events");
+        }
+    }
+
+    private void deliver() {
+        while (!Thread.currentThread().isInterrupted()) {
+            ProgressSnapshot snapshot;
+            try {
+                snapshot = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            for (ProgressSink sink : sinks) {
+                try {
+                    sink.accept(snapshot);
+                } catch (RuntimeException e) {
+                    log.warn("Progress sink failed: {}", e.getMessage());
+                }
+            }
+            delivered.incrementAndGet();
+        }
+    }
+
+    ProgressSnapshot snapshot(String event, String changeSet, Boolean succeeded) {
+        long now = System.nanoTime();
+        List<ProgressSnapshot.RunningChange> changes = new ArrayList<>();
+        long remainingMs = pendingEstimateMs;
+
+        List<Map.Entry<ChangeSet, Running>> inFlight = new ArrayList<>(running.entrySet());
+        inFlight.sort(Comparator.comparingLong(entry -> entry.getValue().changeSetStartNanos));
+        for (Map.Entry<ChangeSet, Running> entry : inFlight) {
+            Running current = entry.getValue();
+            remainingMs -= Math.min(estimates.getOrDefault(entry.getKey(), 0L), millisSince(current.changeSetStartNanos, now));
+            if (current.changeType != null) {
+                changes.add(new ProgressSnapshot.RunningChange(current.changeSet, current.changeType, current.tables,
+                        millisSince(current.changeStartNanos, now), current.detail));
+            }
+        }
+
+        return new ProgressSnapshot(event, changeSet, succeeded, total, completed, failed,
+                millisSince(runStartNanos, now), Math.round(Math.max(0, remainingMs) * correction()), List.copyOf(changes));
+    }
+
+    /**
+     * Ratio of actual to estimated time of the finished changesets.
+     */
+    private double correction() {
+        if (estimatedDoneMs <= 0) {
+            return 1.0;
+        }
+        return Math.max(0.25, Math.min(4.0, (double) actualDoneMs / estimatedDoneMs));
+    }
+
+    private static String key(ChangeSet changeSet) {
+        return changeSet.getId() + "::" + changeSet.getAuthor();
+    }
+
+    private static long millisSince(long startNanos) {
+        return millisSince(startNanos, System.nanoTime());
+    }
+
+    private static long millisSince(long startNanos, long nowNanos) {
+        return (nowNanos - startNanos) / 1_000_000;
+    }
+
+    private static final class Running {
+
+        private final String changeSet;
+        private final long changeSetStartNanos;
+        private String changeType;
+        private String tables;
+        private long changeStartNanos;
+        private Thread worker;
+        private String detail;
+
+        Running(String changeSet, long changeSetStartNanos) {
+            this.changeSet = changeSet;
+            this.changeSetStartNanos = changeSetStartNanos;
+            this.changeStartNanos = changeSetStartNanos;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.datadrift.metrics.progress;
+
+import com.datadrift.util.JsonStrings;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Collectors;
+
+/**
+ * Writes every progress event as one JSON object per line, to a file (appended) or a TCP
+ * socket (tcp://host:port), for deploy dashboards.
+ *
+ * A failing destination is logged once and then ignored; progress output never fails a migration.
+ */
+@Slf4j
+public class NdjsonProgressSink implements ProgressSink {
+
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+
+    private final Writer writer;
+    private final AutoCloseable resource;
+    private boolean broken;
+
+    NdjsonProgressSink(Writer writer, AutoCloseable resource) {
+        this.writer = writer;
+        this.resource = resource;
+    }
+
+    /**
+     * @param target file path, or tcp://host:port
+     */
+    public static NdjsonProgressSink open(String target) throws IOException {
+        if (target.startsWith("tcp://")) {
+            URI uri = URI.create(target);
+            if (uri.getHost() == null || uri.getPort() < 0) {
+                throw new IOException("Invalid progress socket '" + target + "', expected tcp://host:port");
+            }
+            Socket socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress(uri.getHost(), uri.getPort()), CONNECT_TIMEOUT_MS);
+                Writer writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+                return new NdjsonProgressSink(writer, socket);
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        Writer writer = Files.newBufferedWriter(Path.of(target), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return new NdjsonProgressSink(writer, writer);
+    }
+
+    @Override
+    public void accept(ProgressSnapshot snapshot) {
+        if (broken) {
+            return;
+        }
+        try {
+            writer.write(toJson(snapshot));
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            broken = true;
+            log.warn("Progress output failed, disabling it: {}", e.getMessage());
+        }
+    }
+
+    static String toJson(ProgressSnapshot snapshot) {
+        String running = snapshot.running().stream()
+                .map(change -> "{\"changeSet\":" + JsonStrings.quote(change.changeSet()) +
+                        ",\"changeType\":" + JsonStrings.quote(change.changeType()) +
+                        ",\"tables\":" + JsonStrings.quote(change.tables()) +
+                        ",\"elapsedMs\":" + change.elapsedMs() +
+                        ",\"detail\":" + JsonStrings.quote(change.detail()) + "}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        return "{\"event\":" + JsonStrings.quote(snapshot.event()) +
+                ",\"timestamp\":" + System.currentTimeMillis() +
+                ",\"changeSet\":" + JsonStrings.quote(snapshot.changeSet()) +
+                ",\"succeeded\":" + snapshot.succeeded() +
+                ",\"total\":" + snapshot.total() +
+                ",\"completed\":" + snapshot.completed() +
+                ",\"failed\":" + snapshot.failed() +
+                ",\"elapsedMs\":" + snapshot.elapsedMs() +
+                ",\"remainingMs\":" + snapshot.remainingMs() +
+                ",\"running\":" + running + "}";
+    }
+
+    @Override
+    public void close() {
+        try {
+            resource.close();
+        } catch (Exception e) {
+            log.debug("Failed to close progress output: {}", e.getMessage());
+        }
+    }
+}
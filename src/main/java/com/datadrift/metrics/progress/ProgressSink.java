@@ -0,0 +1,14 @@
+package com.datadrift.metrics.progress;
+
+/**
+ * Destination of progress events. Called on MigrationProgress's delivery thread, one event at a
+ * time, never on a migration worker.
+ */
+public interface ProgressSink extends AutoCloseable {
+
+    void accept(ProgressSnapshot snapshot);
+
+    @Override
+    default void close() {
+    }
+}
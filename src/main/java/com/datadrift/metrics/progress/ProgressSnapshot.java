@@ -0,0 +1,25 @@
+package com.datadrift.metrics.progress;
+
+import java.util.List;
+
+/**
+ * State of a migration run at one progress event.
+ *
+ * @param event       started, changeset_started, change_started, changeset_finished, heartbeat or
+ *                    finished
+ * @param changeSet   changeset the event is about (id::author), or null for run-wide events
+ * @param succeeded   outcome of a finished changeset or run, otherwise null
+ * @param remainingMs estimated time until the run completes
+ * @param running     changesets in flight; more than one with datadrift.execution.parallelism
+ */
+public record ProgressSnapshot(String event, String changeSet, Boolean succeeded, int total, int completed, int failed,
+                               long elapsedMs, long remainingMs, List<RunningChange> running) {
+
+    /**
+     * @param tables    tables the current change touches, comma-separated, or null when unknown
+     * @param elapsedMs time spent on the current change so far
+     * @param detail    progress of the statement the change is running (see DdlProgressMonitor), or null
+     */
+    public record RunningChange(String changeSet, String changeType, String tables, long elapsedMs, String detail) {
+    }
+}
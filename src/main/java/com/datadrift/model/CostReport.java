@@ -0,0 +1,52 @@
+package com.datadrift.model;
+
+import com.datadrift.plan.CostEstimate;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EXPLAIN estimates of pending data-modifying changes and the configured limits they exceed.
+ */
+@Data
+public class CostReport {
+    private List<CostEstimate> estimates = new ArrayList<>();
+    private List<String> violations = new ArrayList<>();
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Cost estimates (EXPLAIN):\n");
+        if (estimates.isEmpty()) {
+            sb.append("  (no update, delete or INSERT ... SELECT changes)\n");
+            return sb.toString();
+        }
+
+        sb.append(String.format("  %-30s %3s %-8s %-24s %14s %14s  %s%n",
+                "CHANGESET", "#", "CHANGE", "TABLE", "EST. ROWS", "COST", "SEQ SCAN OF LARGE TABLES"));
+        for (CostEstimate estimate : estimates) {
+            String table = estimate.table() != null ? estimate.table() : "-";
+            if (estimate.chunked()) {
+                table += " (chunked)";
+            }
+            if (estimate.error() != null) {
+                sb.append(String.format("  %-30s %3d %-8s %-24s  not explained: %s%n",
+                        estimate.changeSet(), estimate.changeIndex(), estimate.changeType(), table, estimate.error()));
+                continue;
+            }
+            sb.append(String.format("  %-30s %3d %-8s %-24s %14d %14.0f  %s%n",
+                    estimate.changeSet(), estimate.changeIndex(), estimate.changeType(), table,
+                    estimate.estimatedRows(), estimate.totalCost(),
+                    estimate.seqScans().isEmpty() ? "-" : String.join(", ", estimate.seqScans())));
+        }
+
+        if (!violations.isEmpty()) {
+            sb.append("\nLimits exceeded:\n");
+            for (String violation : violations) {
+                sb.append("  - ").append(violation).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,126 @@
+package com.datadrift.model;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One page of execution timing history: slowest changesets, deployment totals and per-change-type
+ * percentiles. Each section is paginated on its own with the same page and page size.
+ */
+@Data
+public class ExecutionHistory {
+    private int page;
+    private int pageSize;
+    private Set<Section> sections = EnumSet.allOf(Section.class);
+    private List<SlowChangeSet> slowestChangeSets = new ArrayList<>();
+    private List<DeploymentTotal> deployments = new ArrayList<>();
+    private List<ChangeTypeStats> changeTypes = new ArrayList<>();
+
+    public enum Section {
+        SLOWEST,
+        DEPLOYMENTS,
+        CHANGE_TYPES
+    }
+
+    @Data
+    public static class SlowChangeSet {
+        private String id;
+        private String author;
+        private String filename;
+        private String deploymentId;
+        private LocalDateTime dateExecuted;
+        private Long executionMs;
+        private Long rowsAffected;
+    }
+
+    @Data
+    public static class DeploymentTotal {
+        private String deploymentId;
+        private LocalDateTime started;
+        private int changeSetCount;
+        private long executionMs;
+        private Long rowsAffected;
+    }
+
+    @Data
+    public static class ChangeTypeStats {
+        private String changeType;
+        private long count;
+        private long p50Ms;
+        private long p95Ms;
+        private long p99Ms;
+        private long maxMs;
+        private Long rowsAffected;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        if (sections.contains(Section.SLOWEST)) {
+            sb.append("Slowest changesets (page ").append(page).append("):\n");
+            if (slowestChangeSets.isEmpty()) {
+                sb.append("  (none)\n");
+            } else {
+                sb.append(String.format("  %10s %12s  %-12s %-19s  %s%n", "TIME (ms)", "ROWS", "DEPLOYMENT", "EXECUTED", "CHANGESET"));
+                for (SlowChangeSet changeSet : slowestChangeSets) {
+                    sb.append(String.format("  %10d %12s  %-12s %-19s  %s::%s (%s)%n",
+                            changeSet.getExecutionMs(), rows(changeSet.getRowsAffected()),
+                            nullSafe(changeSet.getDeploymentId()), timestamp(changeSet.getDateExecuted()),
+                            changeSet.getId(), changeSet.getAuthor(), changeSet.getFilename()));
+                }
+            }
+            sb.append("\n");
+        }
+
+        if (sections.contains(Section.DEPLOYMENTS)) {
+            sb.append("Deployments, newest first (page ").append(page).append("):\n");
+            if (deployments.isEmpty()) {
+                sb.append("  (none)\n");
+            } else {
+                sb.append(String.format("  %-12s %-19s %10s %10s %12s%n", "DEPLOYMENT", "STARTED", "CHANGESETS", "TIME (ms)", "ROWS"));
+                for (DeploymentTotal deployment : deployments) {
+                    sb.append(String.format("  %-12s %-19s %10d %10d %12s%n",
+                            deployment.getDeploymentId(), timestamp(deployment.getStarted()),
+                            deployment.getChangeSetCount(), deployment.getExecutionMs(), rows(deployment.getRowsAffected())));
+                }
+            }
+            sb.append("\n");
+        }
+
+        if (sections.contains(Section.CHANGE_TYPES)) {
+            sb.append("Change types by p95 (page ").append(page).append("):\n");
+            if (changeTypes.isEmpty()) {
+                sb.append("  (none)\n");
+            } else {
+                sb.append(String.format("  %-16s %8s %10s %10s %10s %10s %12s%n",
+                        "TYPE", "COUNT", "P50 (ms)", "P95 (ms)", "P99 (ms)", "MAX (ms)", "ROWS"));
+                for (ChangeTypeStats stats : changeTypes) {
+                    sb.append(String.format("  %-16s %8d %10d %10d %10d %10d %12s%n",
+                            stats.getChangeType(), stats.getCount(), stats.getP50Ms(), stats.getP95Ms(),
+                            stats.getP99Ms(), stats.getMaxMs(), rows(stats.getRowsAffected())));
+                }
+            }
+            sb.append("\n");
+        }
+
+        return sb.toString();
+    }
+
+    private static String rows(Long rows) {
+        return rows != null ? rows.toString() : "-";
+    }
+
+    private static String timestamp(LocalDateTime time) {
+        return time != null ? time.withNano(0).toString().replace('T', ' ') : "-";
+    }
+
+    private static String nullSafe(String value) {
+        return value != null ? value : "-";
+    }
+}
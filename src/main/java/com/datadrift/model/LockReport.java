@@ -0,0 +1,58 @@
+package com.datadrift.model;
+
+import com.datadrift.plan.LockImpact;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lock level, table rewrites and full scans of every change in a set of changesets.
+ */
+@Data
+public class LockReport {
+    private List<Entry> entries = new ArrayList<>();
+
+    @Data
+    public static class Entry {
+        private String changeSet;
+        private int changeIndex;
+        private LockImpact impact;
+    }
+
+    /**
+     * @return entries that block writes while reading or rewriting the whole table
+     */
+    public List<Entry> getBlocking() {
+        return entries.stream().filter(entry -> entry.getImpact().isBlocking()).toList();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Lock report:\n");
+        if (entries.isEmpty()) {
+            sb.append("  (no changes)\n");
+            return sb.toString();
+        }
+
+        sb.append(String.format("  %-30s %3s %-15s %-22s %-7s %-4s  %s%n",
+                "CHANGESET", "#", "CHANGE", "LOCK", "REWRITE", "SCAN", "TABLE / NOTE"));
+        for (Entry entry : entries) {
+            LockImpact impact = entry.getImpact();
+            String target = impact.table() != null ? impact.table() : "-";
+            if (impact.note() != null) {
+                target += " (" + impact.note() + ")";
+            }
+            sb.append(String.format("  %-30s %3d %-15s %-22s %-7s %-4s  %s%n",
+                    entry.getChangeSet(), entry.getChangeIndex(), impact.changeType(), impact.lockLevel().sqlName(),
+                    impact.rewrite() ? "yes" : "no", impact.fullScan() ? "yes" : "no", target));
+        }
+
+        List<Entry> blocking = getBlocking();
+        sb.append("\n");
+        sb.append(blocking.size()).append(" of ").append(entries.size())
+                .append(" change(s) block writes while rewriting or scanning a table.\n");
+        return sb.toString();
+    }
+}
@@ -15,6 +15,7 @@ public class MigrationStatus {
     private int pendingCount;
     private List<String> pendingChangesets;
     private LocalDateTime lastExecutionTime;
+    private int lastOrderExecuted;
     private boolean locked;
 
     @Override
@@ -25,6 +26,7 @@ public class MigrationStatus {
         sb.append("  Executed:            ").append(executedCount).append("\n");
         sb.append("  Pending:             ").append(pendingCount).append("\n");
         sb.append("  Last execution:      ").append(lastExecutionTime != null ? lastExecutionTime : "Never").append("\n");
+        sb.append("  Last order executed: ").append(lastOrderExecuted).append("\n");
         sb.append("  Lock status:         ").append(locked ? "LOCKED" : "Not locked").append("\n");
 
         if (pendingChangesets != null && !pendingChangesets.isEmpty()) {
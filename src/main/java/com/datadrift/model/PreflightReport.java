@@ -0,0 +1,39 @@
+package com.datadrift.model;
+
+import com.datadrift.plan.TableStats;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sizes of the tables pending changes touch and the changes the preflight flags as risky.
+ */
+@Data
+public class PreflightReport {
+    private List<TableStats> tables = new ArrayList<>();
+    private List<String> risks = new ArrayList<>();
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Preflight:\n");
+        if (tables.isEmpty()) {
+            sb.append("  (no existing tables referenced)\n");
+        } else {
+            sb.append(String.format("  %-40s %14s %12s %7s %11s%n", "TABLE", "EST. ROWS", "SIZE", "INDEXES", "CONSTRAINTS"));
+            for (TableStats stats : tables) {
+                sb.append(String.format("  %-40s %14d %12s %7d %11d%n", stats.regclass(), stats.rows(),
+                        TableStats.formatBytes(stats.totalBytes()), stats.indexes().size(), stats.constraints().size()));
+            }
+        }
+
+        if (!risks.isEmpty()) {
+            sb.append("\nRisky changes:\n");
+            for (String risk : risks) {
+                sb.append("  - ").append(risk).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+}
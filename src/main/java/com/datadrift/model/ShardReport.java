@@ -0,0 +1,72 @@
+package com.datadrift.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consolidated outcome of running one operation against every shard datasource.
+ */
+@Data
+public class ShardReport {
+    private String operation;
+    private List<ShardResult> shards = new ArrayList<>();
+    private boolean aborted;
+    private long durationMs;
+
+    public enum Status {
+        SUCCESS,
+        FAILED,
+        // Not attempted because an earlier wave failed
+        SKIPPED
+    }
+
+    @Data
+    public static class ShardResult {
+        private String shard;
+        private int wave;
+        private Status status;
+        private long durationMs;
+        // Changesets executed (migrate) or pending (status)
+        private int changeSetCount;
+        private String error;
+    }
+
+    public long count(Status status) {
+        return shards.stream().filter(shard -> shard.getStatus() == status).count();
+    }
+
+    public boolean isSuccessful() {
+        return count(Status.FAILED) == 0 && count(Status.SKIPPED) == 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Shard Report (").append(operation).append("):\n");
+        sb.append("  Shards:    ").append(shards.size()).append("\n");
+        sb.append("  Succeeded: ").append(count(Status.SUCCESS)).append("\n");
+        sb.append("  Failed:    ").append(count(Status.FAILED)).append("\n");
+        sb.append("  Skipped:   ").append(count(Status.SKIPPED)).append("\n");
+        sb.append("  Duration:  ").append(durationMs).append(" ms\n");
+        if (aborted) {
+            sb.append("  Aborted after a failed wave, later waves were not started\n");
+        }
+
+        sb.append("\n");
+        sb.append(String.format("  %-24s %4s  %-8s %10s %10s  %s%n",
+                "SHARD", "WAVE", "STATUS", "CHANGESETS", "TIME (ms)", "ERROR"));
+        for (ShardResult shard : shards) {
+            sb.append(String.format("  %-24s %4d  %-8s %10d %10d  %s%n",
+                    shard.getShard(),
+                    shard.getWave(),
+                    shard.getStatus(),
+                    shard.getChangeSetCount(),
+                    shard.getDurationMs(),
+                    shard.getError() != null ? shard.getError() : ""));
+        }
+
+        return sb.toString();
+    }
+}
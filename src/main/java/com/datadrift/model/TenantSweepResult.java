@@ -0,0 +1,75 @@
+package com.datadrift.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aggregated outcome of applying one changelog to many tenant schemas.
+ */
+@Data
+public class TenantSweepResult {
+    private List<TenantResult> tenants = new ArrayList<>();
+    private boolean failureBudgetExhausted;
+    private long durationMs;
+
+    public enum Status {
+        SUCCESS,
+        FAILED,
+        // Not attempted because the failure budget was exhausted
+        SKIPPED,
+        // Recorded as successful in the progress file of an earlier run
+        RESUMED
+    }
+
+    @Data
+    public static class TenantResult {
+        private String schema;
+        private Status status;
+        private int executedCount;
+        private long durationMs;
+        private String error;
+    }
+
+    public long count(Status status) {
+        return tenants.stream().filter(tenant -> tenant.getStatus() == status).count();
+    }
+
+    public int getTotalExecuted() {
+        return tenants.stream().mapToInt(TenantResult::getExecutedCount).sum();
+    }
+
+    public boolean isSuccessful() {
+        return count(Status.FAILED) == 0 && count(Status.SKIPPED) == 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Tenant Sweep Result:\n");
+        sb.append("  Schemas:             ").append(tenants.size()).append("\n");
+        sb.append("  Succeeded:           ").append(count(Status.SUCCESS)).append("\n");
+        sb.append("  Failed:              ").append(count(Status.FAILED)).append("\n");
+        sb.append("  Skipped:             ").append(count(Status.SKIPPED)).append("\n");
+        sb.append("  Resumed:             ").append(count(Status.RESUMED)).append("\n");
+        sb.append("  Changesets executed: ").append(getTotalExecuted()).append("\n");
+        sb.append("  Duration:            ").append(durationMs).append(" ms\n");
+
+        if (failureBudgetExhausted) {
+            sb.append("  Failure budget exhausted, remaining schemas were not attempted\n");
+        }
+
+        List<TenantResult> failed = tenants.stream()
+                .filter(tenant -> tenant.getStatus() == Status.FAILED)
+                .toList();
+        if (!failed.isEmpty()) {
+            sb.append("  Failed schemas:\n");
+            for (TenantResult tenant : failed) {
+                sb.append("    - ").append(tenant.getSchema()).append(": ").append(tenant.getError()).append("\n");
+            }
+        }
+
+        return sb.toString();
+    }
+}
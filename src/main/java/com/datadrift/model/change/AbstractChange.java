@@ -0,0 +1,24 @@
+package com.datadrift.model.change;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Common base for the built-in change types.
+ *
+ * Holds execution settings that tune how a change runs rather than what it does. The Lombok
+ * toString() of each subclass leaves these fields out, so they are not part of the changeset
+ * checksum: adjusting a timeout on an applied changeset does not cause a checksum mismatch.
+ * Subclass fields of the same kind (deferValidation, online, chunkSize, maxRowsPerSecond) are
+ * marked @ToString.Exclude for the same reason.
+ */
+@Getter
+@Setter
+public abstract class AbstractChange implements Change {
+
+    /** lock_timeout for this change, e.g. "5s"; overrides the changeset value */
+    private String lockTimeout;
+
+    /** statement_timeout for this change, e.g. "10min"; overrides the changeset value */
+    private String statementTimeout;
+}
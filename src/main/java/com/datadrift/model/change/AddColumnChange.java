@@ -1,17 +1,22 @@
 package com.datadrift.model.change;
 
 import lombok.Data;
+import lombok.ToString;
 
 import java.util.List;
 
 import static com.datadrift.model.change.CreateTableChange.ColumnConfig;
 
 @Data
-public class AddColumnChange implements Change {
+public class AddColumnChange extends AbstractChange {
     private String tableName;
     private String schemaName;
     private List<ColumnConfig> columns;
 
+    // Add column CHECK constraints NOT VALID and validate existing rows after commit
+    @ToString.Exclude
+    private Boolean deferValidation;
+
     @Override
     public String getChangeType() {
         return "addColumn";
@@ -1,11 +1,12 @@
 package com.datadrift.model.change;
 
 import lombok.Data;
+import lombok.ToString;
 
 import java.util.List;
 
 @Data
-public class AddForeignKeyChange implements Change {
+public class AddForeignKeyChange extends AbstractChange {
     private String baseTableName;
     private String baseSchemaName;
     private List<String> baseColumnNames;
@@ -20,6 +21,10 @@ public class AddForeignKeyChange implements Change {
     private Boolean deferrable;
     private Boolean initiallyDeferred;
 
+    // Add NOT VALID and validate existing rows after commit
+    @ToString.Exclude
+    private Boolean deferValidation;
+
     @Override
     public String getChangeType() {
         return "addForeignKey";
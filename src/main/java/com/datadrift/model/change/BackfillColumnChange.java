@@ -0,0 +1,62 @@
+package com.datadrift.model.change;
+
+import com.datadrift.util.SqlEscapeUtil;
+import lombok.Data;
+import lombok.ToString;
+
+/**
+ * Adds a column and fills it with a per-row computed value without one giant UPDATE.
+ *
+ * The column is added nullable, filled in committed primary-key chunks (see ColumnBackfiller),
+ * and, unless notNull is false, made NOT NULL through a validated CHECK constraint so the final
+ * step does not scan the table under an exclusive lock.
+ */
+@Data
+public class BackfillColumnChange extends AbstractChange {
+    private String tableName;
+    private String schemaName;
+    private String columnName;
+    private String columnType;
+    // SQL expression evaluated per row, may reference the row's other columns
+    private String valueComputed;
+    private Boolean notNull;
+
+    // null: datadrift.backfill.chunk-size / max-rows-per-second
+    @ToString.Exclude
+    private Integer chunkSize;
+    @ToString.Exclude
+    private Integer maxRowsPerSecond;
+
+    @Override
+    public String getChangeType() {
+        return "backfillColumn";
+    }
+
+    public boolean isNotNullRequested() {
+        return !Boolean.FALSE.equals(notNull);
+    }
+
+    @Override
+    public void validate() throws IllegalArgumentException {
+        if (tableName == null || tableName.isBlank()) {
+            throw new IllegalArgumentException("tableName is required for backfillColumn");
+        }
+        if (columnName == null || columnName.isBlank()) {
+            throw new IllegalArgumentException("columnName is required for backfillColumn");
+        }
+        if (columnType == null || columnType.isBlank()) {
+            throw new IllegalArgumentException("columnType is required for backfillColumn");
+        }
+        if (valueComputed == null || valueComputed.isBlank()) {
+            throw new IllegalArgumentException("valueComputed is required for backfillColumn");
+        }
+        SqlEscapeUtil.validateExpression(valueComputed);
+
+        if (chunkSize != null && chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive for backfillColumn");
+        }
+        if (maxRowsPerSecond != null && maxRowsPerSecond < 0) {
+            throw new IllegalArgumentException("maxRowsPerSecond cannot be negative for backfillColumn");
+        }
+    }
+}
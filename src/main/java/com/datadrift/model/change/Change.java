@@ -14,4 +14,18 @@ public interface Change {
      * Validates that the change configuration is correct
      */
     void validate() throws IllegalArgumentException;
+
+    /**
+     * lock_timeout to apply while this change runs, or null to use the changeset value
+     */
+    default String getLockTimeout() {
+        return null;
+    }
+
+    /**
+     * statement_timeout to apply while this change runs, or null to use the changeset value
+     */
+    default String getStatementTimeout() {
+        return null;
+    }
 }
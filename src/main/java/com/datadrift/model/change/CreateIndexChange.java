@@ -5,7 +5,7 @@ import lombok.Data;
 import java.util.List;
 
 @Data
-public class CreateIndexChange implements Change {
+public class CreateIndexChange extends AbstractChange {
     private String indexName;
     private String tableName;
     private String schemaName;
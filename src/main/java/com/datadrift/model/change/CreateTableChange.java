@@ -9,7 +9,7 @@ import java.util.Objects;
  * Represents a CREATE TABLE change.
  */
 @Data
-public class CreateTableChange implements Change {
+public class CreateTableChange extends AbstractChange {
     private String tableName;
     private String schemaName;
     private String remarks;
@@ -1,13 +1,22 @@
 package com.datadrift.model.change;
 
 import lombok.Data;
+import lombok.ToString;
 
 @Data
-public class DeleteChange implements Change {
+public class DeleteChange extends AbstractChange {
     private String tableName;
     private String schemaName;
     private String where;
 
+    // With chunkSize the statement runs in primary-key chunks that commit on their own (see
+    // ChunkedStatementRunner): it is no longer atomic, and a failure leaves the committed chunks
+    // applied. Not part of the checksum, so a stalled run can be switched to chunks and resumed.
+    @ToString.Exclude
+    private Integer chunkSize;
+    @ToString.Exclude
+    private Integer maxRowsPerSecond;
+
     @Override
     public String getChangeType() {
         return "delete";
@@ -21,5 +30,11 @@ public class DeleteChange implements Change {
         if (where == null || where.isBlank()) {
             throw new IllegalArgumentException("WHERE clause is required for delete (to prevent accidental full table deletes)");
         }
+        if (chunkSize != null && chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive for delete");
+        }
+        if (maxRowsPerSecond != null && maxRowsPerSecond < 0) {
+            throw new IllegalArgumentException("maxRowsPerSecond cannot be negative for delete");
+        }
     }
 }
@@ -16,7 +16,7 @@ import java.util.List;
  * Without CASCADE (RESTRICT), the operation fails if any dependencies exist.
  */
 @Data
-public class DropColumnChange implements Change {
+public class DropColumnChange extends AbstractChange {
     private String tableName;
     private String schemaName;
     private List<String> columns;
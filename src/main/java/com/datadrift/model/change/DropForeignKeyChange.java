@@ -3,7 +3,7 @@ package com.datadrift.model.change;
 import lombok.Data;
 
 @Data
-public class DropForeignKeyChange implements Change {
+public class DropForeignKeyChange extends AbstractChange {
     private String baseTableName;
     private String baseSchemaName;
     private String constraintName;
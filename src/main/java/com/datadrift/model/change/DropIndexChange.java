@@ -19,7 +19,7 @@ import lombok.Data;
  *   which drops both the index and the constraint.
  */
 @Data
-public class DropIndexChange implements Change {
+public class DropIndexChange extends AbstractChange {
     private String indexName;
     private String schemaName;
     private Boolean cascade;
@@ -3,7 +3,7 @@ package com.datadrift.model.change;
 import lombok.Data;
 
 @Data
-public class DropTableChange implements Change {
+public class DropTableChange extends AbstractChange {
     private String tableName;
     private String schemaName;
     private Boolean cascade;
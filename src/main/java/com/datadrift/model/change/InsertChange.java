@@ -5,7 +5,7 @@ import lombok.Data;
 import java.util.List;
 
 @Data
-public class InsertChange implements Change {
+public class InsertChange extends AbstractChange {
     private String tableName;
     private String schemaName;
     private List<ColumnValue> columns;
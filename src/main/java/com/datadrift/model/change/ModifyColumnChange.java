@@ -0,0 +1,50 @@
+package com.datadrift.model.change;
+
+import lombok.Data;
+import lombok.ToString;
+
+import java.util.List;
+
+import static com.datadrift.model.change.CreateTableChange.ColumnConfig;
+
+/**
+ * Changes the type (and optionally the nullability) of existing columns.
+ *
+ * In place, ALTER COLUMN ... TYPE rewrites the whole table under ACCESS EXCLUSIVE. With online
+ * enabled the table is rebuilt through a shadow table instead (see OnlineTableRewriter), which
+ * keeps the table readable and writable during the copy.
+ */
+@Data
+public class ModifyColumnChange extends AbstractChange {
+    private String tableName;
+    private String schemaName;
+    private List<ColumnConfig> columns;
+
+    // null: online when the table is larger than datadrift.online.auto-threshold-rows
+    @ToString.Exclude
+    private Boolean online;
+
+    @Override
+    public String getChangeType() {
+        return "modifyColumn";
+    }
+
+    @Override
+    public void validate() throws IllegalArgumentException {
+        if (tableName == null || tableName.isBlank()) {
+            throw new IllegalArgumentException("tableName is required for modifyColumn");
+        }
+        if (columns == null || columns.isEmpty()) {
+            throw new IllegalArgumentException("At least one column is required for modifyColumn");
+        }
+
+        for (ColumnConfig column : columns) {
+            if (column.getName() == null || column.getName().isBlank()) {
+                throw new IllegalArgumentException("Column name is required in modifyColumn");
+            }
+            if (column.getType() == null || column.getType().isBlank()) {
+                throw new IllegalArgumentException("Column type is required for column: " + column.getName());
+            }
+        }
+    }
+}
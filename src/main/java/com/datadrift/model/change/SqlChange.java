@@ -17,7 +17,7 @@ import lombok.Data;
  * Ensure SQL is properly tested and does not contain SQL injection vulnerabilities.
  */
 @Data
-public class SqlChange implements Change {
+public class SqlChange extends AbstractChange {
     private String sql;
     private String dbms;
     private boolean stripComments;
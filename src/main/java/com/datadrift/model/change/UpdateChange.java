@@ -1,17 +1,26 @@
 package com.datadrift.model.change;
 
 import lombok.Data;
+import lombok.ToString;
 
 import java.util.List;
 
 
 @Data
-public class UpdateChange implements Change {
+public class UpdateChange extends AbstractChange {
     private String tableName;
     private String schemaName;
     private List<ColumnValue> columns;
     private String where;
 
+    // With chunkSize the statement runs in primary-key chunks that commit on their own (see
+    // ChunkedStatementRunner): it is no longer atomic, and a failure leaves the committed chunks
+    // applied. Not part of the checksum, so a stalled run can be switched to chunks and resumed.
+    @ToString.Exclude
+    private Integer chunkSize;
+    @ToString.Exclude
+    private Integer maxRowsPerSecond;
+
     @Override
     public String getChangeType() {
         return "update";
@@ -28,6 +37,12 @@ public class UpdateChange implements Change {
         if (where == null || where.isBlank()) {
             throw new IllegalArgumentException("WHERE clause is required for update (to prevent accidental full table updates)");
         }
+        if (chunkSize != null && chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive for update");
+        }
+        if (maxRowsPerSecond != null && maxRowsPerSecond < 0) {
+            throw new IllegalArgumentException("maxRowsPerSecond cannot be negative for update");
+        }
 
         // Validate each column
         for (ColumnValue column : columns) {
@@ -0,0 +1,20 @@
+package com.datadrift.model.changelog;
+
+import lombok.Data;
+
+/**
+ * Represents a record in the DATABASECHANGELOGCHANGE table.
+ * Timing of one change within an executed changeset.
+ */
+@Data
+public class ChangeExecution {
+    // Position of the change in its changeset, starting at 1. Changes merged into one ALTER TABLE
+    // statement get one row each, with an equal share of its time
+    private Integer changeIndex;
+    private String changeType;
+    // Tables the change touches, comma-separated; null when unknown (e.g. raw sql)
+    private String tableName;
+    private Long executionMs;
+    // Null when the executor does not report row counts (DDL, raw sql)
+    private Long rowsAffected;
+}
@@ -0,0 +1,22 @@
+package com.datadrift.model.changelog;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lean projection of the DATABASECHANGELOG table.
+ * Holds the aggregates needed for status reporting and a compact index of the executed
+ * changesets, without materializing a DatabaseChangeLog or String key per row.
+ */
+@Data
+public class ChangeLogSummary {
+    private int executedCount;
+    private LocalDateTime lastExecuted;
+    private int maxOrderExecuted;
+    private ExecutedChangeSetIndex executedIndex = ExecutedChangeSetIndex.empty();
+
+    public static String key(String id, String author) {
+        return id + "::" + author;
+    }
+}
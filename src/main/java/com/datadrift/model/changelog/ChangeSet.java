@@ -22,5 +22,10 @@ public class ChangeSet {
     private boolean runAlways;
     private boolean runOnChange;
     private boolean failOnError = true;
+    // Session timeouts for every change in this changeset, e.g. "5s"; null uses the configured default
+    private String lockTimeout;
+    private String statementTimeout;
+    // Named datadrift.session.profiles entry applied to every change, e.g. "heavyIndexBuild"
+    private String sessionProfile;
     private String filename;
 }
@@ -3,6 +3,7 @@ package com.datadrift.model.changelog;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Represents a record in the DATABASECHANGELOG table.
@@ -24,4 +25,8 @@ public class DatabaseChangeLog {
     private String contexts;
     private String labels;
     private String deploymentId;
+    private Long executionMs;
+    private Long rowsAffected;
+    // Per-change timings, stored in DATABASECHANGELOGCHANGE; not a DATABASECHANGELOG column
+    private List<ChangeExecution> changeExecutions = List.of();
 }
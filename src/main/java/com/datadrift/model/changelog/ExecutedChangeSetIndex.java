@@ -0,0 +1,354 @@
+package com.datadrift.model.changelog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact index of executed changesets for very large DATABASECHANGELOG tables.
+ *
+ * Each row is stored as three longs: a 64-bit hash of "id::author" and the two halves of the
+ * 128-bit MD5 checksum digest, i.e. 24 bytes per row instead of a DatabaseChangeLog object or
+ * a String key. Rows are sorted by key hash so lookups are a binary search.
+ *
+ * A hash hit only means "probably executed": two different keys can share a hash. Callers that
+ * must not skip a changeset on a false positive should verify hits exactly against the database
+ * (see ChangelogRepository#findExecutedKeys), which costs one query bounded by the changelog size
+ * rather than the history size.
+ *
+ * Storage layout (record per row):
+ *   [keyHash, checksumHigh, checksumLow]
+ */
+public final class ExecutedChangeSetIndex {
+
+    private static final int LONGS_PER_ROW = 3;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Where the rows live, from the first added row on.
+     *
+     * | Storage | Backing                         | Heap cost per row | Max rows    |
+     * |---------|---------------------------------|-------------------|-------------|
+     * | HEAP    | long[]                          | 24 bytes          | 715,827,879 |
+     * | DIRECT  | off-heap direct ByteBuffer      | 0                 | 89,478,484  |
+     * | MAPPED  | memory-mapped temporary file    | 0                 | 89,478,484  |
+     *
+     * Growing copies DIRECT rows into a larger buffer, so building briefly needs up to 2.5x the
+     * final off-heap size; expectedSize avoids that. MAPPED grows by remapping its file.
+     */
+    public enum Storage {
+        HEAP,
+        DIRECT,
+        MAPPED
+    }
+
+    private final LongBuffer rows;
+    private final int size;
+
+    private ExecutedChangeSetIndex(LongBuffer rows, int size) {
+        this.rows = rows;
+        this.size = size;
+    }
+
+    public static Builder builder() {
+        return builder(Storage.HEAP);
+    }
+
+    public static Builder builder(Storage storage) {
+        return new Builder(storage);
+    }
+
+    public static ExecutedChangeSetIndex empty() {
+        return new ExecutedChangeSetIndex(LongBuffer.allocate(0), 0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(String id, String author) {
+        return findFirst(hashKey(id, author)) >= 0;
+    }
+
+    /**
+     * Compare a changeset's current checksum with the stored one.
+     * A stored null checksum never matches, mirroring String#equals(null).
+     *
+     * @return true if any row with this key hash has the same checksum digest
+     */
+    public boolean checksumMatches(String id, String author, String checksum) {
+        long keyHash = hashKey(id, author);
+        int slot = findFirst(keyHash);
+        if (slot < 0 || checksum == null) {
+            return false;
+        }
+
+        long[] digest = encodeChecksum(checksum);
+        for (int i = slot; i < size && keyHashAt(i) == keyHash; i++) {
+            if (rows.get(i * LONGS_PER_ROW + 1) == digest[0] && rows.get(i * LONGS_PER_ROW + 2) == digest[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long keyHashAt(int row) {
+        return rows.get(row * LONGS_PER_ROW);
+    }
+
+    /**
+     * Binary search for the first row with the given key hash.
+     */
+    private int findFirst(long keyHash) {
+        int low = 0;
+        int high = size - 1;
+        int found = -1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midHash = keyHashAt(mid);
+            if (midHash < keyHash) {
+                low = mid + 1;
+            } else {
+                if (midHash == keyHash) {
+                    found = mid;
+                }
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars of id, a separator and author, finished with
+     * the MurmurHash3 fmix64 step to spread low-entropy keys like "001", "002".
+     */
+    static long hashKey(String id, String author) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = fnv(hash, id);
+        hash = (hash ^ 0xFFFF) * FNV_PRIME;
+        hash = fnv(hash, author);
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static long fnv(long hash, String value) {
+        if (value == null) {
+            return hash;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Encode a stored checksum as two longs.
+     * "8:" followed by 32 hex characters is decoded to the raw MD5 digest; any other format
+     * (e.g. a checksum written by another tool) is hashed so equal strings still compare equal.
+     * A null checksum is encoded as (0, 0).
+     */
+    static long[] encodeChecksum(String checksum) {
+        if (checksum == null) {
+            return new long[]{0L, 0L};
+        }
+        if (checksum.length() == 34 && checksum.startsWith("8:")) {
+            try {
+                return new long[]{
+                        Long.parseUnsignedLong(checksum.substring(2, 18), 16),
+                        Long.parseUnsignedLong(checksum.substring(18, 34), 16)
+                };
+            } catch (NumberFormatException e) {
+                // Not hex after all, fall through to hashing
+            }
+        }
+        return new long[]{hashKey(checksum, "high"), hashKey(checksum, "low")};
+    }
+
+    /**
+     * Writes rows straight into the requested storage, growing it by half when full, then
+     * sorts them in place. DIRECT and MAPPED storage therefore never hold rows on the heap, also
+     * not while building. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private final Storage storage;
+        private LongBuffer rows = LongBuffer.allocate(0);
+        private int capacity;
+        private int size;
+        private Path mappedFile;
+
+        private Builder(Storage storage) {
+            this.storage = storage;
+        }
+
+        /**
+         * Reserve room for the given number of rows up front, avoiding copies while growing.
+         */
+        public Builder expectedSize(int expected) {
+            ensureCapacity(expected);
+            return this;
+        }
+
+        public Builder add(String id, String author, String checksum) {
+            ensureCapacity(size + 1);
+            long[] digest = encodeChecksum(checksum);
+            int offset = size * LONGS_PER_ROW;
+            rows.put(offset, hashKey(id, author));
+            rows.put(offset + 1, digest[0]);
+            rows.put(offset + 2, digest[1]);
+            size++;
+            return this;
+        }
+
+        public ExecutedChangeSetIndex build() {
+            sort(0, size - 1);
+
+            LongBuffer built = rows.duplicate();
+            built.position(0).limit(size * LONGS_PER_ROW);
+            ExecutedChangeSetIndex index = new ExecutedChangeSetIndex(built.slice(), size);
+
+            if (mappedFile != null) {
+                deleteMappedFile();
+            }
+            rows = LongBuffer.allocate(0);
+            capacity = 0;
+            size = 0;
+            return index;
+        }
+
+        private void ensureCapacity(int required) {
+            if (required <= capacity) {
+                return;
+            }
+            long grown = Math.max(required, Math.max(16L, capacity + (capacity >> 1)));
+            int newCapacity = (int) Math.min(grown, maxRows(storage));
+            if (newCapacity < required) {
+                throw new IllegalStateException("Executed changeset index with " + required + " rows exceeds the " +
+                        maxRows(storage) + " rows " + storage + " storage can hold");
+            }
+
+            LongBuffer grownRows = allocate(newCapacity * LONGS_PER_ROW);
+            if (storage != Storage.MAPPED) {
+                // A mapped file keeps its contents when it is mapped again with a larger size
+                LongBuffer used = rows.duplicate();
+                used.position(0).limit(size * LONGS_PER_ROW);
+                grownRows.put(0, used, 0, used.remaining());
+            }
+            rows = grownRows;
+            capacity = newCapacity;
+        }
+
+        /**
+         * A buffer is indexed by int: heap buffers by long, byte buffers by byte.
+         */
+        static long maxRows(Storage storage) {
+            long maxLongs = storage == Storage.HEAP ? Integer.MAX_VALUE - 8 : (Integer.MAX_VALUE - 8) / Long.BYTES;
+            return maxLongs / LONGS_PER_ROW;
+        }
+
+        private LongBuffer allocate(int longs) {
+            return switch (storage) {
+                case HEAP -> LongBuffer.allocate(longs);
+                case DIRECT -> ByteBuffer.allocateDirect(longs * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+                case MAPPED -> map((long) longs * Long.BYTES);
+            };
+        }
+
+        /**
+         * In-place quicksort of the rows by key hash.
+         * Hashes are uniformly distributed, so median-of-three pivots keep recursion shallow.
+         */
+        private void sort(int from, int to) {
+            while (to - from > INSERTION_SORT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                if (key(mid) < key(from)) swap(mid, from);
+                if (key(to) < key(from)) swap(to, from);
+                if (key(to) < key(mid)) swap(to, mid);
+                long pivot = key(mid);
+
+                int i = from;
+                int j = to;
+                while (i <= j) {
+                    while (key(i) < pivot) i++;
+                    while (key(j) > pivot) j--;
+                    if (i <= j) {
+                        swap(i++, j--);
+                    }
+                }
+
+                // Recurse into the smaller half, loop on the larger one
+                if (j - from < to - i) {
+                    sort(from, j);
+                    from = i;
+                } else {
+                    sort(i, to);
+                    to = j;
+                }
+            }
+
+            for (int i = from + 1; i <= to; i++) {
+                for (int j = i; j > from && key(j) < key(j - 1); j--) {
+                    swap(j, j - 1);
+                }
+            }
+        }
+
+        private long key(int row) {
+            return rows.get(row * LONGS_PER_ROW);
+        }
+
+        private void swap(int a, int b) {
+            int offsetA = a * LONGS_PER_ROW;
+            int offsetB = b * LONGS_PER_ROW;
+            for (int i = 0; i < LONGS_PER_ROW; i++) {
+                long value = rows.get(offsetA + i);
+                rows.put(offsetA + i, rows.get(offsetB + i));
+                rows.put(offsetB + i, value);
+            }
+        }
+
+        /**
+         * The mapping stays valid without the file on POSIX systems; elsewhere deleteOnExit applies.
+         */
+        private void deleteMappedFile() {
+            try {
+                Files.deleteIfExists(mappedFile);
+            } catch (IOException e) {
+                // Still mapped on this platform; removed on exit
+            }
+            mappedFile = null;
+        }
+
+        private LongBuffer map(long bytes) {
+            try {
+                if (mappedFile == null) {
+                    mappedFile = Files.createTempFile("datadrift-executed-index", ".bin");
+                    mappedFile.toFile().deleteOnExit();
+                }
+                try (FileChannel channel = FileChannel.open(mappedFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    // The mapping stays valid after the channel is closed
+                    return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes)
+                            .order(ByteOrder.nativeOrder())
+                            .asLongBuffer();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to map executed changeset index", e);
+            }
+        }
+    }
+}
@@ -26,6 +26,9 @@ public class ChangeSetLoader {
         changeSet.setTag(attrs.get("tag"));
         changeSet.setContext(attrs.get("context"));
         changeSet.setLabels(attrs.get("labels"));
+        changeSet.setLockTimeout(attrs.get("lockTimeout"));
+        changeSet.setStatementTimeout(attrs.get("statementTimeout"));
+        changeSet.setSessionProfile(attrs.get("sessionProfile"));
 
         if (attrs.containsKey("runAlways")) {
             changeSet.setRunAlways(Boolean.parseBoolean(attrs.get("runAlways")));
@@ -1,5 +1,6 @@
 package com.datadrift.parser.xml;
 
+import com.datadrift.metrics.jfr.ChangelogFileParsedEvent;
 import com.datadrift.model.changelog.ChangeSet;
 import com.datadrift.parser.ChangeSetLoader;
 import com.datadrift.parser.ChangelogParser;
@@ -29,6 +30,8 @@ public class XmlChangelogParser implements ChangelogParser {
     @Override
     public List<ChangeSet> parse(File xmlFile) {
         log.info("Parsing XML changelog: {}", xmlFile.getName());
+        ChangelogFileParsedEvent event = new ChangelogFileParsedEvent();
+        event.begin();
 
         Document doc = parseXml(xmlFile);
 
@@ -42,6 +45,11 @@ public class XmlChangelogParser implements ChangelogParser {
             changeSets.add(changeSet);
         }
 
+        event.file = xmlFile.getName();
+        event.format = "xml";
+        event.changeSets = changeSets.size();
+        event.commit();
+
         log.info("Parsed {} changeset(s) from {}", changeSets.size(), xmlFile.getName());
         return changeSets;
     }
@@ -1,5 +1,6 @@
 package com.datadrift.parser.yaml;
 
+import com.datadrift.metrics.jfr.ChangelogFileParsedEvent;
 import com.datadrift.model.changelog.ChangeSet;
 import com.datadrift.parser.ChangeSetLoader;
 import com.datadrift.parser.ChangelogParser;
@@ -28,6 +29,8 @@ public class YamlChangelogParser implements ChangelogParser {
     @Override
     public List<ChangeSet> parse(File yamlFile) {
         log.info("Parsing YAML changelog: {}", yamlFile.getName());
+        ChangelogFileParsedEvent event = new ChangelogFileParsedEvent();
+        event.begin();
 
         Map<String, Object> root = parseYaml(yamlFile);
         List<ChangeSet> changeSets = new ArrayList<>();
@@ -58,6 +61,11 @@ public class YamlChangelogParser implements ChangelogParser {
             }
         }
 
+        event.file = yamlFile.getName();
+        event.format = "yaml";
+        event.changeSets = changeSets.size();
+        event.commit();
+
         log.info("Parsed {} changeset(s) from {}", changeSets.size(), yamlFile.getName());
         return changeSets;
     }
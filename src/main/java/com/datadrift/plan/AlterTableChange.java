@@ -0,0 +1,45 @@
+package com.datadrift.plan;
+
+import com.datadrift.executor.constraint.DeferredConstraint;
+import com.datadrift.model.change.AbstractChange;
+import com.datadrift.model.change.Change;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Several ALTER TABLE sub-commands on one table, run as a single statement.
+ *
+ * Produced by AlterTableCoalescer at execution time only; it never appears in a parsed
+ * changeset, so checksums and tracking descriptions are based on the original changes.
+ */
+@Data
+public class AlterTableChange extends AbstractChange {
+
+    /** Qualified and escaped table name */
+    private String tableName;
+
+    /** Sub-commands in execution order, e.g. ADD COLUMN "age" INT */
+    private List<String> actions;
+
+    /** The changes that were merged, in changelog order */
+    private List<Change> sourceChanges;
+
+    /** Constraints added NOT VALID by the actions, validated after commit */
+    private List<DeferredConstraint> deferredConstraints = List.of();
+
+    @Override
+    public String getChangeType() {
+        return "alterTable";
+    }
+
+    @Override
+    public void validate() throws IllegalArgumentException {
+        if (tableName == null || tableName.isBlank()) {
+            throw new IllegalArgumentException("tableName is required for alterTable");
+        }
+        if (actions == null || actions.isEmpty()) {
+            throw new IllegalArgumentException("At least one action is required for alterTable");
+        }
+    }
+}
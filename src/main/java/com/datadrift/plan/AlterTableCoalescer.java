@@ -0,0 +1,133 @@
+package com.datadrift.plan;
+
+import com.datadrift.executor.change.AlterTableActions;
+import com.datadrift.executor.change.ChangeExecutor;
+import com.datadrift.executor.constraint.DeferredConstraint;
+import com.datadrift.model.change.Change;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Plan optimizer that merges adjacent ALTER TABLE changes on the same table.
+ *
+ * Runs between parsing and execution, on the changes of one changeset. A run of adjacent
+ * changes whose executors implement AlterTableActions is merged into one AlterTableChange when:
+ * - they alter the same (identically qualified) table
+ * - they have the same lockTimeout and statementTimeout
+ * - no drop follows an add within the run: PostgreSQL performs all drops of a multi-action
+ *   ALTER TABLE before its adds, so that order would not match changelog order
+ *
+ * Other changes are passed through unchanged and break the run. A run of a single change with a
+ * single action is also left as is.
+ */
+@Slf4j
+@Component
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class AlterTableCoalescer {
+
+    private final Map<String, ChangeExecutor> executors;
+    private final boolean enabled;
+
+    public AlterTableCoalescer(
+            Map<String, ChangeExecutor> executors,
+            @Value("${datadrift.plan.coalesce-alter-table:true}") boolean enabled) {
+        this.executors = executors;
+        this.enabled = enabled;
+    }
+
+    public List<Change> optimize(List<Change> changes) {
+        if (!enabled || changes == null || changes.isEmpty()) {
+            return changes;
+        }
+
+        List<Change> optimized = new ArrayList<>();
+        Run run = null;
+
+        for (Change change : changes) {
+            AlterTableActions source = actionsOf(change);
+            if (source == null) {
+                flush(run, optimized);
+                run = null;
+                optimized.add(change);
+                continue;
+            }
+
+            String table = source.alterTableTarget(change);
+            List<String> actions = source.alterTableActions(change);
+            if (run == null || !run.accepts(table, change, actions)) {
+                flush(run, optimized);
+                run = new Run(table, change);
+            }
+            run.add(change, actions, source.deferredConstraints(change));
+        }
+        flush(run, optimized);
+
+        return optimized;
+    }
+
+    private AlterTableActions actionsOf(Change change) {
+        return executors.get(change.getChangeType()) instanceof AlterTableActions source ? source : null;
+    }
+
+    private static void flush(Run run, List<Change> optimized) {
+        if (run == null) {
+            return;
+        }
+        if (run.actions.size() == 1) {
+            optimized.addAll(run.changes);
+            return;
+        }
+
+        AlterTableChange merged = new AlterTableChange();
+        merged.setTableName(run.table);
+        merged.setActions(List.copyOf(run.actions));
+        merged.setSourceChanges(List.copyOf(run.changes));
+        merged.setDeferredConstraints(List.copyOf(run.deferredConstraints));
+        merged.setLockTimeout(run.first.getLockTimeout());
+        merged.setStatementTimeout(run.first.getStatementTimeout());
+        optimized.add(merged);
+
+        log.debug("Coalesced {} change(s) into one ALTER TABLE {} with {} action(s)",
+                run.changes.size(), run.table, run.actions.size());
+    }
+
+    private static boolean isDrop(String action) {
+        return action.regionMatches(true, 0, "DROP ", 0, 5);
+    }
+
+    private static final class Run {
+        private final String table;
+        private final Change first;
+        private final List<Change> changes = new ArrayList<>();
+        private final List<String> actions = new ArrayList<>();
+        private final List<DeferredConstraint> deferredConstraints = new ArrayList<>();
+        private boolean hasAdd;
+
+        private Run(String table, Change first) {
+            this.table = table;
+            this.first = first;
+        }
+
+        private boolean accepts(String table, Change change, List<String> newActions) {
+            if (!this.table.equals(table)
+                    || !Objects.equals(first.getLockTimeout(), change.getLockTimeout())
+                    || !Objects.equals(first.getStatementTimeout(), change.getStatementTimeout())) {
+                return false;
+            }
+            return !hasAdd || newActions.stream().noneMatch(AlterTableCoalescer::isDrop);
+        }
+
+        private void add(Change change, List<String> newActions, List<DeferredConstraint> newDeferred) {
+            changes.add(change);
+            actions.addAll(newActions);
+            deferredConstraints.addAll(newDeferred);
+            hasAdd |= newActions.stream().anyMatch(action -> !isDrop(action));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.datadrift.plan;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Catalog facts about the tables a run touches, fetched once before the first changeset.
+ *
+ * Tables are keyed by lower-cased name like TableReferenceResolver; lookups ignore a schema
+ * prefix. The snapshot is not refreshed during the run, so tables created by the run are
+ * absent and row counts do not reflect data changed by earlier changesets.
+ */
+public final class CatalogSnapshot {
+
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(Map.of());
+
+    private final Map<String, TableStats> tables;
+
+    public CatalogSnapshot(Map<String, TableStats> tables) {
+        this.tables = Map.copyOf(tables);
+    }
+
+    /**
+     * @param table table name as written in a changelog, optionally schema-qualified
+     */
+    public Optional<TableStats> table(String table) {
+        if (table == null) {
+            return Optional.empty();
+        }
+        String name = table.substring(table.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return Optional.ofNullable(tables.get(name));
+    }
+
+    public Collection<TableStats> tables() {
+        return tables.values();
+    }
+
+    public boolean isEmpty() {
+        return tables.isEmpty();
+    }
+}
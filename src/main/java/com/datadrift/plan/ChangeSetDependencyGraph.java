@@ -0,0 +1,124 @@
+package com.datadrift.plan;
+
+import com.datadrift.model.change.Change;
+import com.datadrift.model.changelog.ChangeSet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Dependency DAG over an ordered list of changesets.
+ *
+ * Changeset j depends on an earlier changeset i when:
+ * - i is the latest earlier changeset touching a table that j touches, or
+ * - either of them is a barrier (touches tables that cannot be resolved, see
+ *   TableReferenceResolver): a barrier waits for everything before it, and everything
+ *   after it waits for the barrier.
+ *
+ * Edges only ever point from an earlier to a later changeset, so the changelog order is a
+ * valid topological order and the graph is acyclic by construction.
+ */
+public final class ChangeSetDependencyGraph {
+
+    private final List<ChangeSet> changeSets;
+    private final List<Set<Integer>> dependencies;
+    private final List<List<Integer>> dependents;
+    private final boolean[] barriers;
+
+    private ChangeSetDependencyGraph(List<ChangeSet> changeSets) {
+        this.changeSets = List.copyOf(changeSets);
+        this.dependencies = new ArrayList<>(changeSets.size());
+        this.dependents = new ArrayList<>(changeSets.size());
+        this.barriers = new boolean[changeSets.size()];
+        for (int i = 0; i < changeSets.size(); i++) {
+            dependencies.add(new TreeSet<>());
+            dependents.add(new ArrayList<>());
+        }
+    }
+
+    public static ChangeSetDependencyGraph build(List<ChangeSet> changeSets) {
+        ChangeSetDependencyGraph graph = new ChangeSetDependencyGraph(changeSets);
+
+        Map<String, Integer> lastToucher = new HashMap<>();
+        List<Integer> sinceBarrier = new ArrayList<>();
+        int lastBarrier = -1;
+
+        for (int node = 0; node < changeSets.size(); node++) {
+            Optional<Set<String>> tables = referencedTables(changeSets.get(node));
+
+            if (lastBarrier >= 0) {
+                graph.addEdge(lastBarrier, node);
+            }
+
+            if (tables.isEmpty()) {
+                graph.barriers[node] = true;
+                for (int earlier : sinceBarrier) {
+                    graph.addEdge(earlier, node);
+                }
+                lastBarrier = node;
+                sinceBarrier.clear();
+                lastToucher.clear();
+                continue;
+            }
+
+            for (String table : tables.get()) {
+                Integer previous = lastToucher.put(table, node);
+                if (previous != null) {
+                    graph.addEdge(previous, node);
+                }
+            }
+            sinceBarrier.add(node);
+        }
+
+        return graph;
+    }
+
+    /**
+     * Union of the tables of all changes, or empty if any change is unresolvable.
+     */
+    private static Optional<Set<String>> referencedTables(ChangeSet changeSet) {
+        Set<String> tables = new TreeSet<>();
+        if (changeSet.getChanges() == null) {
+            return Optional.of(tables);
+        }
+        for (Change change : changeSet.getChanges()) {
+            Optional<Set<String>> changeTables = TableReferenceResolver.referencedTables(change);
+            if (changeTables.isEmpty()) {
+                return Optional.empty();
+            }
+            tables.addAll(changeTables.get());
+        }
+        return Optional.of(tables);
+    }
+
+    private void addEdge(int from, int to) {
+        if (dependencies.get(to).add(from)) {
+            dependents.get(from).add(to);
+        }
+    }
+
+    public int size() {
+        return changeSets.size();
+    }
+
+    public ChangeSet changeSet(int node) {
+        return changeSets.get(node);
+    }
+
+    public Set<Integer> dependenciesOf(int node) {
+        return dependencies.get(node);
+    }
+
+    public List<Integer> dependentsOf(int node) {
+        return dependents.get(node);
+    }
+
+    public boolean isBarrier(int node) {
+        return barriers[node];
+    }
+}
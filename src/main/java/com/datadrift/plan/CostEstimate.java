@@ -0,0 +1,17 @@
+package com.datadrift.plan;
+
+import java.util.List;
+
+/**
+ * Planner estimate for one data-modifying change.
+ *
+ * @param chunked        the change runs in primary-key chunks; the estimate covers the whole statement
+ * @param totalCost      planner cost of the whole statement, or null when it could not be explained
+ * @param estimatedRows  rows the statement is expected to modify, or null when it could not be explained
+ * @param seqScans       tables read with a sequential scan that have at least
+ *                       datadrift.explain.large-table-rows rows
+ * @param error          why the statement could not be explained, e.g. its table does not exist yet
+ */
+public record CostEstimate(String changeSet, int changeIndex, String changeType, String table, boolean chunked,
+                           Double totalCost, Long estimatedRows, List<String> seqScans, String error) {
+}
@@ -0,0 +1,40 @@
+package com.datadrift.plan;
+
+/**
+ * Lock and I/O impact of one change on one table.
+ *
+ * @param table    table as written in the changelog, or null when unknown (raw SQL, dropIndex)
+ * @param rewrite  every row is rewritten into a new table file while the lock is held
+ * @param fullScan every row is read while the lock is held, e.g. to build an index or check a
+ *                 constraint
+ * @param note     what causes the impact, or how to avoid it
+ */
+public record LockImpact(String changeType, String table, LockLevel lockLevel, boolean rewrite, boolean fullScan,
+                         String note) {
+
+    /**
+     * Blocks writes and has to read or rewrite the whole table while doing so.
+     */
+    public boolean isBlocking() {
+        return lockLevel.blocksWrites() && (rewrite || fullScan);
+    }
+
+    /**
+     * @return e.g. "ACCESS EXCLUSIVE on orders, table rewrite (volatile default random())"
+     */
+    public String describe() {
+        StringBuilder text = new StringBuilder(lockLevel.sqlName());
+        if (table != null) {
+            text.append(" on ").append(table);
+        }
+        if (rewrite) {
+            text.append(", table rewrite");
+        } else if (fullScan) {
+            text.append(", full scan");
+        }
+        if (note != null) {
+            text.append(" (").append(note).append(")");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,212 @@
+package com.datadrift.plan;
+
+import com.datadrift.model.change.AddColumnChange;
+import com.datadrift.model.change.AddForeignKeyChange;
+import com.datadrift.model.change.BackfillColumnChange;
+import com.datadrift.model.change.Change;
+import com.datadrift.model.change.CreateIndexChange;
+import com.datadrift.model.change.CreateTableChange;
+import com.datadrift.model.change.CreateTableChange.ColumnConfig;
+import com.datadrift.model.change.DeleteChange;
+import com.datadrift.model.change.DropColumnChange;
+import com.datadrift.model.change.DropForeignKeyChange;
+import com.datadrift.model.change.DropIndexChange;
+import com.datadrift.model.change.DropTableChange;
+import com.datadrift.model.change.InsertChange;
+import com.datadrift.model.change.ModifyColumnChange;
+import com.datadrift.model.change.SqlChange;
+import com.datadrift.model.change.UpdateChange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies changes by the PostgreSQL table lock they take and whether they rewrite or scan
+ * the table while holding it. Works on the changelog alone, without a database connection.
+ *
+ * The classification follows the PostgreSQL 12+ documentation:
+ * - ADD COLUMN is catalog-only unless the default is volatile (random(), nextval(), ...), the
+ *   column is generated (valueComputed) or auto-increment; those rewrite the table. CHECK,
+ *   UNIQUE and PRIMARY KEY constraints on the new column scan it.
+ * - ALTER COLUMN TYPE rewrites the table unless the types are binary coercible (which needs
+ *   the current type and is reported as a likely rewrite); SET NOT NULL scans it.
+ * - CREATE INDEX takes SHARE (blocks writes, not reads) and scans the table.
+ * - ADD FOREIGN KEY takes SHARE ROW EXCLUSIVE on both tables and scans the base table unless
+ *   validation is deferred (NOT VALID, validated after commit under SHARE UPDATE EXCLUSIVE).
+ * - DROP COLUMN, DROP CONSTRAINT, DROP INDEX and DROP TABLE take ACCESS EXCLUSIVE briefly.
+ *
+ * Raw sql changes are classified from their leading keywords, or reported as UNKNOWN.
+ * Whether modifyColumn goes online automatically depends on the table size and cannot be
+ * decided offline, so only online="true" is reported as an online rewrite.
+ */
+@Component
+public class LockImpactAnalyzer {
+
+    private static final Pattern VOLATILE_FUNCTION = Pattern.compile(
+            "\\b(random|clock_timestamp|timeofday|nextval|gen_random_uuid|uuid_generate_v[14]\\w*|txid_current|setseed)\\s*\\(",
+            Pattern.CASE_INSENSITIVE);
+
+    private final boolean deferValidationByDefault;
+
+    public LockImpactAnalyzer(@Value("${datadrift.constraints.defer-validation:false}") boolean deferValidationByDefault) {
+        this.deferValidationByDefault = deferValidationByDefault;
+    }
+
+    public List<LockImpact> analyze(Change change) {
+        String type = change.getChangeType();
+        List<LockImpact> impacts = new ArrayList<>();
+
+        switch (change) {
+            case CreateTableChange c -> impacts.add(new LockImpact(type, table(c.getSchemaName(), c.getTableName()),
+                    LockLevel.ACCESS_EXCLUSIVE, false, false, "new table"));
+            case DropTableChange c -> impacts.add(new LockImpact(type, table(c.getSchemaName(), c.getTableName()),
+                    LockLevel.ACCESS_EXCLUSIVE, false, false, null));
+            case AddColumnChange c -> impacts.add(addColumn(c));
+            case DropColumnChange c -> impacts.add(new LockImpact(type, table(c.getSchemaName(), c.getTableName()),
+                    LockLevel.ACCESS_EXCLUSIVE, false, false, "catalog-only, space is reclaimed by later rewrites"));
+            case ModifyColumnChange c -> impacts.add(modifyColumn(c));
+            case CreateIndexChange c -> impacts.add(new LockImpact(type, table(c.getSchemaName(), c.getTableName()),
+                    LockLevel.SHARE, false, true, "blocks writes while the index builds"));
+            case DropIndexChange c -> impacts.add(new LockImpact(type, null, LockLevel.ACCESS_EXCLUSIVE, false, false,
+                    "on the table of index " + c.getIndexName()));
+            case AddForeignKeyChange c -> {
+                boolean deferred = c.getDeferValidation() != null ? c.getDeferValidation() : deferValidationByDefault;
+                impacts.add(new LockImpact(type, table(c.getBaseSchemaName(), c.getBaseTableName()),
+                        LockLevel.SHARE_ROW_EXCLUSIVE, false, !deferred,
+                        deferred ? "NOT VALID, validated after commit" : "set deferValidation to avoid the scan"));
+                impacts.add(new LockImpact(type, table(c.getReferencedSchemaName(), c.getReferencedTableName()),
+                        LockLevel.SHARE_ROW_EXCLUSIVE, false, false, "referenced table"));
+            }
+            case DropForeignKeyChange c -> impacts.add(new LockImpact(type, table(c.getBaseSchemaName(), c.getBaseTableName()),
+                    LockLevel.ACCESS_EXCLUSIVE, false, false, null));
+            case InsertChange c -> impacts.add(new LockImpact(type, table(c.getSchemaName(), c.getTableName()),
+                    LockLevel.ROW_EXCLUSIVE, false, false, null));
+            case UpdateChange c -> impacts.add(dataChange(type, table(c.getSchemaName(), c.getTableName()),
+                    c.getWhere(), c.getChunkSize()));
+            case DeleteChange c -> impacts.add(dataChange(type, table(c.getSchemaName(), c.getTableName()),
+                    c.getWhere(), c.getChunkSize()));
+            case BackfillColumnChange c -> impacts.add(new LockImpact(type, table(c.getSchemaName(), c.getTableName()),
+                    LockLevel.ACCESS_EXCLUSIVE, false, false, "briefly for ADD COLUMN" +
+                    (c.isNotNullRequested() ? " and SET NOT NULL" : "") + ", rows are filled in committed chunks"));
+            case AlterTableChange c -> impacts.add(merge(type, c.getTableName(),
+                    c.getSourceChanges().stream().flatMap(source -> analyze(source).stream()).toList()));
+            case SqlChange c -> impacts.add(rawSql(type, c.getSql()));
+            default -> impacts.add(new LockImpact(type, null, LockLevel.UNKNOWN, false, false, "not classified"));
+        }
+
+        return impacts;
+    }
+
+    private LockImpact addColumn(AddColumnChange change) {
+        String table = table(change.getSchemaName(), change.getTableName());
+        boolean deferred = change.getDeferValidation() != null ? change.getDeferValidation() : deferValidationByDefault;
+        String rewriteCause = null;
+        String scanCause = null;
+
+        for (ColumnConfig column : change.getColumns()) {
+            if (column.getDefaultValueComputed() != null && !column.getDefaultValueComputed().isBlank()) {
+                rewriteCause = "generated column " + column.getName();
+            } else if (Boolean.TRUE.equals(column.getAutoIncrement())) {
+                rewriteCause = "auto-increment column " + column.getName();
+            } else if (isVolatile(column.getDefaultValueExpression())) {
+                rewriteCause = "volatile default " + column.getDefaultValueExpression().trim();
+            }
+
+            if (column.getConstraints() != null) {
+                if (Boolean.TRUE.equals(column.getConstraints().isPrimaryKey())
+                        || Boolean.TRUE.equals(column.getConstraints().isUnique())) {
+                    scanCause = "index build for " + column.getName();
+                } else if (column.getConstraints().checkConstraint() != null
+                        && !column.getConstraints().checkConstraint().isBlank() && !deferred) {
+                    scanCause = "CHECK on " + column.getName() + ", set deferValidation to avoid the scan";
+                }
+            }
+        }
+
+        String note = rewriteCause != null ? rewriteCause : scanCause != null ? scanCause : "catalog-only";
+        return new LockImpact(change.getChangeType(), table, LockLevel.ACCESS_EXCLUSIVE,
+                rewriteCause != null, scanCause != null, note);
+    }
+
+    private LockImpact modifyColumn(ModifyColumnChange change) {
+        String table = table(change.getSchemaName(), change.getTableName());
+        if (Boolean.TRUE.equals(change.getOnline())) {
+            return new LockImpact(change.getChangeType(), table, LockLevel.ACCESS_EXCLUSIVE, false, false,
+                    "online rewrite, exclusive only for the final swap");
+        }
+
+        boolean setNotNull = change.getColumns().stream()
+                .anyMatch(column -> column.getConstraints() != null && Boolean.FALSE.equals(column.getConstraints().nullable()));
+        return new LockImpact(change.getChangeType(), table, LockLevel.ACCESS_EXCLUSIVE, true, setNotNull,
+                "type change rewrites unless binary coercible; set online=\"true\" to rewrite online");
+    }
+
+    private static LockImpact dataChange(String type, String table, String where, Integer chunkSize) {
+        boolean chunked = chunkSize != null;
+        boolean allRows = where == null || where.isBlank();
+        String note = chunked ? "row locks per committed chunk" : allRows ? "row locks on every row" : "row locks on matching rows";
+        return new LockImpact(type, table, LockLevel.ROW_EXCLUSIVE, false, allRows, note);
+    }
+
+    private static LockImpact merge(String type, String table, List<LockImpact> impacts) {
+        LockLevel level = LockLevel.ROW_EXCLUSIVE;
+        boolean rewrite = false;
+        boolean fullScan = false;
+        List<String> notes = new ArrayList<>();
+        for (LockImpact impact : impacts) {
+            level = LockLevel.strongest(level, impact.lockLevel());
+            rewrite |= impact.rewrite();
+            fullScan |= impact.fullScan();
+            if (impact.note() != null && !notes.contains(impact.note())) {
+                notes.add(impact.note());
+            }
+        }
+        return new LockImpact(type, table, level, rewrite, fullScan, notes.isEmpty() ? null : String.join("; ", notes));
+    }
+
+    /**
+     * Classify raw SQL by its first statement's leading keywords.
+     */
+    static LockImpact rawSql(String type, String sql) {
+        String text = sql == null ? "" : sql.strip().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+
+        if (text.startsWith("CREATE INDEX CONCURRENTLY") || text.startsWith("CREATE UNIQUE INDEX CONCURRENTLY")
+                || (text.startsWith("REINDEX") && text.contains("CONCURRENTLY"))) {
+            return new LockImpact(type, null, LockLevel.SHARE_UPDATE_EXCLUSIVE, false, true, "from SQL text");
+        }
+        if (text.startsWith("CREATE INDEX") || text.startsWith("CREATE UNIQUE INDEX")) {
+            return new LockImpact(type, null, LockLevel.SHARE, false, true, "from SQL text");
+        }
+        if (text.startsWith("VACUUM FULL") || text.startsWith("CLUSTER")) {
+            return new LockImpact(type, null, LockLevel.ACCESS_EXCLUSIVE, true, true, "from SQL text");
+        }
+        if (text.startsWith("ALTER TABLE")) {
+            boolean rewrite = text.contains(" TYPE ") || (isVolatile(text) && text.contains(" DEFAULT "));
+            boolean scan = text.contains("SET NOT NULL") || text.contains("VALIDATE CONSTRAINT")
+                    || (text.contains(" CHECK") && !text.contains("NOT VALID"));
+            LockLevel level = text.contains("VALIDATE CONSTRAINT") && !text.contains(",")
+                    ? LockLevel.SHARE_UPDATE_EXCLUSIVE
+                    : LockLevel.ACCESS_EXCLUSIVE;
+            return new LockImpact(type, null, level, rewrite, scan, "from SQL text");
+        }
+        if (text.startsWith("DROP") || text.startsWith("TRUNCATE") || text.startsWith("LOCK")) {
+            return new LockImpact(type, null, LockLevel.ACCESS_EXCLUSIVE, false, false, "from SQL text");
+        }
+        if (text.startsWith("INSERT") || text.startsWith("UPDATE") || text.startsWith("DELETE")) {
+            return new LockImpact(type, null, LockLevel.ROW_EXCLUSIVE, false, !text.contains(" WHERE "), "from SQL text");
+        }
+        return new LockImpact(type, null, LockLevel.UNKNOWN, false, false, "raw SQL, review manually");
+    }
+
+    private static boolean isVolatile(String expression) {
+        return expression != null && VOLATILE_FUNCTION.matcher(expression).find();
+    }
+
+    private static String table(String schema, String table) {
+        return schema != null && !schema.isBlank() ? schema + "." + table : table;
+    }
+}
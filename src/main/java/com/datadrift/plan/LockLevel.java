@@ -0,0 +1,43 @@
+package com.datadrift.plan;
+
+/**
+ * PostgreSQL table lock modes, weakest first.
+ */
+public enum LockLevel {
+    ROW_EXCLUSIVE("ROW EXCLUSIVE", false, false),
+    SHARE_UPDATE_EXCLUSIVE("SHARE UPDATE EXCLUSIVE", false, false),
+    SHARE("SHARE", false, true),
+    SHARE_ROW_EXCLUSIVE("SHARE ROW EXCLUSIVE", false, true),
+    ACCESS_EXCLUSIVE("ACCESS EXCLUSIVE", true, true),
+    /** Raw SQL the analyzer cannot classify */
+    UNKNOWN("UNKNOWN", false, false);
+
+    private final String sqlName;
+    private final boolean blocksReads;
+    private final boolean blocksWrites;
+
+    LockLevel(String sqlName, boolean blocksReads, boolean blocksWrites) {
+        this.sqlName = sqlName;
+        this.blocksReads = blocksReads;
+        this.blocksWrites = blocksWrites;
+    }
+
+    public String sqlName() {
+        return sqlName;
+    }
+
+    public boolean blocksReads() {
+        return blocksReads;
+    }
+
+    public boolean blocksWrites() {
+        return blocksWrites;
+    }
+
+    public static LockLevel strongest(LockLevel a, LockLevel b) {
+        if (a == UNKNOWN || b == UNKNOWN) {
+            return a == UNKNOWN ? b : a;
+        }
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
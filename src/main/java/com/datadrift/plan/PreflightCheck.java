@@ -0,0 +1,199 @@
+package com.datadrift.plan;
+
+import com.datadrift.exception.ValidationException;
+import com.datadrift.model.PreflightReport;
+import com.datadrift.model.change.AddForeignKeyChange;
+import com.datadrift.model.change.Change;
+import com.datadrift.model.change.CreateIndexChange;
+import com.datadrift.model.changelog.ChangeSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Looks at the tables pending changes touch before the first one runs.
+ *
+ * Row estimates, on-disk sizes, index and constraint names of every referenced table come
+ * from one catalog query. The resulting CatalogSnapshot is kept for the run (see
+ * CatalogSnapshotContext) and flags risky changes:
+ * - a change that blocks writes while rewriting or scanning a table (LockImpact.isBlocking())
+ *   whose table has at least datadrift.preflight.large-table-rows rows or large-table-bytes bytes
+ * - createIndex or addForeignKey whose index or constraint name already exists on the table
+ *
+ * Risks are logged; with datadrift.preflight.fail-on-risk the run stops before executing anything.
+ */
+@Slf4j
+@Component
+public class PreflightCheck {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LockImpactAnalyzer lockImpactAnalyzer;
+    private final boolean enabled;
+    private final long largeTableRows;
+    private final long largeTableBytes;
+    private final boolean failOnRisk;
+
+    public PreflightCheck(
+            JdbcTemplate jdbcTemplate,
+            LockImpactAnalyzer lockImpactAnalyzer,
+            @Value("${datadrift.preflight.enabled:true}") boolean enabled,
+            @Value("${datadrift.preflight.large-table-rows:1000000}") long largeTableRows,
+            @Value("${datadrift.preflight.large-table-bytes:1073741824}") long largeTableBytes,
+            @Value("${datadrift.preflight.fail-on-risk:false}") boolean failOnRisk) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lockImpactAnalyzer = lockImpactAnalyzer;
+        this.enabled = enabled;
+        this.largeTableRows = largeTableRows;
+        this.largeTableBytes = largeTableBytes;
+        this.failOnRisk = failOnRisk;
+    }
+
+    /**
+     * Snapshot the catalog for a run and report its risks.
+     *
+     * @return the snapshot; empty when the preflight is disabled
+     * @throws ValidationException with fail-on-risk, when a risk is found
+     */
+    public CatalogSnapshot run(List<ChangeSet> pending) {
+        if (!enabled) {
+            return CatalogSnapshot.EMPTY;
+        }
+
+        CatalogSnapshot snapshot = snapshot(pending);
+        List<String> risks = risks(pending, snapshot);
+        for (String risk : risks) {
+            log.warn("Preflight: {}", risk);
+        }
+        if (failOnRisk && !risks.isEmpty()) {
+            throw new ValidationException("Preflight found " + risks.size() + " risky change(s):\n  - " +
+                    String.join("\n  - ", risks));
+        }
+        return snapshot;
+    }
+
+    /**
+     * One catalog query for every table the changesets reference. Tables that do not exist
+     * yet (or are not on the search path) are absent.
+     */
+    public CatalogSnapshot snapshot(List<ChangeSet> changeSets) {
+        Set<String> tables = new HashSet<>();
+        for (ChangeSet changeSet : changeSets) {
+            for (Change change : changes(changeSet)) {
+                TableReferenceResolver.namedTables(change).ifPresent(tables::addAll);
+            }
+        }
+        if (tables.isEmpty()) {
+            return CatalogSnapshot.EMPTY;
+        }
+
+        Map<String, TableStats> stats = new HashMap<>();
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(
+                            "SELECT lower(c.relname) AS name, c.oid::regclass::text AS regclass, " +
+                                    "GREATEST(c.reltuples, 0)::BIGINT AS row_estimate, " +
+                                    "pg_total_relation_size(c.oid) AS total_bytes, " +
+                                    "ARRAY(SELECT i.relname::text FROM pg_index x JOIN pg_class i ON i.oid = x.indexrelid " +
+                                    "WHERE x.indrelid = c.oid ORDER BY i.relname) AS indexes, " +
+                                    "ARRAY(SELECT con.conname::text FROM pg_constraint con " +
+                                    "WHERE con.conrelid = c.oid ORDER BY con.conname) AS constraints " +
+                                    "FROM pg_class c WHERE c.relkind IN ('r', 'p', 'm') AND lower(c.relname) = ANY(?) " +
+                                    "AND pg_table_is_visible(c.oid)"
+                    );
+                    ps.setArray(1, con.createArrayOf("text", tables.toArray()));
+                    return ps;
+                },
+                (RowCallbackHandler) rs -> stats.put(rs.getString("name"), new TableStats(
+                        rs.getString("name"), rs.getString("regclass"), rs.getLong("row_estimate"),
+                        rs.getLong("total_bytes"), names(rs.getArray("indexes")), names(rs.getArray("constraints"))))
+        );
+
+        log.debug("Preflight snapshot of {} table(s)", stats.size());
+        return new CatalogSnapshot(stats);
+    }
+
+    /**
+     * Snapshot and risks for display, regardless of datadrift.preflight.enabled.
+     */
+    public PreflightReport report(List<ChangeSet> changeSets) {
+        CatalogSnapshot snapshot = snapshot(changeSets);
+        PreflightReport report = new PreflightReport();
+        report.setTables(snapshot.tables().stream().sorted(Comparator.comparing(TableStats::regclass)).toList());
+        report.setRisks(risks(changeSets, snapshot));
+        return report;
+    }
+
+    public List<String> risks(List<ChangeSet> changeSets, CatalogSnapshot snapshot) {
+        List<String> risks = new ArrayList<>();
+        for (ChangeSet changeSet : changeSets) {
+            List<Change> changes = changes(changeSet);
+            for (int i = 0; i < changes.size(); i++) {
+                String prefix = changeSet.getId() + "::" + changeSet.getAuthor() + " #" + (i + 1) + " " +
+                        changes.get(i).getChangeType() + ": ";
+
+                for (LockImpact impact : lockImpactAnalyzer.analyze(changes.get(i))) {
+                    if (impact.isBlocking()) {
+                        snapshot.table(impact.table()).filter(this::isLarge).ifPresent(stats ->
+                                risks.add(prefix + impact.describe() + " on a large table (" + stats.describe() + ")"));
+                    }
+                }
+
+                String existing = existingName(changes.get(i), snapshot);
+                if (existing != null) {
+                    risks.add(prefix + existing);
+                }
+            }
+        }
+        return risks;
+    }
+
+    public boolean isLarge(TableStats stats) {
+        return (largeTableRows > 0 && stats.rows() >= largeTableRows)
+                || (largeTableBytes > 0 && stats.totalBytes() >= largeTableBytes);
+    }
+
+    /**
+     * @return a description when the change creates an index or constraint that already exists
+     */
+    private static String existingName(Change change, CatalogSnapshot snapshot) {
+        switch (change) {
+            case CreateIndexChange c -> {
+                if (c.getIndexName() != null && snapshot.table(c.getTableName())
+                        .filter(stats -> stats.indexes().contains(c.getIndexName())).isPresent()) {
+                    return "index " + c.getIndexName() + " already exists on " + c.getTableName();
+                }
+            }
+            case AddForeignKeyChange c -> {
+                if (c.getConstraintName() != null && snapshot.table(c.getBaseTableName())
+                        .filter(stats -> stats.constraints().contains(c.getConstraintName())).isPresent()) {
+                    return "constraint " + c.getConstraintName() + " already exists on " + c.getBaseTableName();
+                }
+            }
+            default -> {
+            }
+        }
+        return null;
+    }
+
+    private static List<Change> changes(ChangeSet changeSet) {
+        return changeSet.getChanges() != null ? changeSet.getChanges() : List.of();
+    }
+
+    private static List<String> names(Array array) throws SQLException {
+        return array != null ? Arrays.asList((String[]) array.getArray()) : List.of();
+    }
+}
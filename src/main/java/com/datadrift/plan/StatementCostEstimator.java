@@ -0,0 +1,232 @@
+package com.datadrift.plan;
+
+import com.datadrift.executor.change.ChangeExecutor;
+import com.datadrift.model.change.Change;
+import com.datadrift.model.change.DeleteChange;
+import com.datadrift.model.change.SqlChange;
+import com.datadrift.model.change.UpdateChange;
+import com.datadrift.model.changelog.ChangeSet;
+import com.datadrift.util.SqlEscapeUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Runs EXPLAIN (FORMAT JSON) for pending data-modifying changes: update, delete and raw sql
+ * changes consisting of one INSERT ... SELECT, UPDATE or DELETE statement. EXPLAIN plans the
+ * statement without executing it.
+ *
+ * Reported per change: planner cost, the rows the statement is expected to modify and the
+ * large tables it reads with a sequential scan (at least datadrift.explain.large-table-rows
+ * rows by pg_class.reltuples). Statements on tables that a pending changeset has yet to create
+ * cannot be planned and are reported with the planner error.
+ *
+ * {@link #violations(List)} checks the estimates against the datadrift.explain.* limits for validate.
+ */
+@Slf4j
+@Component
+public class StatementCostEstimator {
+
+    private static final Pattern DML = Pattern.compile("^(UPDATE|DELETE|INSERT\\s+INTO\\s+.+\\bSELECT)\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, ChangeExecutor> executorsMap;
+    private final long largeTableRows;
+    private final long maxRows;
+    private final double maxCost;
+    private final boolean failOnSeqScan;
+
+    public StatementCostEstimator(
+            JdbcTemplate jdbcTemplate,
+            Map<String, ChangeExecutor> executorsMap,
+            @Value("${datadrift.explain.large-table-rows:1000000}") long largeTableRows,
+            @Value("${datadrift.explain.max-rows:0}") long maxRows,
+            @Value("${datadrift.explain.max-cost:0}") double maxCost,
+            @Value("${datadrift.explain.fail-on-seq-scan:false}") boolean failOnSeqScan) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.executorsMap = executorsMap;
+        this.largeTableRows = largeTableRows;
+        this.maxRows = maxRows;
+        this.maxCost = maxCost;
+        this.failOnSeqScan = failOnSeqScan;
+    }
+
+    /**
+     * @return true when validate has limits to enforce
+     */
+    public boolean isEnforced() {
+        return maxRows > 0 || maxCost > 0 || failOnSeqScan;
+    }
+
+    public List<CostEstimate> explain(List<ChangeSet> changeSets) {
+        List<CostEstimate> estimates = new ArrayList<>();
+        for (ChangeSet changeSet : changeSets) {
+            String key = changeSet.getId() + "::" + changeSet.getAuthor();
+            List<Change> changes = changeSet.getChanges() != null ? changeSet.getChanges() : List.of();
+            for (int i = 0; i < changes.size(); i++) {
+                Change change = changes.get(i);
+                if (isExplainable(change)) {
+                    estimates.add(explain(key, i + 1, change));
+                }
+            }
+        }
+        return estimates;
+    }
+
+    /**
+     * Estimates exceeding datadrift.explain.max-rows or max-cost, and unchunked changes that
+     * sequentially scan a large table when datadrift.explain.fail-on-seq-scan is set.
+     */
+    public List<String> violations(List<CostEstimate> estimates) {
+        List<String> violations = new ArrayList<>();
+        for (CostEstimate estimate : estimates) {
+            String location = estimate.changeSet() + " change #" + estimate.changeIndex() + " (" + estimate.changeType() + ")";
+            if (maxRows > 0 && estimate.estimatedRows() != null && estimate.estimatedRows() > maxRows) {
+                violations.add(location + ": ~" + estimate.estimatedRows() + " rows estimated, limit " + maxRows);
+            }
+            if (maxCost > 0 && estimate.totalCost() != null && estimate.totalCost() > maxCost) {
+                violations.add(location + ": cost " + Math.round(estimate.totalCost()) + " estimated, limit " + Math.round(maxCost));
+            }
+            // Chunks are bounded by primary-key ranges, so the whole-statement plan does not apply
+            if (failOnSeqScan && !estimate.chunked() && !estimate.seqScans().isEmpty()) {
+                violations.add(location + ": sequential scan of large table(s) " + String.join(", ", estimate.seqScans()) +
+                        "; add an index for the WHERE clause or set chunkSize");
+            }
+        }
+        return violations;
+    }
+
+    static boolean isExplainable(Change change) {
+        return change instanceof UpdateChange || change instanceof DeleteChange
+                || (change instanceof SqlChange sql && singleDmlStatement(sql.getSql()) != null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CostEstimate explain(String changeSet, int changeIndex, Change change) {
+        String table = switch (change) {
+            case UpdateChange c -> tableName(c.getSchemaName(), c.getTableName());
+            case DeleteChange c -> tableName(c.getSchemaName(), c.getTableName());
+            default -> null;
+        };
+        boolean chunked = (change instanceof UpdateChange c && c.getChunkSize() != null)
+                || (change instanceof DeleteChange d && d.getChunkSize() != null);
+
+        String error;
+        try {
+            String sql = change instanceof SqlChange c
+                    ? singleDmlStatement(c.getSql())
+                    : executorsMap.get(change.getChangeType()).generateSql(change);
+            String json = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class);
+            Map<String, Object> plan = rootPlan(json);
+
+            Map<String, String> scanned = new LinkedHashMap<>();
+            collectSeqScans(plan, scanned);
+            return new CostEstimate(changeSet, changeIndex, change.getChangeType(), table, chunked,
+                    number(plan.get("Total Cost")), estimatedRows(plan), largeTables(scanned), null);
+
+        } catch (DataAccessException e) {
+            error = e.getMostSpecificCause().getMessage();
+        } catch (IllegalArgumentException e) {
+            error = e.getMessage();
+        }
+
+        log.debug("Could not explain {} change #{}: {}", changeSet, changeIndex, error);
+        return new CostEstimate(changeSet, changeIndex, change.getChangeType(), table, chunked,
+                null, null, List.of(), error);
+    }
+
+    /**
+     * @return the statement without a trailing semicolon, or null unless the text is exactly
+     * one UPDATE, DELETE or INSERT ... SELECT statement
+     */
+    static String singleDmlStatement(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        String statement = sql.strip();
+        if (statement.endsWith(";")) {
+            statement = statement.substring(0, statement.length() - 1).strip();
+        }
+        if (statement.contains(";") || !DML.matcher(statement).find()) {
+            return null;
+        }
+        return statement;
+    }
+
+    /**
+     * EXPLAIN (FORMAT JSON) returns [{"Plan": {...}}]; JSON is valid YAML, so SnakeYAML parses it.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> rootPlan(String json) {
+        Object explained = new Yaml().load(json);
+        if (!(explained instanceof List<?> statements) || statements.isEmpty()
+                || !(statements.get(0) instanceof Map<?, ?> statement) || !(statement.get("Plan") instanceof Map<?, ?> plan)) {
+            throw new IllegalArgumentException("Unexpected EXPLAIN output");
+        }
+        return (Map<String, Object>) plan;
+    }
+
+    /**
+     * A ModifyTable root reports 0 rows without RETURNING; the rows it modifies are the rows
+     * its input produces.
+     */
+    @SuppressWarnings("unchecked")
+    static Long estimatedRows(Map<String, Object> plan) {
+        if ("ModifyTable".equals(plan.get("Node Type")) && plan.get("Plans") instanceof List<?> children && !children.isEmpty()) {
+            Double rows = number(((Map<String, Object>) children.get(0)).get("Plan Rows"));
+            return rows != null ? Math.round(rows) : null;
+        }
+        Double rows = number(plan.get("Plan Rows"));
+        return rows != null ? Math.round(rows) : null;
+    }
+
+    /**
+     * @param relations collects sequentially scanned tables: display name to regclass text
+     */
+    @SuppressWarnings("unchecked")
+    static void collectSeqScans(Map<String, Object> node, Map<String, String> relations) {
+        if ("Seq Scan".equals(node.get("Node Type")) && node.get("Relation Name") instanceof String relation) {
+            Object schema = node.get("Schema");
+            relations.put(schema != null ? schema + "." + relation : relation,
+                    schema != null ? SqlEscapeUtil.qualifiedName(schema.toString(), relation) : SqlEscapeUtil.escapeIdentifier(relation));
+        }
+        if (node.get("Plans") instanceof List<?> children) {
+            for (Object child : children) {
+                if (child instanceof Map) {
+                    collectSeqScans((Map<String, Object>) child, relations);
+                }
+            }
+        }
+    }
+
+    private List<String> largeTables(Map<String, String> relations) {
+        List<String> large = new ArrayList<>();
+        for (Map.Entry<String, String> relation : relations.entrySet()) {
+            Long rows = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE((SELECT reltuples::BIGINT FROM pg_class WHERE oid = to_regclass(?)), 0)",
+                    Long.class, relation.getValue());
+            if (rows != null && rows >= largeTableRows) {
+                large.add(relation.getKey() + " (~" + rows + " rows)");
+            }
+        }
+        return large;
+    }
+
+    private static String tableName(String schema, String table) {
+        return schema != null && !schema.isBlank() ? schema + "." + table : table;
+    }
+
+    private static Double number(Object value) {
+        return value instanceof Number number ? number.doubleValue() : null;
+    }
+}
@@ -0,0 +1,124 @@
+package com.datadrift.plan;
+
+import com.datadrift.model.change.AddColumnChange;
+import com.datadrift.model.change.AddForeignKeyChange;
+import com.datadrift.model.change.BackfillColumnChange;
+import com.datadrift.model.change.Change;
+import com.datadrift.model.change.CreateIndexChange;
+import com.datadrift.model.change.CreateTableChange;
+import com.datadrift.model.change.DeleteChange;
+import com.datadrift.model.change.DropColumnChange;
+import com.datadrift.model.change.DropForeignKeyChange;
+import com.datadrift.model.change.DropTableChange;
+import com.datadrift.model.change.InsertChange;
+import com.datadrift.model.change.ModifyColumnChange;
+import com.datadrift.model.change.UpdateChange;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Resolves the tables a change reads or writes.
+ *
+ * Tables are keyed by lower-cased name only. Ignoring the schema means "public.orders" and
+ * "orders" (or same-named tables in two schemas) count as the same table, which can only add
+ * dependencies, never drop one.
+ *
+ * Changes whose targets cannot be derived from their fields resolve to empty and must be
+ * treated as touching everything:
+ * - sql: arbitrary statements
+ * - dropIndex: names the index, not its table
+ * - insert, update, delete and backfillColumn: foreign-key checks read the referenced tables
+ *   and deletes cascade into referencing ones, all known only to the catalog. A child row
+ *   inserted next to its parent's still uncommitted insert would fail its foreign key
+ * - dropTable, dropColumn and dropForeignKey: also lock tables on the other side of foreign
+ *   keys, which only the catalog knows
+ * - any change type this resolver does not know
+ *
+ * namedTables() is the weaker variant for labels and size lookups: the tables a change names
+ * in its fields, even when it may touch more.
+ */
+public final class TableReferenceResolver {
+
+    private TableReferenceResolver() {
+    }
+
+    /**
+     * @return every table the change can read or write, or empty when that is not known
+     */
+    public static Optional<Set<String>> referencedTables(Change change) {
+        boolean catalogOnly = switch (change) {
+            case InsertChange c -> true;
+            case UpdateChange c -> true;
+            case DeleteChange c -> true;
+            case BackfillColumnChange c -> true;
+            case DropTableChange c -> true;
+            case DropColumnChange c -> true;
+            case DropForeignKeyChange c -> true;
+            default -> false;
+        };
+        return catalogOnly ? Optional.empty() : namedTables(change);
+    }
+
+    /**
+     * @return the tables named in the change's fields, or empty when it names none
+     */
+    public static Optional<Set<String>> namedTables(Change change) {
+        Set<String> tables = new HashSet<>();
+
+        switch (change) {
+            case CreateTableChange c -> {
+                add(tables, c.getTableName());
+                addForeignKeyTargets(tables, c.getColumns());
+            }
+            case DropTableChange c -> add(tables, c.getTableName());
+            case AddColumnChange c -> {
+                add(tables, c.getTableName());
+                addForeignKeyTargets(tables, c.getColumns());
+            }
+            case BackfillColumnChange c -> add(tables, c.getTableName());
+            case DropColumnChange c -> add(tables, c.getTableName());
+            case ModifyColumnChange c -> add(tables, c.getTableName());
+            case CreateIndexChange c -> add(tables, c.getTableName());
+            case InsertChange c -> add(tables, c.getTableName());
+            case UpdateChange c -> add(tables, c.getTableName());
+            case DeleteChange c -> add(tables, c.getTableName());
+            case DropForeignKeyChange c -> add(tables, c.getBaseTableName());
+            case AddForeignKeyChange c -> {
+                add(tables, c.getBaseTableName());
+                add(tables, c.getReferencedTableName());
+            }
+            default -> {
+                return Optional.empty();
+            }
+        }
+
+        return tables.isEmpty() ? Optional.empty() : Optional.of(tables);
+    }
+
+    /**
+     * Inline foreign keys reference "table(column)" or "schema.table(column)".
+     */
+    private static void addForeignKeyTargets(Set<String> tables, List<CreateTableChange.ColumnConfig> columns) {
+        if (columns == null) {
+            return;
+        }
+        for (CreateTableChange.ColumnConfig column : columns) {
+            if (column.getConstraints() != null && Boolean.TRUE.equals(column.getConstraints().hasForeignKey())) {
+                String references = column.getConstraints().references();
+                int paren = references.indexOf('(');
+                String table = (paren >= 0 ? references.substring(0, paren) : references).trim();
+                add(tables, table.substring(table.lastIndexOf('.') + 1));
+            }
+        }
+    }
+
+    private static void add(Set<String> tables, String tableName) {
+        if (tableName != null && !tableName.isBlank()) {
+            tables.add(tableName.toLowerCase(Locale.ROOT));
+        }
+    }
+}
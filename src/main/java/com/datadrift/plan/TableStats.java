@@ -0,0 +1,35 @@
+package com.datadrift.plan;
+
+import java.util.List;
+
+/**
+ * Size and structure of one table as seen by the preflight catalog query.
+ *
+ * @param name        lower-cased table name, as keyed by TableReferenceResolver
+ * @param regclass    name the database resolves the table to, qualified when off the search path
+ * @param rows        planner estimate (pg_class.reltuples); 0 for tables never analyzed
+ * @param totalBytes  table, index and TOAST size (pg_total_relation_size)
+ * @param indexes     index names
+ * @param constraints constraint names
+ */
+public record TableStats(String name, String regclass, long rows, long totalBytes, List<String> indexes,
+                         List<String> constraints) {
+
+    /**
+     * @return e.g. "~300000000 rows, 41.2 GB"
+     */
+    public String describe() {
+        return "~" + rows + " rows, " + formatBytes(totalBytes);
+    }
+
+    public static String formatBytes(long bytes) {
+        String[] units = {"B", "kB", "MB", "GB", "TB"};
+        double value = bytes;
+        int unit = 0;
+        while (value >= 1024 && unit < units.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return unit == 0 ? bytes + " B" : String.format("%.1f %s", value, units[unit]);
+    }
+}
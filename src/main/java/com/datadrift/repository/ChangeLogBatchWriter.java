@@ -0,0 +1,61 @@
+package com.datadrift.repository;
+
+import com.datadrift.model.changelog.DatabaseChangeLog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers DATABASECHANGELOG entries and writes them with ChangelogRepository#saveAll.
+ *
+ * A writer belongs to one run and to the caller's transaction: entries are flushed whenever
+ * the buffer reaches the batch size and must be flushed once more before that transaction
+ * commits. Nothing is written on its own connection, so a rollback discards flushed and
+ * buffered entries together with the changes they describe. Not thread-safe.
+ */
+public class ChangeLogBatchWriter {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final ChangelogRepository changelogRepository;
+    private final int batchSize;
+    private final List<DatabaseChangeLog> buffer;
+    private int written;
+
+    public ChangeLogBatchWriter(ChangelogRepository changelogRepository) {
+        this(changelogRepository, DEFAULT_BATCH_SIZE);
+    }
+
+    public ChangeLogBatchWriter(ChangelogRepository changelogRepository, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.changelogRepository = changelogRepository;
+        this.batchSize = batchSize;
+        this.buffer = new ArrayList<>(batchSize);
+    }
+
+    public void add(DatabaseChangeLog record) {
+        buffer.add(record);
+        if (buffer.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        changelogRepository.saveAll(new ArrayList<>(buffer));
+        written += buffer.size();
+        buffer.clear();
+    }
+
+    public int getWritten() {
+        return written;
+    }
+
+    public int getBuffered() {
+        return buffer.size();
+    }
+}
@@ -1,15 +1,26 @@
 package com.datadrift.repository;
 
+import com.datadrift.model.changelog.ChangeExecution;
+import com.datadrift.model.changelog.ChangeLogSummary;
+import com.datadrift.model.changelog.ChangeSet;
 import com.datadrift.model.changelog.DatabaseChangeLog;
-import lombok.RequiredArgsConstructor;
+import com.datadrift.model.changelog.ExecutedChangeSetIndex;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Repository for DATABASECHANGELOG table.
@@ -17,10 +28,35 @@ import java.util.List;
  */
 @Slf4j
 @Repository
-@RequiredArgsConstructor
 public class ChangelogRepository {
 
+    private static final int SUMMARY_FETCH_SIZE = 10_000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO DATABASECHANGELOG " +
+                    "(id, author, filename, dateexecuted, orderexecuted, exectype, md5sum, " +
+                    "description, comments, tag, version, contexts, labels, deployment_id, " +
+                    "execution_ms, rows_affected) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_CHANGE_SQL =
+            "INSERT INTO DATABASECHANGELOGCHANGE " +
+                    "(deployment_id, id, author, filename, change_index, change_type, table_name, " +
+                    "dateexecuted, execution_ms, rows_affected) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     private final JdbcTemplate jdbcTemplate;
+    private final TrackingSchemaManager trackingSchemaManager;
+    private final ExecutedChangeSetIndex.Storage indexStorage;
+
+    public ChangelogRepository(
+            JdbcTemplate jdbcTemplate,
+            TrackingSchemaManager trackingSchemaManager,
+            @Value("${datadrift.tracking.index-storage:HEAP}") ExecutedChangeSetIndex.Storage indexStorage) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.trackingSchemaManager = trackingSchemaManager;
+        this.indexStorage = indexStorage;
+    }
 
     private final RowMapper<DatabaseChangeLog> rowMapper = (rs, rowNum) -> {
         DatabaseChangeLog changeLog = new DatabaseChangeLog();
@@ -39,6 +75,8 @@ public class ChangelogRepository {
         changeLog.setContexts(rs.getString("contexts"));
         changeLog.setLabels(rs.getString("labels"));
         changeLog.setDeploymentId(rs.getString("deployment_id"));
+        changeLog.setExecutionMs(rs.getObject("execution_ms", Long.class));
+        changeLog.setRowsAffected(rs.getObject("rows_affected", Long.class));
         return changeLog;
     };
 
@@ -66,11 +104,63 @@ public class ChangelogRepository {
     public DatabaseChangeLog save(DatabaseChangeLog changeLog) {
         ensureChangeLogTableExists();
 
-        jdbcTemplate.update(
-                "INSERT INTO DATABASECHANGELOG " +
-                        "(id, author, filename, dateexecuted, orderexecuted, exectype, md5sum, " +
-                        "description, comments, tag, version, contexts, labels, deployment_id) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+        jdbcTemplate.update(INSERT_SQL, insertArgs(changeLog));
+        saveChangeExecutions(List.of(changeLog));
+
+        log.debug("Saved changelog entry: {}::{}", changeLog.getId(), changeLog.getAuthor());
+        return changeLog;
+    }
+
+    /**
+     * Insert many entries as one JDBC batch.
+     * With reWriteBatchedInserts=true on the PostgreSQL URL the driver rewrites the batch into
+     * multi-row INSERT statements, so a batch costs a few round trips instead of one per entry.
+     * Runs in the caller's transaction, if any.
+     */
+    public void saveAll(List<DatabaseChangeLog> changeLogs) {
+        if (changeLogs.isEmpty()) {
+            return;
+        }
+        ensureChangeLogTableExists();
+
+        List<Object[]> batchArgs = changeLogs.stream()
+                .map(ChangelogRepository::insertArgs)
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+        saveChangeExecutions(changeLogs);
+
+        log.debug("Saved {} changelog entries in one batch", changeLogs.size());
+    }
+
+    private void saveChangeExecutions(List<DatabaseChangeLog> changeLogs) {
+        List<Object[]> batchArgs = new ArrayList<>();
+        for (DatabaseChangeLog changeLog : changeLogs) {
+            if (changeLog.getChangeExecutions() == null) {
+                continue;
+            }
+            Timestamp dateExecuted = changeLog.getDateExecuted() != null ? Timestamp.valueOf(changeLog.getDateExecuted()) : null;
+            for (ChangeExecution execution : changeLog.getChangeExecutions()) {
+                batchArgs.add(new Object[]{
+                        changeLog.getDeploymentId(),
+                        changeLog.getId(),
+                        changeLog.getAuthor(),
+                        changeLog.getFilename(),
+                        execution.getChangeIndex(),
+                        execution.getChangeType(),
+                        execution.getTableName(),
+                        dateExecuted,
+                        execution.getExecutionMs(),
+                        execution.getRowsAffected()
+                });
+            }
+        }
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_CHANGE_SQL, batchArgs);
+        }
+    }
+
+    private static Object[] insertArgs(DatabaseChangeLog changeLog) {
+        return new Object[]{
                 changeLog.getId(),
                 changeLog.getAuthor(),
                 changeLog.getFilename(),
@@ -84,11 +174,10 @@ public class ChangelogRepository {
                 changeLog.getVersion(),
                 changeLog.getContexts(),
                 changeLog.getLabels(),
-                changeLog.getDeploymentId()
-        );
-
-        log.debug("Saved changelog entry: {}::{}", changeLog.getId(), changeLog.getAuthor());
-        return changeLog;
+                changeLog.getDeploymentId(),
+                changeLog.getExecutionMs(),
+                changeLog.getRowsAffected()
+        };
     }
 
     public int delete(String id, String author) {
@@ -120,6 +209,84 @@ public class ChangelogRepository {
         );
     }
 
+    /**
+     * Fetch the status aggregates and an index of executed changesets in a single pass.
+     * Only id, author and md5sum are read per row; count, last execution time and
+     * max order are computed by the database as window aggregates on the same scan.
+     * Rows are streamed with a fetch size (which needs a transaction on PostgreSQL) and
+     * folded straight into the primitive index, so history size does not drive heap use.
+     */
+    @Transactional(readOnly = true)
+    public ChangeLogSummary getSummary() {
+        ensureChangeLogTableExists();
+
+        ChangeLogSummary summary = new ChangeLogSummary();
+        ExecutedChangeSetIndex.Builder index = ExecutedChangeSetIndex.builder(indexStorage);
+        boolean[] firstRow = {true};
+
+        RowCallbackHandler handler = rs -> {
+            // Aggregates are identical on every row; take them from the first one
+            if (firstRow[0]) {
+                firstRow[0] = false;
+                summary.setExecutedCount(rs.getInt("executed_count"));
+                Timestamp lastExecuted = rs.getTimestamp("last_executed");
+                summary.setLastExecuted(lastExecuted != null ? lastExecuted.toLocalDateTime() : null);
+                summary.setMaxOrderExecuted(rs.getInt("max_order"));
+                index.expectedSize(summary.getExecutedCount());
+            }
+            index.add(rs.getString("id"), rs.getString("author"), rs.getString("md5sum"));
+        };
+
+        PreparedStatementCreator query = con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id, author, md5sum, " +
+                            "COUNT(*) OVER () AS executed_count, " +
+                            "MAX(dateexecuted) OVER () AS last_executed, " +
+                            "MAX(orderexecuted) OVER () AS max_order " +
+                            "FROM DATABASECHANGELOG"
+            );
+            ps.setFetchSize(SUMMARY_FETCH_SIZE);
+            return ps;
+        };
+        jdbcTemplate.query(query, handler);
+
+        summary.setExecutedIndex(index.build());
+        return summary;
+    }
+
+    /**
+     * Exact lookup of which of the given changesets have a DATABASECHANGELOG row.
+     * Used to verify index hash hits; bounded by the number of changesets passed in.
+     *
+     * @return keys in "id::author" form
+     */
+    public Set<String> findExecutedKeys(List<ChangeSet> changeSets) {
+        ensureChangeLogTableExists();
+
+        Set<String> keys = new HashSet<>();
+        if (changeSets.isEmpty()) {
+            return keys;
+        }
+
+        Object[] ids = changeSets.stream().map(ChangeSet::getId).toArray();
+        Object[] authors = changeSets.stream().map(ChangeSet::getAuthor).toArray();
+
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(
+                            "SELECT DISTINCT c.id, c.author FROM DATABASECHANGELOG c " +
+                                    "JOIN unnest(?, ?) AS k(id, author) ON c.id = k.id AND c.author = k.author"
+                    );
+                    ps.setArray(1, con.createArrayOf("varchar", ids));
+                    ps.setArray(2, con.createArrayOf("varchar", authors));
+                    return ps;
+                },
+                (RowCallbackHandler) rs -> keys.add(ChangeLogSummary.key(rs.getString("id"), rs.getString("author")))
+        );
+
+        return keys;
+    }
+
     public int getMaxOrderExecuted() {
         ensureChangeLogTableExists();
         Integer max = jdbcTemplate.queryForObject(
@@ -139,23 +306,6 @@ public class ChangelogRepository {
     }
 
     private void ensureChangeLogTableExists() {
-        jdbcTemplate.execute(
-                "CREATE TABLE IF NOT EXISTS DATABASECHANGELOG (" +
-                        "id VARCHAR(255) NOT NULL, " +
-                        "author VARCHAR(255) NOT NULL, " +
-                        "filename VARCHAR(255) NOT NULL, " +
-                        "dateexecuted TIMESTAMP NOT NULL, " +
-                        "orderexecuted INT NOT NULL, " +
-                        "exectype VARCHAR(50) NOT NULL, " +
-                        "md5sum VARCHAR(50), " +
-                        "description VARCHAR(255), " +
-                        "comments VARCHAR(255), " +
-                        "tag VARCHAR(255), " +
-                        "version VARCHAR(50), " +
-                        "contexts VARCHAR(255), " +
-                        "labels VARCHAR(255), " +
-                        "deployment_id VARCHAR(50), " +
-                        "PRIMARY KEY (id, author, filename))"
-        );
+        trackingSchemaManager.ensureUpToDate();
     }
 }
@@ -0,0 +1,66 @@
+package com.datadrift.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Repository for DATABASECHANGELOGSTATE table.
+ * Holds a single row describing the applied set as a whole, such as its fingerprint.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ChangelogStateRepository {
+
+    private static final int STATE_ID = 1;
+    private final JdbcTemplate jdbcTemplate;
+    private final TrackingSchemaManager trackingSchemaManager;
+
+    public String findFingerprint() {
+        ensureStateTableExists();
+        try {
+            return jdbcTemplate.queryForObject(
+                    "SELECT fingerprint FROM DATABASECHANGELOGSTATE WHERE id = ?",
+                    String.class,
+                    STATE_ID
+            );
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    public void saveFingerprint(String fingerprint, int changeSetCount) {
+        ensureStateTableExists();
+        jdbcTemplate.update(
+                "INSERT INTO DATABASECHANGELOGSTATE (id, fingerprint, changeset_count, updated) " +
+                        "VALUES (?, ?, ?, ?) " +
+                        "ON CONFLICT (id) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, " +
+                        "changeset_count = EXCLUDED.changeset_count, updated = EXCLUDED.updated",
+                STATE_ID,
+                fingerprint,
+                changeSetCount,
+                Timestamp.valueOf(LocalDateTime.now())
+        );
+        log.debug("Saved applied-set fingerprint {} ({} changesets)", fingerprint, changeSetCount);
+    }
+
+    public void clearFingerprint() {
+        ensureStateTableExists();
+        jdbcTemplate.update(
+                "UPDATE DATABASECHANGELOGSTATE SET fingerprint = NULL, updated = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now()),
+                STATE_ID
+        );
+        log.debug("Cleared applied-set fingerprint");
+    }
+
+    private void ensureStateTableExists() {
+        trackingSchemaManager.ensureUpToDate();
+    }
+}
@@ -0,0 +1,118 @@
+package com.datadrift.repository;
+
+import com.datadrift.model.ExecutionHistory.ChangeTypeStats;
+import com.datadrift.model.ExecutionHistory.DeploymentTotal;
+import com.datadrift.model.ExecutionHistory.SlowChangeSet;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only timing queries over DATABASECHANGELOG and DATABASECHANGELOGCHANGE.
+ *
+ * Every query sorts, aggregates and pages in the database (LIMIT/OFFSET), so only one page of
+ * rows crosses the wire however long the history is. The slowest-changesets page is served by
+ * the execution_ms index; the per-type percentiles aggregate DATABASECHANGELOGCHANGE grouped by
+ * change type.
+ */
+@Repository
+public class ExecutionHistoryRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrackingSchemaManager trackingSchemaManager;
+
+    public ExecutionHistoryRepository(JdbcTemplate jdbcTemplate, TrackingSchemaManager trackingSchemaManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.trackingSchemaManager = trackingSchemaManager;
+    }
+
+    public List<SlowChangeSet> findSlowestChangeSets(int limit, int offset) {
+        trackingSchemaManager.ensureUpToDate();
+        return jdbcTemplate.query(
+                "SELECT id, author, filename, deployment_id, dateexecuted, execution_ms, rows_affected " +
+                        "FROM DATABASECHANGELOG WHERE execution_ms IS NOT NULL " +
+                        "ORDER BY execution_ms DESC, orderexecuted LIMIT ? OFFSET ?",
+                (rs, rowNum) -> {
+                    SlowChangeSet changeSet = new SlowChangeSet();
+                    changeSet.setId(rs.getString("id"));
+                    changeSet.setAuthor(rs.getString("author"));
+                    changeSet.setFilename(rs.getString("filename"));
+                    changeSet.setDeploymentId(rs.getString("deployment_id"));
+                    changeSet.setDateExecuted(toLocalDateTime(rs.getTimestamp("dateexecuted")));
+                    changeSet.setExecutionMs(rs.getObject("execution_ms", Long.class));
+                    changeSet.setRowsAffected(rs.getObject("rows_affected", Long.class));
+                    return changeSet;
+                },
+                limit, offset
+        );
+    }
+
+    public List<DeploymentTotal> findDeploymentTotals(int limit, int offset) {
+        trackingSchemaManager.ensureUpToDate();
+        return jdbcTemplate.query(
+                "SELECT deployment_id, MIN(dateexecuted) AS started, COUNT(*) AS changesets, " +
+                        "COALESCE(SUM(execution_ms), 0) AS execution_ms, SUM(rows_affected) AS rows_affected " +
+                        "FROM DATABASECHANGELOG WHERE deployment_id IS NOT NULL " +
+                        "GROUP BY deployment_id ORDER BY started DESC LIMIT ? OFFSET ?",
+                (rs, rowNum) -> {
+                    DeploymentTotal deployment = new DeploymentTotal();
+                    deployment.setDeploymentId(rs.getString("deployment_id"));
+                    deployment.setStarted(toLocalDateTime(rs.getTimestamp("started")));
+                    deployment.setChangeSetCount(rs.getInt("changesets"));
+                    deployment.setExecutionMs(rs.getLong("execution_ms"));
+                    deployment.setRowsAffected(rs.getObject("rows_affected", Long.class));
+                    return deployment;
+                },
+                limit, offset
+        );
+    }
+
+    public List<ChangeTypeStats> findChangeTypeStats(int limit, int offset) {
+        trackingSchemaManager.ensureUpToDate();
+        return jdbcTemplate.query(
+                "SELECT change_type, COUNT(*) AS executions, " +
+                        "percentile_disc(0.5) WITHIN GROUP (ORDER BY execution_ms) AS p50, " +
+                        "percentile_disc(0.95) WITHIN GROUP (ORDER BY execution_ms) AS p95, " +
+                        "percentile_disc(0.99) WITHIN GROUP (ORDER BY execution_ms) AS p99, " +
+                        "MAX(execution_ms) AS max_ms, SUM(rows_affected) AS rows_affected " +
+                        "FROM DATABASECHANGELOGCHANGE WHERE execution_ms IS NOT NULL " +
+                        "GROUP BY change_type ORDER BY p95 DESC, change_type LIMIT ? OFFSET ?",
+                (rs, rowNum) -> {
+                    ChangeTypeStats stats = new ChangeTypeStats();
+                    stats.setChangeType(rs.getString("change_type"));
+                    stats.setCount(rs.getLong("executions"));
+                    stats.setP50Ms(rs.getLong("p50"));
+                    stats.setP95Ms(rs.getLong("p95"));
+                    stats.setP99Ms(rs.getLong("p99"));
+                    stats.setMaxMs(rs.getLong("max_ms"));
+                    stats.setRowsAffected(rs.getObject("rows_affected", Long.class));
+                    return stats;
+                },
+                limit, offset
+        );
+    }
+
+    /**
+     * @return median execution time per change type over all recorded runs
+     */
+    public Map<String, Long> findMedianExecutionMsByChangeType() {
+        trackingSchemaManager.ensureUpToDate();
+        Map<String, Long> medians = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT change_type, percentile_disc(0.5) WITHIN GROUP (ORDER BY execution_ms) AS p50 " +
+                        "FROM DATABASECHANGELOGCHANGE WHERE execution_ms IS NOT NULL GROUP BY change_type",
+                (RowCallbackHandler) rs -> medians.put(rs.getString("change_type"), rs.getLong("p50"))
+        );
+        return medians;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -61,6 +61,25 @@ public class LockRepository {
         return false;
     }
 
+    /**
+     * Lock the lock row for the rest of the current transaction instead of flagging it.
+     * Concurrent acquireLock calls block until the transaction ends and nothing has to be
+     * released explicitly, which also holds when the transaction is rolled back.
+     * Must be called inside a transaction.
+     *
+     * @return false if another process holds the lock through the locked flag
+     */
+    public boolean lockForTransaction() {
+        ensureLockTableExists();
+
+        Boolean locked = jdbcTemplate.queryForObject(
+                "SELECT locked FROM DATABASECHANGELOGLOCK WHERE id = ? FOR UPDATE",
+                Boolean.class,
+                LOCK_ID
+        );
+        return !Boolean.TRUE.equals(locked);
+    }
+
     public void releaseLock() {
         int updated = jdbcTemplate.update(
                 "UPDATE DATABASECHANGELOGLOCK SET locked = false, lockgranted = NULL, lockedby = NULL WHERE id = ?",
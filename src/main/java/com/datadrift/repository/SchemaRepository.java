@@ -0,0 +1,33 @@
+package com.datadrift.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Read-only access to the database's schemas, used to discover tenant schemas.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SchemaRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Find user schemas whose name matches a SQL LIKE pattern, sorted by name.
+     * System schemas (pg_*, information_schema) are never returned.
+     */
+    public List<String> findSchemasLike(String likePattern) {
+        return jdbcTemplate.queryForList(
+                "SELECT nspname FROM pg_namespace " +
+                        "WHERE nspname LIKE ? " +
+                        "AND nspname NOT LIKE 'pg\\_%' " +
+                        "AND nspname <> 'information_schema' " +
+                        "ORDER BY nspname",
+                String.class,
+                likePattern
+        );
+    }
+}
@@ -0,0 +1,238 @@
+package com.datadrift.repository;
+
+import com.datadrift.util.ShardContext;
+import com.datadrift.util.SqlEscapeUtil;
+import com.datadrift.util.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Creates and upgrades DataDrift's own tracking tables.
+ *
+ * The tracking schema is versioned in DATABASECHANGELOGSTATE.schema_version:
+ *
+ * | Version | Changes                                                              |
+ * |---------|----------------------------------------------------------------------|
+ * | 1       | DATABASECHANGELOG with composite primary key only                   |
+ * | 2       | execution_ms and rows_affected columns; indexes on tag,            |
+ * |         | orderexecuted and deployment_id                                      |
+ * | 3       | DATABASECHANGELOGBACKFILL checkpoints for resumable backfillColumn   |
+ * |         | and chunked update/delete                                            |
+ * | 4       | DATABASECHANGELOGCHANGE per-change timings; indexes on execution_ms |
+ * |         | and change_type for the history command                              |
+ *
+ * Upgrades run once per process, shard and schema on a dedicated autocommit connection,
+ * serialized across processes with an advisory lock. The connection goes to the shard of the
+ * current thread (see ShardContext); the schema is the thread's tenant schema (see
+ * TenantContext), or the connection's default search_path otherwise.
+ *
+ * Upgrades are online: new columns are nullable without a default (catalog-only change), and
+ * indexes are built with CREATE INDEX CONCURRENTLY when no caller
+ * transaction is open. Inside a caller transaction a concurrent build would wait on that
+ * transaction's own snapshot, so a plain CREATE INDEX is used instead.
+ */
+@Slf4j
+@Component
+public class TrackingSchemaManager {
+
+    static final int CURRENT_VERSION = 4;
+
+    private static final String ADVISORY_LOCK_KEY = "datadrift_tracking_schema";
+
+    private static final String DEFAULT_SCOPE = "";
+
+    private final DataSource dataSource;
+    private final Set<String> upToDateScopes = ConcurrentHashMap.newKeySet();
+    // ReentrantLock rather than synchronized so tenant workers on virtual threads are not pinned
+    private final Map<String, ReentrantLock> scopeLocks = new ConcurrentHashMap<>();
+
+    public TrackingSchemaManager(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public void ensureUpToDate() {
+        String shard = ShardContext.currentShard();
+        String schema = TenantContext.currentSchema();
+        String scope = (shard != null ? shard : DEFAULT_SCOPE) + "/" + (schema != null ? schema : DEFAULT_SCOPE);
+        if (upToDateScopes.contains(scope)) {
+            return;
+        }
+
+        ReentrantLock lock = scopeLocks.computeIfAbsent(scope, key -> new ReentrantLock());
+        lock.lock();
+        try {
+            if (upToDateScopes.contains(scope)) {
+                return;
+            }
+            upgrade(schema, !TransactionSynchronizationManager.isActualTransactionActive());
+            upToDateScopes.add(scope);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void upgrade(String schema, boolean concurrentIndexes) {
+        String advisoryKey = schema != null ? ADVISORY_LOCK_KEY + ":" + schema : ADVISORY_LOCK_KEY;
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+
+            jdbc.queryForObject("SELECT pg_advisory_lock(hashtext(?))", Object.class, advisoryKey);
+            try {
+                if (schema != null) {
+                    jdbc.queryForObject("SELECT set_config('search_path', ?, false)", String.class,
+                            SqlEscapeUtil.escapeIdentifier(schema));
+                }
+                createBaseTables(jdbc);
+
+                int version = readVersion(jdbc);
+                if (version >= CURRENT_VERSION) {
+                    return;
+                }
+
+                log.info("Upgrading tracking schema{} from version {} to {}",
+                        schema != null ? " in " + schema : "", version, CURRENT_VERSION);
+                if (version < 2) {
+                    upgradeToV2(jdbc, concurrentIndexes);
+                }
+                if (version < 3) {
+                    upgradeToV3(jdbc);
+                }
+                if (version < 4) {
+                    upgradeToV4(jdbc, concurrentIndexes);
+                }
+                writeVersion(jdbc, CURRENT_VERSION);
+                log.info("Tracking schema is now at version {}", CURRENT_VERSION);
+            } finally {
+                jdbc.queryForObject("SELECT pg_advisory_unlock(hashtext(?))", Object.class, advisoryKey);
+                if (schema != null) {
+                    // The connection goes back to the pool; do not leak the tenant search_path
+                    jdbc.execute("RESET search_path");
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to upgrade tracking schema: " + e.getMessage(), e);
+        }
+    }
+
+    private void createBaseTables(JdbcTemplate jdbc) {
+        jdbc.execute(
+                "CREATE TABLE IF NOT EXISTS DATABASECHANGELOG (" +
+                        "id VARCHAR(255) NOT NULL, " +
+                        "author VARCHAR(255) NOT NULL, " +
+                        "filename VARCHAR(255) NOT NULL, " +
+                        "dateexecuted TIMESTAMP NOT NULL, " +
+                        "orderexecuted INT NOT NULL, " +
+                        "exectype VARCHAR(50) NOT NULL, " +
+                        "md5sum VARCHAR(50), " +
+                        "description VARCHAR(255), " +
+                        "comments VARCHAR(255), " +
+                        "tag VARCHAR(255), " +
+                        "version VARCHAR(50), " +
+                        "contexts VARCHAR(255), " +
+                        "labels VARCHAR(255), " +
+                        "deployment_id VARCHAR(50), " +
+                        "PRIMARY KEY (id, author, filename))"
+        );
+
+        jdbc.execute(
+                "CREATE TABLE IF NOT EXISTS DATABASECHANGELOGSTATE (" +
+                        "id INT PRIMARY KEY, " +
+                        "fingerprint VARCHAR(64), " +
+                        "changeset_count INT, " +
+                        "updated TIMESTAMP)"
+        );
+        jdbc.execute("ALTER TABLE DATABASECHANGELOGSTATE ADD COLUMN IF NOT EXISTS schema_version INT");
+        jdbc.update("INSERT INTO DATABASECHANGELOGSTATE (id, schema_version) VALUES (1, 1) ON CONFLICT (id) DO NOTHING");
+    }
+
+    private void upgradeToV2(JdbcTemplate jdbc, boolean concurrentIndexes) {
+        // Nullable columns without a default only touch the catalog, no table rewrite
+        jdbc.execute("ALTER TABLE DATABASECHANGELOG ADD COLUMN IF NOT EXISTS execution_ms BIGINT");
+        jdbc.execute("ALTER TABLE DATABASECHANGELOG ADD COLUMN IF NOT EXISTS rows_affected BIGINT");
+
+        createIndex(jdbc, "idx_databasechangelog_tag", "DATABASECHANGELOG", "tag", concurrentIndexes);
+        createIndex(jdbc, "idx_databasechangelog_orderexecuted", "DATABASECHANGELOG", "orderexecuted", concurrentIndexes);
+        createIndex(jdbc, "idx_databasechangelog_deployment_id", "DATABASECHANGELOG", "deployment_id", concurrentIndexes);
+    }
+
+    private void upgradeToV3(JdbcTemplate jdbc) {
+        // One row per column being backfilled (or per chunked update/delete, column_name
+        // "chunked:<hash>"); last_key holds the primary key of the last committed chunk as
+        // text, cast back to the key column types on resume
+        jdbc.execute(
+                "CREATE TABLE IF NOT EXISTS DATABASECHANGELOGBACKFILL (" +
+                        "table_name VARCHAR(255) NOT NULL, " +
+                        "column_name VARCHAR(255) NOT NULL, " +
+                        "last_key TEXT[], " +
+                        "rows_done BIGINT NOT NULL DEFAULT 0, " +
+                        "updated TIMESTAMP NOT NULL, " +
+                        "PRIMARY KEY (table_name, column_name))"
+        );
+    }
+
+    private void upgradeToV4(JdbcTemplate jdbc, boolean concurrentIndexes) {
+        // One row per executed change and deployment; kept when a changeset is rolled back or
+        // re-run, so it doubles as the timing history
+        jdbc.execute(
+                "CREATE TABLE IF NOT EXISTS DATABASECHANGELOGCHANGE (" +
+                        "deployment_id VARCHAR(50), " +
+                        "id VARCHAR(255) NOT NULL, " +
+                        "author VARCHAR(255) NOT NULL, " +
+                        "filename VARCHAR(255) NOT NULL, " +
+                        "change_index INT NOT NULL, " +
+                        "change_type VARCHAR(50) NOT NULL, " +
+                        "table_name TEXT, " +
+                        "dateexecuted TIMESTAMP NOT NULL, " +
+                        "execution_ms BIGINT, " +
+                        "rows_affected BIGINT)"
+        );
+
+        createIndex(jdbc, "idx_databasechangelog_execution_ms", "DATABASECHANGELOG", "execution_ms", concurrentIndexes);
+        createIndex(jdbc, "idx_databasechangelogchange_type", "DATABASECHANGELOGCHANGE", "change_type", concurrentIndexes);
+    }
+
+    private void createIndex(JdbcTemplate jdbc, String indexName, String table, String column, boolean concurrently) {
+        // A failed concurrent build leaves an INVALID index that IF NOT EXISTS would keep forever
+        Boolean valid = jdbc.query(
+                "SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                        "WHERE c.relname = ? AND pg_table_is_visible(c.oid)",
+                rs -> rs.next() ? rs.getBoolean(1) : null,
+                indexName
+        );
+        if (Boolean.TRUE.equals(valid)) {
+            return;
+        }
+        if (Boolean.FALSE.equals(valid)) {
+            log.warn("Dropping invalid tracking index {} before rebuilding it", indexName);
+            jdbc.execute("DROP INDEX " + (concurrently ? "CONCURRENTLY " : "") + "IF EXISTS " + indexName);
+        }
+
+        jdbc.execute("CREATE INDEX " + (concurrently ? "CONCURRENTLY " : "") + "IF NOT EXISTS " + indexName +
+                " ON " + table + " (" + column + ")");
+    }
+
+    private int readVersion(JdbcTemplate jdbc) {
+        Integer version = jdbc.queryForObject(
+                "SELECT COALESCE(schema_version, 1) FROM DATABASECHANGELOGSTATE WHERE id = 1",
+                Integer.class
+        );
+        return version != null ? version : 1;
+    }
+
+    private void writeVersion(JdbcTemplate jdbc, int version) {
+        jdbc.update("UPDATE DATABASECHANGELOGSTATE SET schema_version = ? WHERE id = 1", version);
+    }
+}
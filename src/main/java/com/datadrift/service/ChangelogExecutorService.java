@@ -2,21 +2,49 @@ package com.datadrift.service;
 
 import com.datadrift.exception.ChangeSetExecutionException;
 import com.datadrift.executor.change.ChangeExecutor;
+import com.datadrift.executor.maintenance.TableMaintenance;
+import com.datadrift.executor.maintenance.TouchedTables;
+import com.datadrift.executor.session.ChangeSession;
+import com.datadrift.metrics.MigrationMetrics;
+import com.datadrift.metrics.jfr.ChangeSetCommittedEvent;
+import com.datadrift.metrics.jfr.StatementExecutedEvent;
+import com.datadrift.metrics.progress.MigrationProgress;
 import com.datadrift.model.change.Change;
+import com.datadrift.model.changelog.ChangeExecution;
+import com.datadrift.model.changelog.ChangeLogSummary;
 import com.datadrift.model.changelog.ChangeSet;
 import com.datadrift.model.changelog.DatabaseChangeLog;
+import com.datadrift.model.changelog.ExecutedChangeSetIndex;
+import com.datadrift.plan.AlterTableChange;
+import com.datadrift.plan.AlterTableCoalescer;
+import com.datadrift.plan.CatalogSnapshot;
+import com.datadrift.plan.LockImpact;
+import com.datadrift.plan.LockImpactAnalyzer;
+import com.datadrift.plan.PreflightCheck;
+import com.datadrift.plan.TableReferenceResolver;
+import com.datadrift.repository.ChangeLogBatchWriter;
 import com.datadrift.repository.ChangelogRepository;
+import com.datadrift.util.CatalogSnapshotContext;
 import com.datadrift.util.ChecksumUtil;
+import com.datadrift.util.RowCountContext;
+import com.datadrift.util.TouchedTablesContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Service for executing database changesets.
@@ -31,6 +59,13 @@ public class ChangelogExecutorService {
 
     private final ChangelogRepository changelogRepository;
     private final Map<String, ChangeExecutor> executorsMap; // Map of change type -> executor
+    private final ChangeSession changeSession;
+    private final AlterTableCoalescer alterTableCoalescer;
+    private final MigrationMetrics metrics;
+    private final MigrationProgress progress;
+    private final LockImpactAnalyzer lockImpactAnalyzer;
+    private final PreflightCheck preflight;
+    private final TableMaintenance tableMaintenance;
 
     @Transactional
     public int executePendingChangeSets(List<ChangeSet> changeSets) {
@@ -44,17 +79,72 @@ public class ChangelogExecutorService {
         log.info("Found {} pending changeset(s) to execute", pending.size());
 
         int orderExecuted = changelogRepository.getMaxOrderExecuted();
-        String deploymentId = UUID.randomUUID().toString().substring(0, 10);
+        String deploymentId = newDeploymentId();
+
+        // Tracking rows are buffered and written in batches inside this transaction;
+        // on failure the transaction rolls back, so the buffer is simply dropped
+        ChangeLogBatchWriter writer = new ChangeLogBatchWriter(changelogRepository);
+        // Table sizes for the whole run come from one catalog query, made before any change runs
+        CatalogSnapshot snapshot = preflight.run(pending);
+        CatalogSnapshotContext.set(snapshot);
+        TouchedTables touched = new TouchedTables();
+        TouchedTablesContext.set(touched);
+        try {
+            progress.runStarted(pending);
+            for (ChangeSet changeSet : pending) {
+                orderExecuted++;
+                executeChangeSet(changeSet, orderExecuted, deploymentId, writer::add);
+            }
+            writer.flush();
+        } catch (RuntimeException e) {
+            progress.runFinished(false);
+            throw e;
+        } finally {
+            TouchedTablesContext.clear();
+            CatalogSnapshotContext.clear();
+        }
+        progress.runFinished(true);
+        // Statistics of tables with many changed rows are refreshed once the run has committed
+        tableMaintenance.afterRun(touched, snapshot);
+
+        log.info("Successfully executed {} changeset(s)", pending.size());
+        return pending.size();
+    }
+
+    /**
+     * Record every pending changeset as MARK_RAN without executing it.
+     * Used to baseline a database whose schema was created outside DataDrift.
+     * Entries are written in batches within a single transaction.
+     *
+     * @return number of changesets marked as ran
+     */
+    @Transactional
+    public int markPendingChangeSetsRan(List<ChangeSet> changeSets) {
+        List<ChangeSet> pending = filterPendingChangeSets(changeSets, changelogRepository.getSummary());
+
+        if (pending.isEmpty()) {
+            log.info("No pending changesets to mark as ran");
+            return 0;
+        }
+
+        int orderExecuted = changelogRepository.getMaxOrderExecuted();
+        String deploymentId = newDeploymentId();
 
+        ChangeLogBatchWriter writer = new ChangeLogBatchWriter(changelogRepository);
         for (ChangeSet changeSet : pending) {
             orderExecuted++;
-            executeChangeSet(changeSet, orderExecuted, deploymentId);
+            writer.add(buildRecord(changeSet, orderExecuted, "MARK_RAN", deploymentId, null));
         }
+        writer.flush();
 
-        log.info("Successfully executed {} changeset(s)", pending.size());
+        log.info("Marked {} changeset(s) as ran", pending.size());
         return pending.size();
     }
 
+    private static String newDeploymentId() {
+        return UUID.randomUUID().toString().substring(0, 10);
+    }
+
     public List<ChangeSet> filterPendingChangeSets(List<ChangeSet> changeSets) {
         List<ChangeSet> pending = new ArrayList<>();
 
@@ -64,41 +154,100 @@ public class ChangelogExecutorService {
             );
 
             if (executed == null) {
-                // Never executed - add to pending
                 pending.add(changeSet);
-            } else if (changeSet.isRunAlways()) {
-                // runAlways=true - always execute
-                log.debug("ChangeSet {}::{} has runAlways=true, will re-execute",
-                        changeSet.getId(), changeSet.getAuthor());
+            } else if (isReRunRequired(changeSet, checksum -> checksum.equals(executed.getMd5sum()))) {
+                pending.add(changeSet);
+            }
+        }
+
+        return pending;
+    }
+
+    /**
+     * Same as {@link #filterPendingChangeSets(List)}, but resolves executed changesets from
+     * an already-fetched summary instead of querying the database once per changeset.
+     * Index hits are hash matches, so they are confirmed with one exact query bounded by
+     * the number of hits before a changeset is treated as executed.
+     */
+    public List<ChangeSet> filterPendingChangeSets(List<ChangeSet> changeSets, ChangeLogSummary summary) {
+        ExecutedChangeSetIndex index = summary.getExecutedIndex();
+
+        List<ChangeSet> hits = changeSets.stream()
+                .filter(cs -> index.contains(cs.getId(), cs.getAuthor()))
+                .toList();
+        Set<String> executedKeys = hits.isEmpty() ? Set.of() : changelogRepository.findExecutedKeys(hits);
+
+        List<ChangeSet> pending = new ArrayList<>();
+        for (ChangeSet changeSet : changeSets) {
+            String id = changeSet.getId();
+            String author = changeSet.getAuthor();
+
+            if (!executedKeys.contains(ChangeLogSummary.key(id, author))) {
+                pending.add(changeSet);
+            } else if (isReRunRequired(changeSet, checksum -> index.checksumMatches(id, author, checksum))) {
                 pending.add(changeSet);
-            } else if (changeSet.isRunOnChange()) {
-                // runOnChange=true - execute if checksum changed
-                String currentChecksum = ChecksumUtil.calculateChecksum(changeSet);
-                if (!currentChecksum.equals(executed.getMd5sum())) {
-                    log.debug("ChangeSet {}::{} has runOnChange=true and checksum changed, will re-execute",
-                            changeSet.getId(), changeSet.getAuthor());
-                    pending.add(changeSet);
-                }
             }
-            // Otherwise: already executed and no special flags, skip
         }
 
         return pending;
     }
 
+    /**
+     * Decide whether an already-executed changeset must run again.
+     *
+     * @param storedChecksumMatches tests the current checksum against the stored one
+     */
+    private boolean isReRunRequired(ChangeSet changeSet, Predicate<String> storedChecksumMatches) {
+        if (changeSet.isRunAlways()) {
+            // runAlways=true - always execute
+            log.debug("ChangeSet {}::{} has runAlways=true, will re-execute",
+                    changeSet.getId(), changeSet.getAuthor());
+            return true;
+        }
+
+        if (changeSet.isRunOnChange()) {
+            // runOnChange=true - execute if checksum changed
+            String currentChecksum = ChecksumUtil.calculateChecksum(changeSet);
+            if (!storedChecksumMatches.test(currentChecksum)) {
+                log.debug("ChangeSet {}::{} has runOnChange=true and checksum changed, will re-execute",
+                        changeSet.getId(), changeSet.getAuthor());
+                return true;
+            }
+        }
+
+        // Otherwise: already executed and no special flags, skip
+        return false;
+    }
+
     @Transactional
     public void executeChangeSet(ChangeSet changeSet, int orderExecuted, String deploymentId) {
+        executeChangeSet(changeSet, orderExecuted, deploymentId, changelogRepository::save);
+    }
+
+    private void executeChangeSet(ChangeSet changeSet, int orderExecuted, String deploymentId,
+                                  Consumer<DatabaseChangeLog> tracker) {
         log.info("Executing changeset {}::{} from {}",
                 changeSet.getId(), changeSet.getAuthor(), changeSet.getFilename());
 
+        long startNanos = System.nanoTime();
+        ChangeSetCommittedEvent committedEvent = new ChangeSetCommittedEvent();
+        committedEvent.begin();
+        List<ChangeExecution> executions = new ArrayList<>();
+        progress.changeSetStarted(changeSet);
         try {
-            // Execute each change in the changeset
-            for (Change change : changeSet.getChanges()) {
-                executeChange(change);
+            // Execute each change in the changeset with its session timeouts; adjacent
+            // ALTER TABLE changes on the same table run as one statement
+            List<Change> changes = alterTableCoalescer.optimize(changeSet.getChanges());
+            for (Change change : changes) {
+                changeSession.execute(changeSet, change,
+                        () -> executions.addAll(executeChange(changeSet, change)));
             }
 
             // Record successful execution
-            recordExecution(changeSet, orderExecuted, "EXECUTED", deploymentId);
+            tracker.accept(withExecutions(
+                    buildRecord(changeSet, orderExecuted, "EXECUTED", deploymentId, elapsedMillis(startNanos)), executions));
+            commitAfterTransaction(committedEvent, changeSet, "EXECUTED");
+            progress.changeSetFinished(changeSet, true);
 
             log.info("Successfully executed changeset {}::{}", changeSet.getId(), changeSet.getAuthor());
 
@@ -107,8 +256,9 @@ public class ChangelogExecutorService {
                     changeSet.getId(), changeSet.getAuthor(), e.getMessage());
 
             // Record failed execution if failOnError is true (default)
+            progress.changeSetFinished(changeSet, false);
             if (changeSet.isFailOnError()) {
-                recordExecution(changeSet, orderExecuted, "FAILED", deploymentId);
+                tracker.accept(buildRecord(changeSet, orderExecuted, "FAILED", deploymentId, elapsedMillis(startNanos)));
                 throw new ChangeSetExecutionException(
                         "Failed to execute changeset " + changeSet.getId() + "::" + changeSet.getAuthor(),
                         e
@@ -117,13 +267,22 @@ public class ChangelogExecutorService {
                 // Record as MARK_RAN if failOnError is false
                 log.warn("Changeset {}::{} failed but failOnError=false, marking as ran",
                         changeSet.getId(), changeSet.getAuthor());
-                recordExecution(changeSet, orderExecuted, "MARK_RAN", deploymentId);
+                tracker.accept(withExecutions(
+                        buildRecord(changeSet, orderExecuted, "MARK_RAN", deploymentId, elapsedMillis(startNanos)), executions));
+                commitAfterTransaction(committedEvent, changeSet, "MARK_RAN");
             }
         }
     }
 
+    /**
+     * A merged alterTable statement is timed and recorded as its source changes, each with an
+     * equal share of the statement's time: history, percentiles and ETAs are kept per changelog
+     * change type, whichever changes happened to be merged.
+     *
+     * @return timing and row count per changelog change, for DATABASECHANGELOGCHANGE
+     */
     @SuppressWarnings("unchecked")
-    private void executeChange(Change change) {
+    private List<ChangeExecution> executeChange(ChangeSet changeSet, Change change) {
         String changeType = change.getChangeType();
         ChangeExecutor executor = executorsMap.get(changeType);
 
@@ -132,7 +291,105 @@ public class ChangelogExecutorService {
         }
 
         log.debug("Executing {} change", changeType);
-        executor.execute(change);
+        String tables = TableReferenceResolver.namedTables(change)
+                .map(referenced -> String.join(",", new TreeSet<>(referenced)))
+                .orElse(null);
+        progress.changeStarted(changeSet, changeType, tables);
+        StatementExecutedEvent event = new StatementExecutedEvent();
+        event.begin();
+        List<Change> sources = change instanceof AlterTableChange merged ? merged.getSourceChanges() : List.of(change);
+        long startNanos = System.nanoTime();
+        Long rows;
+        String outcome = "failure";
+        RowCountContext.begin();
+        try {
+            executor.execute(change);
+            outcome = "success";
+            event.succeeded = true;
+        } finally {
+            long shareNanos = (System.nanoTime() - startNanos) / sources.size();
+            for (Change source : sources) {
+                metrics.record(MigrationMetrics.CHANGE, Map.of("type", source.getChangeType(), "operation", "execute"),
+                        outcome, shareNanos);
+            }
+            rows = RowCountContext.end();
+            if (event.shouldCommit()) {
+                event.changeSet = changeSet.getId() + "::" + changeSet.getAuthor();
+                event.changeType = changeType;
+                event.table = tables != null ? tables : "";
+                event.commit();
+            }
+        }
+
+        TouchedTables touched = TouchedTablesContext.current();
+        if (touched != null && rows != null) {
+            touched.add(change, rows);
+        }
+
+        long shareMs = elapsedMillis(startNanos) / sources.size();
+        List<ChangeExecution> executions = new ArrayList<>();
+        for (Change source : sources) {
+            ChangeExecution execution = new ChangeExecution();
+            execution.setChangeIndex(positionOf(changeSet, source));
+            execution.setChangeType(source.getChangeType());
+            execution.setTableName(sources.size() == 1 ? tables : TableReferenceResolver.namedTables(source)
+                    .map(referenced -> String.join(",", new TreeSet<>(referenced)))
+                    .orElse(null));
+            execution.setExecutionMs(shareMs);
+            // Merged statements are DDL and report no rows
+            execution.setRowsAffected(sources.size() == 1 ? rows : null);
+            executions.add(execution);
+        }
+        return executions;
+    }
+
+    /**
+     * @return position of the change in its changeset, starting at 1
+     */
+    private static int positionOf(ChangeSet changeSet, Change change) {
+        List<Change> changes = changeSet.getChanges();
+        for (int i = 0; i < changes.size(); i++) {
+            if (changes.get(i) == change) {
+                return i + 1;
+            }
+        }
+        throw new IllegalStateException(change.getChangeType() + " change is not part of changeset " + changeSet.getId());
+    }
+
+    /**
+     * Attach per-change timings; the changeset's row count is the sum of the changes that
+     * reported one.
+     */
+    private static DatabaseChangeLog withExecutions(DatabaseChangeLog record, List<ChangeExecution> executions) {
+        record.setChangeExecutions(List.copyOf(executions));
+        record.setRowsAffected(executions.stream()
+                .map(ChangeExecution::getRowsAffected)
+                .filter(Objects::nonNull)
+                .reduce(Long::sum)
+                .orElse(null));
+        return record;
+    }
+
+    /**
+     * Emit the JFR event once the changeset's transaction has committed, or right away when
+     * no transaction is active.
+     */
+    private static void commitAfterTransaction(ChangeSetCommittedEvent event, ChangeSet changeSet, String execType) {
+        event.changeSet = changeSet.getId() + "::" + changeSet.getAuthor();
+        event.file = changeSet.getFilename();
+        event.execType = execType;
+        event.changes = changeSet.getChanges() != null ? changeSet.getChanges().size() : 0;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            event.commit();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                event.commit();
+            }
+        });
     }
 
     @SuppressWarnings("unchecked")
@@ -141,7 +398,7 @@ public class ChangelogExecutorService {
         sql.append("-- ChangeSet: ").append(changeSet.getId())
                 .append("::").append(changeSet.getAuthor()).append("\n");
 
-        for (Change change : changeSet.getChanges()) {
+        for (Change change : alterTableCoalescer.optimize(changeSet.getChanges())) {
             String changeType = change.getChangeType();
             ChangeExecutor executor = executorsMap.get(changeType);
 
@@ -150,13 +407,21 @@ public class ChangelogExecutorService {
                 continue;
             }
 
+            for (LockImpact impact : lockImpactAnalyzer.analyze(change)) {
+                sql.append("-- Lock: ").append(impact.describe()).append("\n");
+            }
             sql.append(executor.generateSql(change)).append(";\n");
         }
 
         return sql.toString();
     }
 
-    private void recordExecution(ChangeSet changeSet, int orderExecuted, String execType, String deploymentId) {
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private DatabaseChangeLog buildRecord(ChangeSet changeSet, int orderExecuted, String execType,
+                                          String deploymentId, Long executionMs) {
         DatabaseChangeLog record = new DatabaseChangeLog();
         record.setId(changeSet.getId());
         record.setAuthor(changeSet.getAuthor());
@@ -172,8 +437,8 @@ public class ChangelogExecutorService {
         record.setContexts(changeSet.getContext());
         record.setLabels(changeSet.getLabels());
         record.setDeploymentId(deploymentId);
-
-        changelogRepository.save(record);
+        record.setExecutionMs(executionMs);
+        return record;
     }
 
     private String buildDescription(ChangeSet changeSet) {
@@ -1,5 +1,6 @@
 package com.datadrift.service;
 
+import com.datadrift.metrics.MigrationMetrics;
 import com.datadrift.model.changelog.ChangeSet;
 import com.datadrift.parser.ChangelogParser;
 import com.datadrift.parser.xml.XmlChangelogParser;
@@ -78,20 +79,27 @@ public class ChangelogParserService {
     private final ChangelogParser xmlParser;
     private final ChangelogParser yamlParser;
     private final ResourceLoader resourceLoader;
+    private final MigrationMetrics metrics;
     private final String changelogDirectory;
 
     public ChangelogParserService(
             XmlChangelogParser xmlParser,
             YamlChangelogParser yamlParser,
             ResourceLoader resourceLoader,
+            MigrationMetrics metrics,
             @Value("${datadrift.changelog.directory:classpath:db/changelog/}") String changelogDirectory) {
         this.xmlParser = xmlParser;
         this.yamlParser = yamlParser;
         this.resourceLoader = resourceLoader;
+        this.metrics = metrics;
         this.changelogDirectory = changelogDirectory;
     }
 
     public List<ChangeSet> parseAllChangelogs() {
+        return metrics.timePhase("parse", this::parseChangelogDirectory);
+    }
+
+    private List<ChangeSet> parseChangelogDirectory() {
         File directory;
         try {
             Resource dir = resourceLoader.getResource(changelogDirectory);
@@ -0,0 +1,48 @@
+package com.datadrift.service;
+
+import com.datadrift.model.ExecutionHistory;
+import com.datadrift.model.ExecutionHistory.Section;
+import com.datadrift.repository.ExecutionHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Service for reading execution timing history.
+ */
+@Service
+@RequiredArgsConstructor
+public class HistoryService {
+
+    private final ExecutionHistoryRepository historyRepository;
+
+    /**
+     * @param page     1-based page number
+     * @param pageSize rows per section
+     * @param sections sections to load; empty loads all
+     */
+    public ExecutionHistory getHistory(int page, int pageSize, Set<Section> sections) {
+        if (page < 1 || pageSize < 1) {
+            throw new IllegalArgumentException("Page and page size must be positive");
+        }
+        int offset = Math.multiplyExact(page - 1, pageSize);
+
+        ExecutionHistory history = new ExecutionHistory();
+        history.setPage(page);
+        history.setPageSize(pageSize);
+        history.setSections(sections.isEmpty() ? EnumSet.allOf(Section.class) : EnumSet.copyOf(sections));
+
+        if (history.getSections().contains(Section.SLOWEST)) {
+            history.setSlowestChangeSets(historyRepository.findSlowestChangeSets(pageSize, offset));
+        }
+        if (history.getSections().contains(Section.DEPLOYMENTS)) {
+            history.setDeployments(historyRepository.findDeploymentTotals(pageSize, offset));
+        }
+        if (history.getSections().contains(Section.CHANGE_TYPES)) {
+            history.setChangeTypes(historyRepository.findChangeTypeStats(pageSize, offset));
+        }
+        return history;
+    }
+}
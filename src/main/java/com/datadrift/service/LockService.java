@@ -1,12 +1,16 @@
 package com.datadrift.service;
 
 import com.datadrift.exception.MigrationLockException;
+import com.datadrift.metrics.MigrationMetrics;
+import com.datadrift.metrics.jfr.MigrationLockEvent;
 import com.datadrift.model.changelog.DatabaseChangeLogLock;
 import com.datadrift.repository.LockRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 /**
  * Service for managing database migration locks.
  * Prevents concurrent migrations from running.
@@ -16,26 +20,40 @@ import org.springframework.stereotype.Service;
 public class LockService {
 
     private final LockRepository lockRepository;
+    private final MigrationMetrics metrics;
     private final int maxRetryAttempts;
     private final long retryDelayMs;
 
     public LockService(
             LockRepository lockRepository,
+            MigrationMetrics metrics,
             @Value("${datadrift.lock.max-retry-attempts:5}") int maxRetryAttempts,
             @Value("${datadrift.lock.retry-delay-ms:1000}") long retryDelayMs) {
         this.lockRepository = lockRepository;
+        this.metrics = metrics;
         this.maxRetryAttempts = maxRetryAttempts;
         this.retryDelayMs = retryDelayMs;
     }
 
     public void acquireLock() {
+        metrics.timePhase("lock", this::acquireLockWithRetry);
+    }
+
+    private void acquireLockWithRetry() {
         log.debug("Attempting to acquire migration lock...");
+        MigrationLockEvent event = new MigrationLockEvent();
+        event.begin();
 
         for (int attempt = 1; attempt <= maxRetryAttempts; attempt++) {
             if (lockRepository.acquireLock()) {
+                metrics.increment(MigrationMetrics.LOCK_ATTEMPTS, Map.of("result", "acquired"));
+                event.attempts = attempt;
+                event.acquired = true;
+                event.commit();
                 log.info("Migration lock acquired successfully");
                 return;
             }
+            metrics.increment(MigrationMetrics.LOCK_ATTEMPTS, Map.of("result", "busy"));
 
             if (attempt < maxRetryAttempts) {
                 log.debug("Lock acquisition attempt {} failed, retrying in {}ms...", attempt, retryDelayMs);
@@ -51,12 +69,36 @@ public class LockService {
         // All retries exhausted
         DatabaseChangeLogLock lockStatus = lockRepository.getLockStatus();
         String lockedBy = lockStatus != null ? lockStatus.getLockedBy() : "unknown";
+        event.attempts = maxRetryAttempts;
+        event.heldBy = lockedBy;
+        event.commit();
         throw new MigrationLockException(
                 "Could not acquire migration lock after " + maxRetryAttempts +
                         " attempts. Lock is held by: " + lockedBy
         );
     }
 
+    /**
+     * Acquire the migration lock for the current transaction only.
+     * Used where each unit of work (e.g. one tenant schema) runs in its own transaction;
+     * the lock is released by commit or rollback.
+     */
+    public void acquireTransactionLock() {
+        MigrationLockEvent event = new MigrationLockEvent();
+        event.begin();
+        event.attempts = 1;
+        if (!lockRepository.lockForTransaction()) {
+            DatabaseChangeLogLock lockStatus = lockRepository.getLockStatus();
+            String lockedBy = lockStatus != null ? lockStatus.getLockedBy() : "unknown";
+            event.heldBy = lockedBy;
+            event.commit();
+            throw new MigrationLockException("Migration lock is held by: " + lockedBy);
+        }
+        event.acquired = true;
+        event.commit();
+        log.debug("Migration lock acquired for the current transaction");
+    }
+
     public void releaseLock() {
         log.debug("Releasing migration lock...");
         lockRepository.releaseLock();
@@ -1,11 +1,13 @@
 package com.datadrift.service;
 
 import com.datadrift.model.MigrationStatus;
+import com.datadrift.model.changelog.ChangeLogSummary;
 import com.datadrift.model.changelog.ChangeSet;
-import com.datadrift.model.changelog.DatabaseChangeLog;
 import com.datadrift.repository.ChangelogRepository;
-import lombok.RequiredArgsConstructor;
+import com.datadrift.repository.ChangelogStateRepository;
+import com.datadrift.util.ChecksumUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -17,14 +19,35 @@ import java.util.List;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class MigrationService {
 
     private final ChangelogParserService parserService;
     private final ChangelogExecutorService executorService;
+    private final ParallelExecutionService parallelExecutionService;
     private final ValidationService validationService;
     private final LockService lockService;
     private final ChangelogRepository changelogRepository;
+    private final ChangelogStateRepository stateRepository;
+    private final boolean fastNoOpEnabled;
+
+    public MigrationService(
+            ChangelogParserService parserService,
+            ChangelogExecutorService executorService,
+            ParallelExecutionService parallelExecutionService,
+            ValidationService validationService,
+            LockService lockService,
+            ChangelogRepository changelogRepository,
+            ChangelogStateRepository stateRepository,
+            @Value("${datadrift.migrate.fast-noop:true}") boolean fastNoOpEnabled) {
+        this.parserService = parserService;
+        this.executorService = executorService;
+        this.parallelExecutionService = parallelExecutionService;
+        this.validationService = validationService;
+        this.lockService = lockService;
+        this.changelogRepository = changelogRepository;
+        this.stateRepository = stateRepository;
+        this.fastNoOpEnabled = fastNoOpEnabled;
+    }
 
     public int migrate() {
         log.info("Starting migration...");
@@ -40,38 +63,134 @@ public class MigrationService {
                 return 0;
             }
 
-            // Validate changesets
+            return apply(allChangeSets, true, parallelExecutionService.isEnabled());
+
+        } finally {
+            lockService.releaseLock();
+        }
+    }
+
+    /**
+     * Migrate with changesets that were already parsed and structurally validated, such as
+     * one changelog shared across many shard databases. Locks like migrate().
+     *
+     * @return number of changesets executed
+     */
+    public int migrate(List<ChangeSet> allChangeSets) {
+        log.info("Starting migration of {} pre-parsed changeset(s)...", allChangeSets.size());
+
+        lockService.acquireLock();
+        try {
+            if (allChangeSets.isEmpty()) {
+                return 0;
+            }
+            return apply(allChangeSets, false, parallelExecutionService.isEnabled());
+        } finally {
+            lockService.releaseLock();
+        }
+    }
+
+    /**
+     * Apply changesets that were already parsed and structurally validated, such as one
+     * changelog shared across many tenant schemas.
+     * The caller owns locking and the connection scope: it must hold the migration lock and
+     * run this inside the transaction that binds the target connection, so changesets
+     * always execute sequentially on that connection.
+     *
+     * @return number of changesets executed
+     */
+    public int migrateParsed(List<ChangeSet> allChangeSets) {
+        if (allChangeSets.isEmpty()) {
+            return 0;
+        }
+        return apply(allChangeSets, false, false);
+    }
+
+    private int apply(List<ChangeSet> allChangeSets, boolean validateStructure, boolean parallel) {
+        // Short-circuit when the applied set already matches the changelog
+        String fingerprint = ChecksumUtil.calculateFingerprint(allChangeSets);
+        if (isAlreadyApplied(allChangeSets, fingerprint)) {
+            log.info("Applied set matches changelog fingerprint, nothing to migrate");
+            return 0;
+        }
+
+        // Validate changesets
+        if (validateStructure) {
             validationService.validate(allChangeSets);
+        }
+
+        // Validate checksums of already-executed changesets
+        validationService.validateChecksums(allChangeSets);
 
-            // Validate checksums of already-executed changesets
+        // Execute pending changesets, concurrently along their dependencies if configured
+        int executed = parallel
+                ? parallelExecutionService.executePendingChangeSets(allChangeSets)
+                : executorService.executePendingChangeSets(allChangeSets);
+
+        // Every changeset is now applied, so the applied set equals the changelog
+        stateRepository.saveFingerprint(fingerprint, allChangeSets.size());
+
+        log.info("Migration completed. {} changeset(s) executed.", executed);
+        return executed;
+    }
+
+    /**
+     * Mark all pending changesets as executed without running them.
+     * Takes the same lock and runs the same validations as migrate.
+     *
+     * @return number of changesets marked as ran
+     */
+    public int changelogSync() {
+        log.info("Starting changelog sync...");
+
+        lockService.acquireLock();
+        try {
+            List<ChangeSet> allChangeSets = parserService.parseAllChangelogs();
+            log.info("Parsed {} changeset(s) from changelog files", allChangeSets.size());
+
+            if (allChangeSets.isEmpty()) {
+                log.info("No changesets found in changelog files");
+                return 0;
+            }
+
+            validationService.validate(allChangeSets);
             validationService.validateChecksums(allChangeSets);
 
-            // Execute pending changesets
-            int executed = executorService.executePendingChangeSets(allChangeSets);
+            int marked = executorService.markPendingChangeSetsRan(allChangeSets);
+
+            stateRepository.saveFingerprint(ChecksumUtil.calculateFingerprint(allChangeSets), allChangeSets.size());
 
-            log.info("Migration completed. {} changeset(s) executed.", executed);
-            return executed;
+            log.info("Changelog sync completed. {} changeset(s) marked as ran.", marked);
+            return marked;
 
         } finally {
             lockService.releaseLock();
         }
     }
 
+    /**
+     * The stored fingerprint is written only after a fully successful run, so a match means
+     * every changeset in the changelog is applied with an unchanged checksum.
+     * runAlways changesets are pending on every run and disable the shortcut.
+     */
+    private boolean isAlreadyApplied(List<ChangeSet> changeSets, String fingerprint) {
+        if (!fastNoOpEnabled || changeSets.stream().anyMatch(ChangeSet::isRunAlways)) {
+            return false;
+        }
+        return fingerprint.equals(stateRepository.findFingerprint());
+    }
+
     public MigrationStatus getStatus() {
         // Parse all changesets
-        List<ChangeSet> allChangeSets = parserService.parseAllChangelogs();
+        return getStatus(parserService.parseAllChangelogs());
+    }
 
-        // Get executed changesets from database
-        List<DatabaseChangeLog> executed = changelogRepository.findAll();
+    public MigrationStatus getStatus(List<ChangeSet> allChangeSets) {
+        // Fetch aggregates and executed keys in one lean query
+        ChangeLogSummary summary = changelogRepository.getSummary();
 
         // Filter to find pending changesets
-        List<ChangeSet> pending = executorService.filterPendingChangeSets(allChangeSets);
-
-        // Find last execution time
-        LocalDateTime lastExecuted = executed.stream()
-                .map(DatabaseChangeLog::getDateExecuted)
-                .max(LocalDateTime::compareTo)
-                .orElse(null);
+        List<ChangeSet> pending = executorService.filterPendingChangeSets(allChangeSets, summary);
 
         // Build pending changeset identifiers
         List<String> pendingIds = pending.stream()
@@ -83,10 +202,11 @@ public class MigrationService {
 
         MigrationStatus status = new MigrationStatus();
         status.setTotalChangesets(allChangeSets.size());
-        status.setExecutedCount(executed.size());
+        status.setExecutedCount(summary.getExecutedCount());
         status.setPendingCount(pending.size());
         status.setPendingChangesets(pendingIds);
-        status.setLastExecutionTime(lastExecuted);
+        status.setLastExecutionTime(summary.getLastExecuted());
+        status.setLastOrderExecuted(summary.getMaxOrderExecuted());
         status.setLocked(isLocked);
 
         return status;
@@ -0,0 +1,195 @@
+package com.datadrift.service;
+
+import com.datadrift.exception.ChangeSetExecutionException;
+import com.datadrift.executor.maintenance.TableMaintenance;
+import com.datadrift.executor.maintenance.TouchedTables;
+import com.datadrift.metrics.progress.MigrationProgress;
+import com.datadrift.model.changelog.ChangeSet;
+import com.datadrift.plan.CatalogSnapshot;
+import com.datadrift.plan.ChangeSetDependencyGraph;
+import com.datadrift.plan.PreflightCheck;
+import com.datadrift.repository.ChangelogRepository;
+import com.datadrift.util.CatalogSnapshotContext;
+import com.datadrift.util.ShardContext;
+import com.datadrift.util.TouchedTablesContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes pending changesets concurrently along their dependency graph.
+ *
+ * Each changeset runs in its own transaction on its own pooled connection, together with its
+ * DATABASECHANGELOG row. Changesets that share a table run in changelog order; raw SQL, data
+ * changes, drops and other changes reaching tables only the catalog knows act as barriers (see
+ * TableReferenceResolver and ChangeSetDependencyGraph).
+ *
+ * orderExecuted is assigned up front in changelog order, so the tracking table reads the same
+ * as after a sequential run regardless of completion order.
+ *
+ * Unlike the sequential path, a failure does not roll back changesets that already committed.
+ * No new changesets are started after the first failure; running ones are allowed to finish.
+ * The datasource pool must allow at least parallelism + 1 connections (workers plus the lock).
+ */
+@Slf4j
+@Service
+public class ParallelExecutionService {
+
+    private final ChangelogExecutorService executorService;
+    private final ChangelogRepository changelogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MigrationProgress progress;
+    private final PreflightCheck preflight;
+    private final TableMaintenance tableMaintenance;
+    private final int parallelism;
+
+    public ParallelExecutionService(
+            ChangelogExecutorService executorService,
+            ChangelogRepository changelogRepository,
+            PlatformTransactionManager transactionManager,
+            MigrationProgress progress,
+            PreflightCheck preflight,
+            TableMaintenance tableMaintenance,
+            @Value("${datadrift.execution.parallelism:1}") int parallelism) {
+        this.executorService = executorService;
+        this.changelogRepository = changelogRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.progress = progress;
+        this.preflight = preflight;
+        this.tableMaintenance = tableMaintenance;
+        this.parallelism = parallelism;
+    }
+
+    public boolean isEnabled() {
+        return parallelism > 1;
+    }
+
+    public int executePendingChangeSets(List<ChangeSet> changeSets) {
+        List<ChangeSet> pending = executorService.filterPendingChangeSets(changeSets);
+
+        if (pending.isEmpty()) {
+            log.info("No pending changesets to execute");
+            return 0;
+        }
+
+        ChangeSetDependencyGraph graph = ChangeSetDependencyGraph.build(pending);
+        int baseOrder = changelogRepository.getMaxOrderExecuted();
+        String deploymentId = UUID.randomUUID().toString().substring(0, 10);
+
+        log.info("Found {} pending changeset(s) to execute with parallelism {}", pending.size(), parallelism);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "datadrift-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        CatalogSnapshot snapshot = preflight.run(pending);
+        CatalogSnapshotContext.set(snapshot);
+        TouchedTables touched = new TouchedTables();
+        try {
+            progress.runStarted(pending);
+            run(graph, baseOrder, deploymentId, snapshot, touched, new ExecutorCompletionService<>(pool));
+            progress.runFinished(true);
+        } catch (RuntimeException e) {
+            progress.runFinished(false);
+            throw e;
+        } finally {
+            CatalogSnapshotContext.clear();
+            pool.shutdownNow();
+        }
+        tableMaintenance.afterRun(touched, snapshot);
+
+        log.info("Successfully executed {} changeset(s)", pending.size());
+        return pending.size();
+    }
+
+    /**
+     * Kahn's algorithm driven by task completions. Ready nodes are started in changelog order.
+     */
+    private void run(ChangeSetDependencyGraph graph, int baseOrder, String deploymentId, CatalogSnapshot snapshot,
+                     TouchedTables touched, CompletionService<Integer> completions) {
+        int[] remaining = new int[graph.size()];
+        PriorityQueue<Integer> ready = new PriorityQueue<>();
+        for (int node = 0; node < graph.size(); node++) {
+            remaining[node] = graph.dependenciesOf(node).size();
+            if (remaining[node] == 0) {
+                ready.add(node);
+            }
+        }
+
+        String shard = ShardContext.currentShard();
+        int running = 0;
+        RuntimeException failure = null;
+
+        while (running > 0 || (failure == null && !ready.isEmpty())) {
+            while (failure == null && running < parallelism && !ready.isEmpty()) {
+                int node = ready.poll();
+                ChangeSet changeSet = graph.changeSet(node);
+                int orderExecuted = baseOrder + node + 1;
+                completions.submit(() -> {
+                    // Workers must reach the same shard database as the coordinating thread
+                    ShardContext.setCurrentShard(shard);
+                    CatalogSnapshotContext.set(snapshot);
+                    TouchedTablesContext.set(touched);
+                    try {
+                        transactionTemplate.executeWithoutResult(status ->
+                                executorService.executeChangeSet(changeSet, orderExecuted, deploymentId));
+                    } finally {
+                        TouchedTablesContext.clear();
+                        CatalogSnapshotContext.clear();
+                        ShardContext.clear();
+                    }
+                    return node;
+                });
+                running++;
+            }
+
+            int finished;
+            try {
+                Future<Integer> done = completions.take();
+                running--;
+                finished = done.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ChangeSetExecutionException("Parallel execution interrupted", e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = asRuntimeException(e.getCause());
+                }
+                continue;
+            }
+
+            for (int dependent : graph.dependentsOf(finished)) {
+                if (--remaining[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static RuntimeException asRuntimeException(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new ChangeSetExecutionException("Changeset execution failed: " + cause.getMessage(), cause);
+    }
+}
@@ -2,10 +2,12 @@ package com.datadrift.service;
 
 import com.datadrift.exception.RollbackException;
 import com.datadrift.executor.change.ChangeExecutor;
+import com.datadrift.metrics.MigrationMetrics;
 import com.datadrift.model.change.Change;
 import com.datadrift.model.changelog.ChangeSet;
 import com.datadrift.model.changelog.DatabaseChangeLog;
 import com.datadrift.repository.ChangelogRepository;
+import com.datadrift.repository.ChangelogStateRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -23,8 +25,10 @@ import java.util.Map;
 public class RollbackService {
 
     private final ChangelogRepository changelogRepository;
+    private final ChangelogStateRepository stateRepository;
     private final ChangelogParserService parserService;
     private final Map<String, ChangeExecutor> executors;
+    private final MigrationMetrics metrics;
 
     /**
      * Rollback the last N changesets.
@@ -120,6 +124,10 @@ public class RollbackService {
 
     @Transactional
     public void rollbackChangeSet(ChangeSet changeSet) {
+        metrics.timePhase("rollback", () -> rollbackChanges(changeSet));
+    }
+
+    private void rollbackChanges(ChangeSet changeSet) {
         log.info("Rolling back changeset {}::{}", changeSet.getId(), changeSet.getAuthor());
 
         List<Change> rollbackChanges = changeSet.getRollbackChanges();
@@ -138,6 +146,9 @@ public class RollbackService {
         // Remove the record from DATABASECHANGELOG
         int deleted = changelogRepository.delete(changeSet.getId(), changeSet.getAuthor());
 
+        // The applied set no longer matches the changelog
+        stateRepository.clearFingerprint();
+
         if (deleted > 0) {
             log.info("Successfully rolled back changeset {}::{}", changeSet.getId(), changeSet.getAuthor());
         } else {
@@ -156,7 +167,8 @@ public class RollbackService {
         }
 
         log.debug("Executing rollback {} change", changeType);
-        executor.execute(change);
+        metrics.time(MigrationMetrics.CHANGE, Map.of("type", changeType, "operation", "rollback"),
+                () -> executor.execute(change));
     }
 
     /**
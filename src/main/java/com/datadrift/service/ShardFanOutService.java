@@ -0,0 +1,190 @@
+package com.datadrift.service;
+
+import com.datadrift.config.ShardRoutingDataSource;
+import com.datadrift.model.MigrationStatus;
+import com.datadrift.model.ShardReport;
+import com.datadrift.model.ShardReport.ShardResult;
+import com.datadrift.model.ShardReport.Status;
+import com.datadrift.model.changelog.ChangeSet;
+import com.datadrift.util.ShardContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.ToIntFunction;
+
+/**
+ * Runs migrate, status and validate against every configured shard datasource.
+ *
+ * The changelog is parsed and structurally validated once and shared by all shards. Each shard
+ * is handled on its own virtual thread with ShardContext set, so every connection it takes
+ * comes from that shard's pool; a semaphore bounds how many shards run at once.
+ *
+ * migrate runs in waves and stops before the next wave if any shard failed:
+ *   wave 1: one canary shard
+ *   wave 2: canary-percent of all shards (at least one)
+ *   wave 3: the rest
+ * status and validate are read-only and run on all shards in a single wave.
+ */
+@Slf4j
+@Service
+public class ShardFanOutService {
+
+    private final ChangelogParserService parserService;
+    private final ValidationService validationService;
+    private final MigrationService migrationService;
+    private final ShardRoutingDataSource routingDataSource;
+    private final int defaultParallelism;
+    private final int canaryPercent;
+
+    public ShardFanOutService(
+            ChangelogParserService parserService,
+            ValidationService validationService,
+            MigrationService migrationService,
+            ShardRoutingDataSource routingDataSource,
+            @Value("${datadrift.fan-out.parallelism:8}") int defaultParallelism,
+            @Value("${datadrift.fan-out.canary-percent:10}") int canaryPercent) {
+        this.parserService = parserService;
+        this.validationService = validationService;
+        this.migrationService = migrationService;
+        this.routingDataSource = routingDataSource;
+        this.defaultParallelism = defaultParallelism;
+        this.canaryPercent = canaryPercent;
+    }
+
+    public List<String> shardNames() {
+        return routingDataSource.getShardNames();
+    }
+
+    public ShardReport migrate(Integer parallelism) {
+        List<ChangeSet> changeSets = parseAndValidate();
+        return run("migrate", planWaves(shardNames(), canaryPercent), parallelism,
+                shard -> migrationService.migrate(changeSets));
+    }
+
+    public ShardReport status(Integer parallelism) {
+        List<ChangeSet> changeSets = parserService.parseAllChangelogs();
+        return run("status", List.of(shardNames()), parallelism, shard -> {
+            MigrationStatus status = migrationService.getStatus(changeSets);
+            return status.getPendingCount();
+        });
+    }
+
+    public ShardReport validate(Integer parallelism) {
+        List<ChangeSet> changeSets = parseAndValidate();
+        return run("validate", List.of(shardNames()), parallelism, shard -> {
+            validationService.validateChecksums(changeSets);
+            return changeSets.size();
+        });
+    }
+
+    private List<ChangeSet> parseAndValidate() {
+        List<ChangeSet> changeSets = parserService.parseAllChangelogs();
+        log.info("Parsed {} changeset(s) from changelog files", changeSets.size());
+        validationService.validate(changeSets);
+        return changeSets;
+    }
+
+    private ShardReport run(String operation, List<List<String>> waves, Integer parallelism,
+                            ToIntFunction<String> task) {
+        long startNanos = System.nanoTime();
+        int permits = Math.max(1, parallelism != null ? parallelism : defaultParallelism);
+
+        ShardReport report = new ShardReport();
+        report.setOperation(operation);
+        List<ShardResult> results = new ArrayList<>();
+
+        for (int i = 0; i < waves.size(); i++) {
+            int wave = i + 1;
+            if (report.isAborted()) {
+                for (String shard : waves.get(i)) {
+                    results.add(result(shard, wave, Status.SKIPPED, 0, 0, "Earlier wave failed"));
+                }
+                continue;
+            }
+
+            log.info("{} wave {}: {} shard(s)", operation, wave, waves.get(i).size());
+            List<ShardResult> waveResults = runWave(waves.get(i), wave, permits, task);
+            results.addAll(waveResults);
+
+            if (waveResults.stream().anyMatch(result -> result.getStatus() == Status.FAILED)) {
+                report.setAborted(i < waves.size() - 1);
+            }
+        }
+
+        report.setShards(results);
+        report.setDurationMs((System.nanoTime() - startNanos) / 1_000_000);
+        return report;
+    }
+
+    private List<ShardResult> runWave(List<String> shards, int wave, int permits, ToIntFunction<String> task) {
+        Queue<ShardResult> results = new ConcurrentLinkedQueue<>();
+        Semaphore semaphore = new Semaphore(permits);
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String shard : shards) {
+                semaphore.acquireUninterruptibly();
+                workers.submit(() -> {
+                    long startNanos = System.nanoTime();
+                    ShardContext.setCurrentShard(shard);
+                    try {
+                        int count = task.applyAsInt(shard);
+                        results.add(result(shard, wave, Status.SUCCESS, elapsedMillis(startNanos), count, null));
+                    } catch (Exception e) {
+                        log.error("Shard {} failed: {}", shard, e.getMessage());
+                        results.add(result(shard, wave, Status.FAILED, elapsedMillis(startNanos), 0, e.getMessage()));
+                    } finally {
+                        ShardContext.clear();
+                        semaphore.release();
+                    }
+                });
+            }
+        }
+
+        return results.stream()
+                .sorted(Comparator.comparingInt(result -> shards.indexOf(result.getShard())))
+                .toList();
+    }
+
+    static List<List<String>> planWaves(List<String> shards, int canaryPercent) {
+        List<List<String>> waves = new ArrayList<>();
+        if (shards.isEmpty()) {
+            return waves;
+        }
+
+        waves.add(List.of(shards.get(0)));
+
+        int remaining = shards.size() - 1;
+        int second = Math.min(remaining, Math.max(1, (int) Math.ceil(shards.size() * canaryPercent / 100.0)));
+        if (second > 0) {
+            waves.add(shards.subList(1, 1 + second));
+        }
+        if (1 + second < shards.size()) {
+            waves.add(shards.subList(1 + second, shards.size()));
+        }
+        return waves;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static ShardResult result(String shard, int wave, Status status, long durationMs, int count, String error) {
+        ShardResult result = new ShardResult();
+        result.setShard(shard);
+        result.setWave(wave);
+        result.setStatus(status);
+        result.setDurationMs(durationMs);
+        result.setChangeSetCount(count);
+        result.setError(error);
+        return result;
+    }
+}
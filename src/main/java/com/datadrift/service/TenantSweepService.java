@@ -0,0 +1,287 @@
+package com.datadrift.service;
+
+import com.datadrift.model.TenantSweepResult;
+import com.datadrift.model.TenantSweepResult.Status;
+import com.datadrift.model.TenantSweepResult.TenantResult;
+import com.datadrift.model.changelog.ChangeSet;
+import com.datadrift.repository.SchemaRepository;
+import com.datadrift.util.SqlEscapeUtil;
+import com.datadrift.util.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Applies one changelog to many tenant schemas.
+ *
+ * The changelog is parsed and structurally validated once. Each schema is then migrated by a
+ * virtual-thread worker, bounded by a semaphore, in its own transaction on its own connection:
+ * - search_path is set transaction-locally to the tenant schema, so the tracking, state and
+ *   lock tables are the tenant's own
+ * - the tenant's migration lock is held for that transaction only
+ * - changesets run sequentially; a failure rolls back that tenant only
+ *
+ * Once more tenants have failed than the failure budget allows, no new tenants are started.
+ * With a progress file, every finished tenant is appended as a line and tenants recorded as
+ * successful are skipped on the next run, so an interrupted sweep can be resumed.
+ *
+ * Progress file line format:
+ *   schema<TAB>status<TAB>executedCount<TAB>durationMs
+ */
+@Slf4j
+@Service
+public class TenantSweepService {
+
+    private final ChangelogParserService parserService;
+    private final ValidationService validationService;
+    private final MigrationService migrationService;
+    private final LockService lockService;
+    private final SchemaRepository schemaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int defaultConcurrency;
+    private final int defaultMaxFailures;
+
+    private final ReentrantLock progressLock = new ReentrantLock();
+
+    public TenantSweepService(
+            ChangelogParserService parserService,
+            ValidationService validationService,
+            MigrationService migrationService,
+            LockService lockService,
+            SchemaRepository schemaRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${datadrift.tenants.concurrency:4}") int defaultConcurrency,
+            @Value("${datadrift.tenants.max-failures:0}") int defaultMaxFailures) {
+        this.parserService = parserService;
+        this.validationService = validationService;
+        this.migrationService = migrationService;
+        this.lockService = lockService;
+        this.schemaRepository = schemaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultConcurrency = defaultConcurrency;
+        this.defaultMaxFailures = defaultMaxFailures;
+    }
+
+    /**
+     * Sweep settings. Null values fall back to the datadrift.tenants.* configuration.
+     *
+     * @param concurrency  maximum number of tenants migrated at once
+     * @param maxFailures  number of failed tenants tolerated before the sweep stops starting new ones
+     * @param progressFile file recording finished tenants for resume, or null
+     */
+    public record Options(Integer concurrency, Integer maxFailures, Path progressFile) {
+    }
+
+    /**
+     * Resolve tenant schemas from a name pattern and/or a list file.
+     * The pattern accepts '*' and '?' wildcards. The list file holds one schema per line;
+     * blank lines and lines starting with '#' are ignored.
+     */
+    public List<String> resolveSchemas(String pattern, Path listFile) {
+        Set<String> schemas = new LinkedHashSet<>();
+
+        if (pattern != null && !pattern.isBlank()) {
+            schemas.addAll(schemaRepository.findSchemasLike(toLikePattern(pattern)));
+        }
+
+        if (listFile != null) {
+            try {
+                for (String line : Files.readAllLines(listFile, StandardCharsets.UTF_8)) {
+                    String schema = line.trim();
+                    if (!schema.isEmpty() && !schema.startsWith("#")) {
+                        schemas.add(schema);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read schema list " + listFile, e);
+            }
+        }
+
+        return List.copyOf(schemas);
+    }
+
+    public TenantSweepResult sweep(List<String> schemas, Options options) {
+        long startNanos = System.nanoTime();
+        int concurrency = Math.max(1, options.concurrency() != null ? options.concurrency() : defaultConcurrency);
+        int maxFailures = Math.max(0, options.maxFailures() != null ? options.maxFailures() : defaultMaxFailures);
+
+        // Parse and validate once for all tenants
+        List<ChangeSet> changeSets = parserService.parseAllChangelogs();
+        log.info("Parsed {} changeset(s) from changelog files", changeSets.size());
+        validationService.validate(changeSets);
+
+        Map<String, TenantResult> resumed = readProgress(options.progressFile());
+        Queue<TenantResult> results = new ConcurrentLinkedQueue<>(resumed.values());
+        AtomicInteger failures = new AtomicInteger();
+        Semaphore permits = new Semaphore(concurrency);
+        boolean budgetExhausted = false;
+
+        log.info("Sweeping {} schema(s) with concurrency {} and failure budget {} ({} already done)",
+                schemas.size(), concurrency, maxFailures, resumed.size());
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String schema : schemas) {
+                if (resumed.containsKey(schema)) {
+                    continue;
+                }
+                if (!budgetExhausted) {
+                    permits.acquireUninterruptibly();
+                    // Re-check after waiting: tenants that were running may have failed meanwhile
+                    if (failures.get() > maxFailures) {
+                        budgetExhausted = true;
+                        permits.release();
+                    }
+                }
+                if (budgetExhausted) {
+                    results.add(result(schema, Status.SKIPPED, 0, 0, "Failure budget exhausted"));
+                    continue;
+                }
+
+                workers.submit(() -> {
+                    try {
+                        TenantResult result = migrateTenant(schema, changeSets);
+                        if (result.getStatus() == Status.FAILED) {
+                            failures.incrementAndGet();
+                        }
+                        results.add(result);
+                        appendProgress(options.progressFile(), result);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        TenantSweepResult sweepResult = new TenantSweepResult();
+        Map<String, Integer> order = new HashMap<>();
+        for (int i = 0; i < schemas.size(); i++) {
+            order.putIfAbsent(schemas.get(i), i);
+        }
+        sweepResult.setTenants(results.stream()
+                .filter(result -> order.containsKey(result.getSchema()))
+                .sorted(Comparator.comparing(result -> order.get(result.getSchema())))
+                .toList());
+        sweepResult.setFailureBudgetExhausted(budgetExhausted || failures.get() > maxFailures);
+        sweepResult.setDurationMs((System.nanoTime() - startNanos) / 1_000_000);
+
+        log.info("Tenant sweep finished: {} succeeded, {} failed, {} skipped, {} resumed",
+                sweepResult.count(Status.SUCCESS), sweepResult.count(Status.FAILED),
+                sweepResult.count(Status.SKIPPED), sweepResult.count(Status.RESUMED));
+        return sweepResult;
+    }
+
+    private TenantResult migrateTenant(String schema, List<ChangeSet> changeSets) {
+        long startNanos = System.nanoTime();
+        TenantContext.setCurrentSchema(schema);
+        try {
+            Integer executed = transactionTemplate.execute(status -> {
+                jdbcTemplate.queryForObject("SELECT set_config('search_path', ?, true)", String.class,
+                        SqlEscapeUtil.escapeIdentifier(schema));
+                lockService.acquireTransactionLock();
+                return migrationService.migrateParsed(changeSets);
+            });
+
+            long durationMs = (System.nanoTime() - startNanos) / 1_000_000;
+            log.info("Schema {} migrated: {} changeset(s) in {} ms", schema, executed, durationMs);
+            return result(schema, Status.SUCCESS, executed != null ? executed : 0, durationMs, null);
+
+        } catch (Exception e) {
+            long durationMs = (System.nanoTime() - startNanos) / 1_000_000;
+            log.error("Schema {} failed: {}", schema, e.getMessage());
+            return result(schema, Status.FAILED, 0, durationMs, e.getMessage());
+
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private Map<String, TenantResult> readProgress(Path progressFile) {
+        Map<String, TenantResult> done = new HashMap<>();
+        if (progressFile == null || !Files.exists(progressFile)) {
+            return done;
+        }
+
+        try {
+            for (String line : Files.readAllLines(progressFile, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t");
+                if (fields.length >= 3 && Status.SUCCESS.name().equals(fields[1])) {
+                    done.put(fields[0], result(fields[0], Status.RESUMED, 0, 0, null));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read progress file " + progressFile, e);
+        }
+        return done;
+    }
+
+    private void appendProgress(Path progressFile, TenantResult result) {
+        if (progressFile == null) {
+            return;
+        }
+
+        String line = String.join("\t",
+                result.getSchema(),
+                result.getStatus().name(),
+                String.valueOf(result.getExecutedCount()),
+                String.valueOf(result.getDurationMs())) + System.lineSeparator();
+
+        progressLock.lock();
+        try {
+            Files.writeString(progressFile, line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.warn("Failed to record progress for schema {}: {}", result.getSchema(), e.getMessage());
+        } finally {
+            progressLock.unlock();
+        }
+    }
+
+    private static TenantResult result(String schema, Status status, int executed, long durationMs, String error) {
+        TenantResult result = new TenantResult();
+        result.setSchema(schema);
+        result.setStatus(status);
+        result.setExecutedCount(executed);
+        result.setDurationMs(durationMs);
+        result.setError(error);
+        return result;
+    }
+
+    static String toLikePattern(String glob) {
+        StringBuilder like = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            switch (c) {
+                case '*' -> like.append('%');
+                case '?' -> like.append('_');
+                case '%', '_', '\\' -> like.append('\\').append(c);
+                default -> like.append(c);
+            }
+        }
+        return like.toString();
+    }
+}
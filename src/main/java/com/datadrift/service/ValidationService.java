@@ -2,9 +2,17 @@ package com.datadrift.service;
 
 import com.datadrift.exception.ChecksumMismatchException;
 import com.datadrift.exception.ValidationException;
+import com.datadrift.executor.session.SessionProfiles;
+import com.datadrift.executor.session.SessionTimeouts;
+import com.datadrift.metrics.MigrationMetrics;
+import com.datadrift.model.CostReport;
+import com.datadrift.model.LockReport;
 import com.datadrift.model.change.Change;
 import com.datadrift.model.changelog.ChangeSet;
 import com.datadrift.model.changelog.DatabaseChangeLog;
+import com.datadrift.plan.LockImpact;
+import com.datadrift.plan.LockImpactAnalyzer;
+import com.datadrift.plan.StatementCostEstimator;
 import com.datadrift.repository.ChangelogRepository;
 import com.datadrift.util.ChecksumUtil;
 import lombok.RequiredArgsConstructor;
@@ -25,8 +33,65 @@ import java.util.Set;
 public class ValidationService {
 
     private final ChangelogRepository changelogRepository;
+    private final SessionProfiles sessionProfiles;
+    private final MigrationMetrics metrics;
+    private final LockImpactAnalyzer lockImpactAnalyzer;
+    private final StatementCostEstimator costEstimator;
+
+    /**
+     * Classify every change by the table lock it takes, without a database connection.
+     */
+    public LockReport lockReport(List<ChangeSet> changeSets) {
+        LockReport report = new LockReport();
+        for (ChangeSet changeSet : changeSets) {
+            List<Change> changes = changeSet.getChanges() != null ? changeSet.getChanges() : List.of();
+            for (int i = 0; i < changes.size(); i++) {
+                for (LockImpact impact : lockImpactAnalyzer.analyze(changes.get(i))) {
+                    LockReport.Entry entry = new LockReport.Entry();
+                    entry.setChangeSet(changeSet.getId() + "::" + changeSet.getAuthor());
+                    entry.setChangeIndex(i + 1);
+                    entry.setImpact(impact);
+                    report.getEntries().add(entry);
+                }
+            }
+        }
+        return report;
+    }
+
+    /**
+     * EXPLAIN every pending update, delete and INSERT ... SELECT change.
+     */
+    public CostReport costReport(List<ChangeSet> pending) {
+        CostReport report = new CostReport();
+        report.setEstimates(costEstimator.explain(pending));
+        report.setViolations(costEstimator.violations(report.getEstimates()));
+        return report;
+    }
+
+    public boolean hasCostLimits() {
+        return costEstimator.isEnforced();
+    }
+
+    /**
+     * Fail when a pending change exceeds the datadrift.explain.* limits; does nothing unless a
+     * limit is configured.
+     */
+    public void validateCosts(List<ChangeSet> pending) {
+        if (!costEstimator.isEnforced()) {
+            return;
+        }
+        CostReport report = costReport(pending);
+        if (!report.getViolations().isEmpty()) {
+            throw new ValidationException("Pending changes exceed the EXPLAIN limits:\n  - " +
+                    String.join("\n  - ", report.getViolations()));
+        }
+    }
 
     public void validate(List<ChangeSet> changeSets) {
+        metrics.timePhase("validate", () -> validateChangeSets(changeSets));
+    }
+
+    private void validateChangeSets(List<ChangeSet> changeSets) {
         List<String> errors = new ArrayList<>();
         Set<String> seenIds = new HashSet<>();
 
@@ -47,6 +112,19 @@ public class ValidationService {
                 errors.add(location + " (" + changeSet.getId() + "): No changes defined");
             }
 
+            if (!SessionTimeouts.isValid(changeSet.getLockTimeout())) {
+                errors.add(location + " (" + changeSet.getId() + "): Invalid lockTimeout '" +
+                        changeSet.getLockTimeout() + "'");
+            }
+            if (!SessionTimeouts.isValid(changeSet.getStatementTimeout())) {
+                errors.add(location + " (" + changeSet.getId() + "): Invalid statementTimeout '" +
+                        changeSet.getStatementTimeout() + "'");
+            }
+            if (changeSet.getSessionProfile() != null && !sessionProfiles.exists(changeSet.getSessionProfile())) {
+                errors.add(location + " (" + changeSet.getId() + "): Unknown sessionProfile '" +
+                        changeSet.getSessionProfile() + "'");
+            }
+
             // Check for duplicates (id + author combination must be unique)
             if (changeSet.getId() != null && changeSet.getAuthor() != null) {
                 String uniqueKey = changeSet.getId() + "::" + changeSet.getAuthor();
@@ -63,6 +141,7 @@ public class ValidationService {
                     Change change = changeSet.getChanges().get(j);
                     try {
                         change.validate();
+                        validateTimeouts(change);
                     } catch (Exception e) {
                         errors.add(location + " (" + changeSet.getId() + "), Change #" + (j + 1) +
                                 " (" + change.getChangeType() + "): " + e.getMessage());
@@ -94,7 +173,20 @@ public class ValidationService {
         log.info("Validated {} changesets successfully", changeSets.size());
     }
 
+    private void validateTimeouts(Change change) {
+        if (!SessionTimeouts.isValid(change.getLockTimeout())) {
+            throw new IllegalArgumentException("Invalid lockTimeout '" + change.getLockTimeout() + "'");
+        }
+        if (!SessionTimeouts.isValid(change.getStatementTimeout())) {
+            throw new IllegalArgumentException("Invalid statementTimeout '" + change.getStatementTimeout() + "'");
+        }
+    }
+
     public void validateChecksums(List<ChangeSet> changeSets) {
+        metrics.timePhase("checksums", () -> compareChecksums(changeSets));
+    }
+
+    private void compareChecksums(List<ChangeSet> changeSets) {
         List<String> mismatches = new ArrayList<>();
 
         for (ChangeSet changeSet : changeSets) {
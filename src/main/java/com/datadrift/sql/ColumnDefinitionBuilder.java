@@ -16,6 +16,14 @@ public class ColumnDefinitionBuilder {
     }
 
     public String build(ColumnConfig column) {
+        return build(column, true);
+    }
+
+    /**
+     * @param includeCheck false to leave out the column's CHECK constraint, for callers that add
+     *                     it separately (e.g. NOT VALID with deferred validation)
+     */
+    public String build(ColumnConfig column, boolean includeCheck) {
         if (column.getName() == null || column.getName().isBlank()) {
             throw new IllegalArgumentException("Column name is required");
         }
@@ -68,7 +76,7 @@ public class ColumnDefinitionBuilder {
             }
 
             // Check constraint
-            if (constraints.checkConstraint() != null && !constraints.checkConstraint().isBlank()) {
+            if (includeCheck && constraints.checkConstraint() != null && !constraints.checkConstraint().isBlank()) {
                 SqlEscapeUtil.validateExpression(constraints.checkConstraint());
                 parts.add("CHECK (" + constraints.checkConstraint() + ")");
             }
@@ -107,6 +107,17 @@ public class ConstraintBuilder {
         return sb.toString();
     }
 
+    /**
+     * ADD CONSTRAINT action for a check constraint that is not checked against existing rows.
+     * The rows are checked later with VALIDATE CONSTRAINT, which does not block writes.
+     */
+    public String buildNotValidCheck(CreateTableChange.TableCheckConstraint checkConstraint) {
+        if (checkConstraint.getConstraintName() == null || checkConstraint.getConstraintName().isBlank()) {
+            throw new IllegalArgumentException("A NOT VALID check constraint must be named so it can be validated");
+        }
+        return "ADD " + buildCheck(checkConstraint) + " NOT VALID";
+    }
+
     private void validateReferencesClause(String references) {
         if (references == null || references.isBlank()) {
             throw new IllegalArgumentException("References clause cannot be empty");
@@ -0,0 +1,33 @@
+package com.datadrift.util;
+
+import com.datadrift.plan.CatalogSnapshot;
+
+/**
+ * Holds the preflight catalog snapshot of the run the current thread belongs to.
+ *
+ * Set by the executing services for the duration of a run (and on parallel workers), so
+ * executors and estimators can look up table sizes without querying the catalog again.
+ */
+public final class CatalogSnapshotContext {
+
+    private static final ThreadLocal<CatalogSnapshot> CURRENT_SNAPSHOT = new ThreadLocal<>();
+
+    private CatalogSnapshotContext() {
+    }
+
+    /**
+     * @return the current snapshot; empty outside a run
+     */
+    public static CatalogSnapshot current() {
+        CatalogSnapshot snapshot = CURRENT_SNAPSHOT.get();
+        return snapshot != null ? snapshot : CatalogSnapshot.EMPTY;
+    }
+
+    public static void set(CatalogSnapshot snapshot) {
+        CURRENT_SNAPSHOT.set(snapshot);
+    }
+
+    public static void clear() {
+        CURRENT_SNAPSHOT.remove();
+    }
+}
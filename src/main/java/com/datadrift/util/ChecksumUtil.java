@@ -1,11 +1,13 @@
 package com.datadrift.util;
 
+import com.datadrift.metrics.jfr.ChangeSetChecksummedEvent;
 import com.datadrift.model.change.Change;
 import com.datadrift.model.changelog.ChangeSet;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.List;
 
 /**
  * Utility class for calculating MD5 checksums of changesets.
@@ -27,9 +29,38 @@ public class ChecksumUtil {
             return null;
         }
 
+        ChangeSetChecksummedEvent event = new ChangeSetChecksummedEvent();
+        event.begin();
+
         String normalized = normalizeChangeSet(changeSet);
         byte[] hash = computeMd5(normalized);
-        return "8:" + bytesToHex(hash);
+        String checksum = "8:" + bytesToHex(hash);
+
+        event.changeSet = changeSet.getId() + "::" + changeSet.getAuthor();
+        event.changes = changeSet.getChanges() != null ? changeSet.getChanges().size() : 0;
+        event.commit();
+        return checksum;
+    }
+
+    /**
+     * Calculate a fingerprint over an ordered list of changesets.
+     * Rolling SHA-256 over (id, author, checksum) of each changeset, in order, so any
+     * added, removed, reordered or modified changeset yields a different fingerprint.
+     *
+     * @param changeSets The changesets in changelog order
+     * @return SHA-256 hash as a hex string
+     */
+    public static String calculateFingerprint(List<ChangeSet> changeSets) {
+        MessageDigest digest = newDigest("SHA-256");
+
+        for (ChangeSet changeSet : changeSets) {
+            String entry = nullSafe(changeSet.getId()) + "\0"
+                    + nullSafe(changeSet.getAuthor()) + "\0"
+                    + calculateChecksum(changeSet) + "\n";
+            digest.update(entry.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return bytesToHex(digest.digest());
     }
 
     /**
@@ -80,11 +111,14 @@ public class ChecksumUtil {
     }
 
     private static byte[] computeMd5(String input) {
+        return newDigest("MD5").digest(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
         try {
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            return md.digest(input.getBytes(StandardCharsets.UTF_8));
+            return MessageDigest.getInstance(algorithm);
         } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("MD5 algorithm not available", e);
+            throw new RuntimeException(algorithm + " algorithm not available", e);
         }
     }
 
@@ -0,0 +1,42 @@
+package com.datadrift.util;
+
+/**
+ * Collects the rows affected by the change the current thread is executing.
+ *
+ * Executors of data changes (insert, update, delete, backfillColumn) report their row counts
+ * here; ChangelogExecutorService opens a scope around each change and stores the total with
+ * the change's execution record. Changes that report nothing, such as DDL or raw sql, have
+ * no row count.
+ */
+public final class RowCountContext {
+
+    private static final ThreadLocal<long[]> CURRENT_ROWS = new ThreadLocal<>();
+
+    private RowCountContext() {
+    }
+
+    public static void begin() {
+        CURRENT_ROWS.set(new long[]{-1});
+    }
+
+    /**
+     * Add to the current change's row count; ignored outside a scope.
+     */
+    public static void add(long rows) {
+        long[] current = CURRENT_ROWS.get();
+        if (current != null) {
+            current[0] = Math.max(current[0], 0) + rows;
+        }
+    }
+
+    /**
+     * Close the scope.
+     *
+     * @return rows reported since begin(), or null when no executor reported any
+     */
+    public static Long end() {
+        long[] current = CURRENT_ROWS.get();
+        CURRENT_ROWS.remove();
+        return current != null && current[0] >= 0 ? current[0] : null;
+    }
+}
@@ -0,0 +1,34 @@
+package com.datadrift.util;
+
+import java.util.Map;
+
+/**
+ * Holds the session profile settings of the change the current thread is running, if any.
+ *
+ * ChangeSession applies the settings transaction-locally; this holder lets work that runs
+ * outside the migration transaction (deferred constraint validation, online rewrites and
+ * backfills on their own connections) apply the same settings.
+ */
+public final class SessionProfileContext {
+
+    private static final ThreadLocal<Map<String, String>> CURRENT_SETTINGS = new ThreadLocal<>();
+
+    private SessionProfileContext() {
+    }
+
+    /**
+     * @return the current settings; empty when no profile applies
+     */
+    public static Map<String, String> currentSettings() {
+        Map<String, String> settings = CURRENT_SETTINGS.get();
+        return settings != null ? settings : Map.of();
+    }
+
+    public static void setCurrentSettings(Map<String, String> settings) {
+        CURRENT_SETTINGS.set(settings);
+    }
+
+    public static void clear() {
+        CURRENT_SETTINGS.remove();
+    }
+}
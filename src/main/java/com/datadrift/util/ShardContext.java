@@ -0,0 +1,27 @@
+package com.datadrift.util;
+
+/**
+ * Holds the named shard datasource the current thread works against, if any.
+ *
+ * Read by ShardRoutingDataSource whenever a connection is obtained, so it must be set before
+ * a transaction starts on the thread. Without a shard the default spring.datasource is used.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String currentShard() {
+        return CURRENT_SHARD.get();
+    }
+
+    public static void setCurrentShard(String shard) {
+        CURRENT_SHARD.set(shard);
+    }
+
+    public static void clear() {
+        CURRENT_SHARD.remove();
+    }
+}
@@ -0,0 +1,28 @@
+package com.datadrift.util;
+
+/**
+ * Holds the tenant schema the current thread is migrating, if any.
+ *
+ * The schema itself is applied to the connection with a transaction-local search_path; this
+ * holder only tells components that open their own connections (such as the tracking schema
+ * upgrade) which schema to target, and scopes their per-schema caches.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<String> CURRENT_SCHEMA = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String currentSchema() {
+        return CURRENT_SCHEMA.get();
+    }
+
+    public static void setCurrentSchema(String schema) {
+        CURRENT_SCHEMA.set(schema);
+    }
+
+    public static void clear() {
+        CURRENT_SCHEMA.remove();
+    }
+}
@@ -0,0 +1,32 @@
+package com.datadrift.util;
+
+import com.datadrift.executor.maintenance.TouchedTables;
+
+/**
+ * Holds the row counts of the run the current thread belongs to.
+ *
+ * Set by the executing services for the duration of a run (and on parallel workers), so every
+ * executed change adds its rows; TableMaintenance analyzes the tables once the run commits.
+ */
+public final class TouchedTablesContext {
+
+    private static final ThreadLocal<TouchedTables> CURRENT_TABLES = new ThreadLocal<>();
+
+    private TouchedTablesContext() {
+    }
+
+    /**
+     * @return the current run's tables, or null outside a run
+     */
+    public static TouchedTables current() {
+        return CURRENT_TABLES.get();
+    }
+
+    public static void set(TouchedTables tables) {
+        CURRENT_TABLES.set(tables);
+    }
+
+    public static void clear() {
+        CURRENT_TABLES.remove();
+    }
+}
@@ -1,5 +1,8 @@
 -- DataDrift Tracking Tables
--- These tables are used internally by DataDrift to track migration execution
+-- These tables are used internally by DataDrift to track migration execution.
+-- Reference DDL only: the application creates and upgrades them through
+-- TrackingSchemaManager, which records the applied version in
+-- DATABASECHANGELOGSTATE.SCHEMA_VERSION (currently 4).
 
 -- Table to track all executed changesets
 CREATE TABLE IF NOT EXISTS DATABASECHANGELOG (
@@ -8,18 +11,53 @@ CREATE TABLE IF NOT EXISTS DATABASECHANGELOG (
     FILENAME VARCHAR(255) NOT NULL,
     DATEEXECUTED TIMESTAMP NOT NULL,
     ORDEREXECUTED INTEGER NOT NULL,
-    EXECTYPE VARCHAR(10) NOT NULL,
-    MD5SUM VARCHAR(35),
+    EXECTYPE VARCHAR(50) NOT NULL,
+    MD5SUM VARCHAR(50),
     DESCRIPTION VARCHAR(255),
     COMMENTS VARCHAR(255),
     TAG VARCHAR(255),
-    LIQUIBASE VARCHAR(20),
+    VERSION VARCHAR(50),
     CONTEXTS VARCHAR(255),
     LABELS VARCHAR(255),
-    DEPLOYMENT_ID VARCHAR(10),
+    DEPLOYMENT_ID VARCHAR(50),
+    EXECUTION_MS BIGINT,
+    ROWS_AFFECTED BIGINT,
     CONSTRAINT PK_DATABASECHANGELOG PRIMARY KEY (ID, AUTHOR, FILENAME)
 );
 
+-- Table holding state about the applied set as a whole
+CREATE TABLE IF NOT EXISTS DATABASECHANGELOGSTATE (
+    ID INTEGER PRIMARY KEY,
+    FINGERPRINT VARCHAR(64),
+    CHANGESET_COUNT INTEGER,
+    UPDATED TIMESTAMP,
+    SCHEMA_VERSION INTEGER
+);
+
+-- Table holding the last committed chunk of each resumable backfill or chunked statement
+CREATE TABLE IF NOT EXISTS DATABASECHANGELOGBACKFILL (
+    TABLE_NAME VARCHAR(255) NOT NULL,
+    COLUMN_NAME VARCHAR(255) NOT NULL,
+    LAST_KEY TEXT[],
+    ROWS_DONE BIGINT NOT NULL DEFAULT 0,
+    UPDATED TIMESTAMP NOT NULL,
+    CONSTRAINT PK_DATABASECHANGELOGBACKFILL PRIMARY KEY (TABLE_NAME, COLUMN_NAME)
+);
+
+-- Table holding per-change timings; one row per executed change and deployment
+CREATE TABLE IF NOT EXISTS DATABASECHANGELOGCHANGE (
+    DEPLOYMENT_ID VARCHAR(50),
+    ID VARCHAR(255) NOT NULL,
+    AUTHOR VARCHAR(255) NOT NULL,
+    FILENAME VARCHAR(255) NOT NULL,
+    CHANGE_INDEX INTEGER NOT NULL,
+    CHANGE_TYPE VARCHAR(50) NOT NULL,
+    TABLE_NAME TEXT,
+    DATEEXECUTED TIMESTAMP NOT NULL,
+    EXECUTION_MS BIGINT,
+    ROWS_AFFECTED BIGINT
+);
+
 -- Table to prevent concurrent migrations
 CREATE TABLE IF NOT EXISTS DATABASECHANGELOGLOCK (
     ID INTEGER NOT NULL,
@@ -34,9 +72,19 @@ INSERT INTO DATABASECHANGELOGLOCK (ID, LOCKED)
 VALUES (1, FALSE)
 ON CONFLICT (ID) DO NOTHING;
 
--- Create index for faster lookup of executed changesets
-CREATE INDEX IF NOT EXISTS IDX_DATABASECHANGELOG_ORDEREXECUTED
+-- Indexes for rollback-to-tag, order lookups, per-deployment queries and timing reports.
+-- Built with CONCURRENTLY on existing databases so writers are not blocked.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IDX_DATABASECHANGELOG_TAG
+ON DATABASECHANGELOG(TAG);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IDX_DATABASECHANGELOG_ORDEREXECUTED
 ON DATABASECHANGELOG(ORDEREXECUTED);
 
-CREATE INDEX IF NOT EXISTS IDX_DATABASECHANGELOG_DATEEXECUTED
-ON DATABASECHANGELOG(DATEEXECUTED);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IDX_DATABASECHANGELOG_DEPLOYMENT_ID
+ON DATABASECHANGELOG(DEPLOYMENT_ID);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IDX_DATABASECHANGELOG_EXECUTION_MS
+ON DATABASECHANGELOG(EXECUTION_MS);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IDX_DATABASECHANGELOGCHANGE_TYPE
+ON DATABASECHANGELOGCHANGE(CHANGE_TYPE);
@@ -1,5 +1,7 @@
 package com.datadrift.executor.change;
 
+import com.datadrift.executor.constraint.DeferredConstraint;
+import com.datadrift.executor.constraint.DeferredConstraintValidator;
 import com.datadrift.model.change.AddColumnChange;
 import com.datadrift.model.change.CreateTableChange.ColumnConfig;
 import com.datadrift.model.change.CreateTableChange.ConstraintsConfig;
@@ -24,6 +26,9 @@ class AddColumnExecutorTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
 
+    @Mock
+    private DeferredConstraintValidator constraintValidator;
+
     @Mock
     private SqlDialect sqlDialect;
 
@@ -41,7 +46,7 @@ class AddColumnExecutorTest {
                     return "GENERATED ALWAYS AS (" + expr + ") STORED";
                 });
 
-        executor = new AddColumnExecutor(jdbcTemplate, sqlDialect);
+        executor = new AddColumnExecutor(jdbcTemplate, sqlDialect, constraintValidator);
     }
 
     @Test
@@ -247,6 +252,61 @@ class AddColumnExecutorTest {
         assertTrue(sql.contains("NOT NULL"));
     }
 
+    @Test
+    void testGenerateSql_DeferredCheck_AddedNotValidSeparately() {
+        AddColumnChange change = createSimpleAddColumnChange();
+        change.getColumns().get(0).setConstraints(
+                new ConstraintsConfig(null, null, null, null, null, "role <> ''", null, null));
+        when(constraintValidator.isDeferred(null)).thenReturn(true);
+
+        List<String> actions = executor.alterTableActions(change);
+
+        assertEquals(List.of(
+                "ADD COLUMN \"role\" VARCHAR(50)",
+                "ADD CONSTRAINT \"users_role_check\" CHECK (role <> '') NOT VALID"), actions);
+        assertEquals(List.of(new DeferredConstraint("\"users\"", "users_role_check")),
+                executor.deferredConstraints(change));
+    }
+
+    @Test
+    void testDeferredConstraints_LongNames_ShortenedLikePostgres() {
+        AddColumnChange change = createSimpleAddColumnChange();
+        change.setTableName("t".repeat(40));
+        change.getColumns().get(0).setName("c".repeat(30));
+        change.getColumns().get(0).setConstraints(
+                new ConstraintsConfig(null, null, null, null, null, "length(x) > 0", null, null));
+        when(constraintValidator.isDeferred(null)).thenReturn(true);
+
+        String name = executor.deferredConstraints(change).get(0).constraintName();
+
+        assertEquals("t".repeat(28) + "_" + "c".repeat(28) + "_check", name);
+        assertEquals(63, name.length());
+    }
+
+    @Test
+    void testExecute_DeferredCheck_DefersValidation() {
+        AddColumnChange change = createSimpleAddColumnChange();
+        change.getColumns().get(0).setConstraints(
+                new ConstraintsConfig(null, null, null, null, null, "role <> ''", null, null));
+        when(constraintValidator.isDeferred(null)).thenReturn(true);
+
+        executor.execute(change);
+
+        verify(jdbcTemplate, times(2)).execute(anyString());
+        verify(constraintValidator).defer(new DeferredConstraint("\"users\"", "users_role_check"));
+    }
+
+    @Test
+    void testGenerateSql_ImmediateCheck_StaysInline() {
+        AddColumnChange change = createSimpleAddColumnChange();
+        change.getColumns().get(0).setConstraints(
+                new ConstraintsConfig(null, null, null, null, null, "role <> ''", null, null));
+
+        String sql = executor.generateSql(change);
+
+        assertEquals("ALTER TABLE \"users\" ADD COLUMN \"role\" VARCHAR(50) CHECK (role <> '')", sql);
+    }
+
     private AddColumnChange createSimpleAddColumnChange() {
         AddColumnChange change = new AddColumnChange();
         change.setTableName("users");
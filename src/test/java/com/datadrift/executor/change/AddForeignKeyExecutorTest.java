@@ -1,5 +1,7 @@
 package com.datadrift.executor.change;
 
+import com.datadrift.executor.constraint.DeferredConstraint;
+import com.datadrift.executor.constraint.DeferredConstraintValidator;
 import com.datadrift.model.change.AddForeignKeyChange;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +13,8 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.not;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -19,11 +23,14 @@ class AddForeignKeyExecutorTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
 
+    @Mock
+    private DeferredConstraintValidator constraintValidator;
+
     private AddForeignKeyExecutor executor;
 
     @BeforeEach
     void setUp() {
-        executor = new AddForeignKeyExecutor(jdbcTemplate);
+        executor = new AddForeignKeyExecutor(jdbcTemplate, constraintValidator);
     }
 
     @Test
@@ -276,6 +283,39 @@ class AddForeignKeyExecutorTest {
         }
     }
 
+    @Test
+    void testExecute_DeferredValidation_AddsNotValidAndDefersValidate() {
+        AddForeignKeyChange change = createSimpleChange();
+        change.setConstraintName("fk_orders_user");
+        change.setDeferValidation(true);
+        when(constraintValidator.isDeferred(true)).thenReturn(true);
+
+        executor.execute(change);
+
+        verify(jdbcTemplate).execute(endsWith("REFERENCES \"users\" (\"id\") NOT VALID"));
+        verify(constraintValidator).defer(new DeferredConstraint("\"orders\"", "fk_orders_user"));
+    }
+
+    @Test
+    void testGenerateSql_DeferredValidation_ShowsValidateStep() {
+        AddForeignKeyChange change = createSimpleChange();
+        change.setConstraintName("fk_orders_user");
+        when(constraintValidator.isDeferred(null)).thenReturn(true);
+
+        String sql = executor.generateSql(change);
+
+        assertTrue(sql.contains("NOT VALID;"));
+        assertTrue(sql.endsWith("ALTER TABLE \"orders\" VALIDATE CONSTRAINT \"fk_orders_user\""));
+    }
+
+    @Test
+    void testExecute_ImmediateValidation_NothingDeferred() {
+        executor.execute(createSimpleChange());
+
+        verify(jdbcTemplate).execute(not(contains("NOT VALID")));
+        verify(constraintValidator, never()).defer(any());
+    }
+
     private AddForeignKeyChange createSimpleChange() {
         AddForeignKeyChange change = new AddForeignKeyChange();
         change.setBaseTableName("orders");
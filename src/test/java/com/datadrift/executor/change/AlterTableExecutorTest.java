@@ -0,0 +1,66 @@
+package com.datadrift.executor.change;
+
+import com.datadrift.executor.constraint.DeferredConstraintValidator;
+import com.datadrift.plan.AlterTableChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlterTableExecutorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DeferredConstraintValidator constraintValidator;
+
+    private AlterTableExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new AlterTableExecutor(jdbcTemplate, constraintValidator);
+    }
+
+    @Test
+    void testGenerateSql_MultipleActions() {
+        String sql = executor.generateSql(change());
+
+        String nl = System.lineSeparator();
+        assertEquals("ALTER TABLE \"products\"" + nl +
+                "    ADD COLUMN \"category_id\" BIGINT," + nl +
+                "    ADD CONSTRAINT \"fk_products_category\" FOREIGN KEY (\"category_id\") REFERENCES \"categories\" (\"id\")", sql);
+    }
+
+    @Test
+    void testExecute_RunsSingleStatement() {
+        executor.execute(change());
+
+        verify(jdbcTemplate, times(1)).execute(startsWith("ALTER TABLE \"products\""));
+    }
+
+    @Test
+    void testValidate_NoActions_Throws() {
+        AlterTableChange change = change();
+        change.setActions(List.of());
+
+        assertThrows(IllegalArgumentException.class, change::validate);
+    }
+
+    private static AlterTableChange change() {
+        AlterTableChange change = new AlterTableChange();
+        change.setTableName("\"products\"");
+        change.setActions(List.of(
+                "ADD COLUMN \"category_id\" BIGINT",
+                "ADD CONSTRAINT \"fk_products_category\" FOREIGN KEY (\"category_id\") REFERENCES \"categories\" (\"id\")"));
+        return change;
+    }
+}
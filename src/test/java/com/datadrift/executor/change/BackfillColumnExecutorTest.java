@@ -0,0 +1,82 @@
+package com.datadrift.executor.change;
+
+import com.datadrift.exception.ChangeSetExecutionException;
+import com.datadrift.executor.online.ColumnBackfiller;
+import com.datadrift.model.change.BackfillColumnChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BackfillColumnExecutorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ColumnBackfiller columnBackfiller;
+
+    private BackfillColumnExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new BackfillColumnExecutor(jdbcTemplate, columnBackfiller);
+    }
+
+    @Test
+    void testExecute_DelegatesToBackfiller() {
+        BackfillColumnChange change = createChange();
+        when(jdbcTemplate.queryForObject(contains("pg_locks"), eq(Boolean.class), any())).thenReturn(false);
+
+        executor.execute(change);
+
+        verify(columnBackfiller).backfill(change);
+    }
+
+    @Test
+    void testExecute_TableLockedByMigration_Fails() {
+        when(jdbcTemplate.queryForObject(contains("pg_locks"), eq(Boolean.class), any())).thenReturn(true);
+
+        assertThrows(ChangeSetExecutionException.class, () -> executor.execute(createChange()));
+        verifyNoInteractions(columnBackfiller);
+    }
+
+    @Test
+    void testGenerateSql_WithNotNull() {
+        String sql = executor.generateSql(createChange());
+
+        assertTrue(sql.startsWith("ALTER TABLE \"orders\" ADD COLUMN IF NOT EXISTS \"total_cents\" BIGINT;"));
+        assertTrue(sql.contains("UPDATE \"orders\" SET \"total_cents\" = (quantity * unit_price_cents)"));
+        assertTrue(sql.contains("ADD CONSTRAINT \"chk_orders_total_cents_not_null\" CHECK (\"total_cents\" IS NOT NULL) NOT VALID"));
+        assertTrue(sql.contains("VALIDATE CONSTRAINT \"chk_orders_total_cents_not_null\""));
+        assertTrue(sql.contains("ALTER COLUMN \"total_cents\" SET NOT NULL"));
+        assertTrue(sql.endsWith("DROP CONSTRAINT \"chk_orders_total_cents_not_null\""));
+    }
+
+    @Test
+    void testGenerateSql_Nullable() {
+        BackfillColumnChange change = createChange();
+        change.setNotNull(false);
+
+        String sql = executor.generateSql(change);
+
+        assertFalse(sql.contains("NOT NULL"));
+        assertTrue(sql.contains("UPDATE \"orders\""));
+    }
+
+    private BackfillColumnChange createChange() {
+        BackfillColumnChange change = new BackfillColumnChange();
+        change.setTableName("orders");
+        change.setColumnName("total_cents");
+        change.setColumnType("BIGINT");
+        change.setValueComputed("quantity * unit_price_cents");
+        return change;
+    }
+}
@@ -1,5 +1,6 @@
 package com.datadrift.executor.change;
 
+import com.datadrift.metrics.progress.DdlProgressMonitor;
 import com.datadrift.model.change.CreateIndexChange;
 import com.datadrift.sql.dialect.SqlDialect;
 import org.junit.jupiter.api.BeforeEach;
@@ -32,7 +33,7 @@ class CreateIndexExecutorTest {
 
     @BeforeEach
     void setUp() {
-        executor = new CreateIndexExecutor(jdbcTemplate, sqlDialect);
+        executor = new CreateIndexExecutor(jdbcTemplate, sqlDialect, new DdlProgressMonitor(null, null, null, 0));
     }
 
     @Test
@@ -1,13 +1,17 @@
 package com.datadrift.executor.change;
 
+import com.datadrift.executor.online.ChunkedStatementRunner;
 import com.datadrift.model.change.DeleteChange;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.util.function.Function;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -17,11 +21,14 @@ class DeleteExecutorTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
 
+    @Mock
+    private ChunkedStatementRunner chunkedStatementRunner;
+
     private DeleteExecutor executor;
 
     @BeforeEach
     void setUp() {
-        executor = new DeleteExecutor(jdbcTemplate);
+        executor = new DeleteExecutor(jdbcTemplate, chunkedStatementRunner);
     }
 
     @Test
@@ -35,7 +42,7 @@ class DeleteExecutorTest {
         executor.execute(change);
 
         // Then
-        verify(jdbcTemplate, times(1)).execute(anyString());
+        verify(jdbcTemplate, times(1)).update(anyString());
     }
 
     @Test
@@ -199,4 +206,26 @@ class DeleteExecutorTest {
         );
         assertTrue(exception.getMessage().contains("Invalid SQL expression"));
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExecute_Chunked_RunsThroughChunkedRunner() {
+        // Given
+        DeleteChange change = new DeleteChange();
+        change.setTableName("events");
+        change.setWhere("created_at < '2020-01-01'");
+        change.setChunkSize(1000);
+        change.setMaxRowsPerSecond(5000);
+        when(jdbcTemplate.queryForObject(contains("pg_locks"), eq(Boolean.class), any())).thenReturn(false);
+        ArgumentCaptor<Function<String, String>> statement = ArgumentCaptor.forClass(Function.class);
+
+        // When
+        executor.execute(change);
+
+        // Then
+        verify(chunkedStatementRunner).run(anyString(), eq("\"events\""), statement.capture(),
+                eq("created_at < '2020-01-01'"), eq(1000), eq(5000L));
+        assertEquals("DELETE FROM \"events\" WHERE <range>", statement.getValue().apply("<range>"));
+        verify(jdbcTemplate, never()).update(anyString());
+    }
 }
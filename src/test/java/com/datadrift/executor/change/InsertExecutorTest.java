@@ -36,7 +36,7 @@ class InsertExecutorTest {
         executor.execute(change);
 
         // Then
-        verify(jdbcTemplate, times(1)).execute(anyString());
+        verify(jdbcTemplate, times(1)).update(anyString());
     }
 
     @Test
@@ -0,0 +1,162 @@
+package com.datadrift.executor.change;
+
+import com.datadrift.exception.ChangeSetExecutionException;
+import com.datadrift.executor.online.OnlineTableRewriter;
+import com.datadrift.executor.online.RewritePlan;
+import com.datadrift.model.change.CreateTableChange.ColumnConfig;
+import com.datadrift.model.change.CreateTableChange.ConstraintsConfig;
+import com.datadrift.model.change.ModifyColumnChange;
+import com.datadrift.plan.CatalogSnapshot;
+import com.datadrift.plan.TableStats;
+import com.datadrift.util.CatalogSnapshotContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ModifyColumnExecutorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private OnlineTableRewriter tableRewriter;
+
+    @Test
+    void testGenerateSql_InPlace() {
+        ModifyColumnExecutor executor = new ModifyColumnExecutor(jdbcTemplate, tableRewriter, 0);
+        ModifyColumnChange change = createChange(null);
+
+        String sql = executor.generateSql(change);
+
+        assertEquals("ALTER TABLE \"orders\" ALTER COLUMN \"amount\" TYPE NUMERIC(12,2), " +
+                "ALTER COLUMN \"amount\" SET NOT NULL", sql);
+    }
+
+    @Test
+    void testGenerateSql_Online_DescribesRewrite() {
+        ModifyColumnExecutor executor = new ModifyColumnExecutor(jdbcTemplate, tableRewriter, 0);
+
+        String sql = executor.generateSql(createChange(true));
+
+        assertTrue(sql.startsWith("-- Online rewrite of \"orders\""));
+        assertTrue(sql.contains("ALTER COLUMN \"amount\" TYPE NUMERIC(12,2)"));
+    }
+
+    @Test
+    void testExecute_NoThreshold_RunsInPlace() {
+        ModifyColumnExecutor executor = new ModifyColumnExecutor(jdbcTemplate, tableRewriter, 0);
+
+        executor.execute(createChange(null));
+
+        verify(jdbcTemplate).execute(startsWith("ALTER TABLE \"orders\" ALTER COLUMN"));
+        verifyNoInteractions(tableRewriter);
+    }
+
+    @Test
+    void testExecute_Online_DelegatesToRewriter() {
+        ModifyColumnExecutor executor = new ModifyColumnExecutor(jdbcTemplate, tableRewriter, 0);
+        when(jdbcTemplate.queryForObject(contains("pg_locks"), eq(Boolean.class), any())).thenReturn(false);
+
+        executor.execute(createChange(true));
+
+        ArgumentCaptor<RewritePlan> plan = ArgumentCaptor.forClass(RewritePlan.class);
+        verify(tableRewriter).rewrite(plan.capture());
+        assertEquals("orders", plan.getValue().tableName());
+        assertEquals(List.of("ALTER COLUMN \"amount\" TYPE NUMERIC(12,2)", "ALTER COLUMN \"amount\" SET NOT NULL"),
+                plan.getValue().shadowActions());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void testExecute_Online_TableLockedByMigration_Fails() {
+        ModifyColumnExecutor executor = new ModifyColumnExecutor(jdbcTemplate, tableRewriter, 0);
+        when(jdbcTemplate.queryForObject(contains("pg_locks"), eq(Boolean.class), any())).thenReturn(true);
+
+        assertThrows(ChangeSetExecutionException.class, () -> executor.execute(createChange(true)));
+        verifyNoInteractions(tableRewriter);
+    }
+
+    @Test
+    void testExecute_AboveThreshold_GoesOnline() {
+        ModifyColumnExecutor executor = new ModifyColumnExecutor(jdbcTemplate, tableRewriter, 1_000_000);
+        when(jdbcTemplate.queryForObject(contains("reltuples"), eq(Long.class), any())).thenReturn(5_000_000L);
+        when(jdbcTemplate.queryForObject(contains("pg_locks"), eq(Boolean.class), any())).thenReturn(false);
+
+        executor.execute(createChange(null));
+
+        verify(tableRewriter).rewrite(any(RewritePlan.class));
+    }
+
+    @Test
+    void testExecute_AboveThreshold_TableLockedByMigration_FallsBackInPlace() {
+        ModifyColumnExecutor executor = new ModifyColumnExecutor(jdbcTemplate, tableRewriter, 1_000_000);
+        when(jdbcTemplate.queryForObject(contains("reltuples"), eq(Long.class), any())).thenReturn(5_000_000L);
+        when(jdbcTemplate.queryForObject(contains("pg_locks"), eq(Boolean.class), any())).thenReturn(true);
+
+        executor.execute(createChange(null));
+
+        verify(jdbcTemplate).execute(startsWith("ALTER TABLE"));
+        verifyNoInteractions(tableRewriter);
+    }
+
+    @Test
+    void testExecute_BelowThreshold_RunsInPlace() {
+        ModifyColumnExecutor executor = new ModifyColumnExecutor(jdbcTemplate, tableRewriter, 1_000_000);
+        when(jdbcTemplate.queryForObject(contains("reltuples"), eq(Long.class), any())).thenReturn(10L);
+
+        executor.execute(createChange(null));
+
+        verify(jdbcTemplate).execute(startsWith("ALTER TABLE"));
+        verifyNoInteractions(tableRewriter);
+    }
+
+    @Test
+    void testExecute_AboveThresholdInPreflightSnapshot_SkipsCatalogQuery() {
+        ModifyColumnExecutor executor = new ModifyColumnExecutor(jdbcTemplate, tableRewriter, 1_000_000);
+        when(jdbcTemplate.queryForObject(contains("pg_locks"), eq(Boolean.class), any())).thenReturn(false);
+        CatalogSnapshotContext.set(new CatalogSnapshot(Map.of("orders",
+                new TableStats("orders", "orders", 5_000_000L, 1L << 30, List.of(), List.of()))));
+        try {
+            executor.execute(createChange(null));
+        } finally {
+            CatalogSnapshotContext.clear();
+        }
+
+        verify(tableRewriter).rewrite(any(RewritePlan.class));
+        verify(jdbcTemplate, never()).queryForObject(contains("reltuples"), eq(Long.class), any());
+    }
+
+    @Test
+    void testExecute_OnlineFalse_IgnoresThreshold() {
+        ModifyColumnExecutor executor = new ModifyColumnExecutor(jdbcTemplate, tableRewriter, 1);
+
+        executor.execute(createChange(false));
+
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any());
+        verifyNoInteractions(tableRewriter);
+    }
+
+    private ModifyColumnChange createChange(Boolean online) {
+        ColumnConfig column = new ColumnConfig();
+        column.setName("amount");
+        column.setType("NUMERIC(12,2)");
+        column.setConstraints(new ConstraintsConfig(false, null, null, null, null, null, null, null));
+
+        ModifyColumnChange change = new ModifyColumnChange();
+        change.setTableName("orders");
+        change.setColumns(List.of(column));
+        change.setOnline(online);
+        return change;
+    }
+}
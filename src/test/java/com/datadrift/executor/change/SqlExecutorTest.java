@@ -1,5 +1,6 @@
 package com.datadrift.executor.change;
 
+import com.datadrift.metrics.progress.DdlProgressMonitor;
 import com.datadrift.model.change.SqlChange;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,7 +29,7 @@ class SqlExecutorTest {
 
     @BeforeEach
     void setUp() {
-        executor = new SqlExecutor(jdbcTemplate);
+        executor = new SqlExecutor(jdbcTemplate, new DdlProgressMonitor(null, null, null, 0));
     }
 
     @Test
@@ -1,15 +1,19 @@
 package com.datadrift.executor.change;
 
+import com.datadrift.exception.ChangeSetExecutionException;
+import com.datadrift.executor.online.ChunkedStatementRunner;
 import com.datadrift.model.change.ColumnValue;
 import com.datadrift.model.change.UpdateChange;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.util.List;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -20,11 +24,14 @@ class UpdateExecutorTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
 
+    @Mock
+    private ChunkedStatementRunner chunkedStatementRunner;
+
     private UpdateExecutor executor;
 
     @BeforeEach
     void setUp() {
-        executor = new UpdateExecutor(jdbcTemplate);
+        executor = new UpdateExecutor(jdbcTemplate, chunkedStatementRunner);
     }
 
     @Test
@@ -36,7 +43,7 @@ class UpdateExecutorTest {
         executor.execute(change);
 
         // Then
-        verify(jdbcTemplate, times(1)).execute(anyString());
+        verify(jdbcTemplate, times(1)).update(anyString());
     }
 
     @Test
@@ -369,6 +376,50 @@ class UpdateExecutorTest {
         assertTrue(sql.contains("SET \"bio\" = NULL"));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExecute_Chunked_RunsThroughChunkedRunner() {
+        // Given
+        UpdateChange change = createSimpleUpdate();
+        change.setChunkSize(500);
+        when(jdbcTemplate.queryForObject(contains("pg_locks"), eq(Boolean.class), any())).thenReturn(false);
+        ArgumentCaptor<Function<String, String>> statement = ArgumentCaptor.forClass(Function.class);
+
+        // When
+        executor.execute(change);
+
+        // Then
+        verify(chunkedStatementRunner).run(anyString(), eq("\"users\""), statement.capture(), eq("id = 1"), eq(500), eq(0L));
+        assertEquals("UPDATE \"users\" SET \"username\" = 'new_name' WHERE <range>", statement.getValue().apply("<range>"));
+        verify(jdbcTemplate, never()).update(anyString());
+    }
+
+    @Test
+    void testExecute_Chunked_TableLockedByMigration_Fails() {
+        // Given
+        UpdateChange change = createSimpleUpdate();
+        change.setChunkSize(500);
+        when(jdbcTemplate.queryForObject(contains("pg_locks"), eq(Boolean.class), any())).thenReturn(true);
+
+        // When / Then
+        assertThrows(ChangeSetExecutionException.class, () -> executor.execute(change));
+        verifyNoInteractions(chunkedStatementRunner);
+    }
+
+    @Test
+    void testGenerateSql_Chunked_NotesChunking() {
+        // Given
+        UpdateChange change = createSimpleUpdate();
+        change.setChunkSize(500);
+
+        // When
+        String sql = executor.generateSql(change);
+
+        // Then
+        assertTrue(sql.startsWith("-- repeated per primary-key chunk of 500 rows"));
+        assertTrue(sql.endsWith("UPDATE \"users\" SET \"username\" = 'new_name' WHERE id = 1"));
+    }
+
     private UpdateChange createSimpleUpdate() {
         UpdateChange change = new UpdateChange();
         change.setTableName("users");
@@ -0,0 +1,134 @@
+package com.datadrift.executor.constraint;
+
+import com.datadrift.exception.ConstraintValidationException;
+import com.datadrift.util.SessionProfileContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeferredConstraintValidatorTest {
+
+    private static final DeferredConstraint FK = new DeferredConstraint("\"events\"", "fk_events_user");
+    private static final DeferredConstraint CHECK = new DeferredConstraint("\"events\"", "chk_events_kind");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DeferredConstraintValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        validator = new DeferredConstraintValidator(jdbcTemplate, transactionManager, false, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(validator);
+        SessionProfileContext.clear();
+    }
+
+    @Test
+    void isDeferred_ChangeOptionOverridesDefault() {
+        assertFalse(validator.isDeferred(null));
+        assertTrue(validator.isDeferred(true));
+        assertTrue(new DeferredConstraintValidator(jdbcTemplate, transactionManager, true, 0).isDeferred(null));
+        assertFalse(new DeferredConstraintValidator(jdbcTemplate, transactionManager, true, 0).isDeferred(false));
+    }
+
+    @Test
+    void validateSql_EscapesConstraintName() {
+        assertEquals("ALTER TABLE \"events\" VALIDATE CONSTRAINT \"fk_events_user\"", FK.validateSql());
+    }
+
+    @Test
+    void preview_ListsValidateStatements() {
+        assertEquals("", DeferredConstraintValidator.preview(List.of()));
+        assertTrue(DeferredConstraintValidator.preview(List.of(FK))
+                .endsWith("ALTER TABLE \"events\" VALIDATE CONSTRAINT \"fk_events_user\""));
+    }
+
+    @Test
+    void defer_NoTransaction_ValidatesImmediately() {
+        validator.defer(FK);
+
+        verify(jdbcTemplate).execute(FK.validateSql());
+    }
+
+    @Test
+    void defer_InTransaction_ValidatesAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        validator.defer(FK);
+        validator.defer(CHECK);
+        verify(jdbcTemplate, never()).execute(anyString());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        verify(jdbcTemplate).execute(FK.validateSql());
+        verify(jdbcTemplate).execute(CHECK.validateSql());
+    }
+
+    @Test
+    void defer_WithSessionProfile_ValidatesWithProfileSettings() {
+        TransactionSynchronizationManager.initSynchronization();
+        SessionProfileContext.setCurrentSettings(Map.of("max_parallel_maintenance_workers", "4"));
+
+        validator.defer(FK);
+        SessionProfileContext.clear();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(jdbcTemplate).queryForObject("SELECT set_config(?, ?, true)", String.class,
+                "max_parallel_maintenance_workers", "4");
+        verify(jdbcTemplate).execute(FK.validateSql());
+    }
+
+    @Test
+    void defer_RolledBack_NothingValidated() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        validator.defer(FK);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(jdbcTemplate, never()).execute(anyString());
+        assertFalse(TransactionSynchronizationManager.hasResource(validator));
+    }
+
+    @Test
+    void validateAll_FailureReportedAfterAllAttempted() {
+        doThrow(new DataIntegrityViolationException("violates foreign key constraint"))
+                .when(jdbcTemplate).execute(FK.validateSql());
+
+        ConstraintValidationException exception = assertThrows(ConstraintValidationException.class,
+                () -> validator.validateAll(List.of(FK, CHECK)));
+
+        verify(jdbcTemplate).execute(CHECK.validateSql());
+        assertTrue(exception.getMessage().contains("1 constraint(s) remain NOT VALID"));
+        assertTrue(exception.getMessage().contains(FK.validateSql()));
+        assertEquals(List.of(FK.constraintName()), exception.getConstraintNames());
+    }
+}
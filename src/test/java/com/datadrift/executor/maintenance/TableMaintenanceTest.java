@@ -0,0 +1,147 @@
+package com.datadrift.executor.maintenance;
+
+import com.datadrift.model.change.DeleteChange;
+import com.datadrift.model.change.InsertChange;
+import com.datadrift.model.change.SqlChange;
+import com.datadrift.model.change.UpdateChange;
+import com.datadrift.plan.CatalogSnapshot;
+import com.datadrift.plan.TableStats;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TableMaintenanceTest {
+
+    private static final CatalogSnapshot SNAPSHOT = new CatalogSnapshot(Map.of(
+            "orders", new TableStats("orders", "public.orders", 1_000_000, 0, List.of(), List.of()),
+            "countries", new TableStats("countries", "public.countries", 200, 0, List.of(), List.of())));
+
+    @Test
+    void plan_SmallShareOfLargeTable_NotAnalyzed() {
+        TouchedTables touched = new TouchedTables();
+        touched.add(update("orders"), 50_000);
+
+        assertTrue(maintenance(10_000, 0).plan(touched, SNAPSHOT).isEmpty());
+    }
+
+    @Test
+    void plan_LargeShareOfTable_Analyzed() {
+        TouchedTables touched = new TouchedTables();
+        touched.add(update("orders"), 80_000);
+        touched.add(insert("orders"), 40_000);
+
+        List<TableMaintenance.Task> tasks = maintenance(10_000, 0).plan(touched, SNAPSHOT);
+
+        assertEquals(1, tasks.size());
+        assertEquals("ANALYZE \"orders\"", tasks.get(0).sql());
+        assertEquals("120000 rows changed, 12% of ~1000000", tasks.get(0).reason());
+    }
+
+    @Test
+    void plan_BelowMinimumRows_NotAnalyzed() {
+        TouchedTables touched = new TouchedTables();
+        touched.add(insert("countries"), 150);
+
+        assertTrue(maintenance(10_000, 0).plan(touched, SNAPSHOT).isEmpty());
+    }
+
+    @Test
+    void plan_TableUnknownToSnapshot_AnalyzedAboveMinimum() {
+        TouchedTables touched = new TouchedTables();
+        touched.add(insert("events"), 20_000);
+        touched.add(insert("events_archive"), 500);
+
+        List<TableMaintenance.Task> tasks = maintenance(10_000, 0).plan(touched, SNAPSHOT);
+
+        assertEquals(1, tasks.size());
+        assertEquals("ANALYZE \"events\"", tasks.get(0).sql());
+    }
+
+    @Test
+    void plan_ManyDeletedRows_Vacuumed() {
+        TouchedTables touched = new TouchedTables();
+        touched.add(delete("orders"), 300_000);
+
+        List<TableMaintenance.Task> tasks = maintenance(10_000, 100_000).plan(touched, SNAPSHOT);
+
+        assertEquals(1, tasks.size());
+        assertEquals("VACUUM (ANALYZE) \"orders\"", tasks.get(0).sql());
+    }
+
+    @Test
+    void plan_VacuumDisabled_AnalyzesInstead() {
+        TouchedTables touched = new TouchedTables();
+        touched.add(delete("orders"), 300_000);
+
+        List<TableMaintenance.Task> tasks = maintenance(10_000, 0).plan(touched, SNAPSHOT);
+
+        assertEquals("ANALYZE \"orders\"", tasks.get(0).sql());
+    }
+
+    @Test
+    void afterRun_NoTransaction_RunsStatementsRightAway() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        TouchedTables touched = new TouchedTables();
+        touched.add(insert("events"), 20_000);
+
+        new TableMaintenance(dataSource, true, 10_000, 0.1, 0, 4).afterRun(touched, SNAPSHOT);
+
+        // One table, so one connection despite parallelism 4
+        verify(dataSource, times(1)).getConnection();
+        verify(statement).execute("ANALYZE \"events\"");
+        verify(connection).close();
+    }
+
+    @Test
+    void afterRun_Disabled_DoesNothing() {
+        DataSource dataSource = mock(DataSource.class);
+        TouchedTables touched = new TouchedTables();
+        touched.add(insert("events"), 20_000);
+
+        new TableMaintenance(dataSource, false, 10_000, 0.1, 0, 1).afterRun(touched, SNAPSHOT);
+
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    void touchedTables_IgnoresOtherChangesAndEmptyCounts() {
+        TouchedTables touched = new TouchedTables();
+        touched.add(new SqlChange(), 1_000);
+        touched.add(update("orders"), 0);
+
+        assertTrue(touched.isEmpty());
+    }
+
+    private static TableMaintenance maintenance(long minRows, long vacuumMinDeleted) {
+        return new TableMaintenance(null, true, minRows, 0.1, vacuumMinDeleted, 1);
+    }
+
+    private static InsertChange insert(String table) {
+        InsertChange change = new InsertChange();
+        change.setTableName(table);
+        return change;
+    }
+
+    private static UpdateChange update(String table) {
+        UpdateChange change = new UpdateChange();
+        change.setTableName(table);
+        return change;
+    }
+
+    private static DeleteChange delete(String table) {
+        DeleteChange change = new DeleteChange();
+        change.setTableName(table);
+        return change;
+    }
+}
@@ -0,0 +1,115 @@
+package com.datadrift.executor.online;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AdaptiveThrottleTest {
+
+    private static final AdaptiveThrottle.Settings SETTINGS =
+            new AdaptiveThrottle.Settings(true, 100, 10_000, 500, 20, null, 0, 250, 0.5, 100, 5000);
+
+    @Test
+    void adjust_Healthy_IncreasesChunkAdditively() {
+        AdaptiveThrottle throttle = new AdaptiveThrottle(SETTINGS, mock(JdbcTemplate.class), "test", 1000, 0);
+
+        assertNull(throttle.adjust(new AdaptiveThrottle.LoadSample(50, 2, null)));
+
+        assertEquals(1250, throttle.chunkSize());
+        assertEquals(0, throttle.sleepMillis());
+    }
+
+    @Test
+    void adjust_SlowChunk_HalvesChunkAndStartsPausing() {
+        AdaptiveThrottle throttle = new AdaptiveThrottle(SETTINGS, mock(JdbcTemplate.class), "test", 1000, 0);
+
+        String reason = throttle.adjust(new AdaptiveThrottle.LoadSample(900, 2, null));
+
+        assertTrue(reason.contains("900 ms"));
+        assertEquals(500, throttle.chunkSize());
+        assertEquals(100, throttle.sleepMillis());
+    }
+
+    @Test
+    void adjust_RepeatedOverload_DoublesPauseUpToMaximum() {
+        AdaptiveThrottle throttle = new AdaptiveThrottle(SETTINGS, mock(JdbcTemplate.class), "test", 1000, 0);
+
+        for (int i = 0; i < 10; i++) {
+            throttle.adjust(new AdaptiveThrottle.LoadSample(50, 50, null));
+        }
+
+        assertEquals(100, throttle.chunkSize());
+        assertEquals(5000, throttle.sleepMillis());
+    }
+
+    @Test
+    void adjust_Recovery_ShrinksPauseStepwise() {
+        AdaptiveThrottle throttle = new AdaptiveThrottle(SETTINGS, mock(JdbcTemplate.class), "test", 1000, 0);
+        throttle.adjust(new AdaptiveThrottle.LoadSample(900, 0, null));
+        throttle.adjust(new AdaptiveThrottle.LoadSample(900, 0, null));
+        assertEquals(200, throttle.sleepMillis());
+
+        throttle.adjust(new AdaptiveThrottle.LoadSample(50, 0, null));
+
+        assertEquals(100, throttle.sleepMillis());
+        assertEquals(500, throttle.chunkSize());
+    }
+
+    @Test
+    void adjust_ProbeOverLimit_BacksOff() {
+        AdaptiveThrottle.Settings settings =
+                new AdaptiveThrottle.Settings(true, 100, 10_000, 0, 0, "SELECT lag", 5.0, 250, 0.5, 100, 5000);
+        AdaptiveThrottle throttle = new AdaptiveThrottle(settings, mock(JdbcTemplate.class), "test", 1000, 0);
+
+        String reason = throttle.adjust(new AdaptiveThrottle.LoadSample(0, 0, 12.0));
+
+        assertTrue(reason.contains("probe value 12.0"));
+        assertEquals(500, throttle.chunkSize());
+    }
+
+    @Test
+    void afterChunk_SamplesConfiguredSignals() throws InterruptedException {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        when(jdbc.queryForObject(contains("pg_stat_activity"), eq(Integer.class))).thenReturn(3);
+        AdaptiveThrottle.Settings settings =
+                new AdaptiveThrottle.Settings(true, 100, 10_000, 500, 20, "SELECT lag", 5.0, 250, 0.5, 100, 5000);
+        when(jdbc.queryForObject("SELECT lag", Double.class)).thenReturn(1.0);
+        AdaptiveThrottle throttle = new AdaptiveThrottle(settings, jdbc, "test", 1000, 0);
+
+        throttle.afterChunk(1000, 10_000_000L);
+
+        assertEquals(1250, throttle.chunkSize());
+        verify(jdbc).queryForObject("SELECT lag", Double.class);
+    }
+
+    @Test
+    void afterChunk_FailingProbe_IsIgnoredAfterwards() throws InterruptedException {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        AdaptiveThrottle.Settings settings =
+                new AdaptiveThrottle.Settings(true, 100, 10_000, 500, 0, "SELECT broken", 5.0, 250, 0.5, 100, 5000);
+        when(jdbc.queryForObject("SELECT broken", Double.class)).thenThrow(new RuntimeException("no such column"));
+        AdaptiveThrottle throttle = new AdaptiveThrottle(settings, jdbc, "test", 1000, 0);
+
+        throttle.afterChunk(1000, 0);
+        throttle.afterChunk(1000, 0);
+
+        verify(jdbc, times(1)).queryForObject("SELECT broken", Double.class);
+        assertEquals(1500, throttle.chunkSize());
+    }
+
+    @Test
+    void notAdaptive_KeepsChunkSizeAndSamplesNothing() throws InterruptedException {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        AdaptiveThrottle.Settings settings =
+                new AdaptiveThrottle.Settings(false, 100, 10_000, 500, 20, "SELECT lag", 5.0, 250, 0.5, 100, 5000);
+        AdaptiveThrottle throttle = new AdaptiveThrottle(settings, jdbc, "test", 50_000, 0);
+
+        throttle.afterChunk(50_000, 2_000_000_000L);
+
+        assertEquals(50_000, throttle.chunkSize());
+        verifyNoInteractions(jdbc);
+    }
+}
@@ -0,0 +1,30 @@
+package com.datadrift.executor.online;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkThrottleTest {
+
+    @Test
+    void delayMillis_Disabled_NeverSleeps() {
+        ChunkThrottle throttle = new ChunkThrottle(0);
+
+        assertEquals(0, throttle.delayMillis(1_000_000, 0));
+    }
+
+    @Test
+    void delayMillis_AheadOfRate_SleepsUntilOnPace() {
+        ChunkThrottle throttle = new ChunkThrottle(1000);
+
+        // 5000 rows at 1000 rows/s should take 5 s; 2 s have passed
+        assertEquals(3000, throttle.delayMillis(5000, 2_000_000_000L));
+    }
+
+    @Test
+    void delayMillis_BehindRate_DoesNotSleep() {
+        ChunkThrottle throttle = new ChunkThrottle(1000);
+
+        assertEquals(0, throttle.delayMillis(5000, 7_000_000_000L));
+    }
+}
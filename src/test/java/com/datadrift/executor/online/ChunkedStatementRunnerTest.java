@@ -0,0 +1,75 @@
+package com.datadrift.executor.online;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChunkedStatementRunnerTest {
+
+    private static final Function<String, String> INCREMENT = where -> "UPDATE \"counters\" SET n = n + 1 WHERE " + where;
+
+    @Test
+    void checkpointKey_SameStatement_IsStable() {
+        String key = ChunkedStatementRunner.checkpointKey(INCREMENT, "kind = 'a'");
+
+        assertEquals(key, ChunkedStatementRunner.checkpointKey(where -> "UPDATE \"counters\" SET n = n + 1 WHERE " + where,
+                "kind = 'a'"));
+        assertTrue(key.startsWith("chunked:"));
+        assertTrue(key.length() <= 255);
+    }
+
+    @Test
+    void checkpointKey_EditedFilter_StartsOver() {
+        assertNotEquals(ChunkedStatementRunner.checkpointKey(INCREMENT, "kind = 'a'"),
+                ChunkedStatementRunner.checkpointKey(INCREMENT, "kind = 'b'"));
+    }
+
+    @Test
+    void checkpointHook_FinalChunk_MarksCompletedInsteadOfDeleting() throws Exception {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        Connection connection = mock(Connection.class);
+        Array completed = mock(Array.class);
+        when(connection.createArrayOf("text", new String[0])).thenReturn(completed);
+
+        ChunkedStatementRunner.checkpointHook(jdbc, connection, "\"counters\"", "chunked:abc").beforeCommit(null, 42);
+
+        verify(jdbc).update(startsWith("INSERT INTO DATABASECHANGELOGBACKFILL"), eq("\"counters\""), eq("chunked:abc"),
+                eq(completed), eq(42L));
+        verify(jdbc, never()).update(startsWith("DELETE"), any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_CompletedCheckpointAfterTrackingRollback_NotAppliedAgain() throws Exception {
+        // The statement ran to the end, but the run's transaction (with the tracking row and the
+        // checkpoint delete) rolled back: only the completed checkpoint is left
+        JdbcTemplate migration = mock(JdbcTemplate.class);
+        ResultSet checkpointRow = mock(ResultSet.class);
+        Array lastKey = mock(Array.class);
+        when(checkpointRow.next()).thenReturn(true);
+        when(checkpointRow.getArray(1)).thenReturn(lastKey);
+        when(lastKey.getArray()).thenReturn(new String[0]);
+        when(checkpointRow.getLong(2)).thenReturn(1_000L);
+        when(migration.query(startsWith("SELECT last_key"), any(ResultSetExtractor.class), any(Object[].class)))
+                .thenAnswer(invocation -> invocation.<ResultSetExtractor<?>>getArgument(1).extractData(checkpointRow));
+        DataSource dataSource = mock(DataSource.class);
+        ChunkedStatementRunner runner = new ChunkedStatementRunner(dataSource, migration, null, 0, "2s", 3, 1, 2);
+
+        long rows = runner.run("update counters", "\"counters\"", INCREMENT, "kind = 'a'", 100, 0);
+
+        assertEquals(1_000L, rows);
+        verifyNoInteractions(dataSource);
+        verify(migration).update("DELETE FROM DATABASECHANGELOGBACKFILL WHERE table_name = ? AND column_name = ?",
+                "\"counters\"", ChunkedStatementRunner.checkpointKey(INCREMENT, "kind = 'a'"));
+    }
+}
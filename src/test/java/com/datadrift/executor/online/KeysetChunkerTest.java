@@ -0,0 +1,60 @@
+package com.datadrift.executor.online;
+
+import com.datadrift.executor.session.LockTimeoutRetryPolicy;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class KeysetChunkerTest {
+
+    private static final AdaptiveThrottle.Settings FIXED =
+            new AdaptiveThrottle.Settings(false, 1, 1000, 0, 0, null, 0, 0, 0.5, 0, 0);
+
+    private static final List<KeysetChunker.KeyColumn> KEY = List.of(new KeysetChunker.KeyColumn("id", "bigint"));
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_LockTimeout_RetriesChunk() throws SQLException {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        Connection connection = mock(Connection.class);
+        // One chunk: no upper bound, so the statement covers the rest of the table
+        when(jdbc.query(anyString(), any(ResultSetExtractor.class), any(Object[].class))).thenReturn(null);
+        when(jdbc.update(anyString(), any(Object[].class)))
+                .thenThrow(new CannotAcquireLockException("lock", new SQLException("lock timeout", "55P03")))
+                .thenReturn(7);
+        KeysetChunker chunker = new KeysetChunker(jdbc, connection, "\"orders\"", KEY, 10_000,
+                new LockTimeoutRetryPolicy(3, 0, 0));
+
+        long rows = chunker.run("test", where -> "DELETE FROM orders WHERE " + where, null, null, 0, 0,
+                new AdaptiveThrottle(FIXED, jdbc, "test", 100, 0), null);
+
+        assertEquals(7, rows);
+        verify(connection).rollback();
+        verify(connection).commit();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_LockTimeoutWithoutPolicy_Fails() throws SQLException {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        Connection connection = mock(Connection.class);
+        when(jdbc.query(anyString(), any(ResultSetExtractor.class), any(Object[].class))).thenReturn(null);
+        when(jdbc.update(anyString(), any(Object[].class)))
+                .thenThrow(new CannotAcquireLockException("lock", new SQLException("lock timeout", "55P03")));
+        KeysetChunker chunker = new KeysetChunker(jdbc, connection, "\"orders\"", KEY, 10_000, null);
+
+        assertThrows(CannotAcquireLockException.class, () -> chunker.run("test",
+                where -> "DELETE FROM orders WHERE " + where, null, null, 0, 0,
+                new AdaptiveThrottle(FIXED, jdbc, "test", 100, 0), null));
+        verify(connection, never()).commit();
+    }
+}
@@ -0,0 +1,57 @@
+package com.datadrift.executor.online;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class OnlineTableRewriterTest {
+
+    private final OnlineTableRewriter rewriter =
+            new OnlineTableRewriter(mock(DataSource.class), mock(AdaptiveThrottleFactory.class), 1000, 0, "2s", 3, false, 10000);
+
+    @Test
+    void tableInfo_HelperNames_DerivedFromTable() {
+        OnlineTableRewriter.TableInfo table = new OnlineTableRewriter.TableInfo("public", "orders", "r");
+
+        assertEquals("\"public\".\"_dd_new_orders\"", table.qualifiedShadowName());
+        assertEquals("_dd_old_orders", table.oldName);
+        assertEquals("\"public\".\"_dd_sync_orders\"", table.qualifiedFunctionName());
+    }
+
+    @Test
+    void tableInfo_LongTableName_TruncatedToIdentifierLimit() {
+        OnlineTableRewriter.TableInfo table = new OnlineTableRewriter.TableInfo("public", "x".repeat(63), "r");
+
+        assertEquals(63, table.shadowName.length());
+        assertTrue(table.shadowName.startsWith("_dd_new_"));
+    }
+
+    @Test
+    void triggerFunctionSql_MirrorsWritesByPrimaryKey() {
+        OnlineTableRewriter.TableInfo table = new OnlineTableRewriter.TableInfo("public", "orders", "r");
+        table.primaryKey = List.of("id");
+        table.columns = List.of("id", "amount");
+
+        String sql = rewriter.triggerFunctionSql(table);
+
+        assertTrue(sql.startsWith("CREATE FUNCTION \"public\".\"_dd_sync_orders\"() RETURNS trigger"));
+        assertTrue(sql.contains("DELETE FROM \"public\".\"_dd_new_orders\" WHERE (\"id\") = (OLD.\"id\")"));
+        assertTrue(sql.contains("OVERRIDING SYSTEM VALUE VALUES (NEW.\"id\", NEW.\"amount\")"));
+        assertTrue(sql.contains("ON CONFLICT (\"id\") DO UPDATE SET \"amount\" = EXCLUDED.\"amount\""));
+    }
+
+    @Test
+    void triggerFunctionSql_KeyOnlyTable_IgnoresConflicts() {
+        OnlineTableRewriter.TableInfo table = new OnlineTableRewriter.TableInfo(null, "tags", "r");
+        table.primaryKey = List.of("name");
+        table.columns = List.of("name");
+
+        String sql = rewriter.triggerFunctionSql(table);
+
+        assertTrue(sql.contains("ON CONFLICT (\"name\") DO NOTHING"));
+    }
+}
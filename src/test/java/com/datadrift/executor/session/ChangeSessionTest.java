@@ -0,0 +1,270 @@
+package com.datadrift.executor.session;
+
+import com.datadrift.config.SessionProfileProperties;
+import com.datadrift.exception.ChangeSetExecutionException;
+import com.datadrift.exception.LockContentionException;
+import com.datadrift.model.change.SqlChange;
+import com.datadrift.model.changelog.ChangeSet;
+import com.datadrift.util.SessionProfileContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeSessionTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void execute_NoTimeouts_RunsWithoutSessionStatements() {
+        ChangeSession session = session("", "", 3);
+        AtomicInteger runs = new AtomicInteger();
+
+        session.execute(changeSet(null), new SqlChange(), runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void execute_ChangeTimeoutOverridesChangeSetAndDefault() {
+        ChangeSession session = session("1s", "", 3);
+        SqlChange change = new SqlChange();
+        change.setLockTimeout("250ms");
+
+        session.execute(changeSet("5s"), change, () -> { });
+
+        verify(jdbcTemplate).queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class, "250ms");
+        verify(jdbcTemplate).execute("SET LOCAL lock_timeout TO DEFAULT");
+    }
+
+    @Test
+    void execute_ChangeSetTimeoutOverridesDefault() {
+        ChangeSession session = session("", "1h", 3);
+        ChangeSet changeSet = changeSet(null);
+        changeSet.setStatementTimeout("30s");
+
+        session.execute(changeSet, new SqlChange(), () -> { });
+
+        verify(jdbcTemplate).queryForObject("SELECT set_config('statement_timeout', ?, true)", String.class, "30s");
+        verify(jdbcTemplate).execute("SET LOCAL statement_timeout TO DEFAULT");
+    }
+
+    @Test
+    void execute_BothTimeouts_SetInOneStatement() {
+        ChangeSession session = session("2s", "1min", 3);
+
+        session.execute(changeSet(null), new SqlChange(), () -> { });
+
+        verify(jdbcTemplate).queryForList(
+                "SELECT set_config('lock_timeout', ?, true), set_config('statement_timeout', ?, true)", "2s", "1min");
+    }
+
+    @Test
+    void execute_LockTimeoutInTransaction_RollsBackToSavepointAndRetries() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        ChangeSession session = session("", "", 3);
+        AtomicInteger attempts = new AtomicInteger();
+
+        session.execute(changeSet("1s"), new SqlChange(), () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw lockTimeout();
+            }
+        });
+
+        assertEquals(2, attempts.get());
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("SAVEPOINT datadrift_change");
+        inOrder.verify(jdbcTemplate).execute("ROLLBACK TO SAVEPOINT datadrift_change");
+        inOrder.verify(jdbcTemplate).execute("SAVEPOINT datadrift_change");
+        inOrder.verify(jdbcTemplate).execute("RELEASE SAVEPOINT datadrift_change");
+        verify(jdbcTemplate, times(2)).queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class, "1s");
+    }
+
+    @Test
+    void execute_LockTimeoutOnEveryAttempt_RethrowsAfterMaxAttempts() {
+        ChangeSession session = session("", "", 3);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(CannotAcquireLockException.class, () ->
+                session.execute(changeSet("1s"), new SqlChange(), () -> {
+                    attempts.incrementAndGet();
+                    throw lockTimeout();
+                }));
+
+        assertEquals(3, attempts.get());
+        // Outside a transaction there is nothing to roll back
+        verify(jdbcTemplate, never()).execute(startsWith("SAVEPOINT"));
+    }
+
+    @Test
+    void execute_LockTimeoutWhileHoldingEarlierLocks_StopsRetryingWhenBudgetSpent() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        lenient().when(jdbcTemplate.queryForObject(contains("pg_locks"), eq(Integer.class))).thenReturn(1);
+        ChangeSession session = new ChangeSession(jdbcTemplate, new SessionProfiles(new SessionProfileProperties()),
+                new LockContentionWatchdog(null, 0, 0, 500), "", "", 5, 1, 2, 0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(CannotAcquireLockException.class, () ->
+                session.execute(changeSet("1s"), new SqlChange(), () -> {
+                    attempts.incrementAndGet();
+                    throw lockTimeout();
+                }));
+
+        // No backoff budget while earlier locks are held: the transaction fails instead of waiting
+        assertEquals(1, attempts.get());
+        verify(jdbcTemplate).execute("ROLLBACK TO SAVEPOINT datadrift_change");
+    }
+
+    @Test
+    void execute_OtherFailure_NotRetried() {
+        ChangeSession session = session("", "", 3);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () ->
+                session.execute(changeSet("1s"), new SqlChange(), () -> {
+                    attempts.incrementAndGet();
+                    throw new IllegalStateException("syntax error");
+                }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void execute_StatementTimeoutOnly_NoSavepoint() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        ChangeSession session = session("", "10s", 3);
+
+        session.execute(changeSet(null), new SqlChange(), () -> { });
+
+        verify(jdbcTemplate, never()).execute(startsWith("SAVEPOINT"));
+        verify(jdbcTemplate, never()).queryForList(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void execute_SessionProfile_AppliedLocallyAndReset() {
+        ChangeSession session = session("", "", 3);
+        ChangeSet changeSet = changeSet(null);
+        changeSet.setSessionProfile("heavyIndexBuild");
+        AtomicInteger seen = new AtomicInteger();
+
+        session.execute(changeSet, new SqlChange(), () -> seen.set(SessionProfileContext.currentSettings().size()));
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).queryForObject("SELECT set_config(?, ?, true)", String.class,
+                "maintenance_work_mem", "2GB");
+        inOrder.verify(jdbcTemplate).queryForObject("SELECT set_config(?, ?, true)", String.class,
+                "max_parallel_maintenance_workers", "4");
+        inOrder.verify(jdbcTemplate).execute("SET LOCAL maintenance_work_mem TO DEFAULT");
+        inOrder.verify(jdbcTemplate).execute("SET LOCAL max_parallel_maintenance_workers TO DEFAULT");
+        assertEquals(2, seen.get());
+        assertTrue(SessionProfileContext.currentSettings().isEmpty());
+    }
+
+    @Test
+    void execute_SessionProfileWithLockTimeout_ReappliedAfterRollbackToSavepoint() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        ChangeSession session = session("1s", "", 3);
+        ChangeSet changeSet = changeSet(null);
+        changeSet.setSessionProfile("heavyIndexBuild");
+        AtomicInteger runs = new AtomicInteger();
+
+        session.execute(changeSet, new SqlChange(), () -> {
+            if (runs.incrementAndGet() == 1) {
+                throw lockTimeout();
+            }
+        });
+
+        assertEquals(2, runs.get());
+        verify(jdbcTemplate).execute("ROLLBACK TO SAVEPOINT datadrift_change");
+        verify(jdbcTemplate, times(2)).queryForObject("SELECT set_config(?, ?, true)", String.class,
+                "maintenance_work_mem", "2GB");
+        verify(jdbcTemplate, times(1)).execute("SET LOCAL maintenance_work_mem TO DEFAULT");
+    }
+
+    @Test
+    void execute_UnknownSessionProfile_Throws() {
+        ChangeSession session = session("", "", 3);
+        ChangeSet changeSet = changeSet(null);
+        changeSet.setSessionProfile("missing");
+
+        assertThrows(ChangeSetExecutionException.class, () -> session.execute(changeSet, new SqlChange(), () -> { }));
+    }
+
+    @Test
+    void execute_CancelledByWatchdog_RollsBackToSavepointAndRetries() {
+        LockContentionWatchdog watchdog = mock(LockContentionWatchdog.class);
+        when(watchdog.isEnabled()).thenReturn(true);
+        AtomicInteger guarded = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (guarded.incrementAndGet() == 1) {
+                throw new LockContentionException("Cancelled because it blocked other sessions: 12 sessions blocked",
+                        new SQLException("canceling statement due to user request", "57014"));
+            }
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(watchdog).guard(eq(jdbcTemplate), any());
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        AtomicInteger runs = new AtomicInteger();
+
+        session("", "", 3, watchdog).execute(changeSet(null), new SqlChange(), runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute("SAVEPOINT datadrift_change");
+        order.verify(jdbcTemplate).execute("ROLLBACK TO SAVEPOINT datadrift_change");
+        order.verify(jdbcTemplate).execute("SAVEPOINT datadrift_change");
+        order.verify(jdbcTemplate).execute("RELEASE SAVEPOINT datadrift_change");
+    }
+
+    private ChangeSession session(String defaultLockTimeout, String defaultStatementTimeout, int maxAttempts) {
+        return session(defaultLockTimeout, defaultStatementTimeout, maxAttempts, new LockContentionWatchdog(null, 0, 0, 500));
+    }
+
+    private ChangeSession session(String defaultLockTimeout, String defaultStatementTimeout, int maxAttempts,
+                                  LockContentionWatchdog watchdog) {
+        SessionProfileProperties profileProperties = new SessionProfileProperties();
+        Map<String, String> heavyIndexBuild = new LinkedHashMap<>();
+        heavyIndexBuild.put("maintenance-work-mem", "2GB");
+        heavyIndexBuild.put("max_parallel_maintenance_workers", "4");
+        profileProperties.getProfiles().put("heavyIndexBuild", heavyIndexBuild);
+        return new ChangeSession(jdbcTemplate, new SessionProfiles(profileProperties), watchdog,
+                defaultLockTimeout, defaultStatementTimeout, maxAttempts, 1, 2, 5000);
+    }
+
+    private static ChangeSet changeSet(String lockTimeout) {
+        ChangeSet changeSet = new ChangeSet();
+        changeSet.setId("001");
+        changeSet.setAuthor("alice");
+        changeSet.setLockTimeout(lockTimeout);
+        changeSet.setChanges(List.of());
+        return changeSet;
+    }
+
+    private static RuntimeException lockTimeout() {
+        return new CannotAcquireLockException("ALTER TABLE users",
+                new SQLException("canceling statement due to lock timeout", "55P03"));
+    }
+}
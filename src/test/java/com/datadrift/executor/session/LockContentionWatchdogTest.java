@@ -0,0 +1,115 @@
+package com.datadrift.executor.session;
+
+import com.datadrift.exception.LockContentionException;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LockContentionWatchdogTest {
+
+    @Test
+    void overload_ChecksSessionCountAndWaitTime() {
+        LockContentionWatchdog watchdog = new LockContentionWatchdog(null, 10, 5000, 500);
+
+        assertNull(watchdog.overload(10, 4000));
+        assertEquals("11 sessions blocked (limit 10)", watchdog.overload(11, 0));
+        assertEquals("a blocked session waited 6000 ms (limit 5000 ms)", watchdog.overload(1, 6000));
+        assertNull(watchdog.overload(0, 6000));
+    }
+
+    @Test
+    void guard_Disabled_RunsStatementDirectly() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        Runnable statement = mock(Runnable.class);
+        LockContentionWatchdog watchdog = new LockContentionWatchdog(mock(DataSource.class), 0, 0, 500);
+
+        watchdog.guard(jdbc, statement);
+
+        assertFalse(watchdog.isEnabled());
+        verify(statement).run();
+        verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void guard_TooManyBlockedSessions_CancelsBackendAndThrowsRetryable() throws Exception {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        when(jdbc.queryForObject("SELECT pg_backend_pid()", Integer.class)).thenReturn(4242);
+        Connection side = sideConnection(12);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(side);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        PreparedStatement cancel = mock(PreparedStatement.class);
+        ResultSet cancelResult = mock(ResultSet.class);
+        when(side.prepareStatement(contains("pg_cancel_backend"))).thenReturn(cancel);
+        when(cancel.executeQuery()).thenAnswer(invocation -> {
+            cancelled.countDown();
+            return cancelResult;
+        });
+        ResultSetMetaData cancelColumns = mock(ResultSetMetaData.class);
+        when(cancelColumns.getColumnCount()).thenReturn(1);
+        when(cancelResult.getMetaData()).thenReturn(cancelColumns);
+        when(cancelResult.next()).thenReturn(true, false);
+        when(cancelResult.getBoolean(1)).thenReturn(true);
+        LockContentionWatchdog watchdog = new LockContentionWatchdog(dataSource, 10, 0, 50);
+
+        LockContentionException e = assertThrows(LockContentionException.class, () -> watchdog.guard(jdbc, () -> {
+            try {
+                // The blocking statement runs until the watchdog cancels it
+                assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException interrupted) {
+                throw new IllegalStateException(interrupted);
+            }
+            throw new IllegalStateException("canceling statement due to user request");
+        }));
+
+        assertTrue(e.getMessage().endsWith("12 sessions blocked (limit 10)"));
+        assertTrue(LockTimeoutRetryPolicy.isContentionCancel(e));
+        assertTrue(new LockTimeoutRetryPolicy(3, 1, 2).shouldRetry(e, 1));
+        verify(cancel).setObject(1, 4242);
+        verify(side).close();
+    }
+
+    @Test
+    void blockedSince_MeasuresFromFirstSightingAndForgetsReleasedSessions() {
+        LockContentionWatchdog.BlockedSince blockedSince = new LockContentionWatchdog.BlockedSince();
+
+        assertEquals(0, blockedSince.update(List.of(101), 1_000));
+        assertEquals(500, blockedSince.update(List.of(101, 102), 1_500));
+        assertEquals(1_000, blockedSince.update(List.of(102), 2_500));
+        assertEquals(0, blockedSince.update(List.of(), 3_000));
+        assertEquals(0, blockedSince.update(List.of(101), 3_500));
+    }
+
+    /**
+     * Side connection whose blocked-sessions query returns that many pids.
+     */
+    private static Connection sideConnection(int blocked) throws SQLException {
+        Connection connection = mock(Connection.class);
+        PreparedStatement query = mock(PreparedStatement.class);
+        ResultSet rows = mock(ResultSet.class);
+        ResultSetMetaData columns = mock(ResultSetMetaData.class);
+        when(columns.getColumnCount()).thenReturn(1);
+        when(connection.prepareStatement(contains("pg_blocking_pids"))).thenReturn(query);
+        when(query.executeQuery()).thenReturn(rows);
+        when(rows.getMetaData()).thenReturn(columns);
+        AtomicInteger row = new AtomicInteger();
+        when(rows.next()).thenAnswer(invocation -> row.incrementAndGet() <= blocked);
+        when(rows.getInt(1)).thenAnswer(invocation -> 1000 + row.get());
+        when(rows.getObject(1, Integer.class)).thenAnswer(invocation -> 1000 + row.get());
+        return connection;
+    }
+}
@@ -0,0 +1,67 @@
+package com.datadrift.executor.session;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockTimeoutRetryPolicyTest {
+
+    @Test
+    void isLockTimeout_WrappedLockNotAvailable_ReturnsTrue() {
+        SQLException cause = new SQLException("canceling statement due to lock timeout", "55P03");
+
+        assertTrue(LockTimeoutRetryPolicy.isLockTimeout(new CannotAcquireLockException("ALTER TABLE", cause)));
+    }
+
+    @Test
+    void isLockTimeout_StatementTimeout_ReturnsFalse() {
+        SQLException cause = new SQLException("canceling statement due to statement timeout", "57014");
+
+        assertFalse(LockTimeoutRetryPolicy.isLockTimeout(new RuntimeException(cause)));
+    }
+
+    @Test
+    void isLockTimeout_NoSqlException_ReturnsFalse() {
+        assertFalse(LockTimeoutRetryPolicy.isLockTimeout(new IllegalStateException("boom")));
+    }
+
+    @Test
+    void shouldRetry_StopsAtMaxAttempts() {
+        LockTimeoutRetryPolicy policy = new LockTimeoutRetryPolicy(3, 100, 1000);
+        RuntimeException lockTimeout = new RuntimeException(new SQLException("lock timeout", "55P03"));
+
+        assertTrue(policy.shouldRetry(lockTimeout, 1));
+        assertTrue(policy.shouldRetry(lockTimeout, 2));
+        assertFalse(policy.shouldRetry(lockTimeout, 3));
+    }
+
+    @Test
+    void backoffMillis_GrowsExponentiallyWithinJitterBounds() {
+        LockTimeoutRetryPolicy policy = new LockTimeoutRetryPolicy(10, 100, 10_000);
+
+        for (int i = 0; i < 50; i++) {
+            long first = policy.backoffMillis(1);
+            long third = policy.backoffMillis(3);
+            assertTrue(first >= 50 && first <= 100, "first=" + first);
+            assertTrue(third >= 200 && third <= 400, "third=" + third);
+        }
+    }
+
+    @Test
+    void backoffMillis_CappedAtMaximum() {
+        LockTimeoutRetryPolicy policy = new LockTimeoutRetryPolicy(50, 100, 1000);
+
+        for (int i = 0; i < 50; i++) {
+            long delay = policy.backoffMillis(40);
+            assertTrue(delay >= 500 && delay <= 1000, "delay=" + delay);
+        }
+    }
+
+    @Test
+    void constructor_ClampsMaxAttemptsToOne() {
+        assertEquals(1, new LockTimeoutRetryPolicy(0, 100, 1000).getMaxAttempts());
+    }
+}
@@ -0,0 +1,83 @@
+package com.datadrift.executor.session;
+
+import com.datadrift.config.SessionProfileProperties;
+import com.datadrift.exception.ChangeSetExecutionException;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SessionProfilesTest {
+
+    @Test
+    void settings_NormalizesNamesAndKeepsOrder() {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("Maintenance-Work-Mem", "2GB");
+        settings.put("max_parallel_maintenance_workers", "4");
+        settings.put("work_mem", "64MB");
+
+        SessionProfiles profiles = profiles(Map.of("heavyIndexBuild", settings));
+
+        assertTrue(profiles.exists("heavyIndexBuild"));
+        Map<String, String> normalized = profiles.settings("heavyIndexBuild");
+        assertEquals(List.of("maintenance_work_mem", "max_parallel_maintenance_workers", "work_mem"),
+                List.copyOf(normalized.keySet()));
+        assertEquals("2GB", normalized.get("maintenance_work_mem"));
+    }
+
+    @Test
+    void settings_NoProfile_Empty() {
+        SessionProfiles profiles = profiles(Map.of());
+
+        assertTrue(profiles.settings(null).isEmpty());
+        assertTrue(profiles.settings(" ").isEmpty());
+    }
+
+    @Test
+    void settings_UnknownProfile_Throws() {
+        SessionProfiles profiles = profiles(Map.of());
+
+        assertFalse(profiles.exists("heavyIndexBuild"));
+        assertThrows(ChangeSetExecutionException.class, () -> profiles.settings("heavyIndexBuild"));
+    }
+
+    @Test
+    void constructor_InvalidSettingName_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> profiles(Map.of("bad", Map.of("work_mem; DROP TABLE users", "1MB"))));
+    }
+
+    @Test
+    void constructor_CustomOptionName_Accepted() {
+        SessionProfiles profiles = profiles(Map.of("trgm", Map.of("pg_trgm.similarity_threshold", "0.5")));
+
+        assertEquals(Map.of("pg_trgm.similarity_threshold", "0.5"), profiles.settings("trgm"));
+    }
+
+    @Test
+    void applyAndReset_BindValuesAndResetNames() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        Map<String, String> settings = Map.of("maintenance_work_mem", "2GB");
+
+        SessionProfiles.applyLocal(jdbc, settings);
+        SessionProfiles.resetLocal(jdbc, settings);
+        SessionProfiles.applySession(jdbc, settings);
+        SessionProfiles.resetSession(jdbc, settings);
+
+        verify(jdbc).queryForObject("SELECT set_config(?, ?, true)", String.class, "maintenance_work_mem", "2GB");
+        verify(jdbc).execute("SET LOCAL maintenance_work_mem TO DEFAULT");
+        verify(jdbc).queryForObject("SELECT set_config(?, ?, false)", String.class, "maintenance_work_mem", "2GB");
+        verify(jdbc).execute("RESET maintenance_work_mem");
+    }
+
+    private static SessionProfiles profiles(Map<String, Map<String, String>> configured) {
+        SessionProfileProperties properties = new SessionProfileProperties();
+        properties.getProfiles().putAll(configured);
+        return new SessionProfiles(properties);
+    }
+}
@@ -0,0 +1,35 @@
+package com.datadrift.executor.session;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTimeoutsTest {
+
+    @Test
+    void isValid_PostgresDurations_ReturnsTrue() {
+        assertTrue(SessionTimeouts.isValid(null));
+        assertTrue(SessionTimeouts.isValid("0"));
+        assertTrue(SessionTimeouts.isValid("1500"));
+        assertTrue(SessionTimeouts.isValid("500ms"));
+        assertTrue(SessionTimeouts.isValid("5s"));
+        assertTrue(SessionTimeouts.isValid("2 min"));
+        assertTrue(SessionTimeouts.isValid("1h"));
+    }
+
+    @Test
+    void isValid_Garbage_ReturnsFalse() {
+        assertFalse(SessionTimeouts.isValid("5 seconds"));
+        assertFalse(SessionTimeouts.isValid("-1"));
+        assertFalse(SessionTimeouts.isValid("5s; DROP TABLE users"));
+        assertFalse(SessionTimeouts.isValid(""));
+    }
+
+    @Test
+    void effective_PrefersMostSpecificValue() {
+        assertEquals("1s", SessionTimeouts.effective("1s", "2s", "3s"));
+        assertEquals("2s", SessionTimeouts.effective(null, "2s", "3s"));
+        assertEquals("3s", SessionTimeouts.effective(" ", null, "3s"));
+        assertNull(SessionTimeouts.effective(null, null, ""));
+    }
+}
@@ -0,0 +1,46 @@
+package com.datadrift.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void export_WritesPrometheusAndSummaryFiles() throws IOException {
+        MigrationMetrics metrics = new MigrationMetrics();
+        metrics.record(MigrationMetrics.PHASE, Map.of("phase", "parse"), "success", 1_000_000L);
+        Path prometheus = tempDir.resolve("textfile/datadrift.prom");
+        Path summary = tempDir.resolve("summary.json");
+
+        new MetricsExporter(metrics, true, prometheus.toString(), summary.toString()).export();
+
+        assertEquals(metrics.prometheusText(), Files.readString(prometheus));
+        assertEquals(metrics.jsonSummary(), Files.readString(summary).trim());
+        try (var files = Files.list(prometheus.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void export_DisabledOrEmpty_WritesNothing() {
+        MigrationMetrics metrics = new MigrationMetrics();
+        Path prometheus = tempDir.resolve("datadrift.prom");
+
+        new MetricsExporter(metrics, true, prometheus.toString(), "").export();
+        assertFalse(Files.exists(prometheus));
+
+        metrics.increment(MigrationMetrics.LOCK_ATTEMPTS, Map.of("result", "acquired"));
+        new MetricsExporter(metrics, false, prometheus.toString(), "").export();
+        assertFalse(Files.exists(prometheus));
+    }
+}
@@ -0,0 +1,89 @@
+package com.datadrift.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrationMetricsTest {
+
+    @Test
+    void time_RecordsSuccessAndFailureSeparately() {
+        MigrationMetrics metrics = new MigrationMetrics();
+
+        assertEquals("ok", metrics.timePhase("parse", () -> "ok"));
+        assertThrows(IllegalStateException.class, () -> metrics.timePhase("parse", (Runnable) () -> {
+            throw new IllegalStateException("broken file");
+        }));
+
+        List<MigrationMetrics.TimerSnapshot> timers = metrics.timers();
+        assertEquals(2, timers.size());
+        assertEquals(Map.of("outcome", "failure", "phase", "parse"), timers.get(0).id().tags());
+        assertEquals(Map.of("outcome", "success", "phase", "parse"), timers.get(1).id().tags());
+        assertEquals(1, timers.get(1).count());
+    }
+
+    @Test
+    void record_AccumulatesCountTotalAndMax() {
+        MigrationMetrics metrics = new MigrationMetrics();
+
+        metrics.record(MigrationMetrics.CHANGE, Map.of("type", "createIndex"), "success", 2_000_000_000L);
+        metrics.record(MigrationMetrics.CHANGE, Map.of("type", "createIndex"), "success", 500_000_000L);
+
+        MigrationMetrics.TimerSnapshot timer = metrics.timers().get(0);
+        assertEquals(2, timer.count());
+        assertEquals(2_500_000_000L, timer.totalNanos());
+        assertEquals(2_000_000_000L, timer.maxNanos());
+    }
+
+    @Test
+    void prometheusText_TimersAndCounters() {
+        MigrationMetrics metrics = new MigrationMetrics();
+        metrics.record(MigrationMetrics.CHANGE, Map.of("type", "createIndex", "operation", "execute"), "success", 1_500_000_000L);
+        metrics.increment(MigrationMetrics.LOCK_ATTEMPTS, Map.of("result", "busy"));
+        metrics.increment(MigrationMetrics.LOCK_ATTEMPTS, Map.of("result", "busy"));
+
+        String text = metrics.prometheusText();
+
+        String labels = "{operation=\"execute\",outcome=\"success\",type=\"createIndex\"}";
+        assertTrue(text.contains("# TYPE datadrift_change_seconds summary\n"));
+        assertTrue(text.contains("datadrift_change_seconds_count" + labels + " 1\n"));
+        assertTrue(text.contains("datadrift_change_seconds_sum" + labels + " 1.500000\n"));
+        assertTrue(text.contains("# TYPE datadrift_change_seconds_max gauge\n"));
+        assertTrue(text.contains("datadrift_change_seconds_max" + labels + " 1.500000\n"));
+        assertTrue(text.contains("# TYPE datadrift_lock_attempts_total counter\n"));
+        assertTrue(text.contains("datadrift_lock_attempts_total{result=\"busy\"} 2\n"));
+    }
+
+    @Test
+    void prometheusText_EscapesLabelValues() {
+        MigrationMetrics metrics = new MigrationMetrics();
+        metrics.increment("datadrift.test", Map.of("file", "a\"b\\c"));
+
+        assertTrue(metrics.prometheusText().contains("datadrift_test_total{file=\"a\\\"b\\\\c\"} 1"));
+    }
+
+    @Test
+    void jsonSummary_ListsTimersAndCounters() {
+        MigrationMetrics metrics = new MigrationMetrics();
+        metrics.record(MigrationMetrics.PHASE, Map.of("phase", "validate"), "success", 12_345_678L);
+        metrics.increment(MigrationMetrics.LOCK_ATTEMPTS, Map.of("result", "acquired"));
+
+        assertEquals("{\"timers\":[{\"name\":\"datadrift.phase\",\"tags\":{\"outcome\":\"success\",\"phase\":\"validate\"}," +
+                        "\"count\":1,\"totalMs\":12.346,\"maxMs\":12.346}]," +
+                        "\"counters\":[{\"name\":\"datadrift.lock.attempts\",\"tags\":{\"result\":\"acquired\"},\"count\":1}]}",
+                metrics.jsonSummary());
+    }
+
+    @Test
+    void isEmpty_UntilSomethingIsRecorded() {
+        MigrationMetrics metrics = new MigrationMetrics();
+        assertTrue(metrics.isEmpty());
+        assertEquals("{\"timers\":[],\"counters\":[]}", metrics.jsonSummary());
+
+        metrics.increment(MigrationMetrics.LOCK_ATTEMPTS, Map.of("result", "acquired"));
+        assertFalse(metrics.isEmpty());
+    }
+}
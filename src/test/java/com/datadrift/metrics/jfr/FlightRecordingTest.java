@@ -0,0 +1,57 @@
+package com.datadrift.metrics.jfr;
+
+import com.datadrift.model.change.SqlChange;
+import com.datadrift.model.changelog.ChangeSet;
+import com.datadrift.util.ChecksumUtil;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void start_RecordsDataDriftEventsAndWritesFileOnClose() throws Exception {
+        Path file = tempDir.resolve("run.jfr");
+        ChangeSet changeSet = new ChangeSet();
+        changeSet.setId("001");
+        changeSet.setAuthor("alice");
+        changeSet.setChanges(List.of(new SqlChange()));
+
+        try (FlightRecording ignored = FlightRecording.start(file)) {
+            ChecksumUtil.calculateChecksum(changeSet);
+
+            MigrationLockEvent lock = new MigrationLockEvent();
+            lock.begin();
+            lock.attempts = 2;
+            lock.acquired = true;
+            lock.commit();
+        }
+
+        assertTrue(Files.size(file) > 0);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("datadrift."))
+                .toList();
+
+        RecordedEvent checksummed = events.stream()
+                .filter(event -> event.getEventType().getName().equals("datadrift.ChangeSetChecksummed"))
+                .findFirst().orElseThrow();
+        assertEquals("001::alice", checksummed.getString("changeSet"));
+        assertEquals(1, checksummed.getInt("changes"));
+
+        RecordedEvent lock = events.stream()
+                .filter(event -> event.getEventType().getName().equals("datadrift.MigrationLock"))
+                .findFirst().orElseThrow();
+        assertEquals(2, lock.getInt("attempts"));
+        assertTrue(lock.getBoolean("acquired"));
+    }
+}
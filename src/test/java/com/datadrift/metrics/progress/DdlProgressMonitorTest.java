@@ -0,0 +1,90 @@
+package com.datadrift.metrics.progress;
+
+import com.datadrift.metrics.MigrationMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DdlProgressMonitorTest {
+
+    @Test
+    void describe_ScanPhase_UsesBlocksAndEstimatesPhaseEta() {
+        DdlProgressMonitor.Sample sample = new DdlProgressMonitor.Sample("create index",
+                "building index: scanning table", 3_600_000, 6_000_000, 0, 0);
+
+        // 60% after 24 minutes leaves 16 minutes
+        assertEquals("building index: scanning table 60% (blocks 3600000 of 6000000), phase ETA 00:16:00",
+                DdlProgressMonitor.describe(sample, 24 * 60_000));
+    }
+
+    @Test
+    void describe_LoadingPhase_UsesTuples() {
+        DdlProgressMonitor.Sample sample = new DdlProgressMonitor.Sample("create index",
+                "building index: loading tuples in tree", 6_000_000, 6_000_000, 250, 1000);
+
+        assertEquals(0.25, DdlProgressMonitor.fraction(sample), 0.0001);
+        assertTrue(DdlProgressMonitor.describe(sample, 60_000).startsWith(
+                "building index: loading tuples in tree 25% (tuples 250 of 1000), phase ETA 00:03:00"));
+    }
+
+    @Test
+    void describe_PhaseWithoutTotals_ReportsPhaseOnly() {
+        DdlProgressMonitor.Sample sample = new DdlProgressMonitor.Sample("create index",
+                "building index: sorting live tuples", 0, 0, 0, 0);
+
+        assertNull(DdlProgressMonitor.fraction(sample));
+        assertEquals("building index: sorting live tuples", DdlProgressMonitor.describe(sample, 1000));
+    }
+
+    @Test
+    void run_Disabled_RunsStatementWithoutQueries() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        Runnable statement = mock(Runnable.class);
+
+        new DdlProgressMonitor(mock(DataSource.class), null, null, 0).run(jdbc, "CREATE INDEX idx", statement);
+
+        verify(statement).run();
+        verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void run_ClosesMonitorConnectionWhenStatementFails() throws SQLException {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(jdbc.queryForObject(eq("SELECT pg_backend_pid()"), eq(Integer.class))).thenReturn(4242);
+        when(dataSource.getConnection()).thenReturn(connection);
+        MigrationMetrics metrics = new MigrationMetrics();
+        DdlProgressMonitor monitor = new DdlProgressMonitor(dataSource, new MigrationProgress(null, 0), metrics, 60_000);
+
+        assertThrows(IllegalStateException.class, () -> monitor.run(jdbc, "CREATE INDEX idx", () -> {
+            throw new IllegalStateException("duplicate key");
+        }));
+
+        verify(connection).close();
+        // Never polled within one interval, so no phase was seen
+        assertTrue(metrics.isEmpty());
+    }
+
+    @Test
+    void run_NoSpareConnection_RunsUnwatched() throws SQLException {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        DataSource dataSource = mock(DataSource.class);
+        Runnable statement = mock(Runnable.class);
+        when(jdbc.queryForObject(eq("SELECT pg_backend_pid()"), eq(Integer.class))).thenReturn(4242);
+        when(dataSource.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+
+        new DdlProgressMonitor(dataSource, new MigrationProgress(null, 0), new MigrationMetrics(), 60_000)
+                .run(jdbc, "CREATE INDEX idx", statement);
+
+        verify(statement).run();
+    }
+}
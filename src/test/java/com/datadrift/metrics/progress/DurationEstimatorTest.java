@@ -0,0 +1,63 @@
+package com.datadrift.metrics.progress;
+
+import com.datadrift.model.change.CreateIndexChange;
+import com.datadrift.model.change.CreateTableChange;
+import com.datadrift.model.change.SqlChange;
+import com.datadrift.repository.ExecutionHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class DurationEstimatorTest {
+
+    private DurationEstimator estimator;
+
+    @BeforeEach
+    void setUp() {
+        // 1 MB/s so table sizes translate directly into seconds
+        estimator = new DurationEstimator(mock(ExecutionHistoryRepository.class), mock(JdbcTemplate.class), 500, 1_000_000);
+    }
+
+    @Test
+    void estimate_UsesHistoricalMedianOfChangeType() {
+        CreateIndexChange change = createIndex("orders");
+
+        assertEquals(42_000L, estimator.estimate(change, Map.of("createIndex", 42_000L), Map.of("orders", 10_000_000_000L)));
+    }
+
+    @Test
+    void estimate_WithoutHistory_ScanningChangeUsesTableSize() {
+        CreateIndexChange change = createIndex("orders");
+
+        assertEquals(30_000L, estimator.estimate(change, Map.of(), Map.of("orders", 30_000_000L)));
+    }
+
+    @Test
+    void estimate_WithoutHistory_SmallOrMissingTableUsesDefault() {
+        assertEquals(500L, estimator.estimate(createIndex("orders"), Map.of(), Map.of("orders", 1_000L)));
+        assertEquals(500L, estimator.estimate(createIndex("missing"), Map.of(), Map.of()));
+    }
+
+    @Test
+    void estimate_NonScanningChangeUsesDefault() {
+        CreateTableChange createTable = new CreateTableChange();
+        createTable.setTableName("orders");
+        SqlChange sql = new SqlChange();
+        sql.setSql("SELECT 1");
+
+        assertEquals(500L, estimator.estimate(createTable, Map.of(), Map.of("orders", 30_000_000L)));
+        assertEquals(500L, estimator.estimate(sql, Map.of(), Map.of()));
+    }
+
+    private static CreateIndexChange createIndex(String table) {
+        CreateIndexChange change = new CreateIndexChange();
+        change.setTableName(table);
+        change.setIndexName("idx_" + table);
+        return change;
+    }
+}
@@ -0,0 +1,170 @@
+package com.datadrift.metrics.progress;
+
+import com.datadrift.model.change.SqlChange;
+import com.datadrift.model.changelog.ChangeSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MigrationProgressTest {
+
+    private DurationEstimator estimator;
+    private MigrationProgress progress;
+    private final List<ProgressSnapshot> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        estimator = mock(DurationEstimator.class);
+        progress = new MigrationProgress(estimator, 0);
+    }
+
+    @Test
+    void withoutSinks_IsInactiveAndSkipsEstimation() {
+        progress.runStarted(List.of(changeSet("001")));
+        progress.changeSetFinished(changeSet("001"), true);
+        progress.runFinished(true);
+
+        assertFalse(progress.isActive());
+        verifyNoInteractions(estimator);
+    }
+
+    @Test
+    void run_ReportsCompletedRunningAndRemaining() {
+        ChangeSet first = changeSet("001");
+        ChangeSet second = changeSet("002");
+        Map<ChangeSet, Long> estimates = new IdentityHashMap<>();
+        estimates.put(first, 60_000L);
+        estimates.put(second, 3_600_000L);
+        when(estimator.estimate(anyList())).thenReturn(estimates);
+        progress.attach(events::add);
+
+        progress.runStarted(List.of(first, second));
+        progress.changeSetStarted(first);
+        progress.changeStarted(first, "createIndex", "orders");
+        progress.changeSetFinished(first, true);
+        progress.changeSetStarted(second);
+        progress.runFinished(false);
+        assertTrue(progress.awaitDelivery(5000));
+
+        ProgressSnapshot started = events.get(0);
+        assertEquals("started", started.event());
+        assertEquals(2, started.total());
+        assertEquals(3_660_000L, started.remainingMs());
+
+        ProgressSnapshot changeStarted = events.get(2);
+        assertEquals("change_started", changeStarted.event());
+        assertEquals(List.of("createIndex"), changeStarted.running().stream().map(ProgressSnapshot.RunningChange::changeType).toList());
+        assertEquals("orders", changeStarted.running().get(0).tables());
+
+        ProgressSnapshot finished = events.get(3);
+        assertEquals("changeset_finished", finished.event());
+        assertEquals("001::author", finished.changeSet());
+        assertEquals(1, finished.completed());
+        assertTrue(finished.running().isEmpty());
+        // The first changeset finished far below its estimate, so the rest is scaled down
+        assertEquals(900_000L, finished.remainingMs());
+
+        ProgressSnapshot last = events.get(events.size() - 1);
+        assertEquals("finished", last.event());
+        assertEquals(Boolean.FALSE, last.succeeded());
+    }
+
+    @Test
+    void failedChangeSet_CountsAsCompletedAndFailed() {
+        ChangeSet changeSet = changeSet("001");
+        when(estimator.estimate(anyList())).thenReturn(new IdentityHashMap<>(Map.of(changeSet, 1000L)));
+        progress.attach(events::add);
+
+        progress.runStarted(List.of(changeSet));
+        progress.changeSetStarted(changeSet);
+        progress.changeSetFinished(changeSet, false);
+        assertTrue(progress.awaitDelivery(5000));
+
+        ProgressSnapshot finished = events.get(events.size() - 1);
+        assertEquals(1, finished.completed());
+        assertEquals(1, finished.failed());
+        assertEquals(Boolean.FALSE, finished.succeeded());
+    }
+
+    @Test
+    void failingSink_DoesNotStopOtherSinks() {
+        when(estimator.estimate(anyList())).thenReturn(new IdentityHashMap<>());
+        progress.attach(snapshot -> {
+            throw new IllegalStateException("broken pipe");
+        });
+        progress.attach(events::add);
+
+        progress.runStarted(List.of());
+        assertTrue(progress.awaitDelivery(5000));
+
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    void changeDetail_AttachesToTheWorkersChange() {
+        ChangeSet changeSet = changeSet("001");
+        when(estimator.estimate(anyList())).thenReturn(new IdentityHashMap<>(Map.of(changeSet, 1000L)));
+        progress.attach(events::add);
+        progress.runStarted(List.of(changeSet));
+        progress.changeSetStarted(changeSet);
+        progress.changeStarted(changeSet, "createIndex", "orders");
+
+        progress.changeDetail(Thread.currentThread(), "building index: scanning table 60%");
+        String detail = progress.snapshot("heartbeat", null, null).running().get(0).detail();
+        progress.changeDetail(Thread.currentThread(), null);
+
+        assertEquals("building index: scanning table 60%", detail);
+        assertNull(progress.snapshot("heartbeat", null, null).running().get(0).detail());
+    }
+
+    @Test
+    void stalledSink_DoesNotBlockWorkers() throws InterruptedException {
+        when(estimator.estimate(anyList())).thenReturn(new IdentityHashMap<>());
+        CountDownLatch release = new CountDownLatch(1);
+        progress.attach(snapshot -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < 5_000; i++) {
+            progress.runStarted(List.of());
+        }
+
+        assertTrue((System.nanoTime() - startNanos) / 1_000_000 < 5_000);
+        assertFalse(progress.awaitDelivery(50));
+        release.countDown();
+    }
+
+    @Test
+    void detachAll_ClosesSinks() {
+        ProgressSink sink = mock(ProgressSink.class);
+        progress.attach(sink);
+
+        progress.detachAll();
+
+        verify(sink).close();
+        assertFalse(progress.isActive());
+    }
+
+    private static ChangeSet changeSet(String id) {
+        ChangeSet changeSet = new ChangeSet();
+        changeSet.setId(id);
+        changeSet.setAuthor("author");
+        SqlChange change = new SqlChange();
+        change.setSql("SELECT 1");
+        changeSet.setChanges(List.of(change));
+        return changeSet;
+    }
+}
@@ -0,0 +1,58 @@
+package com.datadrift.metrics.progress;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProgressSinkTest {
+
+    private static final ProgressSnapshot RUNNING = new ProgressSnapshot("heartbeat", null, null, 12, 3, 0,
+            252_000, 1_038_000, List.of(new ProgressSnapshot.RunningChange("orders-idx::alice", "createIndex", "orders", 121_000, null)));
+
+    @Test
+    void console_RendersCountsTimesAndCurrentChange() {
+        assertEquals("[ 3/12] 00:04:12 elapsed, ~00:17:18 left | createIndex on orders (orders-idx::alice, 00:02:01)",
+                ConsoleProgressSink.render(RUNNING));
+    }
+
+    @Test
+    void console_HeartbeatWithoutRunningChange_PrintsNothing() {
+        ProgressSnapshot idle = new ProgressSnapshot("heartbeat", null, null, 1, 0, 0, 0, 0, List.of());
+
+        assertNull(ConsoleProgressSink.render(idle));
+    }
+
+    @Test
+    void console_FormatsLongDurations() {
+        assertEquals("26:00:05", ConsoleProgressSink.duration(93_605_000));
+    }
+
+    @Test
+    void ndjson_WritesOneObjectPerLine(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("progress.ndjson");
+
+        try (NdjsonProgressSink sink = NdjsonProgressSink.open(file.toString())) {
+            sink.accept(RUNNING);
+            sink.accept(new ProgressSnapshot("finished", null, true, 12, 12, 0, 1_300_000, 0, List.of()));
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"event\":\"heartbeat\""));
+        assertTrue(lines.get(0).contains("\"remainingMs\":1038000"));
+        assertTrue(lines.get(0).contains("\"running\":[{\"changeSet\":\"orders-idx::alice\",\"changeType\":\"createIndex\","
+                + "\"tables\":\"orders\",\"elapsedMs\":121000,\"detail\":null}]"));
+        assertTrue(lines.get(1).contains("\"succeeded\":true"));
+        assertTrue(lines.get(1).contains("\"changeSet\":null"));
+    }
+
+    @Test
+    void ndjson_InvalidSocketTarget_Throws() {
+        assertThrows(Exception.class, () -> NdjsonProgressSink.open("tcp://no-port"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.datadrift.model.change;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackfillColumnChangeTest {
+
+    @Test
+    void testGetChangeType() {
+        assertEquals("backfillColumn", new BackfillColumnChange().getChangeType());
+    }
+
+    @Test
+    void testValidate_Success() {
+        assertDoesNotThrow(createChange()::validate);
+    }
+
+    @Test
+    void testValidate_MissingValueComputed() {
+        BackfillColumnChange change = createChange();
+        change.setValueComputed(null);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, change::validate);
+        assertTrue(exception.getMessage().contains("valueComputed is required"));
+    }
+
+    @Test
+    void testValidate_UnsafeValueComputed() {
+        BackfillColumnChange change = createChange();
+        change.setValueComputed("1; DROP TABLE orders");
+
+        assertThrows(IllegalArgumentException.class, change::validate);
+    }
+
+    @Test
+    void testValidate_NonPositiveChunkSize() {
+        BackfillColumnChange change = createChange();
+        change.setChunkSize(0);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, change::validate);
+        assertTrue(exception.getMessage().contains("chunkSize must be positive"));
+    }
+
+    @Test
+    void testIsNotNullRequested_DefaultsToTrue() {
+        BackfillColumnChange change = createChange();
+        assertTrue(change.isNotNullRequested());
+
+        change.setNotNull(false);
+        assertFalse(change.isNotNullRequested());
+    }
+
+    @Test
+    void testToString_ExcludesThrottleSettings() {
+        BackfillColumnChange change = createChange();
+        String before = change.toString();
+
+        change.setChunkSize(500);
+        change.setMaxRowsPerSecond(2000);
+
+        assertEquals(before, change.toString());
+    }
+
+    private BackfillColumnChange createChange() {
+        BackfillColumnChange change = new BackfillColumnChange();
+        change.setTableName("orders");
+        change.setColumnName("total_cents");
+        change.setColumnType("BIGINT");
+        change.setValueComputed("quantity * unit_price_cents");
+        return change;
+    }
+}
@@ -0,0 +1,69 @@
+package com.datadrift.model.change;
+
+import com.datadrift.model.change.CreateTableChange.ColumnConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModifyColumnChangeTest {
+
+    @Test
+    void testGetChangeType() {
+        assertEquals("modifyColumn", new ModifyColumnChange().getChangeType());
+    }
+
+    @Test
+    void testValidate_Success() {
+        ModifyColumnChange change = createChange("amount", "NUMERIC(12,2)");
+
+        assertDoesNotThrow(change::validate);
+    }
+
+    @Test
+    void testValidate_MissingTableName() {
+        ModifyColumnChange change = createChange("amount", "NUMERIC(12,2)");
+        change.setTableName(null);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, change::validate);
+        assertTrue(exception.getMessage().contains("tableName is required"));
+    }
+
+    @Test
+    void testValidate_NoColumns() {
+        ModifyColumnChange change = createChange("amount", "NUMERIC(12,2)");
+        change.setColumns(List.of());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, change::validate);
+        assertTrue(exception.getMessage().contains("At least one column"));
+    }
+
+    @Test
+    void testValidate_MissingColumnType() {
+        ModifyColumnChange change = createChange("amount", null);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, change::validate);
+        assertTrue(exception.getMessage().contains("Column type is required"));
+    }
+
+    @Test
+    void testToString_ExcludesOnline() {
+        ModifyColumnChange inPlace = createChange("amount", "NUMERIC(12,2)");
+        ModifyColumnChange online = createChange("amount", "NUMERIC(12,2)");
+        online.setOnline(true);
+
+        assertEquals(inPlace.toString(), online.toString());
+    }
+
+    private ModifyColumnChange createChange(String columnName, String type) {
+        ColumnConfig column = new ColumnConfig();
+        column.setName(columnName);
+        column.setType(type);
+
+        ModifyColumnChange change = new ModifyColumnChange();
+        change.setTableName("orders");
+        change.setColumns(List.of(column));
+        return change;
+    }
+}
@@ -0,0 +1,121 @@
+package com.datadrift.model.changelog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutedChangeSetIndexTest {
+
+    private static final String CHECKSUM = "8:0123456789abcdef0123456789abcdef";
+
+    @Test
+    void empty_ContainsNothing() {
+        ExecutedChangeSetIndex index = ExecutedChangeSetIndex.empty();
+
+        assertEquals(0, index.size());
+        assertFalse(index.contains("001", "author1"));
+        assertFalse(index.checksumMatches("001", "author1", CHECKSUM));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutedChangeSetIndex.Storage.class)
+    void contains_AllStorages_FindsEveryAddedKey(ExecutedChangeSetIndex.Storage storage) {
+        ExecutedChangeSetIndex.Builder builder = ExecutedChangeSetIndex.builder(storage);
+        for (int i = 0; i < 5_000; i++) {
+            builder.add(String.format("%04d", i), "author" + (i % 7), CHECKSUM);
+        }
+
+        ExecutedChangeSetIndex index = builder.build();
+
+        assertEquals(5_000, index.size());
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(index.contains(String.format("%04d", i), "author" + (i % 7)));
+        }
+        assertFalse(index.contains("5000", "author0"));
+        assertFalse(index.contains("0001", "someone-else"));
+    }
+
+    @Test
+    void contains_IdAuthorBoundary_IsNotAmbiguous() {
+        ExecutedChangeSetIndex index = ExecutedChangeSetIndex.builder()
+                .add("ab", "c", CHECKSUM)
+                .build();
+
+        assertTrue(index.contains("ab", "c"));
+        assertFalse(index.contains("a", "bc"));
+    }
+
+    @Test
+    void checksumMatches_SameChecksum_ReturnsTrue() {
+        ExecutedChangeSetIndex index = ExecutedChangeSetIndex.builder()
+                .add("001", "author1", CHECKSUM)
+                .build();
+
+        assertTrue(index.checksumMatches("001", "author1", CHECKSUM));
+    }
+
+    @Test
+    void checksumMatches_DifferentChecksum_ReturnsFalse() {
+        ExecutedChangeSetIndex index = ExecutedChangeSetIndex.builder()
+                .add("001", "author1", CHECKSUM)
+                .build();
+
+        assertFalse(index.checksumMatches("001", "author1", "8:ffffffffffffffffffffffffffffffff"));
+    }
+
+    @Test
+    void checksumMatches_StoredChecksumNull_ReturnsFalse() {
+        ExecutedChangeSetIndex index = ExecutedChangeSetIndex.builder()
+                .add("001", "author1", null)
+                .build();
+
+        assertTrue(index.contains("001", "author1"));
+        assertFalse(index.checksumMatches("001", "author1", CHECKSUM));
+    }
+
+    @Test
+    void checksumMatches_NonMd5Format_ComparesByValue() {
+        ExecutedChangeSetIndex index = ExecutedChangeSetIndex.builder()
+                .add("001", "author1", "7:legacy-checksum")
+                .build();
+
+        assertTrue(index.checksumMatches("001", "author1", "7:legacy-checksum"));
+        assertFalse(index.checksumMatches("001", "author1", "7:other-checksum"));
+    }
+
+    @Test
+    void checksumMatches_DuplicateKey_MatchesAnyRow() {
+        // Same id/author recorded from two different files
+        ExecutedChangeSetIndex index = ExecutedChangeSetIndex.builder()
+                .add("001", "author1", "8:ffffffffffffffffffffffffffffffff")
+                .add("001", "author1", CHECKSUM)
+                .build();
+
+        assertEquals(2, index.size());
+        assertTrue(index.checksumMatches("001", "author1", CHECKSUM));
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ExecutedChangeSetIndex.Storage.class, names = {"DIRECT", "MAPPED"})
+    void expectedSize_BeyondBufferLimit_FailsClearly(ExecutedChangeSetIndex.Storage storage) {
+        ExecutedChangeSetIndex.Builder builder = ExecutedChangeSetIndex.builder(storage);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> builder.expectedSize(100_000_000));
+
+        assertTrue(e.getMessage().contains("89478484"));
+    }
+
+    @Test
+    void hashKey_SameInput_IsStable() {
+        assertEquals(
+                ExecutedChangeSetIndex.hashKey("001", "author1"),
+                ExecutedChangeSetIndex.hashKey("001", "author1")
+        );
+        assertNotEquals(
+                ExecutedChangeSetIndex.hashKey("001", "author1"),
+                ExecutedChangeSetIndex.hashKey("002", "author1")
+        );
+    }
+}
@@ -51,6 +51,38 @@ class ChangeSetLoaderTest {
         assertEquals("schema,data", result.getLabels());
     }
 
+    @Test
+    void testLoad_Timeouts() {
+        ParsedNode node = changeSetNode("cs-001", "alice");
+        node.getAttributes().put("lockTimeout", "5s");
+        node.getAttributes().put("statementTimeout", "10min");
+
+        ChangeSet result = loader.load(node);
+
+        assertEquals("5s", result.getLockTimeout());
+        assertEquals("10min", result.getStatementTimeout());
+    }
+
+    @Test
+    void testLoad_Timeouts_DefaultToNull() {
+        ParsedNode node = changeSetNode("cs-001", "alice");
+
+        ChangeSet result = loader.load(node);
+
+        assertNull(result.getLockTimeout());
+        assertNull(result.getStatementTimeout());
+    }
+
+    @Test
+    void testLoad_SessionProfile() {
+        ParsedNode node = changeSetNode("cs-001", "alice");
+        node.getAttributes().put("sessionProfile", "heavyIndexBuild");
+
+        ChangeSet result = loader.load(node);
+
+        assertEquals("heavyIndexBuild", result.getSessionProfile());
+    }
+
     @Test
     void testLoad_FailOnError_DefaultsToTrue() {
         ParsedNode node = changeSetNode("cs-001", "alice");
@@ -32,6 +32,20 @@ class PropertyMapperTest {
         assertEquals("id = 1", change.getWhere());
     }
 
+    @Test
+    void testPopulate_InheritedTimeoutAttributes() {
+        ParsedNode node = new ParsedNode();
+        node.setName("dropTable");
+        node.getAttributes().put("tableName", "users");
+        node.getAttributes().put("lockTimeout", "3s");
+        node.getAttributes().put("statementTimeout", "1min");
+
+        DropTableChange change = mapper.populate(node, DropTableChange.class);
+
+        assertEquals("3s", change.getLockTimeout());
+        assertEquals("1min", change.getStatementTimeout());
+    }
+
     @Test
     void testPopulate_Alias_CascadeConstraints() {
         ParsedNode node = new ParsedNode();
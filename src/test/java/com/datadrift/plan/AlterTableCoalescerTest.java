@@ -0,0 +1,184 @@
+package com.datadrift.plan;
+
+import com.datadrift.executor.change.AddColumnExecutor;
+import com.datadrift.executor.change.AddForeignKeyExecutor;
+import com.datadrift.executor.change.ChangeExecutor;
+import com.datadrift.executor.change.DropColumnExecutor;
+import com.datadrift.executor.change.DropForeignKeyExecutor;
+import com.datadrift.executor.change.SqlExecutor;
+import com.datadrift.executor.constraint.DeferredConstraintValidator;
+import com.datadrift.metrics.progress.DdlProgressMonitor;
+import com.datadrift.model.change.AddColumnChange;
+import com.datadrift.model.change.AddForeignKeyChange;
+import com.datadrift.model.change.Change;
+import com.datadrift.model.change.CreateTableChange.ColumnConfig;
+import com.datadrift.model.change.DropColumnChange;
+import com.datadrift.model.change.DropForeignKeyChange;
+import com.datadrift.model.change.SqlChange;
+import com.datadrift.sql.dialect.PostgreSqlDialect;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AlterTableCoalescerTest {
+
+    private Map<String, ChangeExecutor> executors;
+    private AlterTableCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        DeferredConstraintValidator constraintValidator = mock(DeferredConstraintValidator.class);
+        executors = Map.of(
+                "addColumn", new AddColumnExecutor(jdbcTemplate, new PostgreSqlDialect(), constraintValidator),
+                "dropColumn", new DropColumnExecutor(jdbcTemplate),
+                "addForeignKey", new AddForeignKeyExecutor(jdbcTemplate, constraintValidator),
+                "dropForeignKey", new DropForeignKeyExecutor(jdbcTemplate),
+                "sql", new SqlExecutor(jdbcTemplate, new DdlProgressMonitor(null, null, null, 0))
+        );
+        coalescer = new AlterTableCoalescer(executors, true);
+    }
+
+    @Test
+    void optimize_AddColumnThenForeignKeyOnSameTable_MergedIntoOneAlter() {
+        List<Change> optimized = coalescer.optimize(List.of(addColumn("products", "category_id"), addForeignKey("products")));
+
+        assertEquals(1, optimized.size());
+        AlterTableChange merged = assertInstanceOf(AlterTableChange.class, optimized.get(0));
+        assertEquals("\"products\"", merged.getTableName());
+        assertEquals(2, merged.getActions().size());
+        assertTrue(merged.getActions().get(0).startsWith("ADD COLUMN \"category_id\""));
+        assertTrue(merged.getActions().get(1).startsWith("ADD CONSTRAINT \"fk_products_category\""));
+        assertEquals(2, merged.getSourceChanges().size());
+    }
+
+    @Test
+    void optimize_SingleChangeWithSeveralColumns_Merged() {
+        List<Change> optimized = coalescer.optimize(List.of(addColumn("users", "age", "email")));
+
+        AlterTableChange merged = assertInstanceOf(AlterTableChange.class, optimized.get(0));
+        assertEquals(2, merged.getActions().size());
+    }
+
+    @Test
+    void optimize_SingleAction_LeftUnchanged() {
+        AddColumnChange change = addColumn("users", "age");
+
+        List<Change> optimized = coalescer.optimize(List.of(change));
+
+        assertSame(change, optimized.get(0));
+    }
+
+    @Test
+    void optimize_DifferentTables_NotMerged() {
+        List<Change> optimized = coalescer.optimize(List.of(addColumn("users", "age"), addColumn("orders", "note")));
+
+        assertEquals(2, optimized.size());
+        assertInstanceOf(AddColumnChange.class, optimized.get(0));
+        assertInstanceOf(AddColumnChange.class, optimized.get(1));
+    }
+
+    @Test
+    void optimize_NonAlterChangeBreaksRun() {
+        SqlChange sql = new SqlChange();
+        sql.setSql("UPDATE users SET age = 0");
+
+        List<Change> optimized = coalescer.optimize(List.of(addColumn("users", "age"), sql, addColumn("users", "email")));
+
+        assertEquals(3, optimized.size());
+        assertSame(sql, optimized.get(1));
+    }
+
+    @Test
+    void optimize_DropsBeforeAdds_Merged() {
+        List<Change> optimized = coalescer.optimize(List.of(
+                dropForeignKey("products"), dropColumn("products", "legacy"), addColumn("products", "category_id")));
+
+        AlterTableChange merged = assertInstanceOf(AlterTableChange.class, optimized.get(0));
+        assertEquals(List.of("DROP CONSTRAINT \"fk_products_category\"", "DROP COLUMN \"legacy\""),
+                merged.getActions().subList(0, 2));
+    }
+
+    @Test
+    void optimize_DropAfterAdd_StartsNewStatement() {
+        List<Change> optimized = coalescer.optimize(List.of(
+                addColumn("products", "category_id"), dropColumn("products", "legacy")));
+
+        assertEquals(2, optimized.size());
+        assertInstanceOf(AddColumnChange.class, optimized.get(0));
+        assertInstanceOf(DropColumnChange.class, optimized.get(1));
+    }
+
+    @Test
+    void optimize_DifferentTimeouts_NotMerged() {
+        AddColumnChange first = addColumn("users", "age");
+        AddColumnChange second = addColumn("users", "email");
+        second.setLockTimeout("2s");
+
+        List<Change> optimized = coalescer.optimize(List.of(first, second));
+
+        assertEquals(2, optimized.size());
+    }
+
+    @Test
+    void optimize_SameTimeouts_CarriedOverToMergedChange() {
+        AddColumnChange first = addColumn("users", "age");
+        AddColumnChange second = addColumn("users", "email");
+        first.setLockTimeout("2s");
+        second.setLockTimeout("2s");
+
+        AlterTableChange merged = assertInstanceOf(AlterTableChange.class, coalescer.optimize(List.of(first, second)).get(0));
+
+        assertEquals("2s", merged.getLockTimeout());
+    }
+
+    @Test
+    void optimize_Disabled_ReturnsChangesUnchanged() {
+        List<Change> changes = List.of(addColumn("users", "age"), addColumn("users", "email"));
+
+        assertSame(changes, new AlterTableCoalescer(executors, false).optimize(changes));
+    }
+
+    private static AddColumnChange addColumn(String table, String... columns) {
+        AddColumnChange change = new AddColumnChange();
+        change.setTableName(table);
+        change.setColumns(Arrays.stream(columns).map(name -> {
+            ColumnConfig column = new ColumnConfig();
+            column.setName(name);
+            column.setType("BIGINT");
+            return column;
+        }).toList());
+        return change;
+    }
+
+    private static DropColumnChange dropColumn(String table, String column) {
+        DropColumnChange change = new DropColumnChange();
+        change.setTableName(table);
+        change.setColumns(List.of(column));
+        return change;
+    }
+
+    private static AddForeignKeyChange addForeignKey(String table) {
+        AddForeignKeyChange change = new AddForeignKeyChange();
+        change.setConstraintName("fk_products_category");
+        change.setBaseTableName(table);
+        change.setBaseColumnNames(List.of("category_id"));
+        change.setReferencedTableName("categories");
+        change.setReferencedColumnNames(List.of("id"));
+        return change;
+    }
+
+    private static DropForeignKeyChange dropForeignKey(String table) {
+        DropForeignKeyChange change = new DropForeignKeyChange();
+        change.setConstraintName("fk_products_category");
+        change.setBaseTableName(table);
+        return change;
+    }
+}
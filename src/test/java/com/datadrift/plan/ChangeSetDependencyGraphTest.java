@@ -0,0 +1,137 @@
+package com.datadrift.plan;
+
+import com.datadrift.model.change.Change;
+import com.datadrift.model.change.CreateIndexChange;
+import com.datadrift.model.change.CreateTableChange;
+import com.datadrift.model.change.SqlChange;
+import com.datadrift.model.changelog.ChangeSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeSetDependencyGraphTest {
+
+    @Test
+    void build_DisjointTables_NoDependencies() {
+        ChangeSetDependencyGraph graph = ChangeSetDependencyGraph.build(List.of(
+                changeSet("001", createIndex("idx_a", "a")),
+                changeSet("002", createIndex("idx_b", "b")),
+                changeSet("003", createIndex("idx_c", "c"))
+        ));
+
+        for (int node = 0; node < graph.size(); node++) {
+            assertTrue(graph.dependenciesOf(node).isEmpty());
+            assertFalse(graph.isBarrier(node));
+        }
+    }
+
+    @Test
+    void build_SameTable_DependsOnLastToucher() {
+        ChangeSetDependencyGraph graph = ChangeSetDependencyGraph.build(List.of(
+                changeSet("001", createTable("orders")),
+                changeSet("002", createIndex("idx_orders_1", "orders")),
+                changeSet("003", createIndex("idx_orders_2", "ORDERS"))
+        ));
+
+        assertEquals(Set.of(), graph.dependenciesOf(0));
+        assertEquals(Set.of(0), graph.dependenciesOf(1));
+        assertEquals(Set.of(1), graph.dependenciesOf(2));
+        assertEquals(List.of(1), graph.dependentsOf(0));
+    }
+
+    @Test
+    void build_SqlChange_IsBarrier() {
+        ChangeSetDependencyGraph graph = ChangeSetDependencyGraph.build(List.of(
+                changeSet("001", createTable("a")),
+                changeSet("002", createTable("b")),
+                changeSet("003", sql("UPDATE a SET x = 1")),
+                changeSet("004", createTable("c"))
+        ));
+
+        assertTrue(graph.isBarrier(2));
+        assertEquals(Set.of(0, 1), graph.dependenciesOf(2));
+        assertEquals(Set.of(2), graph.dependenciesOf(3));
+    }
+
+    @Test
+    void build_MixedChangeSetWithSql_IsBarrier() {
+        ChangeSetDependencyGraph graph = ChangeSetDependencyGraph.build(List.of(
+                changeSet("001", createTable("a")),
+                changeSet("002", createTable("b"), sql("SELECT 1"))
+        ));
+
+        assertTrue(graph.isBarrier(1));
+        assertEquals(Set.of(0), graph.dependenciesOf(1));
+    }
+
+    @Test
+    void build_EdgesPointForward() {
+        ChangeSetDependencyGraph graph = ChangeSetDependencyGraph.build(List.of(
+                changeSet("001", createTable("a")),
+                changeSet("002", sql("SELECT 1")),
+                changeSet("003", createTable("a")),
+                changeSet("004", createIndex("idx_b", "b")),
+                changeSet("005", createIndex("idx_a", "a"))
+        ));
+
+        for (int node = 0; node < graph.size(); node++) {
+            for (int dependency : graph.dependenciesOf(node)) {
+                assertTrue(dependency < node);
+            }
+        }
+        assertEquals(Set.of(1, 2), graph.dependenciesOf(4));
+    }
+
+    @Test
+    void build_InlineForeignKey_DependsOnReferencedTable() {
+        CreateTableChange.ColumnConfig userId = new CreateTableChange.ColumnConfig();
+        userId.setName("user_id");
+        userId.setConstraints(new CreateTableChange.ConstraintsConfig(
+                false, false, false, null, "users(id)", null, null, null));
+        CreateTableChange orders = createTable("orders");
+        orders.setColumns(List.of(userId));
+
+        ChangeSetDependencyGraph graph = ChangeSetDependencyGraph.build(List.of(
+                changeSet("001", createTable("users")),
+                changeSet("002", orders)
+        ));
+
+        assertEquals(Set.of(0), graph.dependenciesOf(1));
+        assertFalse(graph.isBarrier(1));
+    }
+
+    @Test
+    void build_Empty_HasNoNodes() {
+        assertEquals(0, ChangeSetDependencyGraph.build(List.of()).size());
+    }
+
+    private ChangeSet changeSet(String id, Change... changes) {
+        ChangeSet changeSet = new ChangeSet();
+        changeSet.setId(id);
+        changeSet.setAuthor("author1");
+        changeSet.setChanges(List.of(changes));
+        return changeSet;
+    }
+
+    private CreateTableChange createTable(String tableName) {
+        CreateTableChange change = new CreateTableChange();
+        change.setTableName(tableName);
+        return change;
+    }
+
+    private CreateIndexChange createIndex(String indexName, String tableName) {
+        CreateIndexChange change = new CreateIndexChange();
+        change.setIndexName(indexName);
+        change.setTableName(tableName);
+        return change;
+    }
+
+    private SqlChange sql(String statement) {
+        SqlChange change = new SqlChange();
+        change.setSql(statement);
+        return change;
+    }
+}
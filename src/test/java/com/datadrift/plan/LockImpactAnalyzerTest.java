@@ -0,0 +1,194 @@
+package com.datadrift.plan;
+
+import com.datadrift.model.change.AddColumnChange;
+import com.datadrift.model.change.AddForeignKeyChange;
+import com.datadrift.model.change.Change;
+import com.datadrift.model.change.CreateIndexChange;
+import com.datadrift.model.change.CreateTableChange.ColumnConfig;
+import com.datadrift.model.change.CreateTableChange.ConstraintsConfig;
+import com.datadrift.model.change.DropColumnChange;
+import com.datadrift.model.change.ModifyColumnChange;
+import com.datadrift.model.change.SqlChange;
+import com.datadrift.model.change.UpdateChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockImpactAnalyzerTest {
+
+    private final LockImpactAnalyzer analyzer = new LockImpactAnalyzer(false);
+
+    @Test
+    void addColumn_ConstantDefault_IsCatalogOnly() {
+        LockImpact impact = single(addColumn(column("status", "VARCHAR(20)", "'new'", null)));
+
+        assertEquals(LockLevel.ACCESS_EXCLUSIVE, impact.lockLevel());
+        assertFalse(impact.rewrite());
+        assertFalse(impact.fullScan());
+        assertFalse(impact.isBlocking());
+    }
+
+    @Test
+    void addColumn_VolatileDefault_RewritesTable() {
+        LockImpact impact = single(addColumn(column("token", "UUID", null, "gen_random_uuid()")));
+
+        assertTrue(impact.rewrite());
+        assertTrue(impact.isBlocking());
+        assertEquals("ACCESS EXCLUSIVE on orders, table rewrite (volatile default gen_random_uuid())", impact.describe());
+    }
+
+    @Test
+    void addColumn_StableDefault_IsCatalogOnly() {
+        assertFalse(single(addColumn(column("created", "TIMESTAMP", null, "now()"))).rewrite());
+    }
+
+    @Test
+    void addColumn_UniqueConstraint_ScansTable() {
+        ColumnConfig column = column("code", "TEXT", null, null);
+        column.setConstraints(new ConstraintsConfig(null, null, true, null, null, null, null, null));
+
+        LockImpact impact = single(addColumn(column));
+
+        assertFalse(impact.rewrite());
+        assertTrue(impact.fullScan());
+    }
+
+    @Test
+    void createIndex_TakesShareLockAndScans() {
+        CreateIndexChange change = new CreateIndexChange();
+        change.setTableName("orders");
+        change.setColumns(List.of("customer_id"));
+
+        LockImpact impact = single(change);
+
+        assertEquals(LockLevel.SHARE, impact.lockLevel());
+        assertTrue(impact.fullScan());
+        assertTrue(impact.lockLevel().blocksWrites());
+        assertFalse(impact.lockLevel().blocksReads());
+    }
+
+    @Test
+    void addForeignKey_ValidatedInline_ScansBaseTableAndLocksBoth() {
+        AddForeignKeyChange change = new AddForeignKeyChange();
+        change.setBaseTableName("orders");
+        change.setReferencedTableName("users");
+
+        List<LockImpact> impacts = analyzer.analyze(change);
+
+        assertEquals(2, impacts.size());
+        assertEquals("orders", impacts.get(0).table());
+        assertEquals(LockLevel.SHARE_ROW_EXCLUSIVE, impacts.get(0).lockLevel());
+        assertTrue(impacts.get(0).fullScan());
+        assertEquals("users", impacts.get(1).table());
+        assertFalse(impacts.get(1).fullScan());
+    }
+
+    @Test
+    void addForeignKey_DeferredValidation_SkipsScan() {
+        AddForeignKeyChange change = new AddForeignKeyChange();
+        change.setBaseTableName("orders");
+        change.setReferencedTableName("users");
+        change.setDeferValidation(true);
+
+        assertFalse(analyzer.analyze(change).get(0).fullScan());
+        change.setDeferValidation(null);
+        assertFalse(new LockImpactAnalyzer(true).analyze(change).get(0).fullScan());
+    }
+
+    @Test
+    void dropColumn_IsExclusiveButCatalogOnly() {
+        DropColumnChange change = new DropColumnChange();
+        change.setSchemaName("sales");
+        change.setTableName("orders");
+        change.setColumns(List.of("legacy"));
+
+        LockImpact impact = single(change);
+
+        assertEquals("sales.orders", impact.table());
+        assertEquals(LockLevel.ACCESS_EXCLUSIVE, impact.lockLevel());
+        assertFalse(impact.rewrite());
+    }
+
+    @Test
+    void modifyColumn_InPlace_RewritesAndOnlineDoesNot() {
+        ModifyColumnChange change = new ModifyColumnChange();
+        change.setTableName("orders");
+        change.setColumns(List.of(column("amount", "NUMERIC(12,2)", null, null)));
+
+        assertTrue(single(change).rewrite());
+        change.setOnline(true);
+        assertFalse(single(change).rewrite());
+    }
+
+    @Test
+    void update_WithoutWhere_TouchesEveryRow() {
+        UpdateChange change = new UpdateChange();
+        change.setTableName("orders");
+
+        LockImpact impact = single(change);
+
+        assertEquals(LockLevel.ROW_EXCLUSIVE, impact.lockLevel());
+        assertTrue(impact.fullScan());
+        assertFalse(impact.isBlocking());
+    }
+
+    @Test
+    void rawSql_ClassifiedFromLeadingKeywords() {
+        assertEquals(LockLevel.SHARE_UPDATE_EXCLUSIVE, single(sql("create index concurrently idx on t (a)")).lockLevel());
+        assertEquals(LockLevel.SHARE, single(sql("CREATE UNIQUE INDEX idx ON t (a)")).lockLevel());
+        assertTrue(single(sql("ALTER TABLE t ALTER COLUMN a TYPE BIGINT")).rewrite());
+        assertEquals(LockLevel.SHARE_UPDATE_EXCLUSIVE, single(sql("ALTER TABLE t VALIDATE CONSTRAINT fk")).lockLevel());
+        assertEquals(LockLevel.UNKNOWN, single(sql("SELECT refresh_everything()")).lockLevel());
+    }
+
+    @Test
+    void alterTable_MergesSourceChanges() {
+        AddColumnChange first = addColumn(column("status", "TEXT", null, null));
+        AddColumnChange second = addColumn(column("token", "UUID", null, "random()::text::uuid"));
+        AlterTableChange merged = new AlterTableChange();
+        merged.setTableName("\"orders\"");
+        merged.setActions(List.of("ADD COLUMN a", "ADD COLUMN b"));
+        merged.setSourceChanges(List.of(first, second));
+
+        LockImpact impact = single(merged);
+
+        assertEquals(LockLevel.ACCESS_EXCLUSIVE, impact.lockLevel());
+        assertTrue(impact.rewrite());
+    }
+
+    @Test
+    void strongest_IgnoresUnknown() {
+        assertEquals(LockLevel.SHARE, LockLevel.strongest(LockLevel.ROW_EXCLUSIVE, LockLevel.SHARE));
+        assertEquals(LockLevel.SHARE, LockLevel.strongest(LockLevel.UNKNOWN, LockLevel.SHARE));
+    }
+
+    private LockImpact single(Change change) {
+        List<LockImpact> impacts = analyzer.analyze(change);
+        assertEquals(1, impacts.size());
+        return impacts.get(0);
+    }
+
+    private static AddColumnChange addColumn(ColumnConfig column) {
+        AddColumnChange change = new AddColumnChange();
+        change.setTableName("orders");
+        change.setColumns(List.of(column));
+        return change;
+    }
+
+    private static ColumnConfig column(String name, String type, Object defaultValue, String defaultExpression) {
+        ColumnConfig column = new ColumnConfig();
+        column.setName(name);
+        column.setType(type);
+        column.setDefaultValue(defaultValue);
+        column.setDefaultValueExpression(defaultExpression);
+        return column;
+    }
+
+    private static SqlChange sql(String sql) {
+        SqlChange change = new SqlChange();
+        change.setSql(sql);
+        return change;
+    }
+}
@@ -0,0 +1,131 @@
+package com.datadrift.plan;
+
+import com.datadrift.exception.ValidationException;
+import com.datadrift.model.change.AddColumnChange;
+import com.datadrift.model.change.AddForeignKeyChange;
+import com.datadrift.model.change.Change;
+import com.datadrift.model.change.CreateIndexChange;
+import com.datadrift.model.change.CreateTableChange.ColumnConfig;
+import com.datadrift.model.change.ModifyColumnChange;
+import com.datadrift.model.changelog.ChangeSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PreflightCheckTest {
+
+    private static final CatalogSnapshot SNAPSHOT = new CatalogSnapshot(Map.of(
+            "orders", new TableStats("orders", "orders", 300_000_000L, 45L << 30,
+                    List.of("orders_pkey", "idx_orders_customer"), List.of("orders_pkey")),
+            "customers", new TableStats("customers", "customers", 2_000L, 1L << 20,
+                    List.of("customers_pkey"), List.of("customers_pkey", "fk_customers_region"))));
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    void risks_FlagsBlockingChangeOnLargeTableOnly() {
+        PreflightCheck preflight = preflight(true, false);
+        ChangeSet changeSet = changeSet(createIndex("orders", "idx_orders_status"), createIndex("customers", "idx_customers_name"));
+
+        List<String> risks = preflight.risks(List.of(changeSet), SNAPSHOT);
+
+        assertEquals(1, risks.size());
+        assertTrue(risks.get(0).startsWith("001::alice #1 createIndex: SHARE on orders, full scan"));
+        assertTrue(risks.get(0).endsWith("on a large table (~300000000 rows, 45.0 GB)"));
+    }
+
+    @Test
+    void risks_FlagsExistingIndexAndConstraintNames() {
+        PreflightCheck preflight = preflight(true, false);
+        AddForeignKeyChange foreignKey = new AddForeignKeyChange();
+        foreignKey.setBaseTableName("customers");
+        foreignKey.setBaseColumnNames(List.of("region_id"));
+        foreignKey.setReferencedTableName("regions");
+        foreignKey.setReferencedColumnNames(List.of("id"));
+        foreignKey.setConstraintName("fk_customers_region");
+        foreignKey.setDeferValidation(true);
+
+        List<String> risks = preflight.risks(
+                List.of(changeSet(createIndex("customers", "customers_pkey"), foreignKey)), SNAPSHOT);
+
+        assertEquals(List.of(
+                "001::alice #1 createIndex: index customers_pkey already exists on customers",
+                "001::alice #2 addForeignKey: constraint fk_customers_region already exists on customers"), risks);
+    }
+
+    @Test
+    void risks_CatalogOnlyChangeOnLargeTable_IsNotFlagged() {
+        ColumnConfig column = new ColumnConfig();
+        column.setName("note");
+        column.setType("TEXT");
+        AddColumnChange addColumn = new AddColumnChange();
+        addColumn.setTableName("orders");
+        addColumn.setColumns(List.of(column));
+
+        assertTrue(preflight(true, false).risks(List.of(changeSet(addColumn)), SNAPSHOT).isEmpty());
+    }
+
+    @Test
+    void run_FailOnRisk_ThrowsBeforeExecution() {
+        PreflightCheck preflight = preflight(true, true);
+        ModifyColumnChange modifyColumn = new ModifyColumnChange();
+        modifyColumn.setTableName("orders");
+        ColumnConfig column = new ColumnConfig();
+        column.setName("amount");
+        column.setType("NUMERIC(12,2)");
+        modifyColumn.setColumns(List.of(column));
+
+        ValidationException e = assertThrows(ValidationException.class,
+                () -> preflight.run(List.of(changeSet(modifyColumn))));
+
+        assertTrue(e.getMessage().contains("ACCESS EXCLUSIVE on orders, table rewrite"));
+    }
+
+    @Test
+    void run_Disabled_SkipsCatalogQuery() {
+        CatalogSnapshot snapshot = preflight(false, true).run(List.of(changeSet(createIndex("orders", "idx"))));
+
+        assertTrue(snapshot.isEmpty());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void catalogSnapshot_LookupIgnoresSchemaAndCase() {
+        assertTrue(SNAPSHOT.table("public.Orders").isPresent());
+        assertTrue(SNAPSHOT.table("invoices").isEmpty());
+        assertTrue(SNAPSHOT.table(null).isEmpty());
+    }
+
+    /**
+     * Preflight whose catalog query returns SNAPSHOT.
+     */
+    private PreflightCheck preflight(boolean enabled, boolean failOnRisk) {
+        return new PreflightCheck(jdbcTemplate, new LockImpactAnalyzer(false), enabled, 1_000_000, 0, failOnRisk) {
+            @Override
+            public CatalogSnapshot snapshot(List<ChangeSet> changeSets) {
+                return SNAPSHOT;
+            }
+        };
+    }
+
+    private static CreateIndexChange createIndex(String table, String name) {
+        CreateIndexChange change = new CreateIndexChange();
+        change.setTableName(table);
+        change.setIndexName(name);
+        change.setColumns(List.of("status"));
+        return change;
+    }
+
+    private static ChangeSet changeSet(Change... changes) {
+        ChangeSet changeSet = new ChangeSet();
+        changeSet.setId("001");
+        changeSet.setAuthor("alice");
+        changeSet.setChanges(List.of(changes));
+        return changeSet;
+    }
+}
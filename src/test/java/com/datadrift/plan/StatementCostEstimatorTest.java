@@ -0,0 +1,169 @@
+package com.datadrift.plan;
+
+import com.datadrift.executor.change.ChangeExecutor;
+import com.datadrift.model.change.Change;
+import com.datadrift.model.change.CreateIndexChange;
+import com.datadrift.model.change.SqlChange;
+import com.datadrift.model.change.UpdateChange;
+import com.datadrift.model.changelog.ChangeSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings({"rawtypes", "unchecked"})
+class StatementCostEstimatorTest {
+
+    private static final String SEQ_SCAN_PLAN = """
+            [
+              {
+                "Plan": {
+                  "Node Type": "ModifyTable",
+                  "Operation": "Update",
+                  "Relation Name": "orders",
+                  "Startup Cost": 0.00,
+                  "Total Cost": 9512345.67,
+                  "Plan Rows": 0,
+                  "Plan Width": 0,
+                  "Plans": [
+                    {
+                      "Node Type": "Seq Scan",
+                      "Parent Relationship": "Outer",
+                      "Relation Name": "orders",
+                      "Alias": "orders",
+                      "Startup Cost": 0.00,
+                      "Total Cost": 9512345.67,
+                      "Plan Rows": 299876543,
+                      "Plan Width": 14,
+                      "Filter": "(status = 'legacy'::text)"
+                    }
+                  ]
+                }
+              }
+            ]""";
+
+    private JdbcTemplate jdbcTemplate;
+    private ChangeExecutor updateExecutor;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        updateExecutor = mock(ChangeExecutor.class);
+    }
+
+    @Test
+    void explain_Update_ReportsRowsCostAndLargeSeqScan() {
+        StatementCostEstimator estimator = estimator(0, 0, false);
+        when(updateExecutor.generateSql(any())).thenReturn("UPDATE \"orders\" SET \"flag\" = true WHERE status = 'legacy'");
+        when(jdbcTemplate.queryForObject(startsWith("EXPLAIN (FORMAT JSON) UPDATE"), eq(String.class))).thenReturn(SEQ_SCAN_PLAN);
+        when(jdbcTemplate.queryForObject(contains("reltuples"), eq(Long.class), eq("\"orders\""))).thenReturn(300_000_000L);
+
+        List<CostEstimate> estimates = estimator.explain(List.of(changeSet(update())));
+
+        assertEquals(1, estimates.size());
+        CostEstimate estimate = estimates.get(0);
+        assertEquals("001::alice", estimate.changeSet());
+        assertEquals("orders", estimate.table());
+        assertEquals(299_876_543L, estimate.estimatedRows());
+        assertEquals(9512345.67, estimate.totalCost(), 0.001);
+        assertEquals(List.of("orders (~300000000 rows)"), estimate.seqScans());
+        assertNull(estimate.error());
+    }
+
+    @Test
+    void explain_SmallTableSeqScan_IsNotFlagged() {
+        StatementCostEstimator estimator = estimator(0, 0, false);
+        when(updateExecutor.generateSql(any())).thenReturn("UPDATE \"orders\" SET \"flag\" = true WHERE status = 'legacy'");
+        when(jdbcTemplate.queryForObject(startsWith("EXPLAIN"), eq(String.class))).thenReturn(SEQ_SCAN_PLAN);
+        when(jdbcTemplate.queryForObject(contains("reltuples"), eq(Long.class), anyString())).thenReturn(5_000L);
+
+        assertTrue(estimator.explain(List.of(changeSet(update()))).get(0).seqScans().isEmpty());
+    }
+
+    @Test
+    void explain_PlannerError_IsReportedNotThrown() {
+        StatementCostEstimator estimator = estimator(0, 0, false);
+        when(updateExecutor.generateSql(any())).thenReturn("UPDATE \"orders\" SET \"flag\" = true WHERE id = 1");
+        when(jdbcTemplate.queryForObject(startsWith("EXPLAIN"), eq(String.class))).thenThrow(
+                new BadSqlGrammarException("explain", "EXPLAIN", new SQLException("relation \"orders\" does not exist")));
+
+        CostEstimate estimate = estimator.explain(List.of(changeSet(update()))).get(0);
+
+        assertNull(estimate.estimatedRows());
+        assertEquals("relation \"orders\" does not exist", estimate.error());
+    }
+
+    @Test
+    void explain_SkipsDdlAndNonDmlSql() {
+        StatementCostEstimator estimator = estimator(0, 0, false);
+        SqlChange select = new SqlChange();
+        select.setSql("SELECT 1");
+
+        assertTrue(estimator.explain(List.of(changeSet(new CreateIndexChange(), select))).isEmpty());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void singleDmlStatement_AcceptsOneUpdateDeleteOrInsertSelect() {
+        assertEquals("DELETE FROM t WHERE a = 1", StatementCostEstimator.singleDmlStatement(" DELETE FROM t WHERE a = 1; "));
+        assertNotNull(StatementCostEstimator.singleDmlStatement("insert into t (a) select a from s"));
+        assertNull(StatementCostEstimator.singleDmlStatement("INSERT INTO t (a) VALUES (1)"));
+        assertNull(StatementCostEstimator.singleDmlStatement("UPDATE t SET a = 1; UPDATE s SET b = 2"));
+    }
+
+    @Test
+    void violations_ChecksLimitsAndSkipsSeqScanOfChunkedChanges() {
+        StatementCostEstimator estimator = estimator(1_000_000, 1e6, true);
+        CostEstimate unchunked = new CostEstimate("001::alice", 1, "update", "orders", false, 9.5e6, 300_000_000L,
+                List.of("orders (~300000000 rows)"), null);
+        CostEstimate chunked = new CostEstimate("002::alice", 1, "delete", "events", true, 10.0, 100L,
+                List.of("events (~50000000 rows)"), null);
+
+        List<String> violations = estimator.violations(List.of(unchunked, chunked));
+
+        assertEquals(3, violations.size());
+        assertTrue(violations.get(0).contains("~300000000 rows estimated, limit 1000000"));
+        assertTrue(violations.get(1).contains("cost 9500000 estimated"));
+        assertTrue(violations.get(2).contains("sequential scan of large table(s) orders"));
+        assertTrue(estimator.isEnforced());
+        assertFalse(estimator(0, 0, false).isEnforced());
+    }
+
+    @Test
+    void collectSeqScans_WalksNestedPlans() {
+        Map<String, String> scanned = new LinkedHashMap<>();
+
+        StatementCostEstimator.collectSeqScans(StatementCostEstimator.rootPlan(SEQ_SCAN_PLAN), scanned);
+
+        assertEquals(Map.of("orders", "\"orders\""), scanned);
+    }
+
+    private StatementCostEstimator estimator(long maxRows, double maxCost, boolean failOnSeqScan) {
+        Map<String, ChangeExecutor> executors = Map.of("update", updateExecutor, "delete", mock(ChangeExecutor.class));
+        return new StatementCostEstimator(jdbcTemplate, executors, 1_000_000, maxRows, maxCost, failOnSeqScan);
+    }
+
+    private static UpdateChange update() {
+        UpdateChange change = new UpdateChange();
+        change.setTableName("orders");
+        change.setWhere("status = 'legacy'");
+        return change;
+    }
+
+    private static ChangeSet changeSet(Change... changes) {
+        ChangeSet changeSet = new ChangeSet();
+        changeSet.setId("001");
+        changeSet.setAuthor("alice");
+        changeSet.setChanges(List.of(changes));
+        return changeSet;
+    }
+}
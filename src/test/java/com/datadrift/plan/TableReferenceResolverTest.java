@@ -0,0 +1,109 @@
+package com.datadrift.plan;
+
+import com.datadrift.model.change.AddForeignKeyChange;
+import com.datadrift.model.change.CreateIndexChange;
+import com.datadrift.model.change.CreateTableChange;
+import com.datadrift.model.change.DeleteChange;
+import com.datadrift.model.change.DropForeignKeyChange;
+import com.datadrift.model.change.DropIndexChange;
+import com.datadrift.model.change.InsertChange;
+import com.datadrift.model.change.ModifyColumnChange;
+import com.datadrift.model.change.SqlChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableReferenceResolverTest {
+
+    @Test
+    void referencedTables_StructuredChange_ReturnsLowerCasedTable() {
+        CreateIndexChange change = new CreateIndexChange();
+        change.setSchemaName("public");
+        change.setTableName("Users");
+
+        assertEquals(Optional.of(Set.of("users")), TableReferenceResolver.referencedTables(change));
+    }
+
+    @Test
+    void referencedTables_Insert_IsUnresolvedBecauseOfForeignKeys() {
+        InsertChange change = new InsertChange();
+        change.setTableName("orders");
+
+        assertTrue(TableReferenceResolver.referencedTables(change).isEmpty());
+        assertEquals(Optional.of(Set.of("orders")), TableReferenceResolver.namedTables(change));
+    }
+
+    @Test
+    void referencedTables_ForeignKey_ReturnsBothTables() {
+        AddForeignKeyChange change = new AddForeignKeyChange();
+        change.setBaseTableName("orders");
+        change.setReferencedTableName("users");
+
+        assertEquals(Optional.of(Set.of("orders", "users")), TableReferenceResolver.referencedTables(change));
+    }
+
+    @Test
+    void referencedTables_ModifyColumn_ReturnsTable() {
+        ModifyColumnChange change = new ModifyColumnChange();
+        change.setTableName("orders");
+
+        assertEquals(Optional.of(Set.of("orders")), TableReferenceResolver.referencedTables(change));
+    }
+
+    @Test
+    void referencedTables_SqlChange_IsUnresolved() {
+        SqlChange change = new SqlChange();
+        change.setSql("DROP TABLE users");
+
+        assertTrue(TableReferenceResolver.referencedTables(change).isEmpty());
+    }
+
+    @Test
+    void referencedTables_DropIndex_IsUnresolved() {
+        DropIndexChange change = new DropIndexChange();
+        change.setIndexName("idx_users_email");
+
+        assertTrue(TableReferenceResolver.referencedTables(change).isEmpty());
+    }
+
+    @Test
+    void referencedTables_MissingTableName_IsUnresolved() {
+        assertTrue(TableReferenceResolver.referencedTables(new CreateIndexChange()).isEmpty());
+    }
+
+    @Test
+    void referencedTables_InlineForeignKey_ReturnsReferencedTable() {
+        CreateTableChange.ColumnConfig userId = new CreateTableChange.ColumnConfig();
+        userId.setName("user_id");
+        userId.setConstraints(new CreateTableChange.ConstraintsConfig(
+                false, false, false, "fk_orders_user", "public.Users(id)", null, null, null));
+        CreateTableChange change = new CreateTableChange();
+        change.setTableName("orders");
+        change.setColumns(List.of(userId));
+
+        assertEquals(Optional.of(Set.of("orders", "users")), TableReferenceResolver.referencedTables(change));
+    }
+
+    @Test
+    void referencedTables_WhereClause_IsUnresolved() {
+        DeleteChange change = new DeleteChange();
+        change.setTableName("orders");
+        change.setWhere("user_id IN (SELECT id FROM users WHERE banned)");
+
+        assertTrue(TableReferenceResolver.referencedTables(change).isEmpty());
+        assertEquals(Optional.of(Set.of("orders")), TableReferenceResolver.namedTables(change));
+    }
+
+    @Test
+    void referencedTables_DropForeignKey_IsUnresolved() {
+        DropForeignKeyChange change = new DropForeignKeyChange();
+        change.setBaseTableName("orders");
+        change.setConstraintName("fk_orders_user");
+
+        assertTrue(TableReferenceResolver.referencedTables(change).isEmpty());
+    }
+}
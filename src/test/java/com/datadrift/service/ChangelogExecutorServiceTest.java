@@ -1,22 +1,45 @@
 package com.datadrift.service;
 
+import com.datadrift.config.SessionProfileProperties;
 import com.datadrift.exception.ChangeSetExecutionException;
 import com.datadrift.executor.change.ChangeExecutor;
+import com.datadrift.executor.change.DropColumnExecutor;
+import com.datadrift.executor.maintenance.TableMaintenance;
+import com.datadrift.executor.maintenance.TouchedTables;
+import com.datadrift.executor.session.ChangeSession;
+import com.datadrift.executor.session.LockContentionWatchdog;
+import com.datadrift.executor.session.SessionProfiles;
+import com.datadrift.metrics.MigrationMetrics;
+import com.datadrift.metrics.progress.MigrationProgress;
 import com.datadrift.model.change.Change;
+import com.datadrift.model.change.DeleteChange;
+import com.datadrift.model.change.DropColumnChange;
 import com.datadrift.model.change.SqlChange;
+import com.datadrift.model.changelog.ChangeExecution;
+import com.datadrift.model.changelog.ChangeLogSummary;
 import com.datadrift.model.changelog.ChangeSet;
 import com.datadrift.model.changelog.DatabaseChangeLog;
+import com.datadrift.model.changelog.ExecutedChangeSetIndex;
+import com.datadrift.plan.AlterTableChange;
+import com.datadrift.plan.AlterTableCoalescer;
+import com.datadrift.plan.LockImpactAnalyzer;
+import com.datadrift.plan.PreflightCheck;
 import com.datadrift.repository.ChangelogRepository;
+import com.datadrift.util.ChecksumUtil;
+import com.datadrift.util.RowCountContext;
+import com.datadrift.util.TouchedTablesContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,7 +60,14 @@ class ChangelogExecutorServiceTest {
     void setUp() {
         executors = new HashMap<>();
         executors.put("sql", sqlExecutor);
-        executorService = new ChangelogExecutorService(changelogRepository, executors);
+        // No timeouts configured: changes run directly without session statements
+        ChangeSession changeSession = new ChangeSession(mock(JdbcTemplate.class),
+                new SessionProfiles(new SessionProfileProperties()), new LockContentionWatchdog(null, 0, 0, 500),
+                "", "", 5, 500, 30000, 5000);
+        executorService = new ChangelogExecutorService(changelogRepository, executors, changeSession,
+                new AlterTableCoalescer(executors, true), new MigrationMetrics(), new MigrationProgress(null, 0),
+                new LockImpactAnalyzer(false), new PreflightCheck(null, new LockImpactAnalyzer(false), false, 0, 0, false),
+                new TableMaintenance(null, false, 0, 0, 0, 1));
     }
 
     @Test
@@ -103,6 +133,63 @@ class ChangelogExecutorServiceTest {
         assertTrue(pending.isEmpty());
     }
 
+    @Test
+    void filterPendingChangeSets_WithSummary_NotExecuted_ReturnsPending() {
+        ChangeSet changeSet = createChangeSet("001", "author1");
+
+        List<ChangeSet> pending = executorService.filterPendingChangeSets(List.of(changeSet), new ChangeLogSummary());
+
+        assertEquals(1, pending.size());
+        verify(changelogRepository, never()).findByIdAndAuthor(any(), any());
+        verify(changelogRepository, never()).findExecutedKeys(any());
+    }
+
+    @Test
+    void filterPendingChangeSets_WithSummary_AlreadyExecuted_FiltersOut() {
+        ChangeSet changeSet = createChangeSet("001", "author1");
+        ChangeLogSummary summary = summaryOf("001", "author1", null);
+        when(changelogRepository.findExecutedKeys(List.of(changeSet))).thenReturn(Set.of("001::author1"));
+
+        List<ChangeSet> pending = executorService.filterPendingChangeSets(List.of(changeSet), summary);
+
+        assertTrue(pending.isEmpty());
+    }
+
+    @Test
+    void filterPendingChangeSets_WithSummary_HashHitNotConfirmed_ReturnsPending() {
+        ChangeSet changeSet = createChangeSet("001", "author1");
+        ChangeLogSummary summary = summaryOf("001", "author1", null);
+        when(changelogRepository.findExecutedKeys(List.of(changeSet))).thenReturn(Set.of());
+
+        List<ChangeSet> pending = executorService.filterPendingChangeSets(List.of(changeSet), summary);
+
+        assertEquals(1, pending.size());
+    }
+
+    @Test
+    void filterPendingChangeSets_WithSummary_RunOnChange_ChecksumChanged_Included() {
+        ChangeSet changeSet = createChangeSet("001", "author1");
+        changeSet.setRunOnChange(true);
+        ChangeLogSummary summary = summaryOf("001", "author1", "8:0123456789abcdef0123456789abcdef");
+        when(changelogRepository.findExecutedKeys(List.of(changeSet))).thenReturn(Set.of("001::author1"));
+
+        List<ChangeSet> pending = executorService.filterPendingChangeSets(List.of(changeSet), summary);
+
+        assertEquals(1, pending.size());
+    }
+
+    @Test
+    void filterPendingChangeSets_WithSummary_RunOnChange_ChecksumSame_FiltersOut() {
+        ChangeSet changeSet = createChangeSet("001", "author1");
+        changeSet.setRunOnChange(true);
+        ChangeLogSummary summary = summaryOf("001", "author1", ChecksumUtil.calculateChecksum(changeSet));
+        when(changelogRepository.findExecutedKeys(List.of(changeSet))).thenReturn(Set.of("001::author1"));
+
+        List<ChangeSet> pending = executorService.filterPendingChangeSets(List.of(changeSet), summary);
+
+        assertTrue(pending.isEmpty());
+    }
+
     @Test
     void executePendingChangeSets_NoPending_ReturnsZero() {
         ChangeSet changeSet = createChangeSet("001", "author1");
@@ -125,10 +212,75 @@ class ChangelogExecutorServiceTest {
 
         assertEquals(1, count);
         verify(sqlExecutor).execute(any(SqlChange.class));
-        verify(changelogRepository).save(any(DatabaseChangeLog.class));
+        verify(changelogRepository).saveAll(argThat(records -> records.size() == 1));
+        verify(changelogRepository, never()).save(any());
+    }
+
+    @Test
+    void executePendingChangeSets_MultiplePending_WritesOneBatch() {
+        ChangeSet first = createChangeSet("001", "author1");
+        ChangeSet second = createChangeSet("002", "author1");
+        when(changelogRepository.findByIdAndAuthor(anyString(), anyString())).thenReturn(null);
+        when(changelogRepository.getMaxOrderExecuted()).thenReturn(0);
+
+        executorService.executePendingChangeSets(List.of(first, second));
+
+        verify(changelogRepository, times(1)).saveAll(argThat(records ->
+                records.size() == 2
+                        && records.get(0).getOrderExecuted() == 1
+                        && records.get(1).getOrderExecuted() == 2));
+    }
+
+    @Test
+    void executePendingChangeSets_Failure_WritesNothing() {
+        ChangeSet changeSet = createChangeSet("001", "author1");
+        when(changelogRepository.findByIdAndAuthor("001", "author1")).thenReturn(null);
+        when(changelogRepository.getMaxOrderExecuted()).thenReturn(0);
+        doThrow(new RuntimeException("SQL error")).when(sqlExecutor).execute(any());
+
+        assertThrows(ChangeSetExecutionException.class,
+                () -> executorService.executePendingChangeSets(List.of(changeSet)));
+
+        verify(changelogRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void markPendingChangeSetsRan_RecordsMarkRanWithoutExecuting() {
+        ChangeSet executed = createChangeSet("001", "author1");
+        ChangeSet pending = createChangeSet("002", "author1");
+        when(changelogRepository.getSummary()).thenReturn(summaryOf("001", "author1", "8:whatever"));
+        when(changelogRepository.findExecutedKeys(List.of(executed))).thenReturn(Set.of("001::author1"));
+        when(changelogRepository.getMaxOrderExecuted()).thenReturn(3);
+
+        int count = executorService.markPendingChangeSetsRan(List.of(executed, pending));
+
+        assertEquals(1, count);
+        verify(sqlExecutor, never()).execute(any());
+
+        ArgumentCaptor<List<DatabaseChangeLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(changelogRepository).saveAll(captor.capture());
+        DatabaseChangeLog record = captor.getValue().get(0);
+        assertEquals("002", record.getId());
+        assertEquals("MARK_RAN", record.getExecType());
+        assertEquals(4, record.getOrderExecuted());
+        assertNotNull(record.getMd5sum());
+    }
+
+    @Test
+    void markPendingChangeSetsRan_NothingPending_ReturnsZero() {
+        ChangeSet executed = createChangeSet("001", "author1");
+        when(changelogRepository.getSummary()).thenReturn(summaryOf("001", "author1", "8:whatever"));
+        when(changelogRepository.findExecutedKeys(List.of(executed))).thenReturn(Set.of("001::author1"));
+
+        int count = executorService.markPendingChangeSetsRan(List.of(executed));
+
+        assertEquals(0, count);
+        verify(changelogRepository, never()).saveAll(any());
     }
 
     @Test
+    @SuppressWarnings("unchecked")
     void executePendingChangeSets_RecordsCorrectMetadata() {
         ChangeSet changeSet = createChangeSet("001", "author1");
         changeSet.setFilename("test.yaml");
@@ -138,10 +290,10 @@ class ChangelogExecutorServiceTest {
 
         executorService.executePendingChangeSets(List.of(changeSet));
 
-        ArgumentCaptor<DatabaseChangeLog> captor = ArgumentCaptor.forClass(DatabaseChangeLog.class);
-        verify(changelogRepository).save(captor.capture());
+        ArgumentCaptor<List<DatabaseChangeLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(changelogRepository).saveAll(captor.capture());
 
-        DatabaseChangeLog saved = captor.getValue();
+        DatabaseChangeLog saved = captor.getValue().get(0);
         assertEquals("001", saved.getId());
         assertEquals("author1", saved.getAuthor());
         assertEquals("test.yaml", saved.getFilename());
@@ -164,6 +316,95 @@ class ChangelogExecutorServiceTest {
         assertEquals("EXECUTED", captor.getValue().getExecType());
     }
 
+    @Test
+    void executeChangeSet_Success_RecordsExecutionTime() {
+        ChangeSet changeSet = createChangeSet("001", "author1");
+
+        executorService.executeChangeSet(changeSet, 1, "deploy-123");
+
+        ArgumentCaptor<DatabaseChangeLog> captor = ArgumentCaptor.forClass(DatabaseChangeLog.class);
+        verify(changelogRepository).save(captor.capture());
+        assertNotNull(captor.getValue().getExecutionMs());
+        assertTrue(captor.getValue().getExecutionMs() >= 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void executeChangeSet_MergedAlterTable_RecordedPerSourceChange() {
+        ChangeExecutor<AlterTableChange> alterTableExecutor = mock(ChangeExecutor.class);
+        executors.put("dropColumn", new DropColumnExecutor(mock(JdbcTemplate.class)));
+        executors.put("alterTable", alterTableExecutor);
+        ChangeSet changeSet = createChangeSet("001", "author1");
+        changeSet.setChanges(List.of(changeSet.getChanges().get(0), dropColumn("users", "age"), dropColumn("users", "nickname")));
+
+        executorService.executeChangeSet(changeSet, 1, "deploy-123");
+
+        verify(alterTableExecutor).execute(any(AlterTableChange.class));
+        ArgumentCaptor<DatabaseChangeLog> captor = ArgumentCaptor.forClass(DatabaseChangeLog.class);
+        verify(changelogRepository).save(captor.capture());
+        List<ChangeExecution> executions = captor.getValue().getChangeExecutions();
+        assertEquals(List.of(1, 2, 3), executions.stream().map(ChangeExecution::getChangeIndex).toList());
+        assertEquals(List.of("sql", "dropColumn", "dropColumn"),
+                executions.stream().map(ChangeExecution::getChangeType).toList());
+        assertEquals(executions.get(1).getExecutionMs(), executions.get(2).getExecutionMs());
+        assertEquals("users", executions.get(2).getTableName());
+    }
+
+    @Test
+    void executeChangeSet_Success_RecordsRowsPerChange() {
+        ChangeSet changeSet = createChangeSet("001", "author1");
+        SqlChange second = new SqlChange();
+        second.setSql("UPDATE users SET active = true");
+        changeSet.setChanges(List.of(changeSet.getChanges().get(0), second));
+        doAnswer(invocation -> {
+            RowCountContext.add(7);
+            return null;
+        }).doNothing().when(sqlExecutor).execute(any(SqlChange.class));
+
+        executorService.executeChangeSet(changeSet, 1, "deploy-123");
+
+        ArgumentCaptor<DatabaseChangeLog> captor = ArgumentCaptor.forClass(DatabaseChangeLog.class);
+        verify(changelogRepository).save(captor.capture());
+        DatabaseChangeLog saved = captor.getValue();
+        assertEquals(7L, saved.getRowsAffected());
+        assertEquals(2, saved.getChangeExecutions().size());
+        assertEquals(1, saved.getChangeExecutions().get(0).getChangeIndex());
+        assertEquals("sql", saved.getChangeExecutions().get(0).getChangeType());
+        assertEquals(7L, saved.getChangeExecutions().get(0).getRowsAffected());
+        assertNull(saved.getChangeExecutions().get(1).getRowsAffected());
+        assertNotNull(saved.getChangeExecutions().get(1).getExecutionMs());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void executeChangeSet_DataChange_RecordsTouchedTable() {
+        ChangeExecutor<DeleteChange> deleteExecutor = mock(ChangeExecutor.class);
+        executors.put("delete", deleteExecutor);
+        doAnswer(invocation -> {
+            RowCountContext.add(250);
+            return null;
+        }).when(deleteExecutor).execute(any(DeleteChange.class));
+        DeleteChange delete = new DeleteChange();
+        delete.setTableName("audit_log");
+        delete.setWhere("created < '2020-01-01'");
+        ChangeSet changeSet = createChangeSet("001", "author1");
+        changeSet.setChanges(List.of(delete, changeSet.getChanges().get(0)));
+
+        TouchedTables touched = new TouchedTables();
+        TouchedTablesContext.set(touched);
+        try {
+            executorService.executeChangeSet(changeSet, 1, "deploy-123");
+        } finally {
+            TouchedTablesContext.clear();
+        }
+
+        assertEquals(1, touched.tables().size());
+        TouchedTables.Table table = touched.tables().get(0);
+        assertEquals("\"audit_log\"", table.qualifiedName());
+        assertEquals(250, table.deleted());
+        assertEquals(250, table.changed());
+    }
+
     @Test
     void executeChangeSet_Failure_FailOnErrorTrue_ThrowsException() {
         ChangeSet changeSet = createChangeSet("001", "author1");
@@ -225,6 +466,17 @@ class ChangelogExecutorServiceTest {
         assertTrue(sql.contains("SELECT 1"));
     }
 
+    @Test
+    void generateSql_AnnotatesLockImpact() {
+        ChangeSet changeSet = createChangeSet("001", "author1");
+        ((SqlChange) changeSet.getChanges().get(0)).setSql("CREATE INDEX idx_orders_customer ON orders (customer_id)");
+        when(sqlExecutor.generateSql(any(SqlChange.class))).thenReturn("CREATE INDEX idx_orders_customer ON orders (customer_id)");
+
+        String sql = executorService.generateSql(changeSet);
+
+        assertTrue(sql.contains("-- Lock: SHARE, full scan (from SQL text)\nCREATE INDEX idx_orders_customer"));
+    }
+
     @Test
     void generateSql_NoExecutor_IncludesErrorComment() {
         ChangeSet changeSet = new ChangeSet();
@@ -240,6 +492,14 @@ class ChangelogExecutorServiceTest {
         assertTrue(sql.contains("ERROR: No executor for unknownType"));
     }
 
+    private ChangeLogSummary summaryOf(String id, String author, String checksum) {
+        ChangeLogSummary summary = new ChangeLogSummary();
+        summary.setExecutedIndex(ExecutedChangeSetIndex.builder()
+                .add(id, author, checksum)
+                .build());
+        return summary;
+    }
+
     private ChangeSet createChangeSet(String id, String author) {
         ChangeSet changeSet = new ChangeSet();
         changeSet.setId(id);
@@ -251,4 +511,11 @@ class ChangelogExecutorServiceTest {
 
         return changeSet;
     }
+
+    private static DropColumnChange dropColumn(String table, String column) {
+        DropColumnChange change = new DropColumnChange();
+        change.setTableName(table);
+        change.setColumns(List.of(column));
+        return change;
+    }
 }
@@ -1,5 +1,6 @@
 package com.datadrift.service;
 
+import com.datadrift.metrics.MigrationMetrics;
 import com.datadrift.model.changelog.ChangeSet;
 import com.datadrift.parser.xml.XmlChangelogParser;
 import com.datadrift.parser.yaml.YamlChangelogParser;
@@ -41,7 +42,7 @@ class ChangelogParserServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new ChangelogParserService(xmlParser, yamlParser, resourceLoader, "classpath:db/changelog/");
+        service = new ChangelogParserService(xmlParser, yamlParser, resourceLoader, new MigrationMetrics(), "classpath:db/changelog/");
     }
 
     @Test
@@ -111,7 +112,7 @@ class ChangelogParserServiceTest {
     }
 
     private ChangelogParserService createServiceWithCustomDirectory(String directory) {
-        return new ChangelogParserService(xmlParser, yamlParser, resourceLoader, directory);
+        return new ChangelogParserService(xmlParser, yamlParser, resourceLoader, new MigrationMetrics(), directory);
     }
 
     @Test
@@ -174,6 +175,23 @@ class ChangelogParserServiceTest {
         verifyNoInteractions(yamlParser);
     }
 
+    @Test
+    void testParseAllChangelogs_EachCall_ParsesFreshChangeSets() throws IOException {
+        Files.createFile(tempDir.resolve("001-first.xml"));
+        mockDirectoryResource();
+
+        when(xmlParser.parse(any(File.class)))
+                .thenReturn(List.of(new ChangeSet()))
+                .thenReturn(List.of(new ChangeSet()));
+
+        List<ChangeSet> first = service.parseAllChangelogs();
+        List<ChangeSet> second = service.parseAllChangelogs();
+
+        // ChangeSets are mutable, so separate runs must never share instances
+        assertNotSame(first.get(0), second.get(0));
+        verify(xmlParser, times(2)).parse(any());
+    }
+
     @Test
     void testParseAllChangelogs_EmptyDirectory_ReturnsEmptyList() throws IOException {
         mockDirectoryResource();
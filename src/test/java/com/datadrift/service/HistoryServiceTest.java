@@ -0,0 +1,70 @@
+package com.datadrift.service;
+
+import com.datadrift.model.ExecutionHistory;
+import com.datadrift.model.ExecutionHistory.ChangeTypeStats;
+import com.datadrift.model.ExecutionHistory.Section;
+import com.datadrift.model.ExecutionHistory.SlowChangeSet;
+import com.datadrift.repository.ExecutionHistoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HistoryServiceTest {
+
+    @Mock
+    private ExecutionHistoryRepository historyRepository;
+
+    @InjectMocks
+    private HistoryService historyService;
+
+    @Test
+    void getHistory_AllSections_QueriesEachPageInDatabase() {
+        SlowChangeSet slow = new SlowChangeSet();
+        slow.setId("orders-idx");
+        slow.setAuthor("alice");
+        slow.setExecutionMs(41870L);
+        when(historyRepository.findSlowestChangeSets(10, 20)).thenReturn(List.of(slow));
+
+        ExecutionHistory history = historyService.getHistory(3, 10, Set.of());
+
+        verify(historyRepository).findDeploymentTotals(10, 20);
+        verify(historyRepository).findChangeTypeStats(10, 20);
+        assertEquals(3, history.getPage());
+        assertEquals(List.of(slow), history.getSlowestChangeSets());
+        assertTrue(history.toString().contains("orders-idx::alice"));
+    }
+
+    @Test
+    void getHistory_SingleSection_SkipsOtherQueries() {
+        ChangeTypeStats stats = new ChangeTypeStats();
+        stats.setChangeType("createIndex");
+        stats.setCount(4);
+        stats.setP95Ms(900);
+        when(historyRepository.findChangeTypeStats(20, 0)).thenReturn(List.of(stats));
+
+        ExecutionHistory history = historyService.getHistory(1, 20, EnumSet.of(Section.CHANGE_TYPES));
+
+        verify(historyRepository, never()).findSlowestChangeSets(anyInt(), anyInt());
+        verify(historyRepository, never()).findDeploymentTotals(anyInt(), anyInt());
+        assertTrue(history.toString().contains("createIndex"));
+        assertFalse(history.toString().contains("Slowest changesets"));
+    }
+
+    @Test
+    void getHistory_InvalidPage_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> historyService.getHistory(0, 10, Set.of()));
+        assertThrows(IllegalArgumentException.class, () -> historyService.getHistory(1, 0, Set.of()));
+        verifyNoInteractions(historyRepository);
+    }
+}
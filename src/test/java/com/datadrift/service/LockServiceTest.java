@@ -1,6 +1,7 @@
 package com.datadrift.service;
 
 import com.datadrift.exception.MigrationLockException;
+import com.datadrift.metrics.MigrationMetrics;
 import com.datadrift.model.changelog.DatabaseChangeLogLock;
 import com.datadrift.repository.LockRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,12 +19,15 @@ class LockServiceTest {
     @Mock
     private LockRepository lockRepository;
 
+    private MigrationMetrics metrics;
+
     private LockService lockService;
 
     @BeforeEach
     void setUp() {
+        metrics = new MigrationMetrics();
         // maxRetryAttempts=3, retryDelayMs=10 (fast for tests)
-        lockService = new LockService(lockRepository, 3, 10);
+        lockService = new LockService(lockRepository, metrics, 3, 10);
     }
 
     @Test
@@ -46,6 +50,20 @@ class LockServiceTest {
         verify(lockRepository, times(2)).acquireLock();
     }
 
+    @Test
+    void acquireLock_RecordsAttemptsAndLockWait() {
+        when(lockRepository.acquireLock())
+                .thenReturn(false)
+                .thenReturn(true);
+
+        lockService.acquireLock();
+
+        String prometheus = metrics.prometheusText();
+        assertTrue(prometheus.contains("datadrift_lock_attempts_total{result=\"busy\"} 1"));
+        assertTrue(prometheus.contains("datadrift_lock_attempts_total{result=\"acquired\"} 1"));
+        assertTrue(prometheus.contains("datadrift_phase_seconds_count{outcome=\"success\",phase=\"lock\"} 1"));
+    }
+
     @Test
     void acquireLock_Failure_AfterAllRetries() {
         when(lockRepository.acquireLock()).thenReturn(false);
@@ -106,4 +124,29 @@ class LockServiceTest {
 
         assertFalse(lockService.isLocked());
     }
+
+    @Test
+    void acquireTransactionLock_Free_DoesNotThrow() {
+        when(lockRepository.lockForTransaction()).thenReturn(true);
+
+        assertDoesNotThrow(() -> lockService.acquireTransactionLock());
+
+        verify(lockRepository, never()).acquireLock();
+    }
+
+    @Test
+    void acquireTransactionLock_HeldByOther_ThrowsException() {
+        when(lockRepository.lockForTransaction()).thenReturn(false);
+        DatabaseChangeLogLock lockStatus = new DatabaseChangeLogLock();
+        lockStatus.setLocked(true);
+        lockStatus.setLockedBy("host (42)");
+        when(lockRepository.getLockStatus()).thenReturn(lockStatus);
+
+        MigrationLockException exception = assertThrows(
+                MigrationLockException.class,
+                () -> lockService.acquireTransactionLock()
+        );
+
+        assertTrue(exception.getMessage().contains("host (42)"));
+    }
 }
@@ -2,9 +2,11 @@ package com.datadrift.service;
 
 import com.datadrift.model.MigrationStatus;
 import com.datadrift.model.change.SqlChange;
+import com.datadrift.model.changelog.ChangeLogSummary;
 import com.datadrift.model.changelog.ChangeSet;
-import com.datadrift.model.changelog.DatabaseChangeLog;
 import com.datadrift.repository.ChangelogRepository;
+import com.datadrift.repository.ChangelogStateRepository;
+import com.datadrift.util.ChecksumUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,6 +29,9 @@ class MigrationServiceTest {
     @Mock
     private ChangelogExecutorService executorService;
 
+    @Mock
+    private ParallelExecutionService parallelExecutionService;
+
     @Mock
     private ValidationService validationService;
 
@@ -36,6 +41,9 @@ class MigrationServiceTest {
     @Mock
     private ChangelogRepository changelogRepository;
 
+    @Mock
+    private ChangelogStateRepository stateRepository;
+
     private MigrationService migrationService;
 
     @BeforeEach
@@ -43,9 +51,12 @@ class MigrationServiceTest {
         migrationService = new MigrationService(
                 parserService,
                 executorService,
+                parallelExecutionService,
                 validationService,
                 lockService,
-                changelogRepository
+                changelogRepository,
+                stateRepository,
+                true
         );
     }
 
@@ -115,6 +126,139 @@ class MigrationServiceTest {
         verify(executorService, never()).executePendingChangeSets(any());
     }
 
+    @Test
+    void migrate_FingerprintMatches_ShortCircuits() {
+        List<ChangeSet> changeSets = List.of(createChangeSet("001", "author1"));
+        when(parserService.parseAllChangelogs()).thenReturn(changeSets);
+        when(stateRepository.findFingerprint()).thenReturn(ChecksumUtil.calculateFingerprint(changeSets));
+
+        int result = migrationService.migrate();
+
+        assertEquals(0, result);
+        verify(validationService, never()).validate(any());
+        verify(validationService, never()).validateChecksums(any());
+        verify(executorService, never()).executePendingChangeSets(any());
+        verify(lockService).releaseLock();
+    }
+
+    @Test
+    void migrate_FingerprintDiffers_RunsAndStoresFingerprint() {
+        List<ChangeSet> changeSets = List.of(createChangeSet("001", "author1"));
+        when(parserService.parseAllChangelogs()).thenReturn(changeSets);
+        when(stateRepository.findFingerprint()).thenReturn("stale");
+        when(executorService.executePendingChangeSets(changeSets)).thenReturn(1);
+
+        migrationService.migrate();
+
+        verify(executorService).executePendingChangeSets(changeSets);
+        verify(stateRepository).saveFingerprint(ChecksumUtil.calculateFingerprint(changeSets), 1);
+    }
+
+    @Test
+    void migrate_RunAlwaysChangeSet_DoesNotShortCircuit() {
+        ChangeSet runAlways = createChangeSet("001", "author1");
+        runAlways.setRunAlways(true);
+        List<ChangeSet> changeSets = List.of(runAlways);
+        when(parserService.parseAllChangelogs()).thenReturn(changeSets);
+
+        migrationService.migrate();
+
+        verify(stateRepository, never()).findFingerprint();
+        verify(executorService).executePendingChangeSets(changeSets);
+    }
+
+    @Test
+    void migrate_ExecutionFails_DoesNotStoreFingerprint() {
+        List<ChangeSet> changeSets = List.of(createChangeSet("001", "author1"));
+        when(parserService.parseAllChangelogs()).thenReturn(changeSets);
+        when(executorService.executePendingChangeSets(changeSets)).thenThrow(new RuntimeException("SQL error"));
+
+        assertThrows(RuntimeException.class, () -> migrationService.migrate());
+
+        verify(stateRepository, never()).saveFingerprint(any(), anyInt());
+    }
+
+    @Test
+    void migrate_ParallelismEnabled_UsesParallelEngine() {
+        List<ChangeSet> changeSets = List.of(createChangeSet("001", "author1"));
+        when(parserService.parseAllChangelogs()).thenReturn(changeSets);
+        when(parallelExecutionService.isEnabled()).thenReturn(true);
+        when(parallelExecutionService.executePendingChangeSets(changeSets)).thenReturn(1);
+
+        int result = migrationService.migrate();
+
+        assertEquals(1, result);
+        verify(executorService, never()).executePendingChangeSets(any());
+    }
+
+    @Test
+    void migrate_PreParsed_LocksWithoutParsingOrStructureValidation() {
+        List<ChangeSet> changeSets = List.of(createChangeSet("001", "author1"));
+        when(executorService.executePendingChangeSets(changeSets)).thenReturn(1);
+
+        int result = migrationService.migrate(changeSets);
+
+        assertEquals(1, result);
+        verify(parserService, never()).parseAllChangelogs();
+        verify(validationService, never()).validate(any());
+        verify(validationService).validateChecksums(changeSets);
+        verify(lockService).acquireLock();
+        verify(lockService).releaseLock();
+    }
+
+    @Test
+    void migrateParsed_SkipsParsingLockingAndStructureValidation() {
+        List<ChangeSet> changeSets = List.of(createChangeSet("001", "author1"));
+        when(executorService.executePendingChangeSets(changeSets)).thenReturn(1);
+
+        int result = migrationService.migrateParsed(changeSets);
+
+        assertEquals(1, result);
+        verify(parserService, never()).parseAllChangelogs();
+        verify(lockService, never()).acquireLock();
+        verify(validationService, never()).validate(any());
+        verify(validationService).validateChecksums(changeSets);
+        verify(stateRepository).saveFingerprint(ChecksumUtil.calculateFingerprint(changeSets), 1);
+    }
+
+    @Test
+    void migrateParsed_NeverUsesParallelEngine() {
+        List<ChangeSet> changeSets = List.of(createChangeSet("001", "author1"));
+        lenient().when(parallelExecutionService.isEnabled()).thenReturn(true);
+
+        migrationService.migrateParsed(changeSets);
+
+        verify(parallelExecutionService, never()).executePendingChangeSets(any());
+        verify(executorService).executePendingChangeSets(changeSets);
+    }
+
+    @Test
+    void changelogSync_MarksPendingAndSavesFingerprint() {
+        List<ChangeSet> changeSets = List.of(createChangeSet("001", "author1"));
+        when(parserService.parseAllChangelogs()).thenReturn(changeSets);
+        when(executorService.markPendingChangeSetsRan(changeSets)).thenReturn(1);
+
+        int result = migrationService.changelogSync();
+
+        assertEquals(1, result);
+        verify(validationService).validate(changeSets);
+        verify(validationService).validateChecksums(changeSets);
+        verify(executorService, never()).executePendingChangeSets(any());
+        verify(stateRepository).saveFingerprint(ChecksumUtil.calculateFingerprint(changeSets), 1);
+        verify(lockService).releaseLock();
+    }
+
+    @Test
+    void changelogSync_NoChangesets_ReturnsZero() {
+        when(parserService.parseAllChangelogs()).thenReturn(List.of());
+
+        int result = migrationService.changelogSync();
+
+        assertEquals(0, result);
+        verify(executorService, never()).markPendingChangeSetsRan(any());
+        verify(lockService).releaseLock();
+    }
+
     @Test
     void getStatus_ReturnsCorrectCounts() {
         ChangeSet pending1 = createChangeSet("002", "author1");
@@ -125,13 +269,14 @@ class MigrationServiceTest {
                 pending2
         );
 
-        DatabaseChangeLog executed = new DatabaseChangeLog();
-        executed.setDateExecuted(LocalDateTime.now());
-        List<DatabaseChangeLog> executedLogs = List.of(executed);
+        ChangeLogSummary summary = new ChangeLogSummary();
+        summary.setExecutedCount(1);
+        summary.setLastExecuted(LocalDateTime.now());
+        summary.setMaxOrderExecuted(1);
 
         when(parserService.parseAllChangelogs()).thenReturn(allChangeSets);
-        when(changelogRepository.findAll()).thenReturn(executedLogs);
-        when(executorService.filterPendingChangeSets(allChangeSets)).thenReturn(List.of(pending1, pending2));
+        when(changelogRepository.getSummary()).thenReturn(summary);
+        when(executorService.filterPendingChangeSets(allChangeSets, summary)).thenReturn(List.of(pending1, pending2));
         when(lockService.isLocked()).thenReturn(false);
 
         MigrationStatus status = migrationService.getStatus();
@@ -140,6 +285,7 @@ class MigrationServiceTest {
         assertEquals(1, status.getExecutedCount());
         assertEquals(2, status.getPendingCount());
         assertEquals(2, status.getPendingChangesets().size());
+        assertEquals(1, status.getLastOrderExecuted());
         assertFalse(status.isLocked());
         assertNotNull(status.getLastExecutionTime());
     }
@@ -148,12 +294,13 @@ class MigrationServiceTest {
     void getStatus_NoPendingChangesets() {
         List<ChangeSet> allChangeSets = List.of(createChangeSet("001", "author1"));
 
-        DatabaseChangeLog executedLog = new DatabaseChangeLog();
-        executedLog.setDateExecuted(LocalDateTime.now());
+        ChangeLogSummary summary = new ChangeLogSummary();
+        summary.setExecutedCount(1);
+        summary.setLastExecuted(LocalDateTime.now());
 
         when(parserService.parseAllChangelogs()).thenReturn(allChangeSets);
-        when(changelogRepository.findAll()).thenReturn(List.of(executedLog));
-        when(executorService.filterPendingChangeSets(allChangeSets)).thenReturn(List.of());
+        when(changelogRepository.getSummary()).thenReturn(summary);
+        when(executorService.filterPendingChangeSets(allChangeSets, summary)).thenReturn(List.of());
         when(lockService.isLocked()).thenReturn(false);
 
         MigrationStatus status = migrationService.getStatus();
@@ -165,8 +312,8 @@ class MigrationServiceTest {
     @Test
     void getStatus_NoExecutedChangesets_LastExecutionTimeIsNull() {
         when(parserService.parseAllChangelogs()).thenReturn(List.of());
-        when(changelogRepository.findAll()).thenReturn(List.of());
-        when(executorService.filterPendingChangeSets(any())).thenReturn(List.of());
+        when(changelogRepository.getSummary()).thenReturn(new ChangeLogSummary());
+        when(executorService.filterPendingChangeSets(any(), any())).thenReturn(List.of());
         when(lockService.isLocked()).thenReturn(false);
 
         MigrationStatus status = migrationService.getStatus();
@@ -177,8 +324,8 @@ class MigrationServiceTest {
     @Test
     void getStatus_LockedStatus() {
         when(parserService.parseAllChangelogs()).thenReturn(List.of());
-        when(changelogRepository.findAll()).thenReturn(List.of());
-        when(executorService.filterPendingChangeSets(any())).thenReturn(List.of());
+        when(changelogRepository.getSummary()).thenReturn(new ChangeLogSummary());
+        when(executorService.filterPendingChangeSets(any(), any())).thenReturn(List.of());
         when(lockService.isLocked()).thenReturn(true);
 
         MigrationStatus status = migrationService.getStatus();
@@ -186,6 +333,18 @@ class MigrationServiceTest {
         assertTrue(status.isLocked());
     }
 
+    @Test
+    void getStatus_DoesNotLoadFullHistory() {
+        when(parserService.parseAllChangelogs()).thenReturn(List.of());
+        when(changelogRepository.getSummary()).thenReturn(new ChangeLogSummary());
+        when(executorService.filterPendingChangeSets(any(), any())).thenReturn(List.of());
+
+        migrationService.getStatus();
+
+        verify(changelogRepository, never()).findAll();
+        verify(executorService, never()).filterPendingChangeSets(any());
+    }
+
     @Test
     void generateSql_NoPendingChangesets_ReturnsMessage() {
         when(parserService.parseAllChangelogs()).thenReturn(List.of());
@@ -0,0 +1,215 @@
+package com.datadrift.service;
+
+import com.datadrift.exception.ChangeSetExecutionException;
+import com.datadrift.executor.maintenance.TableMaintenance;
+import com.datadrift.metrics.progress.MigrationProgress;
+import com.datadrift.model.change.Change;
+import com.datadrift.model.change.CreateIndexChange;
+import com.datadrift.model.change.CreateTableChange;
+import com.datadrift.model.change.InsertChange;
+import com.datadrift.model.changelog.ChangeSet;
+import com.datadrift.plan.PreflightCheck;
+import com.datadrift.repository.ChangelogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelExecutionServiceTest {
+
+    @Mock
+    private ChangelogExecutorService executorService;
+
+    @Mock
+    private ChangelogRepository changelogRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PreflightCheck preflight;
+
+    @Mock
+    private TableMaintenance tableMaintenance;
+
+    private ParallelExecutionService parallelExecutionService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        parallelExecutionService = new ParallelExecutionService(
+                executorService, changelogRepository, transactionManager, new MigrationProgress(null, 0), preflight, tableMaintenance, 4);
+    }
+
+    @Test
+    void isEnabled_DependsOnParallelism() {
+        assertTrue(parallelExecutionService.isEnabled());
+        assertFalse(new ParallelExecutionService(executorService, changelogRepository, transactionManager, new MigrationProgress(null, 0), preflight, tableMaintenance, 1)
+                .isEnabled());
+    }
+
+    @Test
+    void executePendingChangeSets_NoPending_ReturnsZero() {
+        when(executorService.filterPendingChangeSets(anyList())).thenReturn(List.of());
+
+        int count = parallelExecutionService.executePendingChangeSets(List.of());
+
+        assertEquals(0, count);
+        verify(executorService, never()).executeChangeSet(any(), anyInt(), anyString());
+    }
+
+    @Test
+    void executePendingChangeSets_AssignsOrderInChangelogOrder() {
+        List<ChangeSet> changeSets = List.of(
+                changeSet("001", createIndex("a")),
+                changeSet("002", createIndex("b")),
+                changeSet("003", createIndex("c"))
+        );
+        when(executorService.filterPendingChangeSets(changeSets)).thenReturn(changeSets);
+        when(changelogRepository.getMaxOrderExecuted()).thenReturn(10);
+
+        int count = parallelExecutionService.executePendingChangeSets(changeSets);
+
+        assertEquals(3, count);
+        verify(executorService).executeChangeSet(eq(changeSets.get(0)), eq(11), anyString());
+        verify(executorService).executeChangeSet(eq(changeSets.get(1)), eq(12), anyString());
+        verify(executorService).executeChangeSet(eq(changeSets.get(2)), eq(13), anyString());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void executePendingChangeSets_IndependentChangeSets_RunConcurrently() {
+        List<ChangeSet> changeSets = List.of(
+                changeSet("001", createIndex("a")),
+                changeSet("002", createIndex("b"))
+        );
+        when(executorService.filterPendingChangeSets(changeSets)).thenReturn(changeSets);
+
+        // Each changeset waits until both have started, which only succeeds if they overlap
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            return null;
+        }).when(executorService).executeChangeSet(any(), anyInt(), anyString());
+
+        assertEquals(2, parallelExecutionService.executePendingChangeSets(changeSets));
+    }
+
+    @Test
+    void executePendingChangeSets_DependentChangeSets_RunInOrder() {
+        List<ChangeSet> changeSets = List.of(
+                changeSet("001", createTable("orders")),
+                changeSet("002", createIndex("orders")),
+                changeSet("003", createIndex("orders"))
+        );
+        when(executorService.filterPendingChangeSets(changeSets)).thenReturn(changeSets);
+
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            executed.add(invocation.<ChangeSet>getArgument(0).getId());
+            return null;
+        }).when(executorService).executeChangeSet(any(), anyInt(), anyString());
+
+        parallelExecutionService.executePendingChangeSets(changeSets);
+
+        assertEquals(List.of("001", "002", "003"), executed);
+    }
+
+    @Test
+    void executePendingChangeSets_ParentAndChildInserts_RunInOrder() {
+        // orders.customer_id references customers: the child row needs the parent's committed row
+        List<ChangeSet> changeSets = List.of(
+                changeSet("001", insert("customers")),
+                changeSet("002", insert("orders"))
+        );
+        when(executorService.filterPendingChangeSets(changeSets)).thenReturn(changeSets);
+
+        CountDownLatch parentCommitted = new CountDownLatch(1);
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            String id = invocation.<ChangeSet>getArgument(0).getId();
+            if (id.equals("002")) {
+                assertEquals(0, parentCommitted.getCount(), "child insert started before the parent committed");
+            }
+            executed.add(id);
+            return null;
+        }).when(executorService).executeChangeSet(any(), anyInt(), anyString());
+        doAnswer(invocation -> {
+            parentCommitted.countDown();
+            return null;
+        }).when(transactionManager).commit(any());
+
+        parallelExecutionService.executePendingChangeSets(changeSets);
+
+        assertEquals(List.of("001", "002"), executed);
+    }
+
+    @Test
+    void executePendingChangeSets_Failure_SkipsDependentsAndRethrows() {
+        List<ChangeSet> changeSets = List.of(
+                changeSet("001", createTable("orders")),
+                changeSet("002", createIndex("orders"))
+        );
+        when(executorService.filterPendingChangeSets(changeSets)).thenReturn(changeSets);
+
+        Map<String, Boolean> started = new ConcurrentHashMap<>();
+        doAnswer(invocation -> {
+            String id = invocation.<ChangeSet>getArgument(0).getId();
+            started.put(id, true);
+            throw new ChangeSetExecutionException("Failed to execute changeset " + id);
+        }).when(executorService).executeChangeSet(any(), anyInt(), anyString());
+
+        ChangeSetExecutionException exception = assertThrows(
+                ChangeSetExecutionException.class,
+                () -> parallelExecutionService.executePendingChangeSets(changeSets)
+        );
+
+        assertTrue(exception.getMessage().contains("001"));
+        assertFalse(started.containsKey("002"));
+        verify(transactionManager).rollback(any());
+    }
+
+    private ChangeSet changeSet(String id, Change change) {
+        ChangeSet changeSet = new ChangeSet();
+        changeSet.setId(id);
+        changeSet.setAuthor("author1");
+        changeSet.setChanges(List.of(change));
+        return changeSet;
+    }
+
+    private CreateTableChange createTable(String tableName) {
+        CreateTableChange change = new CreateTableChange();
+        change.setTableName(tableName);
+        return change;
+    }
+
+    private InsertChange insert(String tableName) {
+        InsertChange change = new InsertChange();
+        change.setTableName(tableName);
+        return change;
+    }
+
+    private CreateIndexChange createIndex(String tableName) {
+        CreateIndexChange change = new CreateIndexChange();
+        change.setIndexName("idx_" + tableName);
+        change.setTableName(tableName);
+        return change;
+    }
+}
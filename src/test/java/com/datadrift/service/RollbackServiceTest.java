@@ -2,10 +2,12 @@ package com.datadrift.service;
 
 import com.datadrift.exception.RollbackException;
 import com.datadrift.executor.change.ChangeExecutor;
+import com.datadrift.metrics.MigrationMetrics;
 import com.datadrift.model.change.SqlChange;
 import com.datadrift.model.changelog.ChangeSet;
 import com.datadrift.model.changelog.DatabaseChangeLog;
 import com.datadrift.repository.ChangelogRepository;
+import com.datadrift.repository.ChangelogStateRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,6 +27,9 @@ class RollbackServiceTest {
     @Mock
     private ChangelogRepository changelogRepository;
 
+    @Mock
+    private ChangelogStateRepository stateRepository;
+
     @Mock
     private ChangelogParserService parserService;
 
@@ -38,7 +43,8 @@ class RollbackServiceTest {
     void setUp() {
         executors = new HashMap<>();
         executors.put("sql", sqlExecutor);
-        rollbackService = new RollbackService(changelogRepository, parserService, executors);
+        rollbackService = new RollbackService(changelogRepository, stateRepository, parserService, executors,
+                new MigrationMetrics());
     }
 
     @Test
@@ -96,6 +102,16 @@ class RollbackServiceTest {
         verify(changelogRepository).delete("001", "author1");
     }
 
+    @Test
+    void rollbackChangeSet_Success_ClearsFingerprint() {
+        ChangeSet changeSet = createChangeSetWithRollback("001", "author1");
+        when(changelogRepository.delete("001", "author1")).thenReturn(1);
+
+        rollbackService.rollbackChangeSet(changeSet);
+
+        verify(stateRepository).clearFingerprint();
+    }
+
     @Test
     void rollback_MultipleChangesets_RollsBackAll() {
         DatabaseChangeLog executed1 = createDatabaseChangeLog("002", "author1");
@@ -0,0 +1,144 @@
+package com.datadrift.service;
+
+import com.datadrift.config.ShardRoutingDataSource;
+import com.datadrift.model.MigrationStatus;
+import com.datadrift.model.ShardReport;
+import com.datadrift.model.ShardReport.Status;
+import com.datadrift.model.change.SqlChange;
+import com.datadrift.model.changelog.ChangeSet;
+import com.datadrift.util.ShardContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShardFanOutServiceTest {
+
+    @Mock
+    private ChangelogParserService parserService;
+
+    @Mock
+    private ValidationService validationService;
+
+    @Mock
+    private MigrationService migrationService;
+
+    @Mock
+    private ShardRoutingDataSource routingDataSource;
+
+    private ShardFanOutService fanOutService;
+    private List<ChangeSet> changeSets;
+
+    @BeforeEach
+    void setUp() {
+        fanOutService = new ShardFanOutService(
+                parserService, validationService, migrationService, routingDataSource, 4, 10);
+        changeSets = List.of(createChangeSet("001", "author1"));
+        lenient().when(parserService.parseAllChangelogs()).thenReturn(changeSets);
+    }
+
+    @Test
+    void migrate_ParsesOnceAndRunsEveryShardInItsContext() {
+        when(routingDataSource.getShardNames()).thenReturn(List.of("s1", "s2", "s3"));
+        List<String> seenShards = Collections.synchronizedList(new ArrayList<>());
+        when(migrationService.migrate(changeSets)).thenAnswer(invocation -> {
+            seenShards.add(ShardContext.currentShard());
+            return 2;
+        });
+
+        ShardReport report = fanOutService.migrate(null);
+
+        assertTrue(report.isSuccessful());
+        assertEquals(3, report.count(Status.SUCCESS));
+        assertEquals(List.of("s1", "s2", "s3"), report.getShards().stream().map(ShardReport.ShardResult::getShard).toList());
+        assertEquals(2, report.getShards().get(0).getChangeSetCount());
+        assertEquals(List.of("s1", "s2", "s3"), seenShards.stream().sorted().toList());
+        verify(parserService, times(1)).parseAllChangelogs();
+        verify(validationService, times(1)).validate(changeSets);
+        assertNull(ShardContext.currentShard());
+    }
+
+    @Test
+    void migrate_CanaryFails_LaterWavesSkipped() {
+        when(routingDataSource.getShardNames()).thenReturn(List.of("s1", "s2", "s3"));
+        when(migrationService.migrate(changeSets)).thenThrow(new RuntimeException("boom"));
+
+        ShardReport report = fanOutService.migrate(null);
+
+        assertTrue(report.isAborted());
+        assertEquals(1, report.count(Status.FAILED));
+        assertEquals(2, report.count(Status.SKIPPED));
+        assertEquals("boom", report.getShards().get(0).getError());
+        verify(migrationService, times(1)).migrate(changeSets);
+    }
+
+    @Test
+    void status_RunsAllShardsAndReportsPending() {
+        when(routingDataSource.getShardNames()).thenReturn(List.of("s1", "s2"));
+        MigrationStatus status = new MigrationStatus();
+        status.setPendingCount(3);
+        when(migrationService.getStatus(changeSets)).thenReturn(status);
+
+        ShardReport report = fanOutService.status(2);
+
+        assertEquals(2, report.count(Status.SUCCESS));
+        assertTrue(report.getShards().stream().allMatch(shard -> shard.getWave() == 1));
+        assertEquals(3, report.getShards().get(1).getChangeSetCount());
+    }
+
+    @Test
+    void validate_ChecksumsPerShardStructureOnce() {
+        when(routingDataSource.getShardNames()).thenReturn(List.of("s1", "s2"));
+
+        ShardReport report = fanOutService.validate(null);
+
+        assertTrue(report.isSuccessful());
+        verify(validationService, times(1)).validate(changeSets);
+        verify(validationService, times(2)).validateChecksums(changeSets);
+    }
+
+    @Test
+    void planWaves_CanaryThenPercentThenRest() {
+        List<String> shards = IntStream.rangeClosed(1, 64).mapToObj(i -> "s" + i).toList();
+
+        List<List<String>> waves = ShardFanOutService.planWaves(shards, 10);
+
+        assertEquals(3, waves.size());
+        assertEquals(List.of("s1"), waves.get(0));
+        assertEquals(7, waves.get(1).size());
+        assertEquals("s2", waves.get(1).get(0));
+        assertEquals(56, waves.get(2).size());
+    }
+
+    @Test
+    void planWaves_SmallFleets() {
+        assertEquals(List.of(), ShardFanOutService.planWaves(List.of(), 10));
+        assertEquals(List.of(List.of("a")), ShardFanOutService.planWaves(List.of("a"), 10));
+        assertEquals(List.of(List.of("a"), List.of("b")), ShardFanOutService.planWaves(List.of("a", "b"), 10));
+        assertEquals(List.of(List.of("a"), List.of("b"), List.of("c")),
+                ShardFanOutService.planWaves(List.of("a", "b", "c"), 10));
+    }
+
+    private ChangeSet createChangeSet(String id, String author) {
+        ChangeSet changeSet = new ChangeSet();
+        changeSet.setId(id);
+        changeSet.setAuthor(author);
+
+        SqlChange sqlChange = new SqlChange();
+        sqlChange.setSql("SELECT 1");
+        changeSet.setChanges(List.of(sqlChange));
+
+        return changeSet;
+    }
+}
@@ -0,0 +1,190 @@
+package com.datadrift.service;
+
+import com.datadrift.exception.MigrationLockException;
+import com.datadrift.model.TenantSweepResult;
+import com.datadrift.model.TenantSweepResult.Status;
+import com.datadrift.model.change.SqlChange;
+import com.datadrift.model.changelog.ChangeSet;
+import com.datadrift.repository.SchemaRepository;
+import com.datadrift.util.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TenantSweepServiceTest {
+
+    @Mock
+    private ChangelogParserService parserService;
+
+    @Mock
+    private ValidationService validationService;
+
+    @Mock
+    private MigrationService migrationService;
+
+    @Mock
+    private LockService lockService;
+
+    @Mock
+    private SchemaRepository schemaRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    private TenantSweepService tenantSweepService;
+    private List<ChangeSet> changeSets;
+
+    @BeforeEach
+    void setUp() {
+        tenantSweepService = new TenantSweepService(
+                parserService,
+                validationService,
+                migrationService,
+                lockService,
+                schemaRepository,
+                jdbcTemplate,
+                transactionManager,
+                4,
+                0
+        );
+        changeSets = List.of(createChangeSet("001", "author1"));
+        lenient().when(parserService.parseAllChangelogs()).thenReturn(changeSets);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void sweep_ParsesAndValidatesOnce() {
+        when(migrationService.migrateParsed(changeSets)).thenReturn(1);
+
+        TenantSweepResult result = tenantSweepService.sweep(
+                List.of("tenant_a", "tenant_b", "tenant_c"), new TenantSweepService.Options(null, null, null));
+
+        assertEquals(3, result.count(Status.SUCCESS));
+        assertEquals(3, result.getTotalExecuted());
+        assertTrue(result.isSuccessful());
+        verify(parserService, times(1)).parseAllChangelogs();
+        verify(validationService, times(1)).validate(changeSets);
+        verify(migrationService, times(3)).migrateParsed(changeSets);
+    }
+
+    @Test
+    void sweep_SetsSearchPathAndLockPerTenant() {
+        Map<String, String> schemaSeenByMigration = new ConcurrentHashMap<>();
+        when(migrationService.migrateParsed(changeSets)).thenAnswer(invocation -> {
+            schemaSeenByMigration.put(TenantContext.currentSchema(), TenantContext.currentSchema());
+            return 0;
+        });
+
+        tenantSweepService.sweep(List.of("tenant_a", "tenant_b"), new TenantSweepService.Options(2, 0, null));
+
+        verify(jdbcTemplate).queryForObject(anyString(), eq(String.class), eq("\"tenant_a\""));
+        verify(jdbcTemplate).queryForObject(anyString(), eq(String.class), eq("\"tenant_b\""));
+        verify(lockService, times(2)).acquireTransactionLock();
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(Map.of("tenant_a", "tenant_a", "tenant_b", "tenant_b"), schemaSeenByMigration);
+    }
+
+    @Test
+    void sweep_ResultsKeepInputOrder() {
+        TenantSweepResult result = tenantSweepService.sweep(
+                List.of("tenant_c", "tenant_a", "tenant_b"), new TenantSweepService.Options(3, 0, null));
+
+        assertEquals(List.of("tenant_c", "tenant_a", "tenant_b"),
+                result.getTenants().stream().map(TenantSweepResult.TenantResult::getSchema).toList());
+    }
+
+    @Test
+    void sweep_FailureBudgetExhausted_SkipsRemaining() {
+        doThrow(new MigrationLockException("Migration lock is held by: other"))
+                .when(lockService).acquireTransactionLock();
+
+        TenantSweepResult result = tenantSweepService.sweep(
+                List.of("tenant_a", "tenant_b", "tenant_c"), new TenantSweepService.Options(1, 0, null));
+
+        assertEquals(1, result.count(Status.FAILED));
+        assertEquals(2, result.count(Status.SKIPPED));
+        assertTrue(result.isFailureBudgetExhausted());
+        assertFalse(result.isSuccessful());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void sweep_FailureWithinBudget_ContinuesWithOtherTenants() {
+        when(migrationService.migrateParsed(changeSets))
+                .thenThrow(new RuntimeException("boom"))
+                .thenReturn(1);
+
+        TenantSweepResult result = tenantSweepService.sweep(
+                List.of("tenant_a", "tenant_b", "tenant_c"), new TenantSweepService.Options(1, 1, null));
+
+        assertEquals(1, result.count(Status.FAILED));
+        assertEquals(2, result.count(Status.SUCCESS));
+        assertFalse(result.isFailureBudgetExhausted());
+    }
+
+    @Test
+    void sweep_ProgressFile_ResumesAfterSuccessfulTenants() throws Exception {
+        Path progress = tempDir.resolve("sweep.progress");
+        Files.writeString(progress, "tenant_a\tSUCCESS\t1\t10\ntenant_b\tFAILED\t0\t5\n");
+        when(migrationService.migrateParsed(changeSets)).thenReturn(1);
+
+        TenantSweepResult result = tenantSweepService.sweep(
+                List.of("tenant_a", "tenant_b"), new TenantSweepService.Options(1, 0, progress));
+
+        assertEquals(Status.RESUMED, result.getTenants().get(0).getStatus());
+        assertEquals(Status.SUCCESS, result.getTenants().get(1).getStatus());
+        verify(migrationService, times(1)).migrateParsed(changeSets);
+        assertTrue(Files.readString(progress).contains("tenant_b\tSUCCESS\t1\t"));
+    }
+
+    @Test
+    void resolveSchemas_CombinesPatternAndListFile() throws Exception {
+        when(schemaRepository.findSchemasLike("tenant\\_%")).thenReturn(List.of("tenant_a", "tenant_b"));
+        Path list = tempDir.resolve("tenants.txt");
+        Files.writeString(list, "# tenants\ntenant_b\n\n  tenant_z  \n");
+
+        List<String> schemas = tenantSweepService.resolveSchemas("tenant_*", list);
+
+        assertEquals(List.of("tenant_a", "tenant_b", "tenant_z"), schemas);
+    }
+
+    @Test
+    void toLikePattern_TranslatesWildcardsAndEscapesLikeCharacters() {
+        assertEquals("t\\_%\\%x_", TenantSweepService.toLikePattern("t_*%x?"));
+    }
+
+    private ChangeSet createChangeSet(String id, String author) {
+        ChangeSet changeSet = new ChangeSet();
+        changeSet.setId(id);
+        changeSet.setAuthor(author);
+
+        SqlChange sqlChange = new SqlChange();
+        sqlChange.setSql("SELECT 1");
+        changeSet.setChanges(List.of(sqlChange));
+
+        return changeSet;
+    }
+}
@@ -1,11 +1,18 @@
 package com.datadrift.service;
 
+import com.datadrift.config.SessionProfileProperties;
 import com.datadrift.exception.ChecksumMismatchException;
 import com.datadrift.exception.ValidationException;
+import com.datadrift.executor.session.SessionProfiles;
+import com.datadrift.metrics.MigrationMetrics;
+import com.datadrift.model.LockReport;
 import com.datadrift.model.change.Change;
 import com.datadrift.model.change.SqlChange;
 import com.datadrift.model.changelog.ChangeSet;
 import com.datadrift.model.changelog.DatabaseChangeLog;
+import com.datadrift.plan.CostEstimate;
+import com.datadrift.plan.LockImpactAnalyzer;
+import com.datadrift.plan.StatementCostEstimator;
 import com.datadrift.repository.ChangelogRepository;
 import com.datadrift.util.ChecksumUtil;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,6 +23,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,11 +34,54 @@ class ValidationServiceTest {
     @Mock
     private ChangelogRepository changelogRepository;
 
+    @Mock
+    private StatementCostEstimator costEstimator;
+
     private ValidationService validationService;
 
     @BeforeEach
     void setUp() {
-        validationService = new ValidationService(changelogRepository);
+        SessionProfileProperties profileProperties = new SessionProfileProperties();
+        profileProperties.getProfiles().put("heavyIndexBuild", Map.of("maintenance_work_mem", "2GB"));
+        validationService = new ValidationService(changelogRepository, new SessionProfiles(profileProperties),
+                new MigrationMetrics(), new LockImpactAnalyzer(false), costEstimator);
+    }
+
+    @Test
+    void lockReport_ListsEveryChangeWithoutDatabase() {
+        ChangeSet changeSet = createValidChangeSet("001", "author1");
+
+        LockReport report = validationService.lockReport(List.of(changeSet));
+
+        assertEquals(1, report.getEntries().size());
+        assertEquals("001::author1", report.getEntries().get(0).getChangeSet());
+        assertEquals(1, report.getEntries().get(0).getChangeIndex());
+        assertTrue(report.toString().contains("Lock report:"));
+        verifyNoInteractions(changelogRepository);
+    }
+
+    @Test
+    void validateCosts_NoLimitsConfigured_SkipsExplain() {
+        when(costEstimator.isEnforced()).thenReturn(false);
+
+        validationService.validateCosts(List.of(createValidChangeSet("001", "author1")));
+
+        verify(costEstimator, never()).explain(anyList());
+    }
+
+    @Test
+    void validateCosts_LimitExceeded_Throws() {
+        List<ChangeSet> pending = List.of(createValidChangeSet("001", "author1"));
+        List<CostEstimate> estimates = List.of(new CostEstimate("001::author1", 1, "update", "orders", false,
+                9.5e6, 300_000_000L, List.of("orders (~300000000 rows)"), null));
+        when(costEstimator.isEnforced()).thenReturn(true);
+        when(costEstimator.explain(pending)).thenReturn(estimates);
+        when(costEstimator.violations(estimates)).thenReturn(List.of("001::author1 change #1 (update): ~300000000 rows"));
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> validationService.validateCosts(pending));
+
+        assertTrue(exception.getMessage().contains("~300000000 rows"));
     }
 
     @Test
@@ -236,6 +287,63 @@ class ValidationServiceTest {
         assertDoesNotThrow(() -> validationService.validateChecksums(List.of(changeSet)));
     }
 
+    @Test
+    void validate_ValidTimeouts_NoException() {
+        ChangeSet changeSet = createValidChangeSet("001", "author1");
+        changeSet.setLockTimeout("5s");
+        changeSet.setStatementTimeout("30000");
+        ((SqlChange) changeSet.getChanges().get(0)).setLockTimeout("500ms");
+
+        assertDoesNotThrow(() -> validationService.validate(List.of(changeSet)));
+    }
+
+    @Test
+    void validate_InvalidChangeSetLockTimeout_ThrowsValidationException() {
+        ChangeSet changeSet = createValidChangeSet("001", "author1");
+        changeSet.setLockTimeout("five seconds");
+
+        ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> validationService.validate(List.of(changeSet))
+        );
+
+        assertTrue(exception.getMessage().contains("Invalid lockTimeout 'five seconds'"));
+    }
+
+    @Test
+    void validate_InvalidChangeStatementTimeout_ThrowsValidationException() {
+        ChangeSet changeSet = createValidChangeSet("001", "author1");
+        ((SqlChange) changeSet.getChanges().get(0)).setStatementTimeout("5 weeks");
+
+        ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> validationService.validate(List.of(changeSet))
+        );
+
+        assertTrue(exception.getMessage().contains("Invalid statementTimeout '5 weeks'"));
+    }
+
+    @Test
+    void validate_KnownSessionProfile_NoException() {
+        ChangeSet changeSet = createValidChangeSet("001", "author1");
+        changeSet.setSessionProfile("heavyIndexBuild");
+
+        assertDoesNotThrow(() -> validationService.validate(List.of(changeSet)));
+    }
+
+    @Test
+    void validate_UnknownSessionProfile_ThrowsValidationException() {
+        ChangeSet changeSet = createValidChangeSet("001", "author1");
+        changeSet.setSessionProfile("heavyIndexBiuld");
+
+        ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> validationService.validate(List.of(changeSet))
+        );
+
+        assertTrue(exception.getMessage().contains("Unknown sessionProfile 'heavyIndexBiuld'"));
+    }
+
     private ChangeSet createValidChangeSet(String id, String author) {
         ChangeSet changeSet = new ChangeSet();
         changeSet.setId(id);
@@ -120,6 +120,64 @@ class ChecksumUtilTest {
         assertTrue(checksum.matches("8:[a-f0-9]{32}"));
     }
 
+    @Test
+    void calculateFingerprint_SameChangeSets_ReturnsSameFingerprint() {
+        List<ChangeSet> first = List.of(createChangeSet("001", "author1"), createChangeSet("002", "author1"));
+        List<ChangeSet> second = List.of(createChangeSet("001", "author1"), createChangeSet("002", "author1"));
+
+        assertEquals(ChecksumUtil.calculateFingerprint(first), ChecksumUtil.calculateFingerprint(second));
+    }
+
+    @Test
+    void calculateFingerprint_DifferentOrder_ReturnsDifferentFingerprint() {
+        ChangeSet cs1 = createChangeSet("001", "author1");
+        ChangeSet cs2 = createChangeSet("002", "author1");
+
+        assertNotEquals(
+                ChecksumUtil.calculateFingerprint(List.of(cs1, cs2)),
+                ChecksumUtil.calculateFingerprint(List.of(cs2, cs1))
+        );
+    }
+
+    @Test
+    void calculateFingerprint_ModifiedChangeSet_ReturnsDifferentFingerprint() {
+        ChangeSet original = createChangeSet("001", "author1");
+        ChangeSet modified = createChangeSet("001", "author1");
+        SqlChange change = new SqlChange();
+        change.setSql("SELECT 1");
+        modified.setChanges(List.of(change));
+
+        assertNotEquals(
+                ChecksumUtil.calculateFingerprint(List.of(original)),
+                ChecksumUtil.calculateFingerprint(List.of(modified))
+        );
+    }
+
+    @Test
+    void calculateFingerprint_ReturnsSha256Hex() {
+        String fingerprint = ChecksumUtil.calculateFingerprint(List.of(createChangeSet("001", "author1")));
+
+        assertTrue(fingerprint.matches("[a-f0-9]{64}"));
+    }
+
+    @Test
+    void calculateChecksum_TimeoutsChanged_ReturnsSameChecksum() {
+        ChangeSet original = createChangeSet("001", "author1");
+        SqlChange originalChange = new SqlChange();
+        originalChange.setSql("ALTER TABLE users ADD COLUMN age INT");
+        original.setChanges(List.of(originalChange));
+
+        ChangeSet tuned = createChangeSet("001", "author1");
+        tuned.setLockTimeout("5s");
+        tuned.setStatementTimeout("10min");
+        SqlChange tunedChange = new SqlChange();
+        tunedChange.setSql("ALTER TABLE users ADD COLUMN age INT");
+        tunedChange.setLockTimeout("2s");
+        tuned.setChanges(List.of(tunedChange));
+
+        assertEquals(ChecksumUtil.calculateChecksum(original), ChecksumUtil.calculateChecksum(tuned));
+    }
+
     private ChangeSet createChangeSet(String id, String author) {
         ChangeSet changeSet = new ChangeSet();
         changeSet.setId(id);